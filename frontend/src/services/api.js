@@ -8,6 +8,34 @@ const apiClient = axios.create({
   },
 })
 
+// Poll a queued workflow execution until it finishes; resolves with { data: { success, context, error } }
+// An execution paused at an approval step resolves as pending ({ success: true, pendingApproval: true }),
+// and one still queued or running after maxWaitMs rejects, like a failed request
+const waitForWorkflowExecution = async (executionId, { intervalMs = 1000, maxWaitMs = 10 * 60 * 1000 } = {}) => {
+  const deadline = Date.now() + maxWaitMs
+  for (;;) {
+    const response = await apiClient.get(`/workflows/executions/${executionId}`)
+    if (response.data.finished) {
+      return response
+    }
+    if (response.data.status === 'PAUSED') {
+      return { ...response, data: { ...response.data, success: true, pendingApproval: true } }
+    }
+    if (Date.now() + intervalMs > deadline) {
+      const error = new Error(`Workflow execution ${executionId} is still ${response.data.status}`)
+      error.response = {
+        data: {
+          success: false,
+          executionId,
+          error: `Workflow is still running after ${Math.round(maxWaitMs / 1000)}s; check execution ${executionId} later`,
+        },
+      }
+      throw error
+    }
+    await new Promise((resolve) => setTimeout(resolve, intervalMs))
+  }
+}
+
 // API service methods
 const api = {
   // Health and Status
@@ -173,9 +201,18 @@ const api = {
 
   deactivateWorkflow: (id) => apiClient.post(`/workflows/${id}/deactivate`),
 
-  executeWorkflow: (id, triggerData) => apiClient.post(`/workflows/${id}/execute`, triggerData),
+  // Executions are queued; these wait for the result
+  executeWorkflow: async (id, triggerData) => {
+    const queued = await apiClient.post(`/workflows/${id}/execute`, triggerData)
+    return waitForWorkflowExecution(queued.data.executionId)
+  },
+
+  executePublicWorkflow: async (id, input) => {
+    const queued = await apiClient.post(`/workflows/public/${id}/execute`, input)
+    return waitForWorkflowExecution(queued.data.executionId)
+  },
 
-  executePublicWorkflow: (id, input) => apiClient.post(`/workflows/public/${id}/execute`, input),
+  getWorkflowExecution: (executionId) => apiClient.get(`/workflows/executions/${executionId}`),
 
   // Multi-Agent System - Workflow Steps
   getWorkflowSteps: (workflowId) => apiClient.get(`/workflows/${workflowId}/steps`),
@@ -0,0 +1,270 @@
+package com.shopify.api.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.shopify.api.util.LatencyHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared client for the Anthropic Messages API
+ * Used by chat, SEO agent and agent executions so every call reuses the same
+ * pooled keep-alive connections (HTTP/2 when the server negotiates it, else HTTP/1.1)
+ * instead of paying connection and TLS setup per request.
+ *
+ * Request bodies larger than anthropic.client.max-request-bytes are rejected before
+ * sending; responses are buffered up to anthropic.client.max-response-bytes.
+ *
+ * With prompt caching enabled, cache_control breakpoints are added to the stable prefix
+ * of every request (tool definitions, system prompt and the conversation so far), so
+ * each iteration of a tool loop reads the previous iteration's prefix from cache.
+ */
+@Component
+public class AnthropicClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnthropicClient.class);
+    private static final String CACHE_CONTROL = "cache_control";
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> SSE_TYPE =
+            new ParameterizedTypeReference<>() {};
+
+    private final WebClient webClient;
+    private final ObjectMapper objectMapper;
+    private final String apiKey;
+    private final int maxRequestBytes;
+    private final Duration timeout;
+    private final boolean promptCaching;
+
+    // Latency per model
+    private final Map<String, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+
+    public AnthropicClient(WebClient.Builder webClientBuilder,
+                           @Value("${anthropic.api.key:}") String apiKey,
+                           @Value("${anthropic.api.version:2023-06-01}") String apiVersion,
+                           @Value("${anthropic.api.base-url:https://api.anthropic.com/v1}") String baseUrl,
+                           @Value("${anthropic.client.max-connections:50}") int maxConnections,
+                           @Value("${anthropic.client.max-idle-time-ms:60000}") long maxIdleTimeMs,
+                           @Value("${anthropic.client.timeout-ms:120000}") long timeoutMs,
+                           @Value("${anthropic.client.max-request-bytes:4194304}") int maxRequestBytes,
+                           @Value("${anthropic.client.max-response-bytes:16777216}") int maxResponseBytes,
+                           @Value("${anthropic.prompt-caching.enabled:true}") boolean promptCaching) {
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("anthropic")
+                .maxConnections(maxConnections)
+                .maxIdleTime(Duration.ofMillis(maxIdleTimeMs))
+                .evictInBackground(Duration.ofMillis(maxIdleTimeMs))
+                .build();
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .protocol(HttpProtocol.H2, HttpProtocol.HTTP11)
+                .keepAlive(true)
+                .responseTimeout(Duration.ofMillis(timeoutMs));
+
+        this.webClient = webClientBuilder
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .defaultHeader("anthropic-version", apiVersion)
+                .codecs(configurer -> configurer
+                        .defaultCodecs()
+                        .maxInMemorySize(maxResponseBytes))
+                .build();
+        this.objectMapper = new ObjectMapper();
+        this.apiKey = apiKey;
+        this.maxRequestBytes = maxRequestBytes;
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.promptCaching = promptCaching;
+
+        logger.info("AnthropicClient initialized - URL: {}, Version: {}, Pool: {} connections, Timeout: {} ms, Prompt caching: {}",
+                baseUrl, apiVersion, maxConnections, timeoutMs, promptCaching);
+    }
+
+    /**
+     * Whether an API key is configured
+     */
+    public boolean isConfigured() {
+        return apiKey != null && !apiKey.trim().isEmpty();
+    }
+
+    /**
+     * POST /messages
+     * @param requestBody Messages API request (model, messages, tools, ...); not modified
+     * @return Mono of the response body; errors on HTTP errors, oversized requests or timeout
+     */
+    public Mono<JsonNode> createMessage(JsonNode requestBody) {
+        if (!isConfigured()) {
+            return Mono.error(new IllegalStateException("Anthropic API key not configured"));
+        }
+
+        String model = requestBody.path("model").asText("unknown");
+        return Mono.defer(() -> {
+            byte[] body = serialize(requestBody, false);
+
+            LatencyHistogram latency = latencies.computeIfAbsent(model, name -> new LatencyHistogram());
+            long start = System.nanoTime();
+            return webClient.post()
+                    .uri("/messages")
+                    .header("x-api-key", apiKey)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(body)
+                    .retrieve()
+                    .bodyToMono(JsonNode.class)
+                    .timeout(timeout)
+                    .doOnSuccess(response -> latency.record(elapsedMs(start), true))
+                    .doOnError(error -> latency.record(elapsedMs(start), false));
+        });
+    }
+
+    /**
+     * POST /messages with "stream": true
+     * @param requestBody Messages API request (model, messages, tools, ...); not modified
+     * @return Flux of the stream's event payloads (message_start, content_block_delta, ...) as they
+     *         arrive; an "error" event from the API is raised as an error of the Flux
+     */
+    public Flux<JsonNode> streamMessage(JsonNode requestBody) {
+        if (!isConfigured()) {
+            return Flux.error(new IllegalStateException("Anthropic API key not configured"));
+        }
+
+        String model = requestBody.path("model").asText("unknown");
+        return Flux.defer(() -> {
+            byte[] body = serialize(requestBody, true);
+
+            LatencyHistogram latency = latencies.computeIfAbsent(model, name -> new LatencyHistogram());
+            long start = System.nanoTime();
+            return webClient.post()
+                    .uri("/messages")
+                    .header("x-api-key", apiKey)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .accept(MediaType.TEXT_EVENT_STREAM)
+                    .bodyValue(body)
+                    .retrieve()
+                    .bodyToFlux(SSE_TYPE)
+                    .timeout(timeout)
+                    .<JsonNode>handle((event, sink) -> {
+                        if (event.data() == null || event.data().isEmpty()) {
+                            return;
+                        }
+                        try {
+                            JsonNode payload = objectMapper.readTree(event.data());
+                            if ("error".equals(payload.path("type").asText())) {
+                                sink.error(new RuntimeException("Anthropic stream error: "
+                                        + payload.path("error").path("message").asText("unknown")));
+                                return;
+                            }
+                            sink.next(payload);
+                        } catch (Exception e) {
+                            sink.error(new RuntimeException("Failed to parse Anthropic stream event: " + e.getMessage(), e));
+                        }
+                    })
+                    .doOnComplete(() -> latency.record(elapsedMs(start), true))
+                    .doOnError(error -> latency.record(elapsedMs(start), false));
+        });
+    }
+
+    /**
+     * Serialize the request (adding cache breakpoints and the stream flag) and enforce the size limit
+     */
+    private byte[] serialize(JsonNode requestBody, boolean stream) {
+        JsonNode request = promptCaching ? withCacheBreakpoints(requestBody) : requestBody;
+        if (stream && request.isObject()) {
+            request = request == requestBody ? ((ObjectNode) request).deepCopy() : request;
+            ((ObjectNode) request).put("stream", true);
+        }
+
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(request);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to serialize Anthropic request: " + e.getMessage(), e);
+        }
+        if (body.length > maxRequestBytes) {
+            throw new IllegalArgumentException(String.format(
+                    "Anthropic request is %d bytes, limit is %d", body.length, maxRequestBytes));
+        }
+        return body;
+    }
+
+    /**
+     * Copy of the request with cache_control breakpoints on the last tool definition,
+     * the system prompt and the last block of the conversation
+     * Callers keep appending to their messages array between iterations, so breakpoints are
+     * only ever set on the copy; the API allows at most four per request.
+     */
+    private JsonNode withCacheBreakpoints(JsonNode requestBody) {
+        if (!requestBody.isObject()) {
+            return requestBody;
+        }
+        ObjectNode request = ((ObjectNode) requestBody).deepCopy();
+
+        JsonNode tools = request.path("tools");
+        if (tools.isArray() && tools.size() > 0 && tools.get(tools.size() - 1).isObject()) {
+            markEphemeral((ObjectNode) tools.get(tools.size() - 1));
+        }
+
+        JsonNode system = request.get("system");
+        if (system != null && system.isTextual() && !system.asText().isEmpty()) {
+            request.set("system", objectMapper.createArrayNode().add(textBlock(system.asText())));
+            markEphemeral((ObjectNode) request.get("system").get(0));
+        } else if (system != null && system.isArray() && system.size() > 0 && system.get(system.size() - 1).isObject()) {
+            markEphemeral((ObjectNode) system.get(system.size() - 1));
+        }
+
+        JsonNode messages = request.path("messages");
+        if (messages.isArray() && messages.size() > 0 && messages.get(messages.size() - 1).isObject()) {
+            ObjectNode lastMessage = (ObjectNode) messages.get(messages.size() - 1);
+            JsonNode content = lastMessage.get("content");
+            if (content != null && content.isTextual() && !content.asText().isEmpty()) {
+                ArrayNode blocks = objectMapper.createArrayNode().add(textBlock(content.asText()));
+                lastMessage.set("content", blocks);
+                content = blocks;
+            }
+            if (content != null && content.isArray() && content.size() > 0 && content.get(content.size() - 1).isObject()) {
+                markEphemeral((ObjectNode) content.get(content.size() - 1));
+            }
+        }
+
+        return request;
+    }
+
+    private ObjectNode textBlock(String text) {
+        ObjectNode block = objectMapper.createObjectNode();
+        block.put("type", "text");
+        block.put("text", text);
+        return block;
+    }
+
+    private void markEphemeral(ObjectNode node) {
+        node.set(CACHE_CONTROL, objectMapper.createObjectNode().put("type", "ephemeral"));
+    }
+
+    /**
+     * Latency percentiles per model for the status endpoint
+     */
+    public Map<String, Object> getLatencyStats() {
+        Map<String, Object> stats = new HashMap<>();
+        latencies.forEach((model, histogram) -> stats.put(model, histogram.snapshot()));
+        return stats;
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}
@@ -0,0 +1,205 @@
+package com.shopify.api.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Decodes CRS MCP tool results
+ * - query_database rows ("Row 1: { ... }") are read into typed records with one
+ *   streaming Jackson pass over the text, without regex or intermediate trees
+ * - get_sales_by_channel reports are read with patterns compiled once
+ */
+@Component
+public class CRSResultDecoder {
+
+    // Orders/Items/Revenue block that follows a store label in the channel report
+    private static final Pattern STORE_METRICS_PATTERN = Pattern.compile(
+            "Orders:\\s*(\\d+)[\\s\\S]*?Items:\\s*(\\d+)[\\s\\S]*?Revenue:\\s*\\$([\\d,]+\\.\\d{2})");
+    // "<label>: N orders, $X" summary line in the channel report
+    private static final Pattern ORDERS_AND_REVENUE_PATTERN = Pattern.compile(
+            ":\\s*(\\d+)\\s*orders,\\s*\\$([\\d,]+\\.\\d{2})");
+    private static final Pattern ONLINE_TOTAL_PATTERN = Pattern.compile(
+            "Total Online Orders:\\s*(\\d+)[\\s\\S]*?Total Online Revenue:\\s*\\$([\\d,]+\\.\\d{2})");
+
+    private final JsonFactory jsonFactory;
+    private final ObjectMapper objectMapper;
+
+    // One reader per row type; ObjectReader is immutable and thread-safe
+    private final Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    public CRSResultDecoder() {
+        this.objectMapper = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * Text content of an MCP tool result
+     * @throws RuntimeException if the result has no text content
+     */
+    public String extractText(JsonNode result) {
+        JsonNode content = result.path("content");
+        if (content.isArray() && content.size() > 0 && content.get(0).has("text")) {
+            return content.get(0).get("text").asText();
+        }
+        throw new RuntimeException("CRS response has unexpected structure");
+    }
+
+    /**
+     * Read every row object of a query_database result
+     * @param result MCP tool result
+     * @param rowType Record type each row is mapped to (unknown columns are ignored)
+     * @return Rows in order; empty if the query returned none
+     */
+    public <T> List<T> readRows(JsonNode result, Class<T> rowType) {
+        return readRows(extractText(result), rowType);
+    }
+
+    /**
+     * Read every row object embedded in query_database text
+     * Text between rows ("Row N: ", headers) is skipped; each object is parsed in place
+     * from the shared character buffer, so no substrings or trees are allocated.
+     */
+    public <T> List<T> readRows(String text, Class<T> rowType) {
+        ObjectReader reader = readers.computeIfAbsent(rowType, objectMapper::readerFor);
+        char[] chars = text.toCharArray();
+        List<T> rows = new ArrayList<>();
+
+        int start = 0;
+        while ((start = indexOf(chars, '{', start)) >= 0) {
+            int end = endOfObject(chars, start);
+            if (end < 0) {
+                throw new RuntimeException("Unterminated CRS row at offset " + start);
+            }
+            try (JsonParser parser = jsonFactory.createParser(chars, start, end - start)) {
+                rows.add(reader.readValue(parser));
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to parse CRS row at offset " + start + ": " + e.getMessage(), e);
+            }
+            start = end;
+        }
+        return rows;
+    }
+
+    /**
+     * Orders, items and revenue reported for a store within a section of the channel report
+     * @param section Section heading, e.g. "PURE IN-STORE"
+     * @param label Store label within the section, including its trailing colon
+     */
+    public Optional<StoreMetrics> findStoreMetrics(String text, String section, String label) {
+        int sectionStart = text.indexOf(section);
+        int labelStart = sectionStart < 0 ? -1 : text.indexOf(label, sectionStart + section.length());
+        if (labelStart < 0) {
+            return Optional.empty();
+        }
+
+        Matcher matcher = STORE_METRICS_PATTERN.matcher(text);
+        if (!matcher.find(labelStart + label.length())) {
+            return Optional.empty();
+        }
+        return Optional.of(new StoreMetrics(
+                Integer.parseInt(matcher.group(1)),
+                Integer.parseInt(matcher.group(2)),
+                parseAmount(matcher.group(3))));
+    }
+
+    /**
+     * "N orders, $X" reported after the given label of the channel report
+     * @param label A label ending in a colon must be followed directly by the figures;
+     *              otherwise the first figures after the label are used (e.g. "GRAND TOTAL")
+     */
+    public Optional<OrdersAndRevenue> findOrdersAndRevenue(String text, String label) {
+        int labelStart = text.indexOf(label);
+        if (labelStart < 0) {
+            return Optional.empty();
+        }
+
+        Matcher matcher = ORDERS_AND_REVENUE_PATTERN.matcher(text);
+        boolean found;
+        if (label.endsWith(":")) {
+            found = matcher.region(labelStart + label.length() - 1, text.length()).lookingAt();
+        } else {
+            found = matcher.find(labelStart + label.length());
+        }
+        if (!found) {
+            return Optional.empty();
+        }
+        return Optional.of(new OrdersAndRevenue(Integer.parseInt(matcher.group(1)), parseAmount(matcher.group(2))));
+    }
+
+    /**
+     * Online order count and revenue from the channel report summary
+     */
+    public Optional<OrdersAndRevenue> findOnlineTotal(String text) {
+        Matcher matcher = ONLINE_TOTAL_PATTERN.matcher(text);
+        if (!matcher.find()) {
+            return Optional.empty();
+        }
+        return Optional.of(new OrdersAndRevenue(Integer.parseInt(matcher.group(1)), parseAmount(matcher.group(2))));
+    }
+
+    private static BigDecimal parseAmount(String amount) {
+        return new BigDecimal(amount.replace(",", ""));
+    }
+
+    /**
+     * Index just past the brace closing the object that starts at start, or -1 if unterminated
+     * Braces inside string values are ignored.
+     */
+    private static int endOfObject(char[] chars, int start) {
+        int depth = 0;
+        boolean inString = false;
+        for (int i = start; i < chars.length; i++) {
+            char c = chars[i];
+            if (inString) {
+                if (c == '\\') {
+                    i++;
+                } else if (c == '"') {
+                    inString = false;
+                }
+            } else if (c == '"') {
+                inString = true;
+            } else if (c == '{') {
+                depth++;
+            } else if (c == '}' && --depth == 0) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    private static int indexOf(char[] chars, char c, int from) {
+        for (int i = from; i < chars.length; i++) {
+            if (chars[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Store block of the channel report
+     */
+    public record StoreMetrics(int orders, int items, BigDecimal revenue) {
+    }
+
+    /**
+     * Order count and revenue pair of the channel report
+     */
+    public record OrdersAndRevenue(int orders, BigDecimal revenue) {
+    }
+}
@@ -2,43 +2,116 @@ package com.shopify.api.client;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.shopify.api.config.MCPConfig;
+import com.shopify.api.util.CircuitBreaker;
+import com.shopify.api.util.LatencyHistogram;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Client for communicating with MCP (Model Context Protocol) servers
  * Implements JSON-RPC 2.0 protocol for tool calling
+ *
+ * Results of idempotent calls are served from MCPResultCache when fresh.
+ * Requests go over a pooled keep-alive connection. Calls made within a short window of
+ * each other are coalesced into one JSON-RPC batch POST; if the server does not accept
+ * batches the client falls back to one POST per call.
+ *
+ * Every request is bounded by crs.mcp.timeout-ms (overridable per tool) and latency is
+ * tracked per tool. Repeated failures open a circuit breaker; while it is open calls fail
+ * fast and callTool serves the last cached result, or an empty result if there is none.
  */
 @Component
 public class MCPClient {
 
     private static final Logger logger = LoggerFactory.getLogger(MCPClient.class);
+    private static final Duration EMIT_TIMEOUT = Duration.ofSeconds(1);
 
     private final WebClient webClient;
     private final ObjectMapper objectMapper;
     private final boolean enabled;
+    private final MCPResultCache resultCache;
+    private final MCPConfig mcpConfig;
+    private final CircuitBreaker circuitBreaker;
+    private final Map<String, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+    private final AtomicLong nextRequestId = new AtomicLong();
+
+    // Calls waiting to be coalesced into a batch (null when coalescing is disabled)
+    private final Sinks.Many<PendingCall> pendingCalls;
+
+    // Cleared the first time the server rejects a batch array
+    private volatile boolean batchSupported = true;
 
     public MCPClient(WebClient.Builder webClientBuilder,
+                    MCPResultCache resultCache,
+                    MCPConfig mcpConfig,
                     @Value("${crs.mcp.url}") String mcpUrl,
-                    @Value("${crs.mcp.enabled:true}") boolean enabled) {
+                    @Value("${crs.mcp.enabled:true}") boolean enabled,
+                    @Value("${crs.mcp.batch.window-ms:5}") long batchWindowMs,
+                    @Value("${crs.mcp.batch.max-size:20}") int maxBatchSize,
+                    @Value("${crs.mcp.pool.max-connections:20}") int maxConnections,
+                    @Value("${crs.mcp.pool.max-idle-time-ms:30000}") long maxIdleTimeMs) {
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("crs-mcp")
+                .maxConnections(maxConnections)
+                .maxIdleTime(Duration.ofMillis(maxIdleTimeMs))
+                .evictInBackground(Duration.ofMillis(maxIdleTimeMs))
+                .build();
+
         this.webClient = webClientBuilder
                 .baseUrl(mcpUrl)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connectionProvider).keepAlive(true)))
                 .build();
         this.objectMapper = new ObjectMapper();
         this.enabled = enabled;
-        logger.info("MCPClient initialized - URL: {}, Enabled: {}", mcpUrl, enabled);
+        this.resultCache = resultCache;
+        this.mcpConfig = mcpConfig;
+
+        MCPConfig.CircuitBreaker breakerConfig = mcpConfig.getCircuitBreaker();
+        this.circuitBreaker = new CircuitBreaker("crs-mcp", breakerConfig.isEnabled(),
+                breakerConfig.getFailureThreshold(), breakerConfig.getOpenDurationMs());
+
+        if (batchWindowMs > 0 && maxBatchSize > 1) {
+            this.pendingCalls = Sinks.many().unicast().onBackpressureBuffer();
+            this.pendingCalls.asFlux()
+                    .bufferTimeout(maxBatchSize, Duration.ofMillis(batchWindowMs))
+                    .subscribe(this::dispatch);
+        } else {
+            this.pendingCalls = null;
+        }
+
+        logger.info("MCPClient initialized - URL: {}, Enabled: {}, Timeout: {} ms, Batch window: {} ms (max {}), Pool: {} connections",
+                mcpUrl, enabled, mcpConfig.getTimeoutMs(), batchWindowMs, maxBatchSize, maxConnections);
     }
 
     /**
      * Call an MCP tool using JSON-RPC 2.0 protocol
+     * Cached results are returned when fresh; otherwise calls made within the batch
+     * window are sent together as one JSON-RPC batch.
+     * While the circuit breaker is open the last cached (possibly stale) result is
+     * returned, or an empty result if the call was never cached.
      *
      * @param toolName Name of the tool to call
      * @param arguments Map of arguments for the tool
@@ -50,34 +123,203 @@ public class MCPClient {
             return Mono.just(objectMapper.createObjectNode());
         }
 
-        try {
-            // Build JSON-RPC 2.0 request
-            ObjectNode request = objectMapper.createObjectNode();
-            request.put("jsonrpc", "2.0");
-            request.put("id", System.currentTimeMillis());
-            request.put("method", "tools/call");
-
-            // Build params object
-            ObjectNode params = objectMapper.createObjectNode();
-            params.put("name", toolName);
-            params.set("arguments", objectMapper.valueToTree(arguments));
-            request.set("params", params);
-
-            logger.debug("Calling MCP tool: {} with arguments: {}", toolName, arguments);
-
-            return webClient.post()
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .bodyValue(request)
-                    .retrieve()
-                    .bodyToMono(JsonNode.class)
-                    .map(this::extractResult)
-                    .doOnSuccess(result -> logger.debug("MCP tool {} completed successfully", toolName))
-                    .doOnError(error -> logger.error("MCP tool {} failed: {}", toolName, error.getMessage()));
-
-        } catch (Exception e) {
-            logger.error("Error building MCP request for tool {}: {}", toolName, e.getMessage(), e);
-            return Mono.error(new RuntimeException("Failed to call MCP tool: " + toolName, e));
+        return resultCache.get(toolName, arguments, () -> invokeTool(new ToolCall(toolName, arguments)))
+                .onErrorResume(CircuitOpenException.class, e -> {
+                    logger.warn("CRS circuit open, serving fallback for MCP tool {}", toolName);
+                    return Mono.just(resultCache.getStale(toolName, arguments)
+                            .orElseGet(objectMapper::createObjectNode));
+                });
+    }
+
+    /**
+     * Send a single call, coalescing it into a batch when enabled
+     */
+    private Mono<JsonNode> invokeTool(ToolCall call) {
+        if (pendingCalls == null) {
+            return callTools(List.of(call)).get(0);
+        }
+
+        return Mono.defer(() -> {
+            PendingCall pending = new PendingCall(call, Sinks.one());
+            pendingCalls.emitNext(pending, Sinks.EmitFailureHandler.busyLooping(EMIT_TIMEOUT));
+            return pending.result().asMono();
+        });
+    }
+
+    /**
+     * Call several MCP tools with a single JSON-RPC batch request
+     * The batch is sent once, when the first returned Mono is subscribed, and is bounded by
+     * the longest timeout of its tools.
+     *
+     * @param calls Tool calls to send together
+     * @return One Mono per call, in the same order; each fails independently if its call errors,
+     *         and all fail with CircuitOpenException while the circuit breaker is open
+     */
+    public List<Mono<JsonNode>> callTools(List<ToolCall> calls) {
+        if (!enabled) {
+            logger.warn("MCP is disabled, returning empty results");
+            List<Mono<JsonNode>> empty = new ArrayList<>();
+            calls.forEach(call -> empty.add(Mono.just(objectMapper.createObjectNode())));
+            return empty;
+        }
+
+        List<ObjectNode> requests = new ArrayList<>(calls.size());
+        long timeoutMs = 0;
+        for (ToolCall call : calls) {
+            requests.add(buildRequest(call));
+            timeoutMs = Math.max(timeoutMs, mcpConfig.timeoutFor(call.toolName()));
         }
+
+        Mono<Map<Long, JsonNode>> responses = guarded(post(requests), Duration.ofMillis(timeoutMs)).cache();
+
+        List<Mono<JsonNode>> results = new ArrayList<>(calls.size());
+        for (int i = 0; i < calls.size(); i++) {
+            String toolName = calls.get(i).toolName();
+            long id = requests.get(i).get("id").asLong();
+            results.add(Mono.defer(() -> {
+                long start = System.nanoTime();
+                LatencyHistogram latency = latencies.computeIfAbsent(toolName, name -> new LatencyHistogram());
+                return responses
+                        .map(byId -> extractResult(byId.get(id)))
+                        .doOnSuccess(result -> {
+                            latency.record(elapsedMs(start), true);
+                            logger.debug("MCP tool {} completed successfully", toolName);
+                        })
+                        .doOnError(error -> {
+                            if (!(error instanceof CircuitOpenException)) {
+                                latency.record(elapsedMs(start), false);
+                            }
+                            logger.error("MCP tool {} failed: {}", toolName, error.getMessage());
+                        });
+            }));
+        }
+        return results;
+    }
+
+    /**
+     * Apply the circuit breaker and timeout to a request
+     * Only transport failures and timeouts count against the breaker; JSON-RPC errors
+     * for individual calls mean the server is up. A cancelled request reports no outcome.
+     */
+    private Mono<Map<Long, JsonNode>> guarded(Mono<Map<Long, JsonNode>> request, Duration timeout) {
+        return Mono.defer(() -> {
+            if (!circuitBreaker.tryAcquire()) {
+                return Mono.error(new CircuitOpenException());
+            }
+
+            return request
+                    .timeout(timeout)
+                    .doOnSuccess(byId -> circuitBreaker.recordSuccess())
+                    .doOnError(error -> circuitBreaker.recordFailure())
+                    .doOnCancel(circuitBreaker::recordCancelled);
+        });
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Send a coalesced group of calls and complete each caller's result
+     */
+    private void dispatch(List<PendingCall> batch) {
+        List<ToolCall> calls = new ArrayList<>(batch.size());
+        batch.forEach(pending -> calls.add(pending.call()));
+
+        List<Mono<JsonNode>> results = callTools(calls);
+        for (int i = 0; i < batch.size(); i++) {
+            Sinks.One<JsonNode> result = batch.get(i).result();
+            results.get(i).subscribe(result::tryEmitValue, result::tryEmitError);
+        }
+    }
+
+    /**
+     * Build a JSON-RPC 2.0 tools/call request with a unique id
+     */
+    private ObjectNode buildRequest(ToolCall call) {
+        ObjectNode request = objectMapper.createObjectNode();
+        request.put("jsonrpc", "2.0");
+        request.put("id", nextRequestId.incrementAndGet());
+        request.put("method", "tools/call");
+
+        // Build params object
+        ObjectNode params = objectMapper.createObjectNode();
+        params.put("name", call.toolName());
+        params.set("arguments", objectMapper.valueToTree(call.arguments()));
+        request.set("params", params);
+
+        logger.debug("Calling MCP tool: {} with arguments: {}", call.toolName(), call.arguments());
+        return request;
+    }
+
+    /**
+     * POST the requests, as a batch array when there is more than one
+     * A server that answers a batch with something other than an array, or rejects it with a
+     * client error, is sent single requests from then on.
+     * @return Mono of responses keyed by request id
+     */
+    private Mono<Map<Long, JsonNode>> post(List<ObjectNode> requests) {
+        if (requests.size() == 1 || !batchSupported) {
+            return postEach(requests);
+        }
+
+        ArrayNode batch = objectMapper.createArrayNode();
+        requests.forEach(batch::add);
+
+        return postJson(batch)
+                .flatMap(response -> {
+                    if (!response.isArray()) {
+                        logger.warn("MCP server did not accept a JSON-RPC batch, sending requests individually");
+                        batchSupported = false;
+                        return postEach(requests);
+                    }
+
+                    Map<Long, JsonNode> byId = new HashMap<>();
+                    for (JsonNode item : response) {
+                        if (item.has("id")) {
+                            byId.put(item.get("id").asLong(), item);
+                        }
+                    }
+                    return Mono.just(byId);
+                })
+                .onErrorResume(WebClientResponseException.class, error -> {
+                    if (!isBatchRejection(error)) {
+                        return Mono.error(error);
+                    }
+                    logger.warn("MCP server rejected a JSON-RPC batch ({}), sending requests individually",
+                            error.getStatusCode());
+                    batchSupported = false;
+                    return postEach(requests);
+                });
+    }
+
+    /**
+     * A 4xx answer to a batch, other than auth and rate limiting (which single requests would get too)
+     */
+    private boolean isBatchRejection(WebClientResponseException error) {
+        int status = error.getStatusCode().value();
+        return error.getStatusCode().is4xxClientError()
+                && status != HttpStatus.UNAUTHORIZED.value()
+                && status != HttpStatus.FORBIDDEN.value()
+                && status != HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+
+    /**
+     * POST each request on its own (concurrently, over the pooled connections)
+     */
+    private Mono<Map<Long, JsonNode>> postEach(List<ObjectNode> requests) {
+        return Flux.fromIterable(requests)
+                .flatMap(request -> postJson(request)
+                        .map(response -> Map.entry(request.get("id").asLong(), response)))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+    }
+
+    private Mono<JsonNode> postJson(JsonNode body) {
+        return webClient.post()
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body)
+                .retrieve()
+                .bodyToMono(JsonNode.class);
     }
 
     /**
@@ -85,6 +327,10 @@ public class MCPClient {
      * Handles both success and error responses
      */
     private JsonNode extractResult(JsonNode response) {
+        if (response == null) {
+            throw new RuntimeException("MCP Error: no response for request");
+        }
+
         if (response.has("error")) {
             JsonNode error = response.get("error");
             String errorMessage = error.has("message") ? error.get("message").asText() : "Unknown MCP error";
@@ -106,4 +352,43 @@ public class MCPClient {
     public boolean isEnabled() {
         return enabled;
     }
+
+    /**
+     * Circuit breaker state for the status endpoint
+     */
+    public Map<String, Object> getCircuitBreakerStatus() {
+        return circuitBreaker.snapshot();
+    }
+
+    /**
+     * Latency percentiles per tool for the status endpoint
+     */
+    public Map<String, Object> getLatencyStats() {
+        Map<String, Object> stats = new HashMap<>();
+        latencies.forEach((toolName, histogram) -> stats.put(toolName, histogram.snapshot()));
+        return stats;
+    }
+
+    /**
+     * A single tools/call invocation
+     * @param toolName Name of the tool to call
+     * @param arguments Map of arguments for the tool
+     */
+    public record ToolCall(String toolName, Map<String, Object> arguments) {
+    }
+
+    /**
+     * A call waiting for its batch to be sent
+     */
+    private record PendingCall(ToolCall call, Sinks.One<JsonNode> result) {
+    }
+
+    /**
+     * Raised instead of sending a request while the circuit breaker is open
+     */
+    public static class CircuitOpenException extends RuntimeException {
+        CircuitOpenException() {
+            super("CRS MCP circuit breaker is open");
+        }
+    }
 }
@@ -0,0 +1,244 @@
+package com.shopify.api.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.shopify.api.config.MCPConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache for MCP tool results
+ * - Keyed by tool name and normalized arguments (sorted keys, whitespace-normalized SQL)
+ * - Per-tool TTLs; tools without a TTL are passed straight through
+ * - query_database is only cached for read-only SQL (SELECT / WITH)
+ * - Size-bounded, evicting the least recently used result
+ * - Identical calls already in flight share one request (single flight)
+ */
+@Component
+public class MCPResultCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(MCPResultCache.class);
+    private static final String QUERY_TOOL = "query_database";
+
+    private final MCPConfig.Cache config;
+    private final ObjectMapper keyMapper;
+
+    // Access-ordered for LRU eviction, guarded by itself
+    private final LinkedHashMap<String, CachedResult> results;
+    private final Map<String, Mono<JsonNode>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong deduplicated = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public MCPResultCache(MCPConfig mcpConfig) {
+        this.config = mcpConfig.getCache();
+        this.keyMapper = new ObjectMapper().configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+        this.results = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResult> eldest) {
+                if (size() > config.getMaxEntries()) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+        logger.info("MCPResultCache initialized - Enabled: {}, Max entries: {}, TTLs: {}",
+                config.isEnabled(), config.getMaxEntries(), config.getTtlMs());
+    }
+
+    /**
+     * Return a cached result for the call, or load it (once, however many callers ask)
+     * @param toolName Name of the MCP tool
+     * @param arguments Tool arguments
+     * @param loader Performs the actual call on a miss
+     * @return Mono of the (possibly cached) tool result
+     */
+    public Mono<JsonNode> get(String toolName, Map<String, Object> arguments, Supplier<Mono<JsonNode>> loader) {
+        long ttlMs = ttlFor(toolName, arguments);
+        if (ttlMs <= 0) {
+            return loader.get();
+        }
+
+        String key = key(toolName, arguments);
+        if (key == null) {
+            return loader.get();
+        }
+
+        return Mono.defer(() -> {
+            JsonNode cached = lookup(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                logger.debug("MCP cache hit for {}", toolName);
+                return Mono.just(cached.deepCopy());
+            }
+
+            boolean[] created = new boolean[1];
+            Mono<JsonNode> flight = inFlight.computeIfAbsent(key, k -> {
+                created[0] = true;
+                return loader.get()
+                        .doOnNext(result -> store(k, result, ttlMs))
+                        .doFinally(signal -> inFlight.remove(k))
+                        .cache();
+            });
+
+            if (created[0]) {
+                misses.incrementAndGet();
+            } else {
+                deduplicated.incrementAndGet();
+                logger.debug("Joined in-flight MCP call for {}", toolName);
+            }
+            return flight.map(JsonNode::deepCopy);
+        });
+    }
+
+    /**
+     * Last cached result for a call, even if its TTL has passed
+     * Used as a fallback while the MCP server is unavailable.
+     */
+    public Optional<JsonNode> getStale(String toolName, Map<String, Object> arguments) {
+        String key = key(toolName, arguments);
+        if (key == null) {
+            return Optional.empty();
+        }
+        synchronized (results) {
+            CachedResult cached = results.get(key);
+            return cached != null ? Optional.of(cached.value().deepCopy()) : Optional.empty();
+        }
+    }
+
+    /**
+     * Cache statistics for the status endpoint
+     */
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long total = hitCount + missCount;
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", config.isEnabled());
+        synchronized (results) {
+            stats.put("size", results.size());
+        }
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("deduplicated", deduplicated.get());
+        stats.put("evictions", evictions.get());
+        stats.put("hit_rate", total > 0 ? (double) hitCount / total : 0.0);
+        return stats;
+    }
+
+    /**
+     * Drop every cached result
+     */
+    public void clear() {
+        synchronized (results) {
+            results.clear();
+        }
+    }
+
+    private JsonNode lookup(String key) {
+        synchronized (results) {
+            CachedResult cached = results.get(key);
+            if (cached == null) {
+                return null;
+            }
+            if (cached.expiresAt() <= System.currentTimeMillis()) {
+                return null;
+            }
+            return cached.value();
+        }
+    }
+
+    private void store(String key, JsonNode result, long ttlMs) {
+        synchronized (results) {
+            results.put(key, new CachedResult(result, System.currentTimeMillis() + ttlMs));
+        }
+    }
+
+    /**
+     * TTL for a call, or 0 if it must not be cached
+     */
+    private long ttlFor(String toolName, Map<String, Object> arguments) {
+        if (!config.isEnabled() || config.getMaxEntries() <= 0) {
+            return 0;
+        }
+        Long ttlMs = config.getTtlMs().get(toolName);
+        if (ttlMs == null || ttlMs <= 0) {
+            return 0;
+        }
+        if (QUERY_TOOL.equals(toolName) && !isReadOnlyQuery(arguments)) {
+            return 0;
+        }
+        return ttlMs;
+    }
+
+    private boolean isReadOnlyQuery(Map<String, Object> arguments) {
+        Object query = arguments != null ? arguments.get("query") : null;
+        if (!(query instanceof String sql)) {
+            return false;
+        }
+        String normalized = sql.trim().toUpperCase(Locale.ROOT);
+        return (normalized.startsWith("SELECT") || normalized.startsWith("WITH")) && !normalized.contains(";");
+    }
+
+    /**
+     * Cache key: tool name plus arguments serialized with sorted keys
+     * @return The key, or null if the arguments cannot be serialized (the call is then not cached)
+     */
+    private String key(String toolName, Map<String, Object> arguments) {
+        Map<String, Object> normalized = new HashMap<>();
+        if (arguments != null) {
+            arguments.forEach((name, value) ->
+                    normalized.put(name, value instanceof String text ? normalizeWhitespace(text) : value));
+        }
+        try {
+            return toolName + ":" + keyMapper.writeValueAsString(normalized);
+        } catch (Exception e) {
+            logger.debug("Not caching {} call with unserializable arguments: {}", toolName, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Trim and collapse runs of whitespace outside single-quoted literals,
+     * so formatting differences in generated SQL share a cache entry
+     */
+    private String normalizeWhitespace(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        boolean inLiteral = false;
+        boolean pendingSpace = false;
+        for (char c : text.trim().toCharArray()) {
+            if (!inLiteral && Character.isWhitespace(c)) {
+                pendingSpace = true;
+                continue;
+            }
+            if (pendingSpace) {
+                sb.append(' ');
+                pendingSpace = false;
+            }
+            if (c == '\'') {
+                inLiteral = !inLiteral;
+            }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    private record CachedResult(JsonNode value, long expiresAt) {
+    }
+}
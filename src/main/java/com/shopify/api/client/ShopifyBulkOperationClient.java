@@ -0,0 +1,291 @@
+package com.shopify.api.client;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopify.api.config.ShopifyConfig;
+import com.shopify.api.model.GraphQLRequest;
+import com.shopify.api.model.GraphQLResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Client for Shopify Bulk Operations
+ * Handles:
+ * - Submitting bulkOperationRunQuery (waiting if another bulk query is already running)
+ * - Polling until the operation finishes
+ * - Streaming the JSONL result file line by line, so memory stays flat regardless of volume
+ *
+ * Bulk queries are written like normal queries but without pagination arguments;
+ * Shopify walks every connection itself.
+ */
+@Component
+public class ShopifyBulkOperationClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShopifyBulkOperationClient.class);
+
+    private static final String RUN_QUERY_MUTATION = """
+        mutation bulkOperationRunQuery($query: String!) {
+          bulkOperationRunQuery(query: $query) {
+            bulkOperation {
+              id
+              status
+            }
+            userErrors {
+              field
+              message
+            }
+          }
+        }
+        """;
+
+    private static final String STATUS_QUERY = """
+        query bulkOperationStatus($id: ID!) {
+          node(id: $id) {
+            ... on BulkOperation {
+              id
+              status
+              errorCode
+              objectCount
+              url
+            }
+          }
+        }
+        """;
+
+    private static final String CANCEL_MUTATION = """
+        mutation bulkOperationCancel($id: ID!) {
+          bulkOperationCancel(id: $id) {
+            userErrors {
+              message
+            }
+          }
+        }
+        """;
+
+    private static final Set<String> TERMINAL_STATUSES = Set.of("COMPLETED", "FAILED", "CANCELED", "EXPIRED");
+    private static final String PARENT_ID_FIELD = "__parentId";
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+    private final ShopifyGraphQLClient graphQLClient;
+    private final WebClient resultWebClient;
+    private final ShopifyConfig shopifyConfig;
+    private final ObjectMapper objectMapper;
+
+    public ShopifyBulkOperationClient(ShopifyGraphQLClient graphQLClient,
+                                      WebClient shopifyBulkResultWebClient,
+                                      ShopifyConfig shopifyConfig,
+                                      ObjectMapper objectMapper) {
+        this.graphQLClient = graphQLClient;
+        this.resultWebClient = shopifyBulkResultWebClient;
+        this.shopifyConfig = shopifyConfig;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Run a bulk query and stream each JSONL line mapped to a typed record
+     * @param query The bulk GraphQL query (no pagination arguments)
+     * @param type Record type each line is mapped to
+     * @return Flux of records, emitted as the result file is downloaded
+     */
+    public <T> Flux<T> streamQuery(String query, Class<T> type) {
+        return streamLines(query).handle((line, sink) -> {
+            try {
+                sink.next(objectMapper.readValue(line, type));
+            } catch (Exception e) {
+                sink.error(new RuntimeException("Failed to parse bulk operation line: " + e.getMessage(), e));
+            }
+        });
+    }
+
+    /**
+     * Run a bulk query and stream each JSONL line as a map
+     * @param query The bulk GraphQL query (no pagination arguments)
+     * @return Flux of nodes; nested connection nodes carry a __parentId field
+     */
+    public Flux<Map<String, Object>> streamQuery(String query) {
+        return streamLines(query).handle((line, sink) -> {
+            try {
+                sink.next(objectMapper.readValue(line, MAP_TYPE));
+            } catch (Exception e) {
+                sink.error(new RuntimeException("Failed to parse bulk operation line: " + e.getMessage(), e));
+            }
+        });
+    }
+
+    /**
+     * Run a bulk query with one nested connection and re-attach the child nodes to their parent
+     * Children are nested as {@code childConnection.edges[].node}, matching the shape of a
+     * regular paginated query, so existing response parsers can be reused.
+     * Shopify writes each child line after its parent, so only one parent is buffered at a time.
+     * @param query The bulk GraphQL query (no pagination arguments)
+     * @param childConnection Field name of the nested connection (e.g. "lineItems")
+     * @return Flux of parent nodes with their children attached
+     */
+    public Flux<Map<String, Object>> streamQueryWithChildren(String query, String childConnection) {
+        return streamQuery(query)
+                .bufferUntil(node -> !node.containsKey(PARENT_ID_FIELD), true)
+                .filter(group -> !group.isEmpty())
+                .map(group -> {
+                    Map<String, Object> parent = group.get(0);
+                    List<Map<String, Object>> edges = new ArrayList<>(group.size() - 1);
+                    for (Map<String, Object> child : group.subList(1, group.size())) {
+                        child.remove(PARENT_ID_FIELD);
+                        Map<String, Object> edge = new HashMap<>();
+                        edge.put("node", child);
+                        edges.add(edge);
+                    }
+                    Map<String, Object> connection = new HashMap<>();
+                    connection.put("edges", edges);
+                    parent.put(childConnection, connection);
+                    return parent;
+                });
+    }
+
+    /**
+     * Submit the query, wait for completion and stream the non-empty lines of the result file
+     */
+    private Flux<String> streamLines(String query) {
+        ShopifyConfig.BulkOperation config = shopifyConfig.getBulkOperation();
+        Duration maxWait = Duration.ofMillis(config.getMaxWaitMs());
+
+        return submit(query)
+                .flatMap(operationId -> awaitCompletion(operationId)
+                        .timeout(maxWait)
+                        .onErrorResume(TimeoutException.class, e -> cancel(operationId)
+                                .then(Mono.error(new RuntimeException(
+                                        "Bulk operation " + operationId + " did not finish within " + maxWait)))))
+                .flatMapMany(operation -> {
+                    String url = (String) operation.get("url");
+                    if (url == null) {
+                        // Completed with no matching objects
+                        logger.info("Bulk operation {} completed with no results", operation.get("id"));
+                        return Flux.empty();
+                    }
+
+                    logger.info("Bulk operation {} completed with {} objects, streaming results",
+                            operation.get("id"), operation.get("objectCount"));
+
+                    // URI object so the pre-signed URL is not re-encoded
+                    return resultWebClient.get()
+                            .uri(URI.create(url))
+                            .retrieve()
+                            .bodyToFlux(String.class);
+                })
+                .filter(line -> !line.isBlank());
+    }
+
+    /**
+     * Submit a bulk query, retrying while another bulk query for this app is still running
+     * @return Mono of the bulk operation ID
+     */
+    private Mono<String> submit(String query) {
+        ShopifyConfig.BulkOperation config = shopifyConfig.getBulkOperation();
+        Duration pollInterval = Duration.ofMillis(config.getPollIntervalMs());
+        long maxAttempts = Math.max(1, config.getMaxWaitMs() / Math.max(1, config.getPollIntervalMs()));
+
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("query", query);
+
+        return Mono.defer(() -> graphQLClient.executeQueryReactive(new GraphQLRequest(RUN_QUERY_MUTATION, variables)))
+                .map(response -> {
+                    Map<String, Object> result = getField(checkErrors(response).getData(), "bulkOperationRunQuery");
+
+                    List<Map<String, Object>> userErrors = (List<Map<String, Object>>) result.get("userErrors");
+                    if (userErrors != null && !userErrors.isEmpty()) {
+                        String message = (String) userErrors.get(0).get("message");
+                        if (message != null && message.contains("already in progress")) {
+                            throw new BulkOperationInProgressException(message);
+                        }
+                        throw new RuntimeException("Failed to start bulk operation: " + message);
+                    }
+
+                    Map<String, Object> operation = getField(result, "bulkOperation");
+                    String id = (String) operation.get("id");
+                    logger.info("Started bulk operation {}", id);
+                    return id;
+                })
+                .retryWhen(Retry.fixedDelay(maxAttempts, pollInterval)
+                        .filter(e -> e instanceof BulkOperationInProgressException)
+                        .doBeforeRetry(signal -> logger.debug("Another bulk operation is running, waiting to submit")));
+    }
+
+    /**
+     * Poll the operation until it reaches a terminal status
+     * @return Mono of the completed operation (id, status, objectCount, url)
+     */
+    private Mono<Map<String, Object>> awaitCompletion(String operationId) {
+        Duration pollInterval = Duration.ofMillis(shopifyConfig.getBulkOperation().getPollIntervalMs());
+
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("id", operationId);
+
+        return Mono.defer(() -> graphQLClient.executeQueryReactive(new GraphQLRequest(STATUS_QUERY, variables)))
+                .map(response -> getField(checkErrors(response).getData(), "node"))
+                .filter(operation -> TERMINAL_STATUSES.contains((String) operation.get("status")))
+                .repeatWhenEmpty(Integer.MAX_VALUE, repeats -> repeats.delayElements(pollInterval))
+                .flatMap(operation -> {
+                    if ("COMPLETED".equals(operation.get("status"))) {
+                        return Mono.just(operation);
+                    }
+                    return Mono.error(new RuntimeException(String.format("Bulk operation %s ended with status %s (%s)",
+                            operationId, operation.get("status"), operation.get("errorCode"))));
+                });
+    }
+
+    /**
+     * Cancel a running bulk operation so it does not block later submissions
+     */
+    private Mono<Void> cancel(String operationId) {
+        logger.warn("Cancelling bulk operation {}", operationId);
+
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("id", operationId);
+
+        return graphQLClient.executeQueryReactive(new GraphQLRequest(CANCEL_MUTATION, variables))
+                .doOnNext(response -> {
+                    if (response.hasErrors()) {
+                        logger.error("Error cancelling bulk operation {}: {}", operationId, response.getErrors());
+                    }
+                })
+                .then();
+    }
+
+    private GraphQLResponse checkErrors(GraphQLResponse response) {
+        if (response.hasErrors()) {
+            logger.error("Bulk operation request returned errors: {}", response.getErrors());
+            throw new RuntimeException("Bulk operation request failed: " +
+                    response.getErrors().get(0).getMessage());
+        }
+        return response;
+    }
+
+    private Map<String, Object> getField(Map<String, Object> data, String field) {
+        if (data == null || !(data.get(field) instanceof Map)) {
+            throw new RuntimeException("Bulk operation response missing " + field);
+        }
+        return (Map<String, Object>) data.get(field);
+    }
+
+    /**
+     * Shopify allows one bulk query per app and shop at a time
+     */
+    private static class BulkOperationInProgressException extends RuntimeException {
+        BulkOperationInProgressException(String message) {
+            super(message);
+        }
+    }
+}
@@ -9,16 +9,22 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.util.retry.Retry;
 
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
 
 /**
  * Client for making GraphQL requests to Shopify Admin API
  * Handles:
  * - Request execution
- * - Rate limiting
+ * - Rate limiting (charged at each query's requestedQueryCost, learned per query shape)
  * - Automatic retries with exponential backoff
  * - Error handling
  */
@@ -26,13 +32,18 @@ import java.time.Duration;
 public class ShopifyGraphQLClient {
 
     private static final Logger logger = LoggerFactory.getLogger(ShopifyGraphQLClient.class);
-    private static final int DEFAULT_QUERY_COST = 10; // Conservative estimate
+    private static final int DEFAULT_QUERY_COST = 10; // Used until Shopify reports a cost for the query shape
+    private static final int MAX_TRACKED_QUERY_SHAPES = 1000;
+    private static final Pattern STRING_LITERAL = Pattern.compile("\"(?:[^\"\\\\]|\\\\.)*\"");
 
     private final WebClient webClient;
     private final ShopifyConfig shopifyConfig;
     private final RateLimiter rateLimiter;
     private final ObjectMapper objectMapper;
 
+    // requestedQueryCost last reported by Shopify, keyed by query with string literals blanked out
+    private final Map<String, Integer> requestedCostByQueryShape = new ConcurrentHashMap<>();
+
     public ShopifyGraphQLClient(WebClient shopifyWebClient,
                                 ShopifyConfig shopifyConfig,
                                 RateLimiter rateLimiter,
@@ -62,7 +73,8 @@ public class ShopifyGraphQLClient {
         logger.debug("Query: {}", request.getQuery());
 
         // Wait if necessary to respect rate limits
-        rateLimiter.waitIfNecessary(DEFAULT_QUERY_COST);
+        String queryShape = queryShape(request);
+        int chargedCost = rateLimiter.waitIfNecessary(estimateQueryCost(queryShape));
 
         try {
             GraphQLResponse response = webClient.post()
@@ -79,13 +91,10 @@ public class ShopifyGraphQLClient {
                     })
                     .block();
 
-            if (response != null) {
-                // Record actual query cost if available
-                Integer actualCost = response.getQueryCost();
-                if (actualCost != null) {
-                    rateLimiter.recordActualCost(actualCost);
-                }
+            // Resync the limiter with Shopify's bucket
+            recordQueryCost(queryShape, chargedCost, response);
 
+            if (response != null) {
                 if (response.hasErrors()) {
                     logger.error("GraphQL query returned errors: {}", response.getErrors());
                 } else {
@@ -97,6 +106,7 @@ public class ShopifyGraphQLClient {
 
         } catch (Exception e) {
             logger.error("Unexpected error executing GraphQL query", e);
+            recordQueryCost(queryShape, chargedCost, null);
             return createErrorResponse(e);
         }
     }
@@ -110,30 +120,30 @@ public class ShopifyGraphQLClient {
         logger.info("Executing Shopify GraphQL query (reactive)");
         logger.debug("Query: {}", request.getQuery());
 
-        // Wait if necessary to respect rate limits
-        rateLimiter.waitIfNecessary(DEFAULT_QUERY_COST);
-
-        return webClient.post()
-                .bodyValue(request)
-                .retrieve()
-                .bodyToMono(GraphQLResponse.class)
-                .retryWhen(Retry.backoff(
-                        shopifyConfig.getRateLimit().getMaxRetries(),
-                        Duration.ofMillis(shopifyConfig.getRateLimit().getInitialBackoffMs())
-                ).filter(this::isRetryableError))
-                .doOnNext(response -> {
-                    // Record actual query cost if available
-                    Integer actualCost = response.getQueryCost();
-                    if (actualCost != null) {
-                        rateLimiter.recordActualCost(actualCost);
-                    }
+        // Acquire rate limit budget without blocking the subscribing thread
+        String queryShape = queryShape(request);
 
-                    if (response.hasErrors()) {
-                        logger.error("GraphQL query returned errors: {}", response.getErrors());
-                    } else {
-                        logger.info("GraphQL query executed successfully");
-                    }
-                })
+        return rateLimiter.acquire(estimateQueryCost(queryShape))
+                .flatMap(chargedCost -> webClient.post()
+                        .bodyValue(request)
+                        .retrieve()
+                        .bodyToMono(GraphQLResponse.class)
+                        .retryWhen(Retry.backoff(
+                                shopifyConfig.getRateLimit().getMaxRetries(),
+                                Duration.ofMillis(shopifyConfig.getRateLimit().getInitialBackoffMs())
+                        ).filter(this::isRetryableError))
+                        .doOnNext(response -> {
+                            // Resync the limiter with Shopify's bucket
+                            recordQueryCost(queryShape, chargedCost, response);
+
+                            if (response.hasErrors()) {
+                                logger.error("GraphQL query returned errors: {}", response.getErrors());
+                            } else {
+                                logger.info("GraphQL query executed successfully");
+                            }
+                        })
+                        .doOnCancel(() -> recordQueryCost(queryShape, chargedCost, null))
+                        .doOnError(throwable -> recordQueryCost(queryShape, chargedCost, null)))
                 .onErrorResume(throwable -> {
                     logger.error("Error executing GraphQL query", throwable);
                     return Mono.just(createErrorResponse(throwable));
@@ -149,6 +159,104 @@ public class ShopifyGraphQLClient {
         return executeQueryReactive(new GraphQLRequest(query));
     }
 
+    /**
+     * Stream a paginated connection page by page (non-blocking)
+     * The next page is requested as soon as the current one is emitted, so one page is
+     * fetched ahead while the subscriber consumes the current page; no further pages are
+     * fetched until the subscriber asks for more (backpressure).
+     * @param query GraphQL query that declares {@code $after: String}, passes it to the
+     *              connection's {@code after} argument and selects {@code pageInfo { hasNextPage endCursor }}
+     * @param variables Additional query variables (may be null)
+     * @param connectionField Top-level field holding the connection (e.g. "orders")
+     * @return Flux of pages, each the list of edges returned for that page
+     */
+    public Flux<List<Map<String, Object>>> executePaginatedQueryReactive(String query,
+                                                                         Map<String, Object> variables,
+                                                                         String connectionField) {
+        return fetchPage(query, variables, connectionField, null)
+                .expand(page -> page.hasNextPage()
+                        ? fetchPage(query, variables, connectionField, page.endCursor())
+                        : Mono.empty())
+                .map(ConnectionPage::edges)
+                .limitRate(1);
+    }
+
+    /**
+     * Fetch one page of a connection
+     */
+    private Mono<ConnectionPage> fetchPage(String query, Map<String, Object> variables,
+                                           String connectionField, String cursor) {
+        Map<String, Object> pageVariables = variables != null ? new HashMap<>(variables) : new HashMap<>();
+        pageVariables.put("after", cursor);
+
+        return executeQueryReactive(new GraphQLRequest(query, pageVariables))
+                .map(response -> {
+                    if (response.hasErrors()) {
+                        logger.error("Error fetching {} page: {}", connectionField, response.getErrors());
+                        throw new RuntimeException("Failed to fetch " + connectionField + ": " +
+                                response.getErrors().get(0).getMessage());
+                    }
+
+                    Map<String, Object> data = response.getData();
+                    Map<String, Object> connection = data != null ? (Map<String, Object>) data.get(connectionField) : null;
+                    if (connection == null) {
+                        return new ConnectionPage(List.of(), false, null);
+                    }
+
+                    List<Map<String, Object>> edges = (List<Map<String, Object>>) connection.get("edges");
+                    Map<String, Object> pageInfo = (Map<String, Object>) connection.get("pageInfo");
+                    boolean hasNextPage = pageInfo != null && Boolean.TRUE.equals(pageInfo.get("hasNextPage"));
+                    String endCursor = pageInfo != null ? (String) pageInfo.get("endCursor") : null;
+
+                    logger.debug("Fetched {} page with {} edges (hasNextPage={})",
+                            connectionField, edges != null ? edges.size() : 0, hasNextPage);
+                    return new ConnectionPage(edges != null ? edges : List.of(), hasNextPage && endCursor != null, endCursor);
+                });
+    }
+
+    /**
+     * One page of a connection
+     */
+    private record ConnectionPage(List<Map<String, Object>> edges, boolean hasNextPage, String endCursor) {
+    }
+
+    /**
+     * Normalize a query so that requests differing only in string arguments
+     * (cursors, search terms, IDs) share a cost estimate
+     */
+    private String queryShape(GraphQLRequest request) {
+        String query = request.getQuery();
+        return query != null ? STRING_LITERAL.matcher(query).replaceAll("\"\"") : "";
+    }
+
+    /**
+     * Estimate the cost of a query from the requestedQueryCost Shopify last reported for its shape
+     */
+    private int estimateQueryCost(String queryShape) {
+        return requestedCostByQueryShape.getOrDefault(queryShape, DEFAULT_QUERY_COST);
+    }
+
+    /**
+     * Remember the requested cost for this query shape and hand Shopify's throttle status to the limiter
+     * @param response The Shopify response, or null if the request failed before Shopify answered
+     */
+    private void recordQueryCost(String queryShape, int chargedCost, GraphQLResponse response) {
+        if (response == null) {
+            rateLimiter.recordActualCost(chargedCost, null, null);
+            return;
+        }
+
+        Integer requestedCost = response.getRequestedQueryCost();
+        if (requestedCost != null) {
+            if (requestedCostByQueryShape.size() >= MAX_TRACKED_QUERY_SHAPES) {
+                requestedCostByQueryShape.clear();
+            }
+            requestedCostByQueryShape.put(queryShape, requestedCost);
+        }
+
+        rateLimiter.recordActualCost(chargedCost, response.getQueryCost(), response.getThrottleStatus());
+    }
+
     /**
      * Determine if an error is retryable
      */
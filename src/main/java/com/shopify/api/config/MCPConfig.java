@@ -0,0 +1,90 @@
+package com.shopify.api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Configuration properties for the CRS MCP client
+ * Maps values from application.yml under 'crs.mcp' prefix
+ */
+@Configuration
+@ConfigurationProperties(prefix = "crs.mcp")
+@Data
+public class MCPConfig {
+
+    /**
+     * Default timeout for a tool call, in milliseconds
+     */
+    private long timeoutMs = 10000;
+
+    /**
+     * Per-tool timeout overrides, in milliseconds
+     */
+    private Map<String, Long> toolTimeoutMs = new HashMap<>();
+
+    /**
+     * Tool result cache configuration
+     */
+    private Cache cache = new Cache();
+
+    /**
+     * Circuit breaker configuration
+     */
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    /**
+     * Timeout for a tool, falling back to the default
+     */
+    public long timeoutFor(String toolName) {
+        Long timeout = toolTimeoutMs.get(toolName);
+        return timeout != null && timeout > 0 ? timeout : timeoutMs;
+    }
+
+    /**
+     * Tool result cache configuration nested class
+     */
+    @Data
+    public static class Cache {
+        /**
+         * Whether tool results are cached at all
+         */
+        private boolean enabled = true;
+
+        /**
+         * Maximum number of cached results; least recently used results are evicted first
+         */
+        private int maxEntries = 1000;
+
+        /**
+         * Time to live per tool name, in milliseconds. Tools not listed are never cached.
+         */
+        private Map<String, Long> ttlMs = new HashMap<>(Map.of(
+                "query_database", 30000L,
+                "get_sales_by_channel", 60000L));
+    }
+
+    /**
+     * Circuit breaker configuration nested class
+     */
+    @Data
+    public static class CircuitBreaker {
+        /**
+         * Whether the breaker can open at all
+         */
+        private boolean enabled = true;
+
+        /**
+         * Consecutive failed requests (errors or timeouts) before the circuit opens
+         */
+        private int failureThreshold = 5;
+
+        /**
+         * How long the circuit stays open before a trial request is let through
+         */
+        private long openDurationMs = 30000;
+    }
+}
@@ -33,6 +33,11 @@ public class ShopifyConfig {
      */
     private RateLimit rateLimit = new RateLimit();
 
+    /**
+     * Bulk operation (large export) configuration
+     */
+    private BulkOperation bulkOperation = new BulkOperation();
+
     /**
      * Constructs the full GraphQL endpoint URL
      * Format: https://{shop-url}/admin/api/{api-version}/graphql.json
@@ -88,6 +93,11 @@ public class ShopifyConfig {
          */
         private int maxPointsPerSecond = 100;
 
+        /**
+         * Initial bucket size in points, used until Shopify reports its throttleStatus
+         */
+        private int bucketSize = 1000;
+
         /**
          * Maximum number of retries on rate limit
          */
@@ -98,4 +108,32 @@ public class ShopifyConfig {
          */
         private long initialBackoffMs = 1000;
     }
+
+    /**
+     * Bulk operation configuration nested class
+     */
+    @Data
+    public static class BulkOperation {
+        /**
+         * How often to poll Shopify for bulk operation status, in milliseconds
+         */
+        private long pollIntervalMs = 2000;
+
+        /**
+         * Maximum time to wait for a bulk operation (including queueing behind another one)
+         */
+        private long maxWaitMs = 30 * 60 * 1000;
+
+        /**
+         * Rollup backfill ranges spanning at least this many days are fetched with a bulk operation
+         * instead of cursor pagination (0 disables bulk analytics). Live analytics always paginate.
+         */
+        private int analyticsMinDays = 0;
+
+        /**
+         * Whether the fulfillment check fetches the full 3-month window with a bulk operation
+         * instead of only the 250 most recent orders
+         */
+        private boolean fulfillmentEnabled = false;
+    }
 }
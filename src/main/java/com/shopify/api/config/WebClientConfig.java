@@ -36,4 +36,17 @@ public class WebClientConfig {
                         .maxInMemorySize(16 * 1024 * 1024)) // 16MB buffer for large responses
                 .build();
     }
+
+    /**
+     * Creates a plain WebClient for downloading bulk operation result files
+     * The result URL is pre-signed, so no Shopify credentials are attached
+     */
+    @Bean
+    public WebClient shopifyBulkResultWebClient() {
+        return WebClient.builder()
+                .codecs(configurer -> configurer
+                        .defaultCodecs()
+                        .maxInMemorySize(16 * 1024 * 1024)) // Max size of a single JSONL line
+                .build();
+    }
 }
@@ -3,12 +3,16 @@ package com.shopify.api.controller;
 import com.shopify.api.model.ApiResponse;
 import com.shopify.api.model.ChatMessage;
 import com.shopify.api.model.ChatRequest;
+import com.shopify.api.model.ChatStreamEvent;
 import com.shopify.api.service.ChatAgentService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @RestController
@@ -32,6 +36,10 @@ public class ChatController {
      *   ]
      * }
      *
+     * Alternatively send a "sessionId" (any unique string, e.g. a UUID) instead of
+     * conversationHistory; the transcript is then kept on the server and only the new
+     * message needs to be sent.
+     *
      * Response:
      * {
      *   "success": true,
@@ -63,6 +71,41 @@ public class ChatController {
                 });
     }
 
+    /**
+     * POST /api/chat/message/stream - Send a message and stream the response as Server-Sent Events
+     *
+     * Request body: same as /api/chat/message
+     *
+     * Events (the SSE event name matches "type"):
+     *   event: text        data: {"type":"text","text":"I'd be happy"}
+     *   event: tool_start  data: {"type":"tool_start","tool":"search_products","input":{"query":"zaku"}}
+     *   event: tool_end    data: {"type":"tool_end","tool":"search_products"}
+     *   event: done        data: {"type":"done","message":{"role":"assistant","content":"...","timestamp":1234567892}}
+     *   event: error       data: {"type":"error","message":{"role":"assistant","content":"..."}}
+     */
+    @PostMapping(value = "/message/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<ChatStreamEvent>> streamMessage(@RequestBody ChatRequest chatRequest) {
+        logger.info("Received streaming chat message: {}", chatRequest.getMessage());
+
+        return chatAgentService.streamChat(chatRequest)
+                .map(event -> ServerSentEvent.<ChatStreamEvent>builder()
+                        .event(event.getType())
+                        .data(event)
+                        .build());
+    }
+
+    /**
+     * DELETE /api/chat/session/{sessionId} - Forget a server-side chat session
+     */
+    @DeleteMapping("/session/{sessionId}")
+    public ResponseEntity<ApiResponse<Boolean>> clearSession(@PathVariable String sessionId) {
+        boolean removed = chatAgentService.clearSession(sessionId);
+        return ResponseEntity.ok(ApiResponse.success(
+                removed ? "Session cleared" : "Session not found",
+                removed
+        ));
+    }
+
     /**
      * GET /api/chat/status - Check if chat agent is available
      *
@@ -4,8 +4,10 @@ import com.shopify.api.model.ApiResponse;
 import com.shopify.api.service.CustomerService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 
 import java.util.Map;
 
@@ -96,4 +98,19 @@ public class CustomerController {
                     .body(ApiResponse.error("Failed to search customers", e.getMessage()));
         }
     }
+
+    /**
+     * GET /api/customers/export
+     * Stream every customer matching a search query, paging through Shopify as the client reads
+     *
+     * @param q Shopify customer search query (default: all customers)
+     * @return Newline-delimited JSON stream of customers
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Map<String, Object>> exportCustomers(@RequestParam(required = false) String q) {
+        logger.info("GET /api/customers/export - query: {}", q);
+
+        return customerService.streamCustomers(q)
+                .doOnError(e -> logger.error("Error exporting customers", e));
+    }
 }
@@ -3,12 +3,14 @@ package com.shopify.api.controller;
 import com.shopify.api.model.ApiResponse;
 import com.shopify.api.model.UnfulfilledOrder;
 import com.shopify.api.service.FulfillmentService;
+import com.shopify.api.service.PendingFulfillmentQueue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * REST Controller for Order Fulfillment operations
@@ -21,14 +23,19 @@ public class FulfillmentController {
     private static final Logger logger = LoggerFactory.getLogger(FulfillmentController.class);
 
     private final FulfillmentService fulfillmentService;
+    private final PendingFulfillmentQueue pendingFulfillmentQueue;
 
-    public FulfillmentController(FulfillmentService fulfillmentService) {
+    public FulfillmentController(FulfillmentService fulfillmentService,
+                                 PendingFulfillmentQueue pendingFulfillmentQueue) {
         this.fulfillmentService = fulfillmentService;
+        this.pendingFulfillmentQueue = pendingFulfillmentQueue;
     }
 
     /**
      * GET /api/fulfillment/pending
      * Fetch all orders that are unfulfilled in Shopify and not yet in CRS
+     * Served from the background-maintained queue (with discounts and sale prices) once it has
+     * been built; the X-Last-Refreshed header tells when it was last brought up to date.
      *
      * @param includeDiscounts Whether to fetch discount information (default: false for faster load)
      * @param includeSalePrices Whether to fetch CRS sale prices (default: false for faster load)
@@ -43,6 +50,17 @@ public class FulfillmentController {
                     includeDiscounts, includeSalePrices);
 
         try {
+            Optional<PendingFulfillmentQueue.Snapshot> snapshot = pendingFulfillmentQueue.getSnapshot();
+            if (snapshot.isPresent()) {
+                String lastRefreshedAt = snapshot.get().lastRefreshedAt().toString();
+                logger.info("Serving {} pending orders from queue (last refreshed {})",
+                            snapshot.get().orders().size(), lastRefreshedAt);
+                return ResponseEntity.ok()
+                        .header("X-Last-Refreshed", lastRefreshedAt)
+                        .body(ApiResponse.success("Last refreshed " + lastRefreshedAt, snapshot.get().orders()));
+            }
+
+            // Queue disabled or not built yet
             List<UnfulfilledOrder> orders = fulfillmentService.getUnfulfilledOrders(includeDiscounts, includeSalePrices);
             logger.info("Found {} orders pending fulfillment", orders.size());
             return ResponseEntity.ok(ApiResponse.success(orders));
@@ -57,8 +75,8 @@ public class FulfillmentController {
      * GET /api/fulfillment/{orderId}
      * Get detailed information about a specific order
      *
-     * @param orderId The Shopify order ID
-     * @return Order details
+     * @param orderId The Shopify order ID (GID or numeric) or order name
+     * @return Order details, or 404 if the order does not exist or is already in CRS
      */
     @GetMapping("/{orderId}")
     public ResponseEntity<ApiResponse<UnfulfilledOrder>> getOrderDetails(
@@ -67,12 +85,8 @@ public class FulfillmentController {
         logger.info("GET /api/fulfillment/{} - Fetching order details", orderId);
 
         try {
-            // Fetch all orders with full data (discounts and sale prices) for single order lookup
-            List<UnfulfilledOrder> orders = fulfillmentService.getUnfulfilledOrders(true, true);
-            UnfulfilledOrder order = orders.stream()
-                    .filter(o -> o.getOrderId().equals(orderId) || o.getOrderName().equals(orderId))
-                    .findFirst()
-                    .orElse(null);
+            // Fetch just this order with full data (discounts and sale prices)
+            UnfulfilledOrder order = fulfillmentService.getPendingOrder(orderId).orElse(null);
 
             if (order == null) {
                 logger.warn("Order {} not found", orderId);
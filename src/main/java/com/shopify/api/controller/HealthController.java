@@ -1,7 +1,12 @@
 package com.shopify.api.controller;
 
+import com.shopify.api.client.AnthropicClient;
+import com.shopify.api.client.MCPClient;
+import com.shopify.api.client.MCPResultCache;
 import com.shopify.api.client.ShopifyGraphQLClient;
 import com.shopify.api.model.ApiResponse;
+import com.shopify.api.service.ChatSessionStore;
+import com.shopify.api.service.agent.WorkflowQueueService;
 import com.shopify.api.util.RateLimiter;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -20,10 +25,23 @@ public class HealthController {
 
     private final ShopifyGraphQLClient graphQLClient;
     private final RateLimiter rateLimiter;
+    private final MCPClient mcpClient;
+    private final MCPResultCache mcpResultCache;
+    private final AnthropicClient anthropicClient;
+    private final ChatSessionStore chatSessionStore;
+    private final WorkflowQueueService workflowQueueService;
 
-    public HealthController(ShopifyGraphQLClient graphQLClient, RateLimiter rateLimiter) {
+    public HealthController(ShopifyGraphQLClient graphQLClient, RateLimiter rateLimiter,
+                            MCPClient mcpClient, MCPResultCache mcpResultCache,
+                            AnthropicClient anthropicClient, ChatSessionStore chatSessionStore,
+                            WorkflowQueueService workflowQueueService) {
         this.graphQLClient = graphQLClient;
         this.rateLimiter = rateLimiter;
+        this.mcpClient = mcpClient;
+        this.mcpResultCache = mcpResultCache;
+        this.anthropicClient = anthropicClient;
+        this.chatSessionStore = chatSessionStore;
+        this.workflowQueueService = workflowQueueService;
     }
 
     /**
@@ -55,6 +73,14 @@ public class HealthController {
         status.put("timestamp", System.currentTimeMillis());
         status.put("shopify_connected", shopifyConnected);
         status.put("rate_limiter_available_points", rateLimiter.getAvailablePoints());
+        status.put("rate_limiter_maximum_available", rateLimiter.getMaximumAvailable());
+        status.put("rate_limiter_restore_rate", rateLimiter.getRestoreRate());
+        status.put("mcp_cache", mcpResultCache.getStats());
+        status.put("mcp_circuit_breaker", mcpClient.getCircuitBreakerStatus());
+        status.put("mcp_latency", mcpClient.getLatencyStats());
+        status.put("anthropic_latency", anthropicClient.getLatencyStats());
+        status.put("chat_sessions", chatSessionStore.getStats());
+        status.put("workflow_queue", workflowQueueService.getStats());
 
         if (shopifyConnected) {
             return ResponseEntity.ok(ApiResponse.success("System operational", status));
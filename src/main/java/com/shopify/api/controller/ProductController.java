@@ -1,11 +1,14 @@
 package com.shopify.api.controller;
 
 import com.shopify.api.model.ApiResponse;
+import com.shopify.api.model.BulkProductVariant;
 import com.shopify.api.service.ProductService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 
 import java.util.Map;
 
@@ -100,4 +103,33 @@ public class ProductController {
                     .body(ApiResponse.error("Failed to search products", e.getMessage()));
         }
     }
+
+    /**
+     * GET /api/products/export
+     * Stream every product matching a search query, paging through Shopify as the client reads
+     *
+     * @param q Shopify product search query (default: all products)
+     * @return Newline-delimited JSON stream of products
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Map<String, Object>> exportProducts(@RequestParam(required = false) String q) {
+        logger.info("GET /api/products/export - query: {}", q);
+
+        return productService.streamProducts(q)
+                .doOnError(e -> logger.error("Error exporting products", e));
+    }
+
+    /**
+     * GET /api/products/catalog/export
+     * Stream a full catalog snapshot (one variant per line) via a Shopify bulk operation
+     *
+     * @return Newline-delimited JSON stream of variants
+     */
+    @GetMapping(value = "/catalog/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BulkProductVariant> exportCatalog() {
+        logger.info("GET /api/products/catalog/export");
+
+        return productService.exportCatalogSnapshot()
+                .doOnError(e -> logger.error("Error exporting catalog", e));
+    }
 }
@@ -54,6 +54,9 @@ public class SeoAgentController {
      *   }
      * }
      *
+     * Alternatively send a "sessionId" instead of conversationHistory to keep the
+     * transcript on the server.
+     *
      * Response:
      * {
      *   "success": true,
@@ -94,6 +97,18 @@ public class SeoAgentController {
                 });
     }
 
+    /**
+     * DELETE /api/seo-agent/session/{sessionId} - Forget a server-side SEO agent session
+     */
+    @DeleteMapping("/session/{sessionId}")
+    public ResponseEntity<ApiResponse<Boolean>> clearSession(@PathVariable String sessionId) {
+        boolean removed = seoAgentService.clearSession(sessionId);
+        return ResponseEntity.ok(ApiResponse.success(
+                removed ? "Session cleared" : "Session not found",
+                removed
+        ));
+    }
+
     /**
      * GET /api/seo-agent/status - Check if SEO agent is available
      *
@@ -1,26 +1,38 @@
 package com.shopify.api.controller.agent;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.shopify.api.dto.agent.*;
 import com.shopify.api.model.agent.Workflow;
+import com.shopify.api.model.agent.WorkflowExecution;
 import com.shopify.api.model.agent.WorkflowStep;
-import com.shopify.api.service.agent.WorkflowOrchestratorService;
+import com.shopify.api.service.agent.WorkflowQueueService;
 import com.shopify.api.service.agent.WorkflowService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 /**
  * REST Controller for Workflow and WorkflowStep management
  *
  * Provides endpoints for creating and managing workflows and their steps.
  * Workflows orchestrate multiple agents in sequential or parallel execution.
+ * Executions are queued and run in the background; clients poll or stream their status.
  *
  * See: docs/multi-agent/ARCHITECTURE.md for system design
  */
@@ -32,7 +44,13 @@ import reactor.core.publisher.Mono;
 public class WorkflowController {
 
     private final WorkflowService workflowService;
-    private final WorkflowOrchestratorService workflowOrchestratorService;
+    private final WorkflowQueueService workflowQueueService;
+
+    @Value("${workflow.queue.status-poll-interval-ms:1000}")
+    private long statusPollIntervalMs;
+
+    @Value("${workflow.queue.execute-wait-timeout-ms:600000}")
+    private long executeWaitTimeoutMs;
 
     /**
      * Create a new workflow
@@ -52,6 +70,8 @@ public class WorkflowController {
             .inputSchemaJson(request.getInputSchemaJson())
             .interfaceType(request.getInterfaceType())
             .isPublic(request.getIsPublic())
+            .priority(request.getPriority() != null ? request.getPriority() : 0)
+            .maxConcurrentExecutions(request.getMaxConcurrentExecutions())
             .build();
 
         Workflow createdWorkflow = workflowService.createWorkflow(workflow);
@@ -124,6 +144,8 @@ public class WorkflowController {
             .inputSchemaJson(request.getInputSchemaJson())
             .interfaceType(request.getInterfaceType())
             .isPublic(request.getIsPublic())
+            .priority(request.getPriority() != null ? request.getPriority() : 0)
+            .maxConcurrentExecutions(request.getMaxConcurrentExecutions())
             .build();
 
         Workflow workflow = workflowService.updateWorkflow(id, updatedWorkflow);
@@ -267,93 +289,177 @@ public class WorkflowController {
     }
 
     /**
-     * Execute a workflow
-     * POST /api/workflows/{id}/execute
+     * Queue an execution of a workflow
+     * POST /api/workflows/{id}/execute?priority=&wait=
+     * Returns the execution ID right away; poll /api/workflows/executions/{executionId}
+     * or follow /api/workflows/executions/{executionId}/events for the result.
+     * With wait=true the response is held until the execution finishes or pauses for approval
+     * (see {@link #awaitExecution}).
      */
     @PostMapping("/{id}/execute")
     public Mono<ResponseEntity<Object>> executeWorkflow(
         @PathVariable Long id,
-        @RequestBody(required = false) com.fasterxml.jackson.databind.JsonNode triggerData
+        @RequestParam(required = false) Integer priority,
+        @RequestParam(defaultValue = "false") boolean wait,
+        @RequestBody(required = false) JsonNode triggerData
     ) {
-        log.info("Executing workflow ID: {}", id);
-
-        // Default to empty object if no trigger data provided
-        if (triggerData == null) {
-            triggerData = new com.fasterxml.jackson.databind.ObjectMapper().createObjectNode();
+        log.info("Queueing execution of workflow ID: {}", id);
+
+        WorkflowExecution execution;
+        try {
+            execution = workflowQueueService.enqueue(id, triggerData, priority);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(errorResponse(HttpStatus.NOT_FOUND, e.getMessage()));
+        } catch (IllegalStateException e) {
+            return Mono.just(errorResponse(HttpStatus.CONFLICT, e.getMessage()));
         }
-
-        return workflowOrchestratorService.executeWorkflow(id, triggerData)
-            .map(result -> {
-                // Build response
-                java.util.Map<String, Object> response = new java.util.HashMap<>();
-                response.put("success", result.isSuccess());
-                response.put("context", result.getContext());
-                if (result.getErrorMessage() != null) {
-                    response.put("error", result.getErrorMessage());
-                }
-                return ResponseEntity.ok((Object) response);
-            })
-            .onErrorResume(error -> {
-                log.error("Workflow execution error: {}", error.getMessage());
-                java.util.Map<String, Object> errorResponse = new java.util.HashMap<>();
-                errorResponse.put("success", false);
-                errorResponse.put("error", error.getMessage());
-                return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body((Object) errorResponse));
-            });
+        return wait
+            ? awaitExecution(execution)
+            : Mono.just(ResponseEntity.status(HttpStatus.ACCEPTED).body(queuedResponse(execution)));
     }
 
     /**
-     * Execute a public workflow (no authentication required)
-     * POST /api/workflows/public/{id}/execute
+     * Queue an execution of a public workflow (no authentication required)
+     * POST /api/workflows/public/{id}/execute?wait=
      */
     @PostMapping("/public/{id}/execute")
     public Mono<ResponseEntity<Object>> executePublicWorkflow(
         @PathVariable Long id,
-        @RequestBody(required = false) com.fasterxml.jackson.databind.JsonNode input
+        @RequestParam(defaultValue = "false") boolean wait,
+        @RequestBody(required = false) JsonNode input
     ) {
         log.info("Public execution request for workflow ID: {}", id);
 
         // Verify workflow exists and is public
-        return Mono.fromCallable(() -> workflowService.getWorkflowById(id))
-            .flatMap(optWorkflow -> {
-                if (optWorkflow.isEmpty()) {
-                    return Mono.just(ResponseEntity.notFound().build());
-                }
+        Optional<Workflow> workflow = workflowService.getWorkflowById(id);
+        if (workflow.isEmpty()) {
+            return Mono.just(ResponseEntity.notFound().build());
+        }
+        if (!Boolean.TRUE.equals(workflow.get().getIsPublic())) {
+            return Mono.just(errorResponse(HttpStatus.FORBIDDEN, "Workflow is not public"));
+        }
 
-                Workflow workflow = optWorkflow.get();
-                if (!Boolean.TRUE.equals(workflow.getIsPublic())) {
-                    java.util.Map<String, Object> errorResponse = new java.util.HashMap<>();
-                    errorResponse.put("success", false);
-                    errorResponse.put("error", "Workflow is not public");
-                    return Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN)
-                        .body((Object) errorResponse));
-                }
+        WorkflowExecution execution;
+        try {
+            // Public callers always get the workflow's own priority
+            execution = workflowQueueService.enqueue(id, input, null);
+        } catch (IllegalStateException e) {
+            return Mono.just(errorResponse(HttpStatus.CONFLICT, e.getMessage()));
+        }
+        return wait
+            ? awaitExecution(execution)
+            : Mono.just(ResponseEntity.status(HttpStatus.ACCEPTED).body(queuedResponse(execution)));
+    }
+
+    /**
+     * Get the status (and, once finished, the result) of a workflow execution
+     * GET /api/workflows/executions/{executionId}
+     */
+    @GetMapping("/executions/{executionId}")
+    public ResponseEntity<WorkflowExecutionResponse> getExecution(@PathVariable Long executionId) {
+        return workflowQueueService.findExecution(executionId)
+            .map(WorkflowExecutionResponse::fromEntity)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
 
-                // Default to empty object if no input provided
-                com.fasterxml.jackson.databind.JsonNode inputData = input != null
-                    ? input
-                    : new com.fasterxml.jackson.databind.ObjectMapper().createObjectNode();
-
-                return workflowOrchestratorService.executeWorkflow(id, inputData)
-                    .map(result -> {
-                        java.util.Map<String, Object> response = new java.util.HashMap<>();
-                        response.put("success", result.isSuccess());
-                        response.put("context", result.getContext());
-                        if (result.getErrorMessage() != null) {
-                            response.put("error", result.getErrorMessage());
-                        }
-                        return ResponseEntity.ok((Object) response);
-                    });
+    /**
+     * Retry a finished workflow execution from its checkpoints
+     * POST /api/workflows/executions/{executionId}/retry?fromStep=
+     * Without fromStep the execution continues from the step that failed; with it, that step
+     * (by step_order) and every step depending on it run again
+     */
+    @PostMapping("/executions/{executionId}/retry")
+    public ResponseEntity<Object> retryExecution(
+        @PathVariable Long executionId,
+        @RequestParam(required = false) Integer fromStep
+    ) {
+        log.info("Retrying workflow execution {} from step {}", executionId, fromStep);
+
+        try {
+            WorkflowExecution execution = workflowQueueService.retry(executionId, fromStep);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(queuedResponse(execution));
+        } catch (IllegalArgumentException e) {
+            return errorResponse(HttpStatus.NOT_FOUND, e.getMessage());
+        } catch (IllegalStateException e) {
+            return errorResponse(HttpStatus.CONFLICT, e.getMessage());
+        }
+    }
+
+    /**
+     * Stream status changes of a workflow execution as server-sent events
+     * GET /api/workflows/executions/{executionId}/events
+     * Emits a "status" event for the current status and each change; completes once finished
+     */
+    @GetMapping(value = "/executions/{executionId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<WorkflowExecutionResponse>> streamExecution(@PathVariable Long executionId) {
+        return Flux.interval(Duration.ZERO, Duration.ofMillis(statusPollIntervalMs))
+            .onBackpressureDrop()
+            .concatMap(tick -> Mono.fromCallable(() -> workflowQueueService.findExecution(executionId)
+                    .map(WorkflowExecutionResponse::fromEntity)
+                    .orElseThrow(() -> new IllegalArgumentException("Workflow execution not found: " + executionId)))
+                .subscribeOn(Schedulers.boundedElastic()))
+            .distinctUntilChanged(WorkflowExecutionResponse::getStatus)
+            .takeUntil(WorkflowExecutionResponse::getFinished)
+            .map(status -> ServerSentEvent.<WorkflowExecutionResponse>builder()
+                .event("status")
+                .data(status)
+                .build());
+    }
+
+    /**
+     * Hold the response until a queued execution finishes or pauses, for clients that expect
+     * the synchronous execute API: 200 with its context, pendingApproval when paused, or 500
+     * with its error. Still queued or running after workflow.queue.execute-wait-timeout-ms,
+     * it answers 202 like an execute without wait.
+     */
+    private Mono<ResponseEntity<Object>> awaitExecution(WorkflowExecution queued) {
+        Long executionId = queued.getId();
+        return Flux.interval(Duration.ofMillis(statusPollIntervalMs))
+            .onBackpressureDrop()
+            .concatMap(tick -> Mono.fromCallable(() -> workflowQueueService.findExecution(executionId)
+                    .map(WorkflowExecutionResponse::fromEntity)
+                    .orElseThrow(() -> new IllegalArgumentException("Workflow execution not found: " + executionId)))
+                .subscribeOn(Schedulers.boundedElastic()))
+            .filter(status -> status.getFinished() || "PAUSED".equals(status.getStatus()))
+            .next()
+            .map(status -> {
+                Map<String, Object> response = new HashMap<>();
+                response.put("executionId", executionId);
+                response.put("status", status.getStatus());
+                response.put("context", status.getContext());
+                if ("PAUSED".equals(status.getStatus())) {
+                    response.put("success", true);
+                    response.put("pendingApproval", true);
+                    return ResponseEntity.ok((Object) response);
+                }
+                response.put("success", status.getSuccess());
+                if (!status.getSuccess()) {
+                    response.put("error", status.getError());
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body((Object) response);
+                }
+                return ResponseEntity.ok((Object) response);
             })
-            .onErrorResume(error -> {
-                log.error("Public workflow execution error: {}", error.getMessage());
-                java.util.Map<String, Object> errorResponse = new java.util.HashMap<>();
-                errorResponse.put("success", false);
-                errorResponse.put("error", error.getMessage());
-                return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body((Object) errorResponse));
-            });
+            .timeout(Duration.ofMillis(executeWaitTimeoutMs),
+                Mono.fromSupplier(() -> ResponseEntity.status(HttpStatus.ACCEPTED).body((Object) queuedResponse(queued))));
+    }
+
+    private Map<String, Object> queuedResponse(WorkflowExecution execution) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("executionId", execution.getId());
+        response.put("status", execution.getStatus());
+        response.put("statusUrl", "/api/workflows/executions/" + execution.getId());
+        response.put("eventsUrl", "/api/workflows/executions/" + execution.getId() + "/events");
+        return response;
+    }
+
+    private ResponseEntity<Object> errorResponse(HttpStatus status, String message) {
+        log.error("Workflow execution error: {}", message);
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("error", message);
+        return ResponseEntity.status(status).body(errorResponse);
     }
 
     /**
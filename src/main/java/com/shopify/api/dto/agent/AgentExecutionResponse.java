@@ -25,6 +25,8 @@ public class AgentExecutionResponse {
     private JsonNode inputDataJson;
     private JsonNode outputDataJson;
     private Integer tokensUsed;
+    private Integer cacheCreationInputTokens;
+    private Integer cacheReadInputTokens;
     private Integer executionTimeMs;
     private String errorMessage;
     private LocalDateTime startedAt;
@@ -43,6 +45,8 @@ public class AgentExecutionResponse {
             .inputDataJson(execution.getInputDataJson())
             .outputDataJson(execution.getOutputDataJson())
             .tokensUsed(execution.getTokensUsed())
+            .cacheCreationInputTokens(execution.getCacheCreationInputTokens())
+            .cacheReadInputTokens(execution.getCacheReadInputTokens())
             .executionTimeMs(execution.getExecutionTimeMs())
             .errorMessage(execution.getErrorMessage())
             .startedAt(execution.getStartedAt())
@@ -54,4 +54,16 @@ public class CreateWorkflowRequest {
      */
     @Builder.Default
     private Boolean isPublic = false;
+
+    /**
+     * Default queue priority of the workflow's executions (higher runs first)
+     */
+    @Builder.Default
+    private Integer priority = 0;
+
+    /**
+     * Executions of the workflow running at once (optional, defaults to the queue setting)
+     */
+    @Min(value = 1, message = "Max concurrent executions must be at least 1")
+    private Integer maxConcurrentExecutions;
 }
@@ -21,8 +21,8 @@ public class CreateWorkflowStepRequest {
     private Integer stepOrder;
 
     @NotBlank(message = "Step type is required")
-    @Pattern(regexp = "AGENT_EXECUTION|APPROVAL|CONDITION|PARALLEL",
-             message = "Step type must be AGENT_EXECUTION, APPROVAL, CONDITION, or PARALLEL")
+    @Pattern(regexp = "AGENT_EXECUTION|APPROVAL|CONDITION|PARALLEL|MAP",
+             message = "Step type must be AGENT_EXECUTION, APPROVAL, CONDITION, PARALLEL, or MAP")
     private String stepType;
 
     private Long agentId;
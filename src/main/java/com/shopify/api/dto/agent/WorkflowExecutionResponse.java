@@ -0,0 +1,66 @@
+package com.shopify.api.dto.agent;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.shopify.api.model.agent.WorkflowExecution;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * DTO for workflow execution status responses
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WorkflowExecutionResponse {
+
+    private static final Set<String> FINISHED_STATUSES = Set.of("COMPLETED", "FAILED", "CANCELLED");
+
+    private Long executionId;
+    private Long workflowId;
+    private String status;
+    private Integer priority;
+    private Integer attempts;
+
+    /**
+     * Whether the execution has finished (COMPLETED, FAILED or CANCELLED)
+     */
+    private Boolean finished;
+
+    /**
+     * True once COMPLETED, false once FAILED or CANCELLED, null while queued or running
+     */
+    private Boolean success;
+
+    private JsonNode context;
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+
+    /**
+     * Convert WorkflowExecution entity to WorkflowExecutionResponse DTO
+     */
+    public static WorkflowExecutionResponse fromEntity(WorkflowExecution execution) {
+        boolean finished = FINISHED_STATUSES.contains(execution.getStatus());
+        return WorkflowExecutionResponse.builder()
+            .executionId(execution.getId())
+            .workflowId(execution.getWorkflow() != null ? execution.getWorkflow().getId() : null)
+            .status(execution.getStatus())
+            .priority(execution.getPriority())
+            .attempts(execution.getAttempts())
+            .finished(finished)
+            .success(finished ? "COMPLETED".equals(execution.getStatus()) : null)
+            .context(execution.getContextDataJson())
+            .error(execution.getErrorMessage())
+            .createdAt(execution.getCreatedAt())
+            .startedAt(execution.getStartedAt())
+            .completedAt(execution.getCompletedAt())
+            .build();
+    }
+}
@@ -31,6 +31,8 @@ public class WorkflowResponse {
     private JsonNode inputSchemaJson;
     private String interfaceType;
     private Boolean isPublic;
+    private Integer priority;
+    private Integer maxConcurrentExecutions;
 
     /**
      * Convert Workflow entity to WorkflowResponse DTO
@@ -47,6 +49,8 @@ public class WorkflowResponse {
             .inputSchemaJson(workflow.getInputSchemaJson())
             .interfaceType(workflow.getInterfaceType())
             .isPublic(workflow.getIsPublic())
+            .priority(workflow.getPriority())
+            .maxConcurrentExecutions(workflow.getMaxConcurrentExecutions())
             .createdAt(workflow.getCreatedAt())
             .updatedAt(workflow.getUpdatedAt())
             .stepCount(workflow.getWorkflowSteps() != null ? workflow.getWorkflowSteps().size() : 0)
@@ -0,0 +1,78 @@
+package com.shopify.api.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Order totals as streamed from a Shopify bulk operation JSONL export
+ * One instance per JSONL line, so memory use does not grow with the export size
+ */
+@Data
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class BulkOrder {
+
+    private String id;
+    private String name;
+    private String createdAt;
+    private MoneyBag totalPriceSet;
+    private MoneyBag totalShippingPriceSet;
+    private MoneyBag totalDiscountsSet;
+
+    /**
+     * Total price in shop currency (zero if absent)
+     */
+    public BigDecimal getTotalPrice() {
+        return MoneyBag.amountOf(totalPriceSet);
+    }
+
+    /**
+     * Shipping price in shop currency (zero if absent)
+     */
+    public BigDecimal getTotalShippingPrice() {
+        return MoneyBag.amountOf(totalShippingPriceSet);
+    }
+
+    /**
+     * Discounts in shop currency (zero if absent)
+     */
+    public BigDecimal getTotalDiscounts() {
+        return MoneyBag.amountOf(totalDiscountsSet);
+    }
+
+    /**
+     * Shop currency code of the order total, or null if absent
+     */
+    public String getCurrencyCode() {
+        return totalPriceSet != null && totalPriceSet.getShopMoney() != null
+                ? totalPriceSet.getShopMoney().getCurrencyCode() : null;
+    }
+
+    /**
+     * Shopify MoneyBag (only the shopMoney side is requested)
+     */
+    @Data
+    @NoArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class MoneyBag {
+        private Money shopMoney;
+
+        static BigDecimal amountOf(MoneyBag bag) {
+            if (bag == null || bag.getShopMoney() == null || bag.getShopMoney().getAmount() == null) {
+                return BigDecimal.ZERO;
+            }
+            return bag.getShopMoney().getAmount();
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Money {
+        private BigDecimal amount;
+        private String currencyCode;
+    }
+}
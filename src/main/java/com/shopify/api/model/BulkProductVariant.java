@@ -0,0 +1,39 @@
+package com.shopify.api.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Catalog snapshot row as streamed from a Shopify bulk operation JSONL export
+ * One row per product variant, with the parent product's fields inlined
+ */
+@Data
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class BulkProductVariant {
+
+    private String id;
+    private String title;
+    private String sku;
+    private String barcode;
+    private BigDecimal price;
+    private BigDecimal compareAtPrice;
+    private Integer inventoryQuantity;
+    private Product product;
+
+    @Data
+    @NoArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Product {
+        private String id;
+        private String title;
+        private String handle;
+        private String status;
+        private String vendor;
+        private String productType;
+        private String updatedAt;
+    }
+}
@@ -11,4 +11,5 @@ import java.util.List;
 public class ChatRequest {
     private String message;                 // User's message
     private List<ChatMessage> conversationHistory;  // Previous messages for context
+    private String sessionId;               // Server-side session; when set, conversationHistory is ignored
 }
@@ -0,0 +1,53 @@
+package com.shopify.api.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One event of a streamed chat response, sent to the browser as a Server-Sent Event
+ * named after its type:
+ * - text: a delta of assistant text
+ * - tool_start / tool_end: a tool call began / finished (tool name, and input on start)
+ * - done: the complete assistant message
+ * - error: the stream failed; message holds the user-facing text
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChatStreamEvent {
+
+    public static final String TEXT = "text";
+    public static final String TOOL_START = "tool_start";
+    public static final String TOOL_END = "tool_end";
+    public static final String DONE = "done";
+    public static final String ERROR = "error";
+
+    private String type;
+    private String text;        // Text delta (text events)
+    private String tool;        // Tool name (tool events)
+    private Object input;       // Tool input (tool_start events)
+    private ChatMessage message; // Full assistant message (done / error events)
+
+    public static ChatStreamEvent text(String delta) {
+        return new ChatStreamEvent(TEXT, delta, null, null, null);
+    }
+
+    public static ChatStreamEvent toolStart(String tool, Object input) {
+        return new ChatStreamEvent(TOOL_START, null, tool, input, null);
+    }
+
+    public static ChatStreamEvent toolEnd(String tool) {
+        return new ChatStreamEvent(TOOL_END, null, tool, null, null);
+    }
+
+    public static ChatStreamEvent done(ChatMessage message) {
+        return new ChatStreamEvent(DONE, null, null, null, message);
+    }
+
+    public static ChatStreamEvent error(ChatMessage message) {
+        return new ChatStreamEvent(ERROR, null, null, null, message);
+    }
+}
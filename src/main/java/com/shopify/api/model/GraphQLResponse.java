@@ -1,5 +1,6 @@
 package com.shopify.api.model;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -39,15 +40,68 @@ public class GraphQLResponse {
      * Get the query cost from extensions
      */
     public Integer getQueryCost() {
-        if (extensions != null && extensions.containsKey("cost")) {
-            Map<String, Object> cost = (Map<String, Object>) extensions.get("cost");
-            if (cost.containsKey("actualQueryCost")) {
-                return (Integer) cost.get("actualQueryCost");
-            }
+        return getCostField("actualQueryCost");
+    }
+
+    /**
+     * Get the requested (pre-execution) query cost from extensions
+     */
+    public Integer getRequestedQueryCost() {
+        return getCostField("requestedQueryCost");
+    }
+
+    /**
+     * Get Shopify's view of the rate limit bucket after this query
+     * @return Throttle status, or null if the response did not include one
+     */
+    public ThrottleStatus getThrottleStatus() {
+        Map<String, Object> cost = getCost();
+        if (cost == null || !(cost.get("throttleStatus") instanceof Map)) {
+            return null;
+        }
+
+        Map<String, Object> status = (Map<String, Object>) cost.get("throttleStatus");
+        Object maximumAvailable = status.get("maximumAvailable");
+        Object currentlyAvailable = status.get("currentlyAvailable");
+        Object restoreRate = status.get("restoreRate");
+        if (!(maximumAvailable instanceof Number) || !(currentlyAvailable instanceof Number)
+                || !(restoreRate instanceof Number)) {
+            return null;
+        }
+
+        return new ThrottleStatus(
+                ((Number) maximumAvailable).doubleValue(),
+                ((Number) currentlyAvailable).doubleValue(),
+                ((Number) restoreRate).doubleValue());
+    }
+
+    private Map<String, Object> getCost() {
+        if (extensions != null && extensions.get("cost") instanceof Map) {
+            return (Map<String, Object>) extensions.get("cost");
+        }
+        return null;
+    }
+
+    private Integer getCostField(String field) {
+        Map<String, Object> cost = getCost();
+        if (cost != null && cost.get(field) instanceof Number) {
+            return ((Number) cost.get(field)).intValue();
         }
         return null;
     }
 
+    /**
+     * Snapshot of Shopify's leaky bucket (extensions.cost.throttleStatus)
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ThrottleStatus {
+        private double maximumAvailable;
+        private double currentlyAvailable;
+        private double restoreRate;
+    }
+
     /**
      * Represents a GraphQL error
      */
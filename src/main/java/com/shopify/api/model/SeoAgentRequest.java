@@ -26,6 +26,12 @@ public class SeoAgentRequest {
     @JsonProperty("config")
     private SeoAgentConfig config;
 
+    /**
+     * Server-side session id; when set, the stored transcript is used instead of conversationHistory
+     */
+    @JsonProperty("sessionId")
+    private String sessionId;
+
     /**
      * SEO Agent configuration (tools, agents, LLM settings)
      */
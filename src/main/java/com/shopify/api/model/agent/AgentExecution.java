@@ -64,6 +64,12 @@ public class AgentExecution {
     @Column(name = "tokens_used")
     private Integer tokensUsed;
 
+    @Column(name = "cache_creation_input_tokens")
+    private Integer cacheCreationInputTokens;
+
+    @Column(name = "cache_read_input_tokens")
+    private Integer cacheReadInputTokens;
+
     @Column(name = "execution_time_ms")
     private Integer executionTimeMs;
 
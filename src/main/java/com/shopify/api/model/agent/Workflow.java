@@ -84,6 +84,19 @@ public class Workflow {
     @Builder.Default
     private Boolean isPublic = false;
 
+    /**
+     * Default queue priority of this workflow's executions; higher runs first
+     */
+    @Column(name = "priority", nullable = false)
+    @Builder.Default
+    private Integer priority = 0;
+
+    /**
+     * Executions of this workflow running at once; null uses workflow.queue.default-max-per-workflow
+     */
+    @Column(name = "max_concurrent_executions")
+    private Integer maxConcurrentExecutions;
+
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
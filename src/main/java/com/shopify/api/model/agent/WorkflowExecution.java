@@ -43,7 +43,11 @@ public class WorkflowExecution {
 
     @Column(name = "status", nullable = false, length = 50)
     @Builder.Default
-    private String status = "PENDING"; // PENDING, RUNNING, COMPLETED, FAILED, CANCELLED
+    private String status = "PENDING"; // PENDING, QUEUED, RUNNING, PAUSED, COMPLETED, FAILED, CANCELLED
+
+    @Column(name = "priority", nullable = false)
+    @Builder.Default
+    private Integer priority = 0;
 
     @Type(JsonBinaryType.class)
     @Column(name = "trigger_data_json", columnDefinition = "jsonb")
@@ -62,6 +66,20 @@ public class WorkflowExecution {
     @Column(name = "error_message", columnDefinition = "TEXT")
     private String errorMessage;
 
+    // Queue worker running the execution, and its liveness
+    @Column(name = "claimed_by", length = 100)
+    private String claimedBy;
+
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+
+    @Column(name = "heartbeat_at")
+    private LocalDateTime heartbeatAt;
+
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
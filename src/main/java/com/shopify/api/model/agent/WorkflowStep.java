@@ -46,7 +46,7 @@ public class WorkflowStep {
     private Integer stepOrder;
 
     @Column(name = "step_type", nullable = false, length = 50)
-    private String stepType; // AGENT_EXECUTION, APPROVAL, CONDITION, etc.
+    private String stepType; // AGENT_EXECUTION, APPROVAL, CONDITION, PARALLEL, MAP
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "agent_id")
@@ -0,0 +1,83 @@
+package com.shopify.api.model.agent;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.hypersistence.utils.hibernate.type.json.JsonBinaryType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Type;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * WorkflowStepCheckpoint Entity - Progress of one step within a workflow execution
+ *
+ * Written when a step completes, is skipped by its condition, or starts waiting for
+ * approval. Each row holds only that step's output, so the context of an execution is
+ * its trigger data plus the outputs of its COMPLETED checkpoints; resumed runs (after an
+ * approval, a retry or a crash) rebuild it from them and only run the remaining steps.
+ *
+ * See: docs/multi-agent/ARCHITECTURE.md for system design
+ */
+@Entity
+@Table(name = "workflow_step_checkpoints")
+@EntityListeners(AuditingEntityListener.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WorkflowStepCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "workflow_execution_id", nullable = false)
+    private WorkflowExecution workflowExecution;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "workflow_step_id")
+    private WorkflowStep workflowStep;
+
+    @Column(name = "step_order", nullable = false)
+    private Integer stepOrder;
+
+    @Column(name = "status", nullable = false, length = 50)
+    private String status; // COMPLETED, SKIPPED, AWAITING_APPROVAL
+
+    @Column(name = "output_variable", length = 255)
+    private String outputVariable;
+
+    @Type(JsonBinaryType.class)
+    @Column(name = "output_json", columnDefinition = "jsonb")
+    private JsonNode outputJson;
+
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+        if (updatedAt == null) {
+            updatedAt = LocalDateTime.now();
+        }
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
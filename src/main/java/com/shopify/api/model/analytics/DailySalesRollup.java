@@ -0,0 +1,126 @@
+package com.shopify.api.model.analytics;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * DailySalesRollup Entity - Sales totals for one store-local day and channel
+ *
+ * Past days never change once settled, so analytics read these rows instead of
+ * recomputing them from raw orders. Maintained by SalesRollupService.
+ */
+@Entity
+@Table(name = "daily_sales_rollups")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DailySalesRollup {
+
+    public static final String CHANNEL_SHOPIFY = "shopify";
+    public static final String CHANNEL_CRS_INSTORE = "crs_instore";
+    public static final String CHANNEL_CRS_HOBBYMAN = "crs_hobbyman";
+    public static final String CHANNEL_CRS_HEARNS = "crs_hearns_hobbies";
+    public static final String CHANNEL_CRS_HOBBYMAN_FULFILLMENT = "crs_hobbyman_fulfillment";
+    public static final String CHANNEL_CRS_HEARNS_FULFILLMENT = "crs_hearns_fulfillment";
+    public static final String CHANNEL_CRS_ONLINE = "crs_online";
+    public static final String CHANNEL_CRS_ONLINE_FULFILLED = "crs_online_fulfilled";
+    public static final String CHANNEL_CRS_ONLINE_PENDING = "crs_online_pending";
+    public static final String CHANNEL_CRS_TOTAL = "crs_total";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "sales_date", nullable = false)
+    private LocalDate salesDate;
+
+    @Column(name = "channel", nullable = false, length = 50)
+    private String channel;
+
+    @Column(name = "order_count", nullable = false)
+    @Builder.Default
+    private Integer orderCount = 0;
+
+    @Column(name = "item_count", nullable = false)
+    @Builder.Default
+    private Integer itemCount = 0;
+
+    @Column(name = "total_sales", nullable = false, precision = 14, scale = 2)
+    @Builder.Default
+    private BigDecimal totalSales = BigDecimal.ZERO;
+
+    @Column(name = "total_freight", nullable = false, precision = 14, scale = 2)
+    @Builder.Default
+    private BigDecimal totalFreight = BigDecimal.ZERO;
+
+    @Column(name = "total_discounts", nullable = false, precision = 14, scale = 2)
+    @Builder.Default
+    private BigDecimal totalDiscounts = BigDecimal.ZERO;
+
+    // Cost of goods sold, only known for crs_instore (CRS invoice cost); 0 for other channels
+    @Column(name = "total_cost", nullable = false, precision = 14, scale = 2)
+    @Builder.Default
+    private BigDecimal totalCost = BigDecimal.ZERO;
+
+    @Column(name = "currency_code", nullable = false, length = 3)
+    @Builder.Default
+    private String currencyCode = "AUD";
+
+    @Column(name = "refreshed_at", nullable = false)
+    private LocalDateTime refreshedAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        LocalDateTime now = LocalDateTime.now();
+        if (createdAt == null) {
+            createdAt = now;
+        }
+        if (refreshedAt == null) {
+            refreshedAt = now;
+        }
+        updatedAt = now;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Copy the totals of a freshly computed rollup into this (persisted) row
+     */
+    public void copyTotalsFrom(DailySalesRollup other) {
+        this.orderCount = other.orderCount;
+        this.itemCount = other.itemCount;
+        this.totalSales = other.totalSales;
+        this.totalFreight = other.totalFreight;
+        this.totalDiscounts = other.totalDiscounts;
+        this.totalCost = other.totalCost;
+        this.currencyCode = other.currencyCode;
+        this.refreshedAt = other.refreshedAt != null ? other.refreshedAt : LocalDateTime.now();
+    }
+
+    /**
+     * Create an empty rollup for a day and channel
+     */
+    public static DailySalesRollup empty(LocalDate salesDate, String channel) {
+        return DailySalesRollup.builder()
+                .salesDate(salesDate)
+                .channel(channel)
+                .build();
+    }
+}
@@ -0,0 +1,43 @@
+package com.shopify.api.model.analytics;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * SalesRollupWatermark Entity - How far the rollup refresh has applied source changes for a channel
+ *
+ * Orders updated before changesThrough are reflected in every saved rollup of the channel,
+ * so the next refresh only looks for orders updated since then. Maintained by SalesRollupService.
+ */
+@Entity
+@Table(name = "sales_rollup_watermarks")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesRollupWatermark {
+
+    @Id
+    @Column(name = "channel", length = 50)
+    private String channel;
+
+    @Column(name = "changes_through", nullable = false)
+    private LocalDateTime changesThrough;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public SalesRollupWatermark(String channel, LocalDateTime changesThrough) {
+        this.channel = channel;
+        this.changesThrough = changesThrough;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
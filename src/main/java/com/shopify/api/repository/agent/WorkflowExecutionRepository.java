@@ -2,11 +2,16 @@ package com.shopify.api.repository.agent;
 
 import com.shopify.api.model.agent.WorkflowExecution;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for WorkflowExecution entity
@@ -44,11 +49,62 @@ public interface WorkflowExecutionRepository extends JpaRepository<WorkflowExecu
     List<WorkflowExecution> findByCreatedAtBetween(LocalDateTime startDate, LocalDateTime endDate);
 
     /**
-     * Find currently running executions
+     * Find queued and currently running executions
      */
-    @Query("SELECT we FROM WorkflowExecution we WHERE we.status IN ('PENDING', 'RUNNING')")
+    @Query("SELECT we FROM WorkflowExecution we WHERE we.status IN ('PENDING', 'QUEUED', 'RUNNING')")
     List<WorkflowExecution> findActiveExecutions();
 
+    /**
+     * Lock the next queued execution whose workflow is below its concurrency limit
+     * Highest priority first, then oldest. Rows (and workflows) locked by another worker's
+     * claim are skipped rather than waited for; the workflow row stays locked until the
+     * caller's transaction commits, so concurrent claims cannot both take its last slot.
+     * Must be called inside a transaction.
+     *
+     * @param defaultMaxPerWorkflow Limit for workflows without max_concurrent_executions; 0 means no limit
+     */
+    @Query(value = "SELECT we.* FROM workflow_executions we " +
+           "JOIN workflows w ON w.id = we.workflow_id " +
+           "WHERE we.status = 'QUEUED' " +
+           "AND (COALESCE(w.max_concurrent_executions, :defaultMaxPerWorkflow) <= 0 " +
+           "  OR (SELECT COUNT(*) FROM workflow_executions r " +
+           "      WHERE r.workflow_id = we.workflow_id AND r.status = 'RUNNING') " +
+           "     < COALESCE(w.max_concurrent_executions, :defaultMaxPerWorkflow)) " +
+           "ORDER BY we.priority DESC, we.created_at, we.id " +
+           "LIMIT 1 " +
+           "FOR UPDATE OF we, w SKIP LOCKED",
+           nativeQuery = true)
+    Optional<WorkflowExecution> lockNextQueued(@Param("defaultMaxPerWorkflow") int defaultMaxPerWorkflow);
+
+    /**
+     * Record that the worker running these executions is still alive
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE WorkflowExecution we SET we.heartbeatAt = :now WHERE we.id IN :ids AND we.status = 'RUNNING'")
+    int heartbeat(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    /**
+     * Fail running executions whose worker stopped heartbeating and that have used up their attempts
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE WorkflowExecution we SET we.status = 'FAILED', we.errorMessage = :errorMessage, " +
+           "we.completedAt = :now " +
+           "WHERE we.status = 'RUNNING' AND we.heartbeatAt < :staleBefore AND we.attempts >= :maxAttempts")
+    int failStale(@Param("staleBefore") LocalDateTime staleBefore, @Param("maxAttempts") int maxAttempts,
+                  @Param("errorMessage") String errorMessage, @Param("now") LocalDateTime now);
+
+    /**
+     * Put running executions whose worker stopped heartbeating back on the queue
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE WorkflowExecution we SET we.status = 'QUEUED', we.claimedBy = NULL, we.claimedAt = NULL, " +
+           "we.heartbeatAt = NULL, we.startedAt = NULL " +
+           "WHERE we.status = 'RUNNING' AND we.heartbeatAt < :staleBefore")
+    int requeueStale(@Param("staleBefore") LocalDateTime staleBefore);
+
     /**
      * Count executions by status
      */
@@ -58,4 +114,35 @@ public interface WorkflowExecutionRepository extends JpaRepository<WorkflowExecu
      * Count executions for a workflow
      */
     long countByWorkflowId(Long workflowId);
+
+    /**
+     * Put an execution in one of the given statuses back on the queue as a fresh claim
+     *
+     * Clears the persistence context, so entities loaded before it must be read again.
+     *
+     * @return 1 if requeued, 0 if it was in another status
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE WorkflowExecution we SET we.status = 'QUEUED', we.claimedBy = NULL, we.claimedAt = NULL, " +
+           "we.heartbeatAt = NULL, we.startedAt = NULL, we.completedAt = NULL, we.errorMessage = NULL, " +
+           "we.attempts = 0 " +
+           "WHERE we.id = :id AND we.status IN :statuses")
+    int requeue(@Param("id") Long id, @Param("statuses") Collection<String> statuses);
+
+    /**
+     * Release a running execution that stopped at approval steps: PAUSED while any approval
+     * checkpoint is still waiting, otherwise (approved meanwhile) straight back to QUEUED
+     * One statement, so an approval recorded concurrently is never missed.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE workflow_executions SET " +
+           "status = CASE WHEN EXISTS (SELECT 1 FROM workflow_step_checkpoints c " +
+           "    WHERE c.workflow_execution_id = :id AND c.status = 'AWAITING_APPROVAL') " +
+           "  THEN 'PAUSED' ELSE 'QUEUED' END, " +
+           "claimed_by = NULL, claimed_at = NULL, heartbeat_at = NULL, attempts = 0 " +
+           "WHERE id = :id AND status = 'RUNNING'",
+           nativeQuery = true)
+    int pauseOrRequeue(@Param("id") Long id);
 }
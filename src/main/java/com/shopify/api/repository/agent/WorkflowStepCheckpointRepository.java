@@ -0,0 +1,43 @@
+package com.shopify.api.repository.agent;
+
+import com.shopify.api.model.agent.WorkflowStepCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for WorkflowStepCheckpoint entity
+ *
+ * Per-step progress of workflow executions, used to resume them.
+ *
+ * See: docs/multi-agent/ARCHITECTURE.md for system design
+ */
+@Repository
+public interface WorkflowStepCheckpointRepository extends JpaRepository<WorkflowStepCheckpoint, Long> {
+
+    /**
+     * Find the checkpoints of an execution in the order they were written
+     */
+    List<WorkflowStepCheckpoint> findByWorkflowExecutionIdOrderByIdAsc(Long workflowExecutionId);
+
+    /**
+     * Find the checkpoint of one step of an execution
+     */
+    Optional<WorkflowStepCheckpoint> findByWorkflowExecutionIdAndStepOrder(Long workflowExecutionId, Integer stepOrder);
+
+    /**
+     * Delete the checkpoints of the given steps, so a retry runs them again
+     */
+    @Transactional
+    long deleteByWorkflowExecutionIdAndStepOrderIn(Long workflowExecutionId, Collection<Integer> stepOrders);
+
+    /**
+     * Delete an execution's checkpoints with the given status
+     */
+    @Transactional
+    long deleteByWorkflowExecutionIdAndStatus(Long workflowExecutionId, String status);
+}
@@ -0,0 +1,55 @@
+package com.shopify.api.repository.analytics;
+
+import com.shopify.api.model.analytics.DailySalesRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for DailySalesRollup entity
+ *
+ * Per-day, per-channel sales totals used by the analytics endpoints.
+ */
+@Repository
+public interface DailySalesRollupRepository extends JpaRepository<DailySalesRollup, Long> {
+
+    /**
+     * Find the rollups of a channel between two days (inclusive)
+     */
+    List<DailySalesRollup> findByChannelAndSalesDateBetweenOrderBySalesDate(String channel, LocalDate start, LocalDate end);
+
+    /**
+     * Find the rollups of several channels between two days (inclusive)
+     */
+    List<DailySalesRollup> findByChannelInAndSalesDateBetween(Collection<String> channels, LocalDate start, LocalDate end);
+
+    /**
+     * Find existing rows for the given days, so a refresh can update them in place
+     */
+    List<DailySalesRollup> findByChannelAndSalesDateIn(String channel, Collection<LocalDate> salesDates);
+
+    /**
+     * Days already rolled up for a channel between two days (inclusive)
+     */
+    @Query("SELECT r.salesDate FROM DailySalesRollup r WHERE r.channel = :channel AND r.salesDate BETWEEN :start AND :end")
+    List<LocalDate> findSalesDatesByChannel(String channel, LocalDate start, LocalDate end);
+
+    /**
+     * Count rolled-up days for a channel between two days (inclusive)
+     */
+    long countByChannelAndSalesDateBetween(String channel, LocalDate start, LocalDate end);
+
+    /**
+     * Drop rollups older than the retention window
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM DailySalesRollup r WHERE r.salesDate < :cutoff")
+    int deleteBySalesDateBefore(LocalDate cutoff);
+}
@@ -0,0 +1,14 @@
+package com.shopify.api.repository.analytics;
+
+import com.shopify.api.model.analytics.SalesRollupWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for SalesRollupWatermark entity
+ *
+ * One row per channel whose changes the rollup refresh tracks.
+ */
+@Repository
+public interface SalesRollupWatermarkRepository extends JpaRepository<SalesRollupWatermark, String> {
+}
@@ -1,19 +1,27 @@
 package com.shopify.api.service;
 
+import com.shopify.api.config.ShopifyConfig;
 import com.shopify.api.model.PeriodComparison;
 import com.shopify.api.model.SalesAnalytics;
+import com.shopify.api.model.analytics.DailySalesRollup;
+import com.shopify.api.repository.analytics.DailySalesRollupRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 
 /**
  * Service for calculating sales analytics and metrics
+ * Orders are bucketed by store-local day, so several windows can be derived from one fetch.
+ * Past days are read from the daily_sales_rollups table; only today is fetched live.
  */
 @Service
 public class AnalyticsService {
@@ -21,11 +29,17 @@ public class AnalyticsService {
     private static final Logger logger = LoggerFactory.getLogger(AnalyticsService.class);
     private static final DateTimeFormatter SHOPIFY_DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
     private static final ZoneId STORE_TIMEZONE = ZoneId.of("Australia/Sydney");
+    private static final List<String> ALL_PERIODS = List.of("1d", "7d", "30d", "90d");
 
     private final OrderService orderService;
+    private final ShopifyConfig shopifyConfig;
+    private final DailySalesRollupRepository rollupRepository;
 
-    public AnalyticsService(OrderService orderService) {
+    public AnalyticsService(OrderService orderService, ShopifyConfig shopifyConfig,
+                            DailySalesRollupRepository rollupRepository) {
         this.orderService = orderService;
+        this.shopifyConfig = shopifyConfig;
+        this.rollupRepository = rollupRepository;
     }
 
     /**
@@ -37,21 +51,60 @@ public class AnalyticsService {
         logger.info("Calculating sales analytics for period: {}", period);
 
         // Use Australian timezone for date calculations
-        LocalDateTime now = LocalDateTime.now(STORE_TIMEZONE);
-        // Set to end of current day to include all of today's orders
-        LocalDateTime periodEnd = now.toLocalDate().atTime(23, 59, 59);
-        LocalDateTime periodStart = calculatePeriodStart(periodEnd, period);
+        LocalDate today = LocalDate.now(STORE_TIMEZONE);
+        LocalDate periodStart = calculatePeriodStart(today, period);
 
+        SortedMap<LocalDate, PeriodTotals> currentDays = loadDailyTotals(period, periodStart, today, today);
+        SortedMap<LocalDate, PeriodTotals> previousYearDays = loadDailyTotals(
+            period + " (last year)", periodStart.minusYears(1), today.minusYears(1), today);
+
+        return buildAnalyticsWithComparison(period, periodStart, today, currentDays, previousYearDays);
+    }
+
+    /**
+     * Get all sales analytics (1d, 7d, 30d, 90d) at once
+     * Fetches the widest window once (plus once for last year) and derives every
+     * period from the same per-day buckets
+     * @return Map of period -> analytics
+     */
+    public Map<String, SalesAnalytics> getAllSalesAnalytics() {
+        logger.info("Calculating all sales analytics");
+
+        LocalDate today = LocalDate.now(STORE_TIMEZONE);
+        LocalDate widestStart = ALL_PERIODS.stream()
+            .map(period -> calculatePeriodStart(today, period))
+            .min(Comparator.naturalOrder())
+            .orElse(today);
+
+        SortedMap<LocalDate, PeriodTotals> currentDays = loadDailyTotals("all periods", widestStart, today, today);
+        SortedMap<LocalDate, PeriodTotals> previousYearDays = loadDailyTotals(
+            "all periods (last year)", widestStart.minusYears(1), today.minusYears(1), today);
+
+        Map<String, SalesAnalytics> allAnalytics = new LinkedHashMap<>();
+        for (String period : ALL_PERIODS) {
+            LocalDate periodStart = calculatePeriodStart(today, period);
+            allAnalytics.put(period,
+                buildAnalyticsWithComparison(period, periodStart, today, currentDays, previousYearDays));
+        }
+
+        return allAnalytics;
+    }
+
+    /**
+     * Build analytics for a period from daily buckets, with YoY comparison against last year's buckets
+     */
+    private SalesAnalytics buildAnalyticsWithComparison(String period, LocalDate periodStart, LocalDate periodEnd,
+                                                        SortedMap<LocalDate, PeriodTotals> currentDays,
+                                                        SortedMap<LocalDate, PeriodTotals> previousYearDays) {
         // Current period
-        SalesAnalytics analytics = calculatePeriodAnalytics(period, periodStart, periodEnd);
+        SalesAnalytics analytics = buildAnalytics(period, periodStart, periodEnd, currentDays);
 
         // Previous year same period
-        LocalDateTime previousYearEnd = periodEnd.minusYears(1);
-        LocalDateTime previousYearStart = periodStart.minusYears(1);
-        SalesAnalytics previousYearAnalytics = calculatePeriodAnalytics(
+        SalesAnalytics previousYearAnalytics = buildAnalytics(
             period + " (last year)",
-            previousYearStart,
-            previousYearEnd
+            periodStart.minusYears(1),
+            periodEnd.minusYears(1),
+            previousYearDays
         );
 
         // Calculate YoY comparison
@@ -69,130 +122,215 @@ public class AnalyticsService {
     }
 
     /**
-     * Get all sales analytics (1d, 7d, 30d, 90d) at once
-     * @return Map of period -> analytics
+     * Sum the daily buckets between start and end (inclusive) into analytics for a period
      */
-    public Map<String, SalesAnalytics> getAllSalesAnalytics() {
-        logger.info("Calculating all sales analytics");
+    private SalesAnalytics buildAnalytics(String period, LocalDate start, LocalDate end,
+                                          SortedMap<LocalDate, PeriodTotals> days) {
+        // Set to end of the last day to include all of that day's orders
+        SalesAnalytics analytics = new SalesAnalytics(period, start.atStartOfDay(), end.atTime(23, 59, 59));
+
+        PeriodTotals totals = new PeriodTotals();
+        for (PeriodTotals day : days.subMap(start, end.plusDays(1)).values()) {
+            totals.merge(day);
+        }
 
-        Map<String, SalesAnalytics> allAnalytics = new LinkedHashMap<>();
-        allAnalytics.put("1d", getSalesAnalytics("1d"));
-        allAnalytics.put("7d", getSalesAnalytics("7d"));
-        allAnalytics.put("30d", getSalesAnalytics("30d"));
-        allAnalytics.put("90d", getSalesAnalytics("90d"));
+        // Set calculated values
+        analytics.setTotalSales(totals.totalSales);
+        analytics.setTotalFreight(totals.totalFreight);
+        analytics.setTotalDiscounts(totals.totalDiscounts);
+        analytics.setOrderCount(totals.orderCount);
+        analytics.setCurrencyCode(totals.currencyCode);
+        analytics.calculateAverageSale();
+
+        logger.info("Analytics calculated for period {}: {} orders, Total Sales: {} {}, Avg Sale: {} {}, Freight: {} {}, Discounts: {} {}",
+            period, totals.orderCount,
+            totals.totalSales, totals.currencyCode,
+            analytics.getAverageSale(), totals.currencyCode,
+            totals.totalFreight, totals.currencyCode,
+            totals.totalDiscounts, totals.currencyCode);
 
-        return allAnalytics;
+        return analytics;
     }
 
     /**
-     * Calculate analytics for a specific time period
+     * Compute Shopify rollups for every day between start and end (inclusive) from raw orders
+     * Days without orders get a zero row, so the rollup table records that they were covered.
+     * @param refreshedAt Timestamp stamped on every row
+     * @return One rollup per day; errors propagate so a failed fetch is never stored as zero sales
      */
-    private SalesAnalytics calculatePeriodAnalytics(String period, LocalDateTime start, LocalDateTime end) {
-        SalesAnalytics analytics = new SalesAnalytics(period, start, end);
+    public List<DailySalesRollup> computeDailyRollups(LocalDate start, LocalDate end, LocalDateTime refreshedAt) {
+        SortedMap<LocalDate, PeriodTotals> days = fetchDailyTotals("rollup", start, end, true);
+
+        List<DailySalesRollup> rollups = new ArrayList<>();
+        for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(1)) {
+            DailySalesRollup rollup = DailySalesRollup.empty(day, DailySalesRollup.CHANNEL_SHOPIFY);
+            PeriodTotals totals = days.get(day);
+            if (totals != null) {
+                rollup.setOrderCount(totals.orderCount);
+                rollup.setTotalSales(totals.totalSales);
+                rollup.setTotalFreight(totals.totalFreight);
+                rollup.setTotalDiscounts(totals.totalDiscounts);
+                rollup.setCurrencyCode(totals.currencyCode);
+            }
+            rollup.setRefreshedAt(refreshedAt);
+            rollups.add(rollup);
+        }
+        return rollups;
+    }
 
-        try {
-            // Format dates for Shopify API (simple date format: yyyy-MM-dd)
-            String startDateStr = start.toLocalDate().format(SHOPIFY_DATE_FORMATTER);
-            String endDateStr = end.toLocalDate().format(SHOPIFY_DATE_FORMATTER);
-
-            logger.info("Fetching orders for period {} from {} to {} (Australian timezone)",
-                period, startDateStr, endDateStr);
-
-            // Fetch orders for the period
-            Map<String, Object> ordersData = orderService.getOrdersByDateRange(startDateStr, endDateStr);
-
-            // Parse and aggregate data
-            if (ordersData != null && ordersData.containsKey("orders")) {
-                Map<String, Object> orders = (Map<String, Object>) ordersData.get("orders");
-                List<Map<String, Object>> edges = (List<Map<String, Object>>) orders.get("edges");
-
-                if (edges != null) {
-                    BigDecimal totalSales = BigDecimal.ZERO;
-                    BigDecimal totalFreight = BigDecimal.ZERO;
-                    BigDecimal totalDiscounts = BigDecimal.ZERO;
-                    int orderCount = 0;
-                    String currencyCode = "AUD"; // Default to AUD for Australian store
-
-                    for (Map<String, Object> edge : edges) {
-                        Map<String, Object> node = (Map<String, Object>) edge.get("node");
-
-                        // Extract total price
-                        Map<String, Object> totalPriceSet = (Map<String, Object>) node.get("totalPriceSet");
-                        if (totalPriceSet != null) {
-                            Map<String, Object> shopMoney = (Map<String, Object>) totalPriceSet.get("shopMoney");
-                            if (shopMoney != null) {
-                                String amount = (String) shopMoney.get("amount");
-                                if (amount != null && !amount.isEmpty()) {
-                                    totalSales = totalSales.add(new BigDecimal(amount));
-                                }
-                                // Update currency code from actual order data
-                                String orderCurrency = (String) shopMoney.get("currencyCode");
-                                if (orderCurrency != null && !orderCurrency.isEmpty()) {
-                                    currencyCode = orderCurrency;
-                                }
-                            }
-                        }
-
-                        // Extract shipping price
-                        Map<String, Object> shippingPriceSet = (Map<String, Object>) node.get("totalShippingPriceSet");
-                        if (shippingPriceSet != null) {
-                            Map<String, Object> shopMoney = (Map<String, Object>) shippingPriceSet.get("shopMoney");
-                            if (shopMoney != null) {
-                                String amount = (String) shopMoney.get("amount");
-                                if (amount != null && !amount.isEmpty()) {
-                                    totalFreight = totalFreight.add(new BigDecimal(amount));
-                                }
-                            }
-                        }
-
-                        // Extract discounts
-                        Map<String, Object> discountsSet = (Map<String, Object>) node.get("totalDiscountsSet");
-                        if (discountsSet != null) {
-                            Map<String, Object> shopMoney = (Map<String, Object>) discountsSet.get("shopMoney");
-                            if (shopMoney != null) {
-                                String amount = (String) shopMoney.get("amount");
-                                if (amount != null && !amount.isEmpty()) {
-                                    totalDiscounts = totalDiscounts.add(new BigDecimal(amount));
-                                }
-                            }
-                        }
-
-                        orderCount++;
-                    }
+    /**
+     * Daily totals between start and end (inclusive) for analytics
+     * Days before today come from the rollup table; today, and any past days the rollup
+     * refresh has not covered yet, are fetched live.
+     * @return Totals per day; days that fail to load are left out so analytics fall back to zero values
+     */
+    private SortedMap<LocalDate, PeriodTotals> loadDailyTotals(String label, LocalDate start, LocalDate end, LocalDate today) {
+        SortedMap<LocalDate, PeriodTotals> days = new TreeMap<>();
+
+        LocalDate lastPastDay = end.isBefore(today) ? end : today.minusDays(1);
+        if (!lastPastDay.isBefore(start)) {
+            for (DailySalesRollup rollup : rollupRepository.findByChannelAndSalesDateBetweenOrderBySalesDate(
+                    DailySalesRollup.CHANNEL_SHOPIFY, start, lastPastDay)) {
+                days.put(rollup.getSalesDate(), PeriodTotals.of(rollup));
+            }
 
-                    // Set calculated values
-                    analytics.setTotalSales(totalSales);
-                    analytics.setTotalFreight(totalFreight);
-                    analytics.setTotalDiscounts(totalDiscounts);
-                    analytics.setOrderCount(orderCount);
-                    analytics.setCurrencyCode(currencyCode);
-                    analytics.calculateAverageSale();
-
-                    logger.info("Analytics calculated for period {}: {} orders, Total Sales: {} {}, Avg Sale: {} {}, Freight: {} {}, Discounts: {} {}",
-                        period, orderCount,
-                        totalSales, currencyCode,
-                        analytics.getAverageSale(), currencyCode,
-                        totalFreight, currencyCode,
-                        totalDiscounts, currencyCode);
-                } else {
-                    logger.warn("No orders found for period {} ({} to {})", period, startDateStr, endDateStr);
+            // Fetch the span of days not rolled up yet (e.g. before the first refresh has run)
+            LocalDate firstMissing = null;
+            LocalDate lastMissing = null;
+            for (LocalDate day = start; !day.isAfter(lastPastDay); day = day.plusDays(1)) {
+                if (!days.containsKey(day)) {
+                    if (firstMissing == null) {
+                        firstMissing = day;
+                    }
+                    lastMissing = day;
                 }
-            } else {
-                logger.warn("No orders data returned for period {}", period);
             }
+            if (firstMissing != null) {
+                logger.info("No rollups for {} between {} and {}, fetching live", label, firstMissing, lastMissing);
+                fetchDailyTotalsOrEmpty(label, firstMissing, lastMissing).forEach(days::putIfAbsent);
+            }
+        }
+
+        if (!end.isBefore(today)) {
+            days.putAll(fetchDailyTotalsOrEmpty(label + " (today)", today, end));
+        }
+
+        return days;
+    }
+
+    /**
+     * {@link #fetchDailyTotals} that returns no buckets on error
+     */
+    private SortedMap<LocalDate, PeriodTotals> fetchDailyTotalsOrEmpty(String label, LocalDate start, LocalDate end) {
+        try {
+            return fetchDailyTotals(label, start, end, false);
         } catch (Exception e) {
-            logger.error("Error calculating analytics for period {}: {}", period, e.getMessage(), e);
-            // Return analytics with zero values on error
+            logger.error("Error fetching orders for {}: {}", label, e.getMessage(), e);
+            // Return no buckets on error so analytics have zero values
+            return new TreeMap<>();
         }
+    }
 
-        return analytics;
+    /**
+     * Fetch orders between start and end (inclusive) and bucket their totals by store-local day
+     * @param bulkAllowed Whether a long range may be fetched with a bulk export (rollup backfill only;
+     *                    a bulk export queues behind any other running one, too slow for live analytics)
+     * @return Totals per day
+     */
+    private SortedMap<LocalDate, PeriodTotals> fetchDailyTotals(String label, LocalDate start, LocalDate end,
+                                                                boolean bulkAllowed) {
+        // Format dates for Shopify API (simple date format: yyyy-MM-dd)
+        String startDateStr = start.format(SHOPIFY_DATE_FORMATTER);
+        String endDateStr = end.format(SHOPIFY_DATE_FORMATTER);
+
+        logger.info("Fetching orders for {} from {} to {} (Australian timezone)", label, startDateStr, endDateStr);
+
+        SortedMap<LocalDate, PeriodTotals> days = new TreeMap<>();
+        // Long backfills are cheaper to fetch as a single bulk export than page by page
+        if (bulkAllowed && useBulkExport(start, end)) {
+            orderService.exportOrdersByDateRange(startDateStr, endDateStr)
+                .doOnNext(order -> bucketFor(days, order.getCreatedAt(), start, end).add(
+                    order.getTotalPrice(),
+                    order.getTotalShippingPrice(),
+                    order.getTotalDiscounts(),
+                    order.getCurrencyCode()))
+                .blockLast();
+        } else {
+            orderService.streamOrdersByDateRange(startDateStr, endDateStr)
+                .doOnNext(node -> bucketFor(days, (String) node.get("createdAt"), start, end).add(
+                    extractShopMoneyAmount(node, "totalPriceSet"),
+                    extractShopMoneyAmount(node, "totalShippingPriceSet"),
+                    extractShopMoneyAmount(node, "totalDiscountsSet"),
+                    extractShopMoneyCurrency(node, "totalPriceSet")))
+                .blockLast();
+        }
+
+        return days;
+    }
+
+    /**
+     * Get (or create) the bucket for an order's store-local creation day
+     * Days outside the requested range (e.g. shop timezone differs from the store timezone)
+     * are clamped to the range, so every order Shopify returned is still counted
+     */
+    private PeriodTotals bucketFor(SortedMap<LocalDate, PeriodTotals> days, String createdAt,
+                                   LocalDate start, LocalDate end) {
+        LocalDate day = end;
+        if (createdAt != null) {
+            day = OffsetDateTime.parse(createdAt).atZoneSameInstant(STORE_TIMEZONE).toLocalDate();
+        }
+        if (day.isBefore(start)) {
+            day = start;
+        } else if (day.isAfter(end)) {
+            day = end;
+        }
+        return days.computeIfAbsent(day, d -> new PeriodTotals());
+    }
+
+    /**
+     * Whether a rollup backfill range is long enough to be fetched with a bulk operation
+     */
+    private boolean useBulkExport(LocalDate start, LocalDate end) {
+        int minDays = shopifyConfig.getBulkOperation().getAnalyticsMinDays();
+        return minDays > 0 && ChronoUnit.DAYS.between(start, end) >= minDays;
+    }
+
+    /**
+     * Extract shopMoney.amount from a MoneyBag field (zero if absent)
+     */
+    private BigDecimal extractShopMoneyAmount(Map<String, Object> node, String field) {
+        Map<String, Object> moneySet = (Map<String, Object>) node.get(field);
+        if (moneySet != null) {
+            Map<String, Object> shopMoney = (Map<String, Object>) moneySet.get("shopMoney");
+            if (shopMoney != null) {
+                String amount = (String) shopMoney.get("amount");
+                if (amount != null && !amount.isEmpty()) {
+                    return new BigDecimal(amount);
+                }
+            }
+        }
+        return BigDecimal.ZERO;
+    }
+
+    /**
+     * Extract shopMoney.currencyCode from a MoneyBag field (null if absent)
+     */
+    private String extractShopMoneyCurrency(Map<String, Object> node, String field) {
+        Map<String, Object> moneySet = (Map<String, Object>) node.get(field);
+        if (moneySet != null) {
+            Map<String, Object> shopMoney = (Map<String, Object>) moneySet.get("shopMoney");
+            if (shopMoney != null) {
+                return (String) shopMoney.get("currencyCode");
+            }
+        }
+        return null;
     }
 
     /**
      * Calculate the start date for a given period
-     * Returns start of day for the beginning of the period
+     * Returns the first day of the period (periods run through the end of today)
      */
-    private LocalDateTime calculatePeriodStart(LocalDateTime end, String period) {
+    private LocalDate calculatePeriodStart(LocalDate today, String period) {
         int days = switch (period.toLowerCase()) {
             case "1d" -> 1;
             case "7d" -> 7;
@@ -204,7 +342,53 @@ public class AnalyticsService {
             }
         };
 
-        // Go back the specified number of days and start at beginning of that day
-        return end.minusDays(days).toLocalDate().atStartOfDay();
+        // Go back the specified number of days
+        return today.minusDays(days);
+    }
+
+    /**
+     * Running totals for a day or period
+     */
+    private static class PeriodTotals {
+        private BigDecimal totalSales = BigDecimal.ZERO;
+        private BigDecimal totalFreight = BigDecimal.ZERO;
+        private BigDecimal totalDiscounts = BigDecimal.ZERO;
+        private int orderCount = 0;
+        private String currencyCode = "AUD"; // Default to AUD for Australian store
+        private boolean currencySeen = false;
+
+        private static PeriodTotals of(DailySalesRollup rollup) {
+            PeriodTotals totals = new PeriodTotals();
+            totals.totalSales = rollup.getTotalSales();
+            totals.totalFreight = rollup.getTotalFreight();
+            totals.totalDiscounts = rollup.getTotalDiscounts();
+            totals.orderCount = rollup.getOrderCount();
+            totals.currencyCode = rollup.getCurrencyCode();
+            totals.currencySeen = rollup.getOrderCount() > 0;
+            return totals;
+        }
+
+        private void add(BigDecimal sales, BigDecimal freight, BigDecimal discounts, String orderCurrency) {
+            totalSales = totalSales.add(sales);
+            totalFreight = totalFreight.add(freight);
+            totalDiscounts = totalDiscounts.add(discounts);
+            // Update currency code from actual order data
+            if (orderCurrency != null && !orderCurrency.isEmpty()) {
+                currencyCode = orderCurrency;
+                currencySeen = true;
+            }
+            orderCount++;
+        }
+
+        private void merge(PeriodTotals other) {
+            totalSales = totalSales.add(other.totalSales);
+            totalFreight = totalFreight.add(other.totalFreight);
+            totalDiscounts = totalDiscounts.add(other.totalDiscounts);
+            orderCount += other.orderCount;
+            if (other.currencySeen) {
+                currencyCode = other.currencyCode;
+                currencySeen = true;
+            }
+        }
     }
 }
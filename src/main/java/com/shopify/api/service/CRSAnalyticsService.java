@@ -1,11 +1,15 @@
 package com.shopify.api.service;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.shopify.api.client.CRSResultDecoder;
 import com.shopify.api.client.MCPClient;
 import com.shopify.api.model.ChannelSalesData;
 import com.shopify.api.model.PeriodComparison;
 import com.shopify.api.model.SalesAnalytics;
 import com.shopify.api.model.SalesByChannelData;
+import com.shopify.api.model.analytics.DailySalesRollup;
+import com.shopify.api.repository.analytics.DailySalesRollupRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -14,17 +18,23 @@ import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Optional;
+import java.util.TreeMap;
 
 /**
  * Service for retrieving in-store sales analytics from CRS ERP via MCP
  * Provides sales data for different time periods (1d, 7d, 30d, 90d)
+ * Past days are served from the daily_sales_rollups table once SalesRollupService has
+ * covered them; only today is queried live.
  */
 @Service
 public class CRSAnalyticsService {
@@ -32,13 +42,29 @@ public class CRSAnalyticsService {
     private static final Logger logger = LoggerFactory.getLogger(CRSAnalyticsService.class);
     private static final ZoneId SYDNEY_ZONE = ZoneId.of("Australia/Sydney");
     private static final DateTimeFormatter SQL_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final List<String> CHANNEL_ROLLUPS = List.of(
+        DailySalesRollup.CHANNEL_CRS_HOBBYMAN,
+        DailySalesRollup.CHANNEL_CRS_HEARNS,
+        DailySalesRollup.CHANNEL_CRS_HOBBYMAN_FULFILLMENT,
+        DailySalesRollup.CHANNEL_CRS_HEARNS_FULFILLMENT,
+        DailySalesRollup.CHANNEL_CRS_ONLINE,
+        DailySalesRollup.CHANNEL_CRS_ONLINE_FULFILLED,
+        DailySalesRollup.CHANNEL_CRS_ONLINE_PENDING,
+        DailySalesRollup.CHANNEL_CRS_TOTAL
+    );
 
     private final MCPClient mcpClient;
+    private final CRSResultDecoder resultDecoder;
+    private final DailySalesRollupRepository rollupRepository;
     private final boolean enabled;
 
     public CRSAnalyticsService(MCPClient mcpClient,
+                              CRSResultDecoder resultDecoder,
+                              DailySalesRollupRepository rollupRepository,
                               @Value("${crs.mcp.enabled:true}") boolean enabled) {
         this.mcpClient = mcpClient;
+        this.resultDecoder = resultDecoder;
+        this.rollupRepository = rollupRepository;
         this.enabled = enabled;
         logger.info("CRSAnalyticsService initialized - Enabled: {}", enabled);
     }
@@ -56,19 +82,39 @@ public class CRSAnalyticsService {
 
         int days = parsePeriod(period);
         LocalDateTime now = LocalDateTime.now(SYDNEY_ZONE);
-        LocalDateTime startDate = now.minusDays(days);
+        LocalDate today = now.toLocalDate();
+        LocalDate lastYearToday = today.minusYears(1);
+        LocalDate startDay = today.minusDays(days);
+        LocalDateTime startDate = startDay.atStartOfDay();
         LocalDateTime endDate = now;
 
         logger.info("Fetching CRS sales for period: {} ({} days)", period, days);
 
-        // Get current period data
-        return getSalesForPeriod(startDate, endDate, period)
+        // Past days from rollups plus today live; the whole window live if rollups don't cover it yet
+        Mono<SalesAnalytics> current = loadInstoreRollups(startDay, today.minusDays(1))
+                .map(pastDays -> getSalesForPeriod(today.atStartOfDay(), endDate, period)
+                        .map(todaySales -> {
+                            List<DailySalesRollup> rows = new ArrayList<>(pastDays);
+                            rows.add(toInstoreRollup(today, todaySales));
+                            return buildInstoreAnalytics(period, startDate, endDate, rows);
+                        }))
+                .orElseGet(() -> getSalesForPeriod(startDate, endDate, period));
+
+        return current
                 .flatMap(currentSales -> {
-                    // Get previous period for YoY comparison
-                    LocalDateTime prevStart = startDate.minusYears(1);
-                    LocalDateTime prevEnd = endDate.minusYears(1);
-
-                    return getSalesForPeriod(prevStart, prevEnd, period)
+                    // Get previous period for YoY comparison, shaped like the current window: whole past
+                    // days from rollups, and last year's "today" live up to the same time of day
+                    Mono<SalesAnalytics> previous = loadInstoreRollups(startDay.minusYears(1), lastYearToday.minusDays(1))
+                            .map(pastDays -> getSalesForPeriod(lastYearToday.atStartOfDay(), endDate.minusYears(1), period)
+                                    .map(lastYearTodaySales -> {
+                                        List<DailySalesRollup> rows = new ArrayList<>(pastDays);
+                                        rows.add(toInstoreRollup(lastYearToday, lastYearTodaySales));
+                                        return buildInstoreAnalytics(period,
+                                            startDate.minusYears(1), endDate.minusYears(1), rows);
+                                    }))
+                            .orElseGet(() -> getSalesForPeriod(startDate.minusYears(1), endDate.minusYears(1), period));
+
+                    return previous
                             .map(previousSales -> {
                                 // Create YoY comparison
                                 PeriodComparison comparison = new PeriodComparison(
@@ -136,18 +182,39 @@ public class CRSAnalyticsService {
 
         int days = parsePeriod(period);
         LocalDateTime now = LocalDateTime.now(SYDNEY_ZONE);
-        LocalDateTime startDate = now.minusDays(days);
+        LocalDate today = now.toLocalDate();
+        LocalDate lastYearToday = today.minusYears(1);
+        LocalDate startDay = today.minusDays(days);
+        LocalDateTime startDate = startDay.atStartOfDay();
         LocalDateTime endDate = now;
 
         logger.info("Fetching CRS sales by channel for period: {} ({} days)", period, days);
 
-        return getChannelSalesForPeriod(startDate, endDate, period)
+        // Past days from rollups plus today live; the whole window live if rollups don't cover it yet
+        Mono<SalesByChannelData> current = loadChannelRollups(startDay, today.minusDays(1))
+                .map(pastDays -> getChannelSalesForPeriod(today.atStartOfDay(), endDate, period)
+                        .map(todaySales -> {
+                            List<DailySalesRollup> rows = new ArrayList<>(pastDays);
+                            rows.addAll(toChannelRollups(today, todaySales));
+                            return buildChannelData(period, startDate, endDate, rows);
+                        }))
+                .orElseGet(() -> getChannelSalesForPeriod(startDate, endDate, period));
+
+        return current
                 .flatMap(currentSales -> {
-                    // Get previous period for YoY comparison
-                    LocalDateTime prevStart = startDate.minusYears(1);
-                    LocalDateTime prevEnd = endDate.minusYears(1);
-
-                    return getChannelSalesForPeriod(prevStart, prevEnd, period)
+                    // Get previous period for YoY comparison, shaped like the current window: whole past
+                    // days from rollups, and last year's "today" live up to the same time of day
+                    Mono<SalesByChannelData> previous = loadChannelRollups(startDay.minusYears(1), lastYearToday.minusDays(1))
+                            .map(pastDays -> getChannelSalesForPeriod(lastYearToday.atStartOfDay(), endDate.minusYears(1), period)
+                                    .map(lastYearTodaySales -> {
+                                        List<DailySalesRollup> rows = new ArrayList<>(pastDays);
+                                        rows.addAll(toChannelRollups(lastYearToday, lastYearTodaySales));
+                                        return buildChannelData(period,
+                                            startDate.minusYears(1), endDate.minusYears(1), rows);
+                                    }))
+                            .orElseGet(() -> getChannelSalesForPeriod(startDate.minusYears(1), endDate.minusYears(1), period));
+
+                    return previous
                             .map(previousSales -> {
                                 // Create YoY comparison for total revenue
                                 PeriodComparison comparison = new PeriodComparison(
@@ -200,10 +267,241 @@ public class CRSAnalyticsService {
         });
     }
 
+    /**
+     * Compute in-store rollups for every day between start and end (inclusive) with one grouped query
+     * Days without invoices get a zero row, so the rollup table records that they were covered.
+     * @return Mono of one rollup per day; errors propagate so a failed query is never stored as zero sales
+     */
+    public Mono<List<DailySalesRollup>> fetchInstoreRollups(LocalDate start, LocalDate end) {
+        Map<String, Object> arguments = new HashMap<>();
+        arguments.put("query", buildDailySalesQuery(start, end));
+
+        logger.debug("Fetching CRS daily sales from {} to {}", start, end);
+
+        LocalDateTime refreshedAt = LocalDateTime.now();
+        return mcpClient.callTool("query_database", arguments)
+                .map(result -> {
+                    requireSuccess(result);
+
+                    Map<LocalDate, DailySalesRollup> byDay = new TreeMap<>();
+                    for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(1)) {
+                        DailySalesRollup rollup = DailySalesRollup.empty(day, DailySalesRollup.CHANNEL_CRS_INSTORE);
+                        rollup.setRefreshedAt(refreshedAt);
+                        byDay.put(day, rollup);
+                    }
+
+                    for (DailySalesRow row : resultDecoder.readRows(result, DailySalesRow.class)) {
+                        DailySalesRollup rollup = byDay.get(LocalDate.parse(row.saleDate()));
+                        if (rollup != null) {
+                            rollup.setOrderCount(row.orderCount());
+                            rollup.setTotalSales(toMoney(row.totalSales()));
+                            rollup.setTotalCost(toMoney(row.totalCost()));
+                        }
+                    }
+                    List<DailySalesRollup> rollups = new ArrayList<>(byDay.values());
+                    return rollups;
+                });
+    }
+
+    /**
+     * Compute the channel breakdown rollups for a single day
+     * @return Mono of one rollup per CRS channel for the day; errors propagate so a failed query is
+     *         never stored as zero sales
+     */
+    public Mono<List<DailySalesRollup>> fetchChannelRollups(LocalDate day) {
+        LocalDateTime startDate = day.atStartOfDay();
+        LocalDateTime endDate = day.atTime(23, 59, 59);
+        return callSalesByChannel(startDate, endDate)
+                .map(result -> {
+                    // Fail rather than store zeros when CRS returned an error or no report (e.g. circuit open)
+                    requireSuccess(result);
+                    return toChannelRollups(day, decodeChannelSales(result, startDate, endDate, "1d"));
+                });
+    }
+
+    /**
+     * Fail on a tool result CRS flagged as an error, whose text would otherwise decode as no sales
+     */
+    private void requireSuccess(JsonNode result) {
+        if (result.path("isError").asBoolean(false)) {
+            throw new RuntimeException("CRS query failed: " + resultDecoder.extractText(result));
+        }
+    }
+
+    /**
+     * In-store rollups between start and end (inclusive), if every day has been rolled up
+     * An empty range (start after end) is trivially covered.
+     */
+    private Optional<List<DailySalesRollup>> loadInstoreRollups(LocalDate start, LocalDate end) {
+        if (start.isAfter(end)) {
+            return Optional.of(new ArrayList<>());
+        }
+        List<DailySalesRollup> rows = rollupRepository.findByChannelAndSalesDateBetweenOrderBySalesDate(
+            DailySalesRollup.CHANNEL_CRS_INSTORE, start, end);
+        return rows.size() == ChronoUnit.DAYS.between(start, end) + 1 ? Optional.of(rows) : Optional.empty();
+    }
+
+    /**
+     * Channel rollups between start and end (inclusive), if every day has been rolled up
+     * The crs_total row is written last for a day, so it marks the day as covered.
+     */
+    private Optional<List<DailySalesRollup>> loadChannelRollups(LocalDate start, LocalDate end) {
+        if (start.isAfter(end)) {
+            return Optional.of(new ArrayList<>());
+        }
+        long coveredDays = rollupRepository.countByChannelAndSalesDateBetween(DailySalesRollup.CHANNEL_CRS_TOTAL, start, end);
+        if (coveredDays != ChronoUnit.DAYS.between(start, end) + 1) {
+            return Optional.empty();
+        }
+        return Optional.of(rollupRepository.findByChannelInAndSalesDateBetween(CHANNEL_ROLLUPS, start, end));
+    }
+
+    /**
+     * Sum in-store rollups into analytics for a period
+     */
+    private SalesAnalytics buildInstoreAnalytics(String period, LocalDateTime startDate, LocalDateTime endDate,
+                                                 List<DailySalesRollup> rows) {
+        SalesAnalytics analytics = createEmptyAnalytics(period);
+        analytics.setPeriodStart(startDate);
+        analytics.setPeriodEnd(endDate);
+
+        int orderCount = 0;
+        BigDecimal totalSales = BigDecimal.ZERO;
+        for (DailySalesRollup row : rows) {
+            orderCount += row.getOrderCount();
+            totalSales = totalSales.add(row.getTotalSales());
+        }
+        analytics.setOrderCount(orderCount);
+        analytics.setTotalSales(totalSales);
+        analytics.calculateAverageSale();
+        return analytics;
+    }
+
+    /**
+     * Sum channel rollups into the channel breakdown for a period
+     */
+    private SalesByChannelData buildChannelData(String period, LocalDateTime startDate, LocalDateTime endDate,
+                                                List<DailySalesRollup> rows) {
+        Map<String, ChannelSalesData> channels = new HashMap<>();
+        channels.put(DailySalesRollup.CHANNEL_CRS_HOBBYMAN, new ChannelSalesData("The Hobbyman", 0, 0, BigDecimal.ZERO));
+        channels.put(DailySalesRollup.CHANNEL_CRS_HEARNS, new ChannelSalesData("Hearns Hobbies", 0, 0, BigDecimal.ZERO));
+        channels.put(DailySalesRollup.CHANNEL_CRS_HOBBYMAN_FULFILLMENT, new ChannelSalesData("The Hobbyman (Fulfillment)", 0, 0, BigDecimal.ZERO));
+        channels.put(DailySalesRollup.CHANNEL_CRS_HEARNS_FULFILLMENT, new ChannelSalesData("Hearns Hobbies (Fulfillment)", 0, 0, BigDecimal.ZERO));
+        channels.put(DailySalesRollup.CHANNEL_CRS_ONLINE, new ChannelSalesData("Shopify", 0, 0, BigDecimal.ZERO));
+        channels.put(DailySalesRollup.CHANNEL_CRS_ONLINE_FULFILLED, new ChannelSalesData("Online Fulfilled", 0, 0, BigDecimal.ZERO));
+        channels.put(DailySalesRollup.CHANNEL_CRS_ONLINE_PENDING, new ChannelSalesData("Online Pending", 0, 0, BigDecimal.ZERO));
+        channels.put(DailySalesRollup.CHANNEL_CRS_TOTAL, new ChannelSalesData("Total", 0, 0, BigDecimal.ZERO));
+
+        for (DailySalesRollup row : rows) {
+            ChannelSalesData channel = channels.get(row.getChannel());
+            if (channel != null) {
+                channel.setOrderCount(channel.getOrderCount() + row.getOrderCount());
+                channel.setItemCount(channel.getItemCount() + row.getItemCount());
+                channel.setRevenue(channel.getRevenue().add(row.getTotalSales()));
+            }
+        }
+
+        SalesByChannelData data = new SalesByChannelData();
+        data.setPeriod(period);
+        data.setPeriodStart(startDate);
+        data.setPeriodEnd(endDate);
+        data.setHobbyman(channels.get(DailySalesRollup.CHANNEL_CRS_HOBBYMAN));
+        data.setHearnsHobbies(channels.get(DailySalesRollup.CHANNEL_CRS_HEARNS));
+        data.setHobbymanFulfillment(channels.get(DailySalesRollup.CHANNEL_CRS_HOBBYMAN_FULFILLMENT));
+        data.setHearnsFulfillment(channels.get(DailySalesRollup.CHANNEL_CRS_HEARNS_FULFILLMENT));
+        data.setShopify(channels.get(DailySalesRollup.CHANNEL_CRS_ONLINE));
+
+        ChannelSalesData fulfilled = channels.get(DailySalesRollup.CHANNEL_CRS_ONLINE_FULFILLED);
+        data.setOnlineFulfilledOrders(fulfilled.getOrderCount());
+        data.setOnlineFulfilledRevenue(fulfilled.getRevenue());
+        ChannelSalesData pending = channels.get(DailySalesRollup.CHANNEL_CRS_ONLINE_PENDING);
+        data.setOnlinePendingOrders(pending.getOrderCount());
+        data.setOnlinePendingRevenue(pending.getRevenue());
+
+        ChannelSalesData total = channels.get(DailySalesRollup.CHANNEL_CRS_TOTAL);
+        data.setTotalOrders(total.getOrderCount());
+        data.setTotalRevenue(total.getRevenue());
+        data.setTotalItems(data.getHobbyman().getItemCount() + data.getHearnsHobbies().getItemCount()
+            + data.getHobbymanFulfillment().getItemCount() + data.getHearnsFulfillment().getItemCount());
+        return data;
+    }
+
+    /**
+     * Convert live in-store analytics for a day into a rollup row
+     */
+    private DailySalesRollup toInstoreRollup(LocalDate day, SalesAnalytics analytics) {
+        DailySalesRollup rollup = DailySalesRollup.empty(day, DailySalesRollup.CHANNEL_CRS_INSTORE);
+        rollup.setOrderCount(analytics.getOrderCount() != null ? analytics.getOrderCount() : 0);
+        rollup.setTotalSales(analytics.getTotalSales() != null ? analytics.getTotalSales() : BigDecimal.ZERO);
+        return rollup;
+    }
+
+    /**
+     * Convert a channel breakdown for a day into one rollup row per channel
+     */
+    private List<DailySalesRollup> toChannelRollups(LocalDate day, SalesByChannelData data) {
+        LocalDateTime refreshedAt = LocalDateTime.now();
+        List<DailySalesRollup> rollups = new ArrayList<>();
+        rollups.add(toChannelRollup(day, DailySalesRollup.CHANNEL_CRS_HOBBYMAN, data.getHobbyman()));
+        rollups.add(toChannelRollup(day, DailySalesRollup.CHANNEL_CRS_HEARNS, data.getHearnsHobbies()));
+        rollups.add(toChannelRollup(day, DailySalesRollup.CHANNEL_CRS_HOBBYMAN_FULFILLMENT, data.getHobbymanFulfillment()));
+        rollups.add(toChannelRollup(day, DailySalesRollup.CHANNEL_CRS_HEARNS_FULFILLMENT, data.getHearnsFulfillment()));
+        rollups.add(toChannelRollup(day, DailySalesRollup.CHANNEL_CRS_ONLINE, data.getShopify()));
+        rollups.add(toChannelRollup(day, DailySalesRollup.CHANNEL_CRS_ONLINE_FULFILLED,
+            new ChannelSalesData(null, data.getOnlineFulfilledOrders(), 0, data.getOnlineFulfilledRevenue())));
+        rollups.add(toChannelRollup(day, DailySalesRollup.CHANNEL_CRS_ONLINE_PENDING,
+            new ChannelSalesData(null, data.getOnlinePendingOrders(), 0, data.getOnlinePendingRevenue())));
+        rollups.add(toChannelRollup(day, DailySalesRollup.CHANNEL_CRS_TOTAL,
+            new ChannelSalesData(null, data.getTotalOrders(), data.getTotalItems(), data.getTotalRevenue())));
+        rollups.forEach(rollup -> rollup.setRefreshedAt(refreshedAt));
+        return rollups;
+    }
+
+    private DailySalesRollup toChannelRollup(LocalDate day, String channel, ChannelSalesData sales) {
+        DailySalesRollup rollup = DailySalesRollup.empty(day, channel);
+        if (sales != null) {
+            rollup.setOrderCount(sales.getOrderCount() != null ? sales.getOrderCount() : 0);
+            rollup.setItemCount(sales.getItemCount() != null ? sales.getItemCount() : 0);
+            rollup.setTotalSales(sales.getRevenue() != null ? sales.getRevenue() : BigDecimal.ZERO);
+        }
+        return rollup;
+    }
+
+    /**
+     * Build SQL query for per-day sales totals
+     */
+    private String buildDailySalesQuery(LocalDate start, LocalDate end) {
+        return String.format("""
+            SELECT
+              CONVERT(varchar(10), h.Date, 23) as SaleDate,
+              COUNT(DISTINCT h.DocNum) as OrderCount,
+              ISNULL(SUM(d.SaleAmount), 0) as TotalSales,
+              ISNULL(SUM(d.CostOfGoods), 0) as TotalCost
+            FROM InvoiceHeader h
+            LEFT JOIN InvoiceDetail d ON h.DocNum = d.DocNum
+            WHERE h.Date >= '%s'
+              AND h.Date < '%s'
+              AND h.Completed = 1
+            GROUP BY CONVERT(varchar(10), h.Date, 23)
+            """, start.atStartOfDay().format(SQL_DATE_FORMAT), end.plusDays(1).atStartOfDay().format(SQL_DATE_FORMAT));
+    }
+
+    private BigDecimal toMoney(BigDecimal value) {
+        return value == null ? BigDecimal.ZERO : value.setScale(2, RoundingMode.HALF_UP);
+    }
+
     /**
      * Get channel sales data for a specific date range
      */
     private Mono<SalesByChannelData> getChannelSalesForPeriod(LocalDateTime startDate, LocalDateTime endDate, String period) {
+        return callSalesByChannel(startDate, endDate)
+                .map(result -> parseChannelSalesResponse(result, startDate, endDate, period));
+    }
+
+    /**
+     * Call the get_sales_by_channel tool for a date range
+     */
+    private Mono<JsonNode> callSalesByChannel(LocalDateTime startDate, LocalDateTime endDate) {
         String startDateStr = startDate.format(DateTimeFormatter.ISO_LOCAL_DATE);
         String endDateStr = endDate.format(DateTimeFormatter.ISO_LOCAL_DATE);
 
@@ -214,7 +512,6 @@ public class CRSAnalyticsService {
         logger.debug("Calling get_sales_by_channel: {} to {}", startDateStr, endDateStr);
 
         return mcpClient.callTool("get_sales_by_channel", arguments)
-                .map(result -> parseChannelSalesResponse(result, startDate, endDate, period))
                 .onErrorResume(e -> {
                     logger.error("Error calling get_sales_by_channel: {}", e.getMessage(), e);
                     return Mono.error(new RuntimeException("Failed to get channel sales", e));
@@ -263,6 +560,7 @@ public class CRSAnalyticsService {
 
     /**
      * Parse CRS database response into SalesAnalytics
+     * Expected: result.content[0].text holds "Row 1: { "OrderCount": 1367, "TotalSales": 124954.29, ... }"
      */
     private SalesAnalytics parseCRSResponse(JsonNode result, LocalDateTime startDate, LocalDateTime endDate, String period) {
         try {
@@ -272,91 +570,38 @@ public class CRSAnalyticsService {
             analytics.setPeriodEnd(endDate);
             analytics.setCurrencyCode("AUD");
 
-            // Handle MCP response structure
-            // Expected: result.content[0].text contains the query results
-            if (result.has("content") && result.get("content").isArray() && result.get("content").size() > 0) {
-                JsonNode content = result.get("content").get(0);
-                if (content.has("text")) {
-                    String text = content.get("text").asText();
-                    logger.debug("CRS Response text: {}", text);
-
-                    // Parse the text response - it may be formatted as a table or JSON
-                    parseSalesFromText(text, analytics);
-                } else {
-                    logger.warn("CRS response missing text field");
-                    setDefaultValues(analytics);
-                }
-            } else {
-                logger.warn("CRS response has unexpected structure: {}", result);
+            List<SalesTotalsRow> rows = resultDecoder.readRows(result, SalesTotalsRow.class);
+            if (rows.isEmpty()) {
+                logger.warn("CRS sales response contained no rows");
                 setDefaultValues(analytics);
+                return analytics;
             }
 
-            return analytics;
-
-        } catch (Exception e) {
-            logger.error("Error parsing CRS response: {}", e.getMessage(), e);
-            return createEmptyAnalytics(period);
-        }
-    }
-
-    /**
-     * Parse sales data from text response
-     * Expected format: "Row 1: { \"OrderCount\": 1367, \"TotalSales\": 124954.29, \"AvgSale\": 32.93 }"
-     */
-    private void parseSalesFromText(String text, SalesAnalytics analytics) {
-        try {
-            logger.debug("Parsing CRS text response: {}", text);
-
-            // Extract JSON object from text
-            // Format: "Row 1: { ... }"
-            int jsonStart = text.indexOf('{');
-            int jsonEnd = text.lastIndexOf('}');
-
-            if (jsonStart != -1 && jsonEnd != -1 && jsonEnd > jsonStart) {
-                String jsonStr = text.substring(jsonStart, jsonEnd + 1);
-                logger.debug("Extracted JSON: {}", jsonStr);
-
-                // Parse JSON using Jackson
-                com.fasterxml.jackson.databind.ObjectMapper mapper = new com.fasterxml.jackson.databind.ObjectMapper();
-                JsonNode jsonNode = mapper.readTree(jsonStr);
-
-                // Extract values from JSON
-                if (jsonNode.has("OrderCount")) {
-                    analytics.setOrderCount(jsonNode.get("OrderCount").asInt());
-                } else {
-                    analytics.setOrderCount(0);
-                }
-
-                if (jsonNode.has("TotalSales")) {
-                    analytics.setTotalSales(new BigDecimal(jsonNode.get("TotalSales").asDouble()).setScale(2, RoundingMode.HALF_UP));
-                } else {
-                    analytics.setTotalSales(BigDecimal.ZERO);
-                }
-
-                if (jsonNode.has("AvgSale")) {
-                    analytics.setAverageSale(new BigDecimal(jsonNode.get("AvgSale").asDouble()).setScale(2, RoundingMode.HALF_UP));
-                } else if (analytics.getOrderCount() > 0 && analytics.getTotalSales() != null) {
-                    // Calculate average from total and count
-                    analytics.calculateAverageSale();
-                } else {
-                    analytics.setAverageSale(BigDecimal.ZERO);
-                }
-
-                // Set defaults for freight and discounts (not applicable for in-store)
-                analytics.setTotalFreight(BigDecimal.ZERO);
-                analytics.setTotalDiscounts(BigDecimal.ZERO);
-
-                logger.info("Successfully parsed CRS data - Orders: {}, Sales: ${}, AvgSale: ${}",
-                    analytics.getOrderCount(), analytics.getTotalSales(), analytics.getAverageSale());
+            SalesTotalsRow row = rows.get(0);
+            analytics.setOrderCount(row.orderCount() != null ? row.orderCount() : 0);
+            analytics.setTotalSales(toMoney(row.totalSales()));
 
+            if (row.avgSale() != null) {
+                analytics.setAverageSale(toMoney(row.avgSale()));
+            } else if (analytics.getOrderCount() > 0) {
+                // Calculate average from total and count
+                analytics.calculateAverageSale();
             } else {
-                logger.warn("Could not find JSON object in text: {}", text);
-                setDefaultValues(analytics);
+                analytics.setAverageSale(BigDecimal.ZERO);
             }
 
+            // Set defaults for freight and discounts (not applicable for in-store)
+            analytics.setTotalFreight(BigDecimal.ZERO);
+            analytics.setTotalDiscounts(BigDecimal.ZERO);
+
+            logger.info("Successfully parsed CRS data - Orders: {}, Sales: ${}, AvgSale: ${}",
+                analytics.getOrderCount(), analytics.getTotalSales(), analytics.getAverageSale());
+
+            return analytics;
+
         } catch (Exception e) {
-            logger.error("Error parsing sales from text: {}", e.getMessage(), e);
-            setDefaultValues(analytics);
+            logger.error("Error parsing CRS response: {}", e.getMessage(), e);
+            return createEmptyAnalytics(period);
         }
     }
 
@@ -424,129 +669,79 @@ public class CRSAnalyticsService {
      */
     private SalesByChannelData parseChannelSalesResponse(JsonNode result, LocalDateTime startDate, LocalDateTime endDate, String period) {
         try {
-            SalesByChannelData data = new SalesByChannelData();
-            data.setPeriod(period);
-            data.setPeriodStart(startDate);
-            data.setPeriodEnd(endDate);
-
-            if (result.has("content") && result.get("content").isArray() && result.get("content").size() > 0) {
-                JsonNode content = result.get("content").get(0);
-                if (content.has("text")) {
-                    String text = content.get("text").asText();
-                    logger.debug("Channel Sales Response: {}", text);
-
-                    // Parse PURE IN-STORE SALES - The Hobbyman
-                    Pattern pureHobbymanPattern = Pattern.compile("PURE IN-STORE[\\s\\S]*?The Hobbyman:[\\s\\S]*?Orders:\\s*(\\d+)[\\s\\S]*?Items:\\s*(\\d+)[\\s\\S]*?Revenue:\\s*\\$([\\d,]+\\.\\d{2})");
-                    Matcher pureHobbymanMatcher = pureHobbymanPattern.matcher(text);
-                    if (pureHobbymanMatcher.find()) {
-                        ChannelSalesData hobbyman = new ChannelSalesData();
-                        hobbyman.setChannelName("The Hobbyman");
-                        hobbyman.setOrderCount(Integer.parseInt(pureHobbymanMatcher.group(1)));
-                        hobbyman.setItemCount(Integer.parseInt(pureHobbymanMatcher.group(2)));
-                        hobbyman.setRevenue(new BigDecimal(pureHobbymanMatcher.group(3).replace(",", "")));
-                        data.setHobbyman(hobbyman);
-                    }
-
-                    // Parse PURE IN-STORE SALES - Hearns Hobbies
-                    Pattern pureHearnsPattern = Pattern.compile("PURE IN-STORE[\\s\\S]*?Hearns Hobbies:[\\s\\S]*?Orders:\\s*(\\d+)[\\s\\S]*?Items:\\s*(\\d+)[\\s\\S]*?Revenue:\\s*\\$([\\d,]+\\.\\d{2})");
-                    Matcher pureHearnsMatcher = pureHearnsPattern.matcher(text);
-                    if (pureHearnsMatcher.find()) {
-                        ChannelSalesData hearns = new ChannelSalesData();
-                        hearns.setChannelName("Hearns Hobbies");
-                        hearns.setOrderCount(Integer.parseInt(pureHearnsMatcher.group(1)));
-                        hearns.setItemCount(Integer.parseInt(pureHearnsMatcher.group(2)));
-                        hearns.setRevenue(new BigDecimal(pureHearnsMatcher.group(3).replace(",", "")));
-                        data.setHearnsHobbies(hearns);
-                    }
-
-                    // Parse ONLINE ORDERS FULFILLED IN-STORE - Hobbyman
-                    Pattern fulfillHobbymanPattern = Pattern.compile("ONLINE ORDERS FULFILLED[\\s\\S]*?The Hobbyman \\(fulfillment\\):[\\s\\S]*?Orders:\\s*(\\d+)[\\s\\S]*?Items:\\s*(\\d+)[\\s\\S]*?Revenue:\\s*\\$([\\d,]+\\.\\d{2})");
-                    Matcher fulfillHobbymanMatcher = fulfillHobbymanPattern.matcher(text);
-                    if (fulfillHobbymanMatcher.find()) {
-                        ChannelSalesData hobbymanFulfill = new ChannelSalesData();
-                        hobbymanFulfill.setChannelName("The Hobbyman (Fulfillment)");
-                        hobbymanFulfill.setOrderCount(Integer.parseInt(fulfillHobbymanMatcher.group(1)));
-                        hobbymanFulfill.setItemCount(Integer.parseInt(fulfillHobbymanMatcher.group(2)));
-                        hobbymanFulfill.setRevenue(new BigDecimal(fulfillHobbymanMatcher.group(3).replace(",", "")));
-                        data.setHobbymanFulfillment(hobbymanFulfill);
-                    }
-
-                    // Parse ONLINE ORDERS FULFILLED IN-STORE - Hearns
-                    Pattern fulfillHearnsPattern = Pattern.compile("ONLINE ORDERS FULFILLED[\\s\\S]*?Hearns Hobbies \\(fulfillment\\):[\\s\\S]*?Orders:\\s*(\\d+)[\\s\\S]*?Items:\\s*(\\d+)[\\s\\S]*?Revenue:\\s*\\$([\\d,]+\\.\\d{2})");
-                    Matcher fulfillHearnsMatcher = fulfillHearnsPattern.matcher(text);
-                    if (fulfillHearnsMatcher.find()) {
-                        ChannelSalesData hearnsFulfill = new ChannelSalesData();
-                        hearnsFulfill.setChannelName("Hearns Hobbies (Fulfillment)");
-                        hearnsFulfill.setOrderCount(Integer.parseInt(fulfillHearnsMatcher.group(1)));
-                        hearnsFulfill.setItemCount(Integer.parseInt(fulfillHearnsMatcher.group(2)));
-                        hearnsFulfill.setRevenue(new BigDecimal(fulfillHearnsMatcher.group(3).replace(",", "")));
-                        data.setHearnsFulfillment(hearnsFulfill);
-                    }
-
-                    // Parse ONLINE SALES SUMMARY
-                    Pattern onlineTotalPattern = Pattern.compile("Total Online Orders:\\s*(\\d+)[\\s\\S]*?Total Online Revenue:\\s*\\$([\\d,]+\\.\\d{2})");
-                    Matcher onlineTotalMatcher = onlineTotalPattern.matcher(text);
-                    if (onlineTotalMatcher.find()) {
-                        ChannelSalesData shopify = new ChannelSalesData();
-                        shopify.setChannelName("Shopify");
-                        shopify.setOrderCount(Integer.parseInt(onlineTotalMatcher.group(1)));
-                        shopify.setItemCount(0);
-                        shopify.setRevenue(new BigDecimal(onlineTotalMatcher.group(2).replace(",", "")));
-                        data.setShopify(shopify);
-                    }
-
-                    // Parse Fulfilled & Pending details
-                    Pattern fulfilledPattern = Pattern.compile("Fulfilled & Invoiced:\\s*(\\d+)\\s*orders,\\s*\\$([\\d,]+\\.\\d{2})");
-                    Matcher fulfilledMatcher = fulfilledPattern.matcher(text);
-                    if (fulfilledMatcher.find()) {
-                        data.setOnlineFulfilledOrders(Integer.parseInt(fulfilledMatcher.group(1)));
-                        data.setOnlineFulfilledRevenue(new BigDecimal(fulfilledMatcher.group(2).replace(",", "")));
-                    }
+            return decodeChannelSales(result, startDate, endDate, period);
+        } catch (Exception e) {
+            logger.error("Error parsing channel sales response: {}", e.getMessage(), e);
+            return createEmptyChannelData(period);
+        }
+    }
 
-                    Pattern pendingPattern = Pattern.compile("Pending/Unfulfilled:\\s*(\\d+)\\s*orders,\\s*\\$([\\d,]+\\.\\d{2})");
-                    Matcher pendingMatcher = pendingPattern.matcher(text);
-                    if (pendingMatcher.find()) {
-                        data.setOnlinePendingOrders(Integer.parseInt(pendingMatcher.group(1)));
-                        data.setOnlinePendingRevenue(new BigDecimal(pendingMatcher.group(2).replace(",", "")));
-                    }
+    /**
+     * Decode get_sales_by_channel text into SalesByChannelData
+     * @throws RuntimeException if the result has no report text
+     */
+    private SalesByChannelData decodeChannelSales(JsonNode result, LocalDateTime startDate, LocalDateTime endDate, String period) {
+        SalesByChannelData data = new SalesByChannelData();
+        data.setPeriod(period);
+        data.setPeriodStart(startDate);
+        data.setPeriodEnd(endDate);
+
+        String text = resultDecoder.extractText(result);
+        logger.debug("Channel Sales Response: {}", text);
+
+        // PURE IN-STORE SALES
+        resultDecoder.findStoreMetrics(text, "PURE IN-STORE", "The Hobbyman:")
+            .ifPresent(metrics -> data.setHobbyman(toChannelSales("The Hobbyman", metrics)));
+        resultDecoder.findStoreMetrics(text, "PURE IN-STORE", "Hearns Hobbies:")
+            .ifPresent(metrics -> data.setHearnsHobbies(toChannelSales("Hearns Hobbies", metrics)));
+
+        // ONLINE ORDERS FULFILLED IN-STORE
+        resultDecoder.findStoreMetrics(text, "ONLINE ORDERS FULFILLED", "The Hobbyman (fulfillment):")
+            .ifPresent(metrics -> data.setHobbymanFulfillment(toChannelSales("The Hobbyman (Fulfillment)", metrics)));
+        resultDecoder.findStoreMetrics(text, "ONLINE ORDERS FULFILLED", "Hearns Hobbies (fulfillment):")
+            .ifPresent(metrics -> data.setHearnsFulfillment(toChannelSales("Hearns Hobbies (Fulfillment)", metrics)));
+
+        // ONLINE SALES SUMMARY
+        resultDecoder.findOnlineTotal(text)
+            .ifPresent(total -> data.setShopify(new ChannelSalesData("Shopify", total.orders(), 0, total.revenue())));
+
+        // Fulfilled & Pending details
+        resultDecoder.findOrdersAndRevenue(text, "Fulfilled & Invoiced:").ifPresent(fulfilled -> {
+            data.setOnlineFulfilledOrders(fulfilled.orders());
+            data.setOnlineFulfilledRevenue(fulfilled.revenue());
+        });
+        resultDecoder.findOrdersAndRevenue(text, "Pending/Unfulfilled:").ifPresent(pending -> {
+            data.setOnlinePendingOrders(pending.orders());
+            data.setOnlinePendingRevenue(pending.revenue());
+        });
 
-                    // Parse Grand Total
-                    Pattern totalPattern = Pattern.compile("GRAND TOTAL[\\s\\S]*?:\\s*(\\d+)\\s*orders,\\s*\\$([\\d,]+\\.\\d{2})");
-                    Matcher totalMatcher = totalPattern.matcher(text);
-                    if (totalMatcher.find()) {
-                        data.setTotalOrders(Integer.parseInt(totalMatcher.group(1)));
-                        data.setTotalRevenue(new BigDecimal(totalMatcher.group(2).replace(",", "")));
-                    }
+        // Grand Total
+        resultDecoder.findOrdersAndRevenue(text, "GRAND TOTAL").ifPresent(total -> {
+            data.setTotalOrders(total.orders());
+            data.setTotalRevenue(total.revenue());
+        });
 
-                    // Calculate total items (pure in-store + fulfillment)
-                    int totalItems = 0;
-                    if (data.getHobbyman() != null) totalItems += data.getHobbyman().getItemCount();
-                    if (data.getHearnsHobbies() != null) totalItems += data.getHearnsHobbies().getItemCount();
-                    if (data.getHobbymanFulfillment() != null) totalItems += data.getHobbymanFulfillment().getItemCount();
-                    if (data.getHearnsFulfillment() != null) totalItems += data.getHearnsFulfillment().getItemCount();
-                    data.setTotalItems(totalItems);
-
-                    logger.info("Parsed channel sales - Total: ${} ({} orders), Pure In-Store: ${}, Online Fulfillment: ${}, Online Total: ${}",
-                        data.getTotalRevenue(), data.getTotalOrders(),
-                        (data.getHobbyman() != null ? data.getHobbyman().getRevenue() : BigDecimal.ZERO).add(
-                            data.getHearnsHobbies() != null ? data.getHearnsHobbies().getRevenue() : BigDecimal.ZERO),
-                        (data.getHobbymanFulfillment() != null ? data.getHobbymanFulfillment().getRevenue() : BigDecimal.ZERO).add(
-                            data.getHearnsFulfillment() != null ? data.getHearnsFulfillment().getRevenue() : BigDecimal.ZERO),
-                        data.getShopify() != null ? data.getShopify().getRevenue() : BigDecimal.ZERO);
-
-                } else {
-                    logger.warn("Channel sales response missing text field");
-                }
-            } else {
-                logger.warn("Channel sales response has unexpected structure");
-            }
+        // Calculate total items (pure in-store + fulfillment)
+        int totalItems = 0;
+        if (data.getHobbyman() != null) totalItems += data.getHobbyman().getItemCount();
+        if (data.getHearnsHobbies() != null) totalItems += data.getHearnsHobbies().getItemCount();
+        if (data.getHobbymanFulfillment() != null) totalItems += data.getHobbymanFulfillment().getItemCount();
+        if (data.getHearnsFulfillment() != null) totalItems += data.getHearnsFulfillment().getItemCount();
+        data.setTotalItems(totalItems);
+
+        logger.info("Parsed channel sales - Total: ${} ({} orders), Pure In-Store: ${}, Online Fulfillment: ${}, Online Total: ${}",
+            data.getTotalRevenue(), data.getTotalOrders(),
+            (data.getHobbyman() != null ? data.getHobbyman().getRevenue() : BigDecimal.ZERO).add(
+                data.getHearnsHobbies() != null ? data.getHearnsHobbies().getRevenue() : BigDecimal.ZERO),
+            (data.getHobbymanFulfillment() != null ? data.getHobbymanFulfillment().getRevenue() : BigDecimal.ZERO).add(
+                data.getHearnsFulfillment() != null ? data.getHearnsFulfillment().getRevenue() : BigDecimal.ZERO),
+            data.getShopify() != null ? data.getShopify().getRevenue() : BigDecimal.ZERO);
 
-            return data;
+        return data;
+    }
 
-        } catch (Exception e) {
-            logger.error("Error parsing channel sales response: {}", e.getMessage(), e);
-            return createEmptyChannelData(period);
-        }
+    private ChannelSalesData toChannelSales(String channelName, CRSResultDecoder.StoreMetrics metrics) {
+        return new ChannelSalesData(channelName, metrics.orders(), metrics.items(), metrics.revenue());
     }
 
     /**
@@ -577,4 +772,22 @@ public class CRSAnalyticsService {
     public boolean isEnabled() {
         return enabled;
     }
+
+    /**
+     * Single-row totals of the sales query
+     */
+    record SalesTotalsRow(@JsonProperty("OrderCount") Integer orderCount,
+                          @JsonProperty("TotalSales") BigDecimal totalSales,
+                          @JsonProperty("AvgSale") BigDecimal avgSale,
+                          @JsonProperty("TotalCost") BigDecimal totalCost) {
+    }
+
+    /**
+     * One row per day of the daily sales query
+     */
+    record DailySalesRow(@JsonProperty("SaleDate") String saleDate,
+                         @JsonProperty("OrderCount") int orderCount,
+                         @JsonProperty("TotalSales") BigDecimal totalSales,
+                         @JsonProperty("TotalCost") BigDecimal totalCost) {
+    }
 }
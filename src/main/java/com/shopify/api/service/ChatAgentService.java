@@ -1,7 +1,9 @@
 package com.shopify.api.service;
 
+import com.shopify.api.client.AnthropicClient;
 import com.shopify.api.model.ChatMessage;
 import com.shopify.api.model.ChatRequest;
+import com.shopify.api.model.ChatStreamEvent;
 import com.shopify.api.model.ChatbotConfig;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -14,26 +16,22 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import jakarta.annotation.PostConstruct;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 @Service
 public class ChatAgentService {
 
     private static final Logger logger = LoggerFactory.getLogger(ChatAgentService.class);
 
-    @Value("${anthropic.api.key:}")
-    private String anthropicApiKey;
-
-    @Value("${anthropic.api.version:2023-06-01}")
-    private String anthropicApiVersion;
-
     @Value("${anthropic.model:claude-3-5-sonnet-20241022}")
     private String anthropicModel;
 
@@ -46,7 +44,12 @@ public class ChatAgentService {
     @Value("${anthropic.system-prompt-file:classpath:prompts/system-prompt.txt}")
     private String systemPromptFile;
 
-    private final WebClient webClient;
+    private static final String SESSION_SCOPE = "chat";
+    private static final String TOOL_LIMIT_REPLY =
+            "I apologize, but I'm having trouble completing your request. Please try rephrasing.";
+
+    private final AnthropicClient anthropicClient;
+    private final ChatSessionStore chatSessionStore;
     private final ProductService productService;
     private final ChatbotConfigService chatbotConfigService;
     private final ObjectMapper objectMapper;
@@ -55,14 +58,14 @@ public class ChatAgentService {
     private String systemPromptTemplate;
 
     @Autowired
-    public ChatAgentService(WebClient.Builder webClientBuilder,
+    public ChatAgentService(AnthropicClient anthropicClient,
+                           ChatSessionStore chatSessionStore,
                            ProductService productService,
                            ChatbotConfigService chatbotConfigService,
                            ResourceLoader resourceLoader,
                            @Value("${shopify.shop-url}") String shopUrl) {
-        this.webClient = webClientBuilder
-                .baseUrl("https://api.anthropic.com/v1")
-                .build();
+        this.anthropicClient = anthropicClient;
+        this.chatSessionStore = chatSessionStore;
         this.productService = productService;
         this.chatbotConfigService = chatbotConfigService;
         this.resourceLoader = resourceLoader;
@@ -94,19 +97,22 @@ public class ChatAgentService {
         logger.info("Processing chat message: {}", chatRequest.getMessage());
 
         // Check if API key is configured
-        if (anthropicApiKey == null || anthropicApiKey.trim().isEmpty()) {
+        if (!anthropicClient.isConfigured()) {
             logger.warn("Anthropic API key not configured, returning mock response");
             return Mono.just(createMockResponse(chatRequest.getMessage()));
         }
 
+        ChatSessionStore.ChatSession session = resolveSession(chatRequest);
+
         // Build the system prompt for the AI
-        String systemPrompt = buildSystemPrompt();
+        String systemPrompt = withSessionSummary(buildSystemPrompt(), session);
 
         // Build the messages array for Claude API
-        ArrayNode messages = buildMessagesArray(chatRequest);
+        ArrayNode messages = buildMessagesArray(chatRequest, session);
 
         // Call Claude API with tool support
-        return callClaudeWithTools(systemPrompt, messages, 0);
+        return callClaudeWithTools(systemPrompt, messages, 0)
+                .doOnNext(reply -> recordExchange(session, chatRequest, reply));
     }
 
     /**
@@ -116,10 +122,22 @@ public class ChatAgentService {
     private Mono<ChatMessage> callClaudeWithTools(String systemPrompt, ArrayNode messages, int iteration) {
         if (iteration >= 5) {
             logger.warn("Max tool use iterations reached");
-            return Mono.just(new ChatMessage("assistant", "I apologize, but I'm having trouble completing your request. Please try rephrasing."));
+            return Mono.just(new FallbackMessage(TOOL_LIMIT_REPLY));
         }
 
-        // Create the request body for Claude API
+        // Call Claude API
+        return anthropicClient.createMessage(buildRequestBody(systemPrompt, messages))
+                .flatMap(response -> handleClaudeResponse(response, systemPrompt, messages, iteration))
+                .onErrorResume(error -> {
+                    logger.error("Error calling Claude API: {}", error.getMessage());
+                    return Mono.just(createErrorResponse());
+                });
+    }
+
+    /**
+     * Create the request body for Claude API
+     */
+    private ObjectNode buildRequestBody(String systemPrompt, ArrayNode messages) {
         ObjectNode requestBody = objectMapper.createObjectNode();
         requestBody.put("model", anthropicModel);
         requestBody.put("max_tokens", maxTokens);
@@ -132,21 +150,118 @@ public class ChatAgentService {
         if (config.isEnableProductSearch()) {
             requestBody.set("tools", buildToolsArray(config));
         }
+        return requestBody;
+    }
 
-        // Call Claude API
-        return webClient.post()
-                .uri("/messages")
-                .header("x-api-key", anthropicApiKey)
-                .header("anthropic-version", anthropicApiVersion)
-                .header("Content-Type", "application/json")
-                .bodyValue(requestBody)
-                .retrieve()
-                .bodyToMono(JsonNode.class)
-                .flatMap(response -> handleClaudeResponse(response, systemPrompt, messages, iteration))
+    /**
+     * Process a chat message and stream the AI response as it is generated
+     * Text deltas are forwarded as soon as Claude produces them; tool calls run mid-stream
+     * (announced with tool_start / tool_end events) and the stream then continues with
+     * Claude's follow-up turn. The last event is always done or error.
+     */
+    public Flux<ChatStreamEvent> streamChat(ChatRequest chatRequest) {
+        logger.info("Streaming chat message: {}", chatRequest.getMessage());
+
+        if (!anthropicClient.isConfigured()) {
+            logger.warn("Anthropic API key not configured, returning mock response");
+            ChatMessage mock = createMockResponse(chatRequest.getMessage());
+            return Flux.just(ChatStreamEvent.text(mock.getContent()), ChatStreamEvent.done(mock));
+        }
+
+        ChatSessionStore.ChatSession session = resolveSession(chatRequest);
+        String systemPrompt = withSessionSummary(buildSystemPrompt(), session);
+        ArrayNode messages = buildMessagesArray(chatRequest, session);
+        StringBuilder fullText = new StringBuilder();
+
+        return streamTurn(systemPrompt, messages, 0, fullText)
+                .concatWith(Flux.defer(() -> {
+                    ChatMessage reply;
+                    if (fullText.length() == 0) {
+                        reply = createErrorResponse();
+                    } else if (fullText.toString().endsWith(TOOL_LIMIT_REPLY)) {
+                        // Claude never finished its answer
+                        reply = new FallbackMessage(fullText.toString());
+                    } else {
+                        reply = new ChatMessage("assistant", fullText.toString());
+                    }
+                    recordExchange(session, chatRequest, reply);
+                    return Flux.just(ChatStreamEvent.done(reply));
+                }))
                 .onErrorResume(error -> {
-                    logger.error("Error calling Claude API: {}", error.getMessage());
-                    return Mono.just(createErrorResponse());
+                    logger.error("Error streaming Claude response: {}", error.getMessage());
+                    return Flux.just(ChatStreamEvent.error(createErrorResponse()));
+                });
+    }
+
+    /**
+     * Stream one Claude turn; if it ends in tool use, run the tools and stream the next turn
+     */
+    private Flux<ChatStreamEvent> streamTurn(String systemPrompt, ArrayNode messages, int iteration, StringBuilder fullText) {
+        if (iteration >= 5) {
+            logger.warn("Max tool use iterations reached");
+            fullText.append(TOOL_LIMIT_REPLY);
+            return Flux.just(ChatStreamEvent.text(TOOL_LIMIT_REPLY));
+        }
+
+        return Flux.defer(() -> {
+            StreamedTurn turn = new StreamedTurn();
+            return anthropicClient.streamMessage(buildRequestBody(systemPrompt, messages))
+                    .concatMap(event -> Flux.fromIterable(turn.apply(event, fullText)))
+                    .concatWith(Flux.defer(() -> {
+                        if (!"tool_use".equals(turn.stopReason)) {
+                            return Flux.empty();
+                        }
+                        logger.info("Claude requested tool use mid-stream - processing tool calls");
+                        return runToolsAndContinue(turn, systemPrompt, messages, iteration, fullText);
+                    }));
+        });
+    }
+
+    /**
+     * Execute the turn's tool calls, reporting progress, then stream Claude's next turn
+     */
+    private Flux<ChatStreamEvent> runToolsAndContinue(StreamedTurn turn, String systemPrompt, ArrayNode messages,
+                                                      int iteration, StringBuilder fullText) {
+        ArrayNode content = turn.content();
+
+        ObjectNode assistantMessage = objectMapper.createObjectNode();
+        assistantMessage.put("role", "assistant");
+        assistantMessage.set("content", content);
+        messages.add(assistantMessage);
+
+        List<JsonNode> toolUses = new ArrayList<>();
+        content.forEach(block -> {
+            if ("tool_use".equals(block.path("type").asText())) {
+                toolUses.add(block);
+            }
+        });
+
+        ArrayNode toolResults = objectMapper.createArrayNode();
+        toolUses.forEach(block -> toolResults.addObject());
+
+        Flux<ChatStreamEvent> toolEvents = Flux.range(0, toolUses.size())
+                .flatMapSequential(i -> {
+                    JsonNode block = toolUses.get(i);
+                    String toolName = block.get("name").asText();
+                    return Flux.just(ChatStreamEvent.toolStart(toolName, block.get("input")))
+                            .concatWith(executeToolCallReactive(toolName, block.get("input"))
+                                    .map(toolResult -> {
+                                        ObjectNode toolResultBlock = (ObjectNode) toolResults.get(i);
+                                        toolResultBlock.put("type", "tool_result");
+                                        toolResultBlock.put("tool_use_id", block.get("id").asText());
+                                        toolResultBlock.put("content", toolResult);
+                                        return ChatStreamEvent.toolEnd(toolName);
+                                    }));
                 });
+
+        return toolEvents.concatWith(Flux.defer(() -> {
+            ObjectNode userMessage = objectMapper.createObjectNode();
+            userMessage.put("role", "user");
+            userMessage.set("content", toolResults);
+            messages.add(userMessage);
+
+            return streamTurn(systemPrompt, messages, iteration + 1, fullText);
+        }));
     }
 
     /**
@@ -453,14 +568,55 @@ public class ChatAgentService {
     }
 
     /**
-     * Build messages array from conversation history
+     * Drop the server-side transcript of a chat session
+     * @return true if the session existed
      */
-    private ArrayNode buildMessagesArray(ChatRequest chatRequest) {
+    public boolean clearSession(String sessionId) {
+        return chatSessionStore.remove(SESSION_SCOPE, sessionId);
+    }
+
+    /**
+     * Server-side session of the request, or null if the client sends its own history
+     */
+    private ChatSessionStore.ChatSession resolveSession(ChatRequest chatRequest) {
+        String sessionId = chatRequest.getSessionId();
+        if (sessionId == null || sessionId.isBlank()) {
+            return null;
+        }
+        return chatSessionStore.getOrCreate(SESSION_SCOPE, sessionId);
+    }
+
+    /**
+     * Append the summary of compacted turns to the system prompt
+     */
+    private String withSessionSummary(String systemPrompt, ChatSessionStore.ChatSession session) {
+        String summary = session == null ? null : session.getSummary();
+        if (summary == null) {
+            return systemPrompt;
+        }
+        return systemPrompt + "\n\n## Earlier in this conversation\n" + summary;
+    }
+
+    /**
+     * Keep the exchange in the session transcript, unless the reply is a canned fallback
+     * rather than something Claude said
+     */
+    private void recordExchange(ChatSessionStore.ChatSession session, ChatRequest chatRequest, ChatMessage reply) {
+        if (session != null && !(reply instanceof FallbackMessage)) {
+            chatSessionStore.recordExchange(session, chatRequest.getMessage(), reply.getContent());
+        }
+    }
+
+    /**
+     * Build messages array from the session transcript, or the client's conversation history
+     */
+    private ArrayNode buildMessagesArray(ChatRequest chatRequest, ChatSessionStore.ChatSession session) {
         ArrayNode messages = objectMapper.createArrayNode();
 
         // Add conversation history
-        if (chatRequest.getConversationHistory() != null) {
-            for (ChatMessage msg : chatRequest.getConversationHistory()) {
+        List<ChatMessage> history = session != null ? session.getTurns() : chatRequest.getConversationHistory();
+        if (history != null) {
+            for (ChatMessage msg : history) {
                 ObjectNode messageNode = objectMapper.createObjectNode();
                 messageNode.put("role", msg.getRole());
                 messageNode.put("content", msg.getContent());
@@ -529,11 +685,99 @@ public class ChatAgentService {
      * Create error response when API call fails
      */
     private ChatMessage createErrorResponse() {
-        return new ChatMessage("assistant",
+        return new FallbackMessage(
             "I apologize, but I'm having trouble processing your request at the moment. " +
             "Please try again or use the Product Search page to browse our catalog.");
     }
 
+    /**
+     * Reply the service made up itself (API errors, tool-use limit), never recorded in the transcript
+     */
+    private static final class FallbackMessage extends ChatMessage {
+        FallbackMessage(String content) {
+            super("assistant", content);
+        }
+    }
+
+    /**
+     * Reassembles the content blocks of one streamed Claude turn
+     * Content blocks arrive as start / delta / stop events keyed by index; text and tool
+     * input (partial JSON) are buffered and written to their block when it stops.
+     */
+    private class StreamedTurn {
+        private final Map<Integer, ObjectNode> blocks = new TreeMap<>();
+        private final Map<Integer, StringBuilder> partials = new TreeMap<>();
+        private String stopReason;
+
+        /**
+         * Apply one stream event
+         * @return Events to forward to the browser
+         */
+        List<ChatStreamEvent> apply(JsonNode event, StringBuilder fullText) {
+            int index = event.path("index").asInt();
+            switch (event.path("type").asText()) {
+                case "content_block_start" -> {
+                    ObjectNode block = event.path("content_block").deepCopy();
+                    blocks.put(index, block);
+                    partials.put(index, new StringBuilder(block.path("text").asText()));
+                }
+                case "content_block_delta" -> {
+                    JsonNode delta = event.path("delta");
+                    StringBuilder partial = partials.get(index);
+                    if (partial == null) {
+                        return List.of();
+                    }
+                    if ("text_delta".equals(delta.path("type").asText())) {
+                        String text = delta.path("text").asText();
+                        partial.append(text);
+                        fullText.append(text);
+                        return List.of(ChatStreamEvent.text(text));
+                    }
+                    if ("input_json_delta".equals(delta.path("type").asText())) {
+                        partial.append(delta.path("partial_json").asText());
+                    }
+                }
+                case "content_block_stop" -> {
+                    StringBuilder partial = partials.remove(index);
+                    ObjectNode block = blocks.get(index);
+                    if (partial == null || block == null) {
+                        return List.of();
+                    }
+                    if ("text".equals(block.path("type").asText())) {
+                        block.put("text", partial.toString());
+                    } else if ("tool_use".equals(block.path("type").asText())) {
+                        try {
+                            block.set("input", partial.length() > 0
+                                    ? objectMapper.readTree(partial.toString())
+                                    : objectMapper.createObjectNode());
+                        } catch (Exception e) {
+                            throw new RuntimeException("Invalid tool input from Claude: " + e.getMessage(), e);
+                        }
+                    }
+                }
+                case "message_delta" -> stopReason = event.path("delta").path("stop_reason").asText(stopReason);
+                default -> {
+                    // message_start, message_stop and ping carry nothing to forward
+                }
+            }
+            return List.of();
+        }
+
+        /**
+         * The turn's content blocks, as sent back to Claude in the assistant message
+         * (empty text blocks are dropped; the API rejects them)
+         */
+        ArrayNode content() {
+            ArrayNode content = objectMapper.createArrayNode();
+            blocks.values().forEach(block -> {
+                if (!"text".equals(block.path("type").asText()) || !block.path("text").asText().isEmpty()) {
+                    content.add(block);
+                }
+            });
+            return content;
+        }
+    }
+
     /**
      * Search products based on AI analysis (called by AI if needed)
      * This will be enhanced in future to support function calling
@@ -0,0 +1,309 @@
+package com.shopify.api.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.shopify.api.client.AnthropicClient;
+import com.shopify.api.model.ChatMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Server-side chat transcripts, so clients only send the new message
+ * - Keyed by scope ("chat", "seo") and client-supplied session id
+ * - Sessions idle for longer than chat.session.ttl-ms expire; beyond chat.session.max-sessions
+ *   the least recently used session is evicted
+ * - Once a transcript exceeds chat.session.token-budget (estimated), turns older than the most
+ *   recent chat.session.keep-recent-turns are folded into a running summary, which callers add
+ *   to the system prompt. Summaries are written by Claude in the background; if that fails (or
+ *   no API key is configured) a truncated extract of the turns is kept instead.
+ */
+@Component
+public class ChatSessionStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatSessionStore.class);
+    private static final int CHARS_PER_TOKEN = 4;
+    private static final int EXTRACT_CHARS_PER_TURN = 200;
+
+    private final AnthropicClient anthropicClient;
+    private final ObjectMapper objectMapper;
+    private final long ttlMs;
+    private final int maxSessions;
+    private final int tokenBudget;
+    private final int keepRecentTurns;
+    private final String summaryModel;
+    private final int summaryMaxTokens;
+
+    // Access-ordered for LRU eviction, guarded by itself
+    private final LinkedHashMap<String, ChatSession> sessions;
+
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong compactions = new AtomicLong();
+
+    public ChatSessionStore(AnthropicClient anthropicClient,
+                            @Value("${chat.session.ttl-ms:3600000}") long ttlMs,
+                            @Value("${chat.session.max-sessions:1000}") int maxSessions,
+                            @Value("${chat.session.token-budget:4000}") int tokenBudget,
+                            @Value("${chat.session.keep-recent-turns:6}") int keepRecentTurns,
+                            @Value("${chat.session.summary-model:claude-3-5-haiku-20241022}") String summaryModel,
+                            @Value("${chat.session.summary-max-tokens:512}") int summaryMaxTokens) {
+        this.anthropicClient = anthropicClient;
+        this.objectMapper = new ObjectMapper();
+        this.ttlMs = ttlMs;
+        this.maxSessions = maxSessions;
+        this.tokenBudget = tokenBudget;
+        this.keepRecentTurns = keepRecentTurns;
+        this.summaryModel = summaryModel;
+        this.summaryMaxTokens = summaryMaxTokens;
+        this.sessions = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ChatSession> eldest) {
+                if (size() > ChatSessionStore.this.maxSessions) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+        logger.info("ChatSessionStore initialized - TTL: {} ms, Max sessions: {}, Token budget: {}, Keep recent turns: {}",
+                ttlMs, maxSessions, tokenBudget, keepRecentTurns);
+    }
+
+    /**
+     * Session for the id, starting a new one if it is unknown or has expired
+     * @param scope Conversation kind, so chat and SEO agent sessions never share transcripts
+     * @param sessionId Client-supplied session id
+     */
+    public ChatSession getOrCreate(String scope, String sessionId) {
+        String key = scope + ":" + sessionId;
+        long now = System.currentTimeMillis();
+        synchronized (sessions) {
+            ChatSession session = sessions.get(key);
+            if (session != null && now - session.lastAccessMs > ttlMs) {
+                sessions.remove(key);
+                expirations.incrementAndGet();
+                session = null;
+            }
+            if (session == null) {
+                session = new ChatSession(sessionId);
+                sessions.put(key, session);
+            }
+            session.lastAccessMs = now;
+            return session;
+        }
+    }
+
+    /**
+     * Drop a session's transcript
+     * @return true if the session existed
+     */
+    public boolean remove(String scope, String sessionId) {
+        synchronized (sessions) {
+            return sessions.remove(scope + ":" + sessionId) != null;
+        }
+    }
+
+    /**
+     * Append a completed exchange to the session and compact it if it is over budget
+     */
+    public void recordExchange(ChatSession session, String userMessage, String assistantReply) {
+        synchronized (session) {
+            session.turns.add(new ChatMessage("user", userMessage));
+            session.turns.add(new ChatMessage("assistant", assistantReply));
+        }
+        compactIfNeeded(session);
+    }
+
+    /**
+     * Remove expired sessions
+     */
+    @Scheduled(fixedDelayString = "${chat.session.purge-interval-ms:300000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        int purged = 0;
+        synchronized (sessions) {
+            Iterator<ChatSession> it = sessions.values().iterator();
+            while (it.hasNext()) {
+                if (now - it.next().lastAccessMs > ttlMs) {
+                    it.remove();
+                    purged++;
+                }
+            }
+        }
+        if (purged > 0) {
+            expirations.addAndGet(purged);
+            logger.debug("Purged {} expired chat sessions", purged);
+        }
+    }
+
+    /**
+     * Session counts for the status endpoint
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        synchronized (sessions) {
+            stats.put("sessions", sessions.size());
+        }
+        stats.put("max_sessions", maxSessions);
+        stats.put("evictions", evictions.get());
+        stats.put("expirations", expirations.get());
+        stats.put("compactions", compactions.get());
+        return stats;
+    }
+
+    private void compactIfNeeded(ChatSession session) {
+        List<ChatMessage> older;
+        String previousSummary;
+        synchronized (session) {
+            if (session.compacting || estimateTokens(session) <= tokenBudget) {
+                return;
+            }
+            // Keep the retained tail starting on a user turn
+            int count = session.turns.size() - keepRecentTurns;
+            count -= count % 2;
+            if (count <= 0) {
+                return;
+            }
+            older = new ArrayList<>(session.turns.subList(0, count));
+            previousSummary = session.summary;
+            session.compacting = true;
+        }
+
+        summarize(previousSummary, older)
+                .onErrorResume(error -> {
+                    logger.warn("Chat summary failed for session {}, keeping an extract: {}",
+                            session.id, error.getMessage());
+                    return Mono.just(extract(previousSummary, older));
+                })
+                .subscribe(summary -> {
+                    session.applyCompaction(summary, older.size());
+                    compactions.incrementAndGet();
+                    logger.debug("Compacted {} turns of chat session {}", older.size(), session.id);
+                }, error -> session.cancelCompaction());
+    }
+
+    /**
+     * Ask Claude to fold the turns into the running summary
+     */
+    private Mono<String> summarize(String previousSummary, List<ChatMessage> turns) {
+        if (!anthropicClient.isConfigured()) {
+            return Mono.just(extract(previousSummary, turns));
+        }
+
+        StringBuilder transcript = new StringBuilder();
+        if (previousSummary != null) {
+            transcript.append("Summary so far:\n").append(previousSummary).append("\n\n");
+        }
+        transcript.append("New turns:\n");
+        for (ChatMessage turn : turns) {
+            transcript.append(turn.getRole()).append(": ").append(turn.getContent()).append("\n");
+        }
+
+        ObjectNode requestBody = objectMapper.createObjectNode();
+        requestBody.put("model", summaryModel);
+        requestBody.put("max_tokens", summaryMaxTokens);
+        requestBody.put("system", "Summarize this conversation between a customer and an assistant for the assistant's "
+                + "future reference. Keep names, products, order numbers, preferences and open questions. "
+                + "Reply with the summary only.");
+        ArrayNode messages = requestBody.putArray("messages");
+        messages.addObject().put("role", "user").put("content", transcript.toString());
+
+        return anthropicClient.createMessage(requestBody)
+                .map(response -> {
+                    StringBuilder text = new StringBuilder();
+                    for (JsonNode block : response.path("content")) {
+                        if ("text".equals(block.path("type").asText())) {
+                            text.append(block.path("text").asText());
+                        }
+                    }
+                    if (text.length() == 0) {
+                        throw new RuntimeException("Empty summary response");
+                    }
+                    return text.toString().trim();
+                });
+    }
+
+    /**
+     * Fallback summary: the previous summary plus the start of each turn, capped in length
+     */
+    private String extract(String previousSummary, List<ChatMessage> turns) {
+        StringBuilder text = new StringBuilder();
+        if (previousSummary != null) {
+            text.append(previousSummary).append("\n");
+        }
+        for (ChatMessage turn : turns) {
+            String content = turn.getContent() == null ? "" : turn.getContent();
+            text.append(turn.getRole()).append(": ")
+                    .append(content, 0, Math.min(content.length(), EXTRACT_CHARS_PER_TURN))
+                    .append(content.length() > EXTRACT_CHARS_PER_TURN ? "...\n" : "\n");
+        }
+        int maxChars = summaryMaxTokens * CHARS_PER_TOKEN;
+        return text.length() > maxChars ? text.substring(text.length() - maxChars) : text.toString();
+    }
+
+    private static int estimateTokens(ChatSession session) {
+        long chars = session.summary == null ? 0 : session.summary.length();
+        for (ChatMessage turn : session.turns) {
+            chars += turn.getContent() == null ? 0 : turn.getContent().length();
+        }
+        return (int) (chars / CHARS_PER_TOKEN);
+    }
+
+    /**
+     * One conversation: a summary of compacted turns plus the turns since
+     */
+    public static class ChatSession {
+        private final String id;
+        private final List<ChatMessage> turns = new ArrayList<>();
+        private String summary;
+        private boolean compacting;
+        private volatile long lastAccessMs;
+
+        private ChatSession(String id) {
+            this.id = id;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        /**
+         * Summary of compacted turns, or null if nothing has been compacted yet
+         */
+        public synchronized String getSummary() {
+            return summary;
+        }
+
+        /**
+         * Copy of the turns since the summary, oldest first
+         */
+        public synchronized List<ChatMessage> getTurns() {
+            return new ArrayList<>(turns);
+        }
+
+        private synchronized void applyCompaction(String newSummary, int compactedTurns) {
+            // Only appends happen while compacting, so the compacted turns are still the oldest
+            turns.subList(0, compactedTurns).clear();
+            summary = newSummary;
+            compacting = false;
+        }
+
+        private synchronized void cancelCompaction() {
+            compacting = false;
+        }
+    }
+}
@@ -5,7 +5,9 @@ import com.shopify.api.model.GraphQLResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 
+import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -190,4 +192,45 @@ public class CustomerService {
 
         return response.getData();
     }
+
+    /**
+     * Stream all customers matching a search query one at a time (non-blocking, backpressured)
+     * Pages of 250 are fetched lazily with one page of lookahead
+     * @param searchQuery Shopify customer search query (null for all customers)
+     * @return Flux of customer nodes
+     */
+    public Flux<Map<String, Object>> streamCustomers(String searchQuery) {
+        logger.info("Streaming customers with query: {}", searchQuery);
+
+        String query = """
+            query streamCustomers($query: String, $after: String) {
+              customers(first: 250, query: $query, after: $after) {
+                edges {
+                  node {
+                    id
+                    email
+                    firstName
+                    lastName
+                    phone
+                    createdAt
+                    updatedAt
+                    state
+                    tags
+                  }
+                }
+                pageInfo {
+                  hasNextPage
+                  endCursor
+                }
+              }
+            }
+            """;
+
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("query", searchQuery);
+
+        return graphQLClient.executePaginatedQueryReactive(query, variables, "customers")
+                .concatMapIterable(edges -> edges, 1)
+                .map(edge -> (Map<String, Object>) edge.get("node"));
+    }
 }
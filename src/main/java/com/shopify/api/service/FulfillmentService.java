@@ -1,22 +1,30 @@
 package com.shopify.api.service;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopify.api.client.CRSResultDecoder;
 import com.shopify.api.client.MCPClient;
+import com.shopify.api.client.ShopifyBulkOperationClient;
 import com.shopify.api.client.ShopifyGraphQLClient;
+import com.shopify.api.config.ShopifyConfig;
+import com.shopify.api.model.GraphQLRequest;
 import com.shopify.api.model.GraphQLResponse;
 import com.shopify.api.model.OrderLineItem;
 import com.shopify.api.model.UnfulfilledOrder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -27,20 +35,86 @@ import java.util.stream.Collectors;
 public class FulfillmentService {
 
     private static final Logger logger = LoggerFactory.getLogger(FulfillmentService.class);
+    private static final String ORDER_GID_PREFIX = "gid://shopify/Order/";
+    // Keeps the requested cost of a page (up to 100 line items per order) under Shopify's 1000-point query limit
+    private static final int UPDATED_ORDERS_PAGE_SIZE = 8;
+
+    private static final String ORDER_DISCOUNT_FIELDS = """
+                    totalDiscountsSet {
+                      shopMoney {
+                        amount
+                      }
+                    }
+                    discountApplications(first: 10) {
+                      edges {
+                        node {
+                          ... on DiscountCodeApplication {
+                            code
+                          }
+                        }
+                      }
+                    }
+            """;
+
+    private static final String LINE_ITEM_DISCOUNT_FIELDS = """
+                          discountedTotalSet {
+                            shopMoney {
+                              amount
+                            }
+                          }
+                          discountAllocations {
+                            allocatedAmountSet {
+                              shopMoney {
+                                amount
+                              }
+                            }
+                            discountApplication {
+                              ... on DiscountCodeApplication {
+                                code
+                              }
+                            }
+                          }
+            """;
 
     private final ShopifyGraphQLClient graphQLClient;
+    private final ShopifyBulkOperationClient bulkOperationClient;
+    private final ShopifyConfig shopifyConfig;
     private final MCPClient mcpClient;
-    private final ObjectMapper objectMapper;
-
-    public FulfillmentService(ShopifyGraphQLClient graphQLClient, MCPClient mcpClient) {
+    private final CRSResultDecoder resultDecoder;
+    private final int orderCheckChunkSize;
+    private final int orderCheckConcurrency;
+    private final int skuChunkSize;
+    private final long itemPriceTtlMs;
+    private final int itemPriceCacheMaxSize;
+
+    // ItemMaster prices by normalized SKU; SKUs missing from CRS are cached too
+    private final Map<String, ItemPrice> itemPriceCache = new ConcurrentHashMap<>();
+
+    public FulfillmentService(ShopifyGraphQLClient graphQLClient,
+                              ShopifyBulkOperationClient bulkOperationClient,
+                              ShopifyConfig shopifyConfig,
+                              MCPClient mcpClient,
+                              CRSResultDecoder resultDecoder,
+                              @Value("${crs.fulfillment.order-check-chunk-size:200}") int orderCheckChunkSize,
+                              @Value("${crs.fulfillment.order-check-concurrency:4}") int orderCheckConcurrency,
+                              @Value("${crs.fulfillment.sku-chunk-size:200}") int skuChunkSize,
+                              @Value("${crs.fulfillment.item-price-ttl-ms:900000}") long itemPriceTtlMs,
+                              @Value("${crs.fulfillment.item-price-cache-max-size:10000}") int itemPriceCacheMaxSize) {
         this.graphQLClient = graphQLClient;
+        this.bulkOperationClient = bulkOperationClient;
+        this.shopifyConfig = shopifyConfig;
         this.mcpClient = mcpClient;
-        this.objectMapper = new ObjectMapper();
+        this.resultDecoder = resultDecoder;
+        this.orderCheckChunkSize = Math.max(1, orderCheckChunkSize);
+        this.orderCheckConcurrency = Math.max(1, orderCheckConcurrency);
+        this.skuChunkSize = Math.max(1, skuChunkSize);
+        this.itemPriceTtlMs = itemPriceTtlMs;
+        this.itemPriceCacheMaxSize = itemPriceCacheMaxSize;
     }
 
     /**
      * Get all unfulfilled Shopify orders that haven't been processed in CRS
-     * Fetches most recent orders from last 3 months and checks each against CRS
+     * Fetches most recent orders from last 3 months and checks them against CRS in batches
      * @param includeDiscounts Whether to include discount information (makes query slower)
      * @param includeSalePrices Whether to enrich with CRS sale price data (makes query slower)
      * @return List of unfulfilled orders
@@ -54,25 +128,29 @@ public class FulfillmentService {
             List<UnfulfilledOrder> shopifyOrders = fetchRecentShopifyOrders(includeDiscounts);
             logger.info("Found {} recent orders from Shopify", shopifyOrders.size());
 
-            // Step 2: Check each order against CRS and optionally enrich with sale data
+            // Step 2: Check all orders against CRS with batched lookups
+            List<String> orderNames = shopifyOrders.stream()
+                    .map(UnfulfilledOrder::getOrderName)
+                    .collect(Collectors.toList());
+            Set<String> ordersInCRS = findOrdersInCRS(orderNames).block();
+
+            // Step 3: Keep orders missing from CRS
             List<UnfulfilledOrder> ordersToFulfill = new ArrayList<>();
             for (UnfulfilledOrder order : shopifyOrders) {
+                if (ordersInCRS != null && ordersInCRS.contains(order.getOrderName())) {
+                    logger.debug("Order {} already exists in CRS, skipping", order.getOrderName());
+                    continue;
+                }
+                ordersToFulfill.add(order);
+                logger.debug("Order {} not found in CRS, adding to fulfillment list", order.getOrderName());
+            }
+
+            // Step 4: Optionally enrich line items with CRS sale information, one lookup per distinct SKU
+            if (includeSalePrices) {
                 try {
-                    boolean existsInCRS = checkOrderInCRS(order.getOrderName()).block();
-                    if (!existsInCRS) {
-                        // Optionally enrich order with CRS sale information for each line item
-                        if (includeSalePrices) {
-                            enrichOrderWithCRSSaleData(order);
-                        }
-                        ordersToFulfill.add(order);
-                        logger.debug("Order {} not found in CRS, adding to fulfillment list", order.getOrderName());
-                    } else {
-                        logger.debug("Order {} already exists in CRS, skipping", order.getOrderName());
-                    }
+                    enrichOrdersWithCRSSaleData(ordersToFulfill);
                 } catch (Exception e) {
-                    logger.error("Error checking order {} in CRS: {}", order.getOrderName(), e.getMessage());
-                    // If CRS check fails, include the order to be safe
-                    ordersToFulfill.add(order);
+                    logger.error("Error enriching orders with CRS sale data: {}", e.getMessage());
                 }
             }
 
@@ -85,28 +163,286 @@ public class FulfillmentService {
         }
     }
 
+    /**
+     * Get a single order if it is still pending fulfillment in CRS
+     * Fetches only that order from Shopify, checks only it against CRS and enriches only its SKUs,
+     * so latency does not grow with the size of the backlog
+     * @param orderIdOrName Order GID (gid://shopify/Order/123), numeric order ID, or order name (#1001)
+     * @return The order with discounts and CRS sale prices, or empty if not found or already in CRS
+     */
+    public Optional<UnfulfilledOrder> getPendingOrder(String orderIdOrName) {
+        logger.info("Fetching order {} and checking against CRS", orderIdOrName);
+
+        UnfulfilledOrder order = fetchShopifyOrder(orderIdOrName);
+        if (order == null) {
+            logger.debug("Order {} not found in Shopify", orderIdOrName);
+            return Optional.empty();
+        }
+
+        Boolean existsInCRS = checkOrderInCRS(order.getOrderName()).block();
+        if (Boolean.TRUE.equals(existsInCRS)) {
+            logger.debug("Order {} already exists in CRS", order.getOrderName());
+            return Optional.empty();
+        }
+
+        try {
+            enrichOrdersWithCRSSaleData(List.of(order));
+        } catch (Exception e) {
+            logger.error("Error enriching order {} with CRS sale data: {}", order.getOrderName(), e.getMessage());
+        }
+
+        return Optional.of(order);
+    }
+
+    /**
+     * Fetch one order (with discount fields) from Shopify by GID, numeric ID or name
+     * A bare number is tried as an order ID first, then as an order name
+     * @return The parsed order, or null if Shopify has no such order
+     */
+    private UnfulfilledOrder fetchShopifyOrder(String orderIdOrName) {
+        if (orderIdOrName.startsWith("gid://")) {
+            return fetchShopifyOrderById(orderIdOrName);
+        }
+        if (!orderIdOrName.isEmpty() && orderIdOrName.chars().allMatch(Character::isDigit)) {
+            UnfulfilledOrder order = fetchShopifyOrderById(ORDER_GID_PREFIX + orderIdOrName);
+            if (order != null) {
+                return order;
+            }
+        }
+        return fetchShopifyOrderByName(name(orderIdOrName));
+    }
+
+    private UnfulfilledOrder fetchShopifyOrderById(String orderId) {
+        String query = String.format("""
+            query pendingOrderById($id: ID!) {
+              order(id: $id) {
+            %s
+              }
+            }
+            """, orderFields(true));
+
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("id", orderId);
+
+        Map<String, Object> data = executeOrderQuery(new GraphQLRequest(query, variables), orderId);
+        Map<String, Object> node = data != null ? (Map<String, Object>) data.get("order") : null;
+        return node != null ? parseShopifyOrder(node) : null;
+    }
+
+    private UnfulfilledOrder fetchShopifyOrderByName(String orderName) {
+        String query = String.format("""
+            query pendingOrderByName($query: String) {
+              orders(first: 1, query: $query) {
+                edges {
+                  node {
+            %s
+                  }
+                }
+              }
+            }
+            """, orderFields(true));
+
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("query", "name:" + orderName);
+
+        Map<String, Object> data = executeOrderQuery(new GraphQLRequest(query, variables), orderName);
+        if (data == null) {
+            return null;
+        }
+        // Search is fuzzy, so only accept an exact name match
+        return parseShopifyOrders(data).stream()
+                .filter(order -> orderName.equals(order.getOrderName()))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private Map<String, Object> executeOrderQuery(GraphQLRequest request, String orderIdOrName) {
+        GraphQLResponse response = graphQLClient.executeQuery(request);
+
+        if (response.hasErrors()) {
+            logger.error("Error fetching order {} from Shopify: {}", orderIdOrName, response.getErrors());
+            throw new RuntimeException("Failed to fetch order: " + response.getErrors().get(0).getMessage());
+        }
+
+        return response.getData();
+    }
+
+    /**
+     * Order name with its leading '#'
+     */
+    private String name(String orderName) {
+        return orderName.startsWith("#") ? orderName : "#" + orderName;
+    }
+
     /**
      * Fetch recent orders from Shopify (most recent first, last 3 months)
      * Does NOT filter by fulfillment status - checks ALL orders against CRS
      * @param includeDiscounts Whether to include discount fields in the query
      */
     private List<UnfulfilledOrder> fetchRecentShopifyOrders(boolean includeDiscounts) {
+        if (shopifyConfig.getBulkOperation().isFulfillmentEnabled()) {
+            return fetchRecentShopifyOrdersBulk(includeDiscounts);
+        }
+
+        // Get most recent 250 orders, sorted by creation date (newest first)
+        String query = String.format("""
+            {
+              orders(first: 250, reverse: true, sortKey: CREATED_AT) {
+                edges {
+                  node {
+            %s
+                  }
+                }
+              }
+            }
+            """, orderFields(includeDiscounts));
+
+        GraphQLResponse response = graphQLClient.executeQuery(query);
+
+        if (response.hasErrors()) {
+            logger.error("Error fetching recent orders from Shopify: {}", response.getErrors());
+            throw new RuntimeException("Failed to fetch recent orders: " +
+                    response.getErrors().get(0).getMessage());
+        }
+
+        List<UnfulfilledOrder> allOrders = parseShopifyOrders(response.getData());
+
+        // Filter to only orders from last 3 months
+        LocalDateTime threeMonthsAgo = LocalDateTime.now().minusMonths(3);
+        List<UnfulfilledOrder> recentOrders = allOrders.stream()
+                .filter(order -> order.getCreatedAt() != null && order.getCreatedAt().isAfter(threeMonthsAgo))
+                .collect(java.util.stream.Collectors.toList());
+
+        logger.info("Filtered to {} orders from last 3 months (from {} total)", recentOrders.size(), allOrders.size());
+
+        return recentOrders;
+    }
+
+    /**
+     * Fetch recent orders (last 3 months) with discount fields, without checking CRS
+     * Used by PendingFulfillmentQueue to build its initial snapshot
+     */
+    List<UnfulfilledOrder> fetchRecentOrders() {
+        return fetchRecentShopifyOrders(true);
+    }
+
+    /**
+     * Fetch orders from the last 3 months that were created or updated since a point in time
+     * Used by PendingFulfillmentQueue to pick up changes since its watermark
+     * @param since Only orders with updated_at at or after this time are returned
+     */
+    List<UnfulfilledOrder> fetchOrdersUpdatedSince(OffsetDateTime since) {
+        String query = String.format("""
+            query pendingOrdersUpdatedSince($query: String, $after: String) {
+              orders(first: %d, query: $query, after: $after, sortKey: UPDATED_AT) {
+                edges {
+                  node {
+            %s
+                  }
+                }
+                pageInfo {
+                  hasNextPage
+                  endCursor
+                }
+              }
+            }
+            """, UPDATED_ORDERS_PAGE_SIZE, orderFields(true));
+
+        String createdSince = LocalDateTime.now().minusMonths(3).toLocalDate().toString();
+
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("query", String.format("updated_at:>='%s' created_at:>=%s", since.toInstant(), createdSince));
+
+        List<UnfulfilledOrder> orders = graphQLClient.executePaginatedQueryReactive(query, variables, "orders")
+                .concatMapIterable(edges -> edges, 1)
+                .map(edge -> parseShopifyOrder((Map<String, Object>) edge.get("node")))
+                .collectList()
+                .block();
+
+        return orders != null ? orders : new ArrayList<>();
+    }
+
+    /**
+     * Order node selection shared by the recent-orders and single-order queries
+     * @param includeDiscounts Whether to include discount fields (makes query slower)
+     */
+    private String orderFields(boolean includeDiscounts) {
         // Build query conditionally based on whether discounts are needed
-        String discountFields = includeDiscounts ? """
-                    totalDiscountsSet {
+        return String.format("""
+                    id
+                    name
+                    email
+                    phone
+                    createdAt
+                    displayFulfillmentStatus
+                    note
+                    subtotalPriceSet {
                       shopMoney {
                         amount
+                        currencyCode
                       }
                     }
-                    discountApplications(first: 10) {
+                    totalPriceSet {
+                      shopMoney {
+                        amount
+                        currencyCode
+                      }
+                    }
+                    %s
+                    customer {
+                      email
+                      firstName
+                      lastName
+                      phone
+                    }
+                    lineItems(first: 100) {
                       edges {
                         node {
-                          ... on DiscountCodeApplication {
-                            code
+                          id
+                          title
+                          quantity
+                          originalUnitPrice
+                          %s
+                          variant {
+                            id
+                            title
+                            sku
                           }
                         }
                       }
                     }
+                    shippingAddress {
+                      firstName
+                      lastName
+                      company
+                      address1
+                      address2
+                      city
+                      province
+                      country
+                      zip
+                      phone
+                    }
+            """,
+            includeDiscounts ? ORDER_DISCOUNT_FIELDS : "",
+            includeDiscounts ? LINE_ITEM_DISCOUNT_FIELDS : "");
+    }
+
+    /**
+     * Fetch every order from the last 3 months with a Shopify bulk operation
+     * Unlike the paginated query this is not capped at the 250 most recent orders
+     * @param includeDiscounts Whether to include discount fields in the query
+     */
+    private List<UnfulfilledOrder> fetchRecentShopifyOrdersBulk(boolean includeDiscounts) {
+        // Bulk queries cannot nest a second connection under orders alongside lineItems,
+        // so discount codes come from the discountCodes list instead of discountApplications
+        String discountFields = includeDiscounts ? """
+                    totalDiscountsSet {
+                      shopMoney {
+                        amount
+                      }
+                    }
+                    discountCodes
                 """ : "";
 
         String lineItemDiscountFields = includeDiscounts ? """
@@ -129,10 +465,11 @@ public class FulfillmentService {
                           }
                 """ : "";
 
-        // Get most recent 250 orders, sorted by creation date (newest first)
+        String since = LocalDateTime.now().minusMonths(3).toLocalDate().toString();
+
         String query = String.format("""
             {
-              orders(first: 250, reverse: true, sortKey: CREATED_AT) {
+              orders(query: "created_at:>=%s", sortKey: CREATED_AT, reverse: true) {
                 edges {
                   node {
                     id
@@ -161,7 +498,7 @@ public class FulfillmentService {
                       lastName
                       phone
                     }
-                    lineItems(first: 100) {
+                    lineItems {
                       edges {
                         node {
                           id
@@ -193,27 +530,17 @@ public class FulfillmentService {
                 }
               }
             }
-            """, discountFields, lineItemDiscountFields);
+            """, since, discountFields, lineItemDiscountFields);
 
-        GraphQLResponse response = graphQLClient.executeQuery(query);
+        List<UnfulfilledOrder> recentOrders = bulkOperationClient.streamQueryWithChildren(query, "lineItems")
+                .map(this::parseShopifyOrder)
+                .collectList()
+                .block();
 
-        if (response.hasErrors()) {
-            logger.error("Error fetching recent orders from Shopify: {}", response.getErrors());
-            throw new RuntimeException("Failed to fetch recent orders: " +
-                    response.getErrors().get(0).getMessage());
-        }
-
-        List<UnfulfilledOrder> allOrders = parseShopifyOrders(response.getData());
-
-        // Filter to only orders from last 3 months
-        LocalDateTime threeMonthsAgo = LocalDateTime.now().minusMonths(3);
-        List<UnfulfilledOrder> recentOrders = allOrders.stream()
-                .filter(order -> order.getCreatedAt() != null && order.getCreatedAt().isAfter(threeMonthsAgo))
-                .collect(java.util.stream.Collectors.toList());
+        logger.info("Fetched {} orders from last 3 months via bulk operation",
+                recentOrders != null ? recentOrders.size() : 0);
 
-        logger.info("Filtered to {} orders from last 3 months (from {} total)", recentOrders.size(), allOrders.size());
-
-        return recentOrders;
+        return recentOrders != null ? recentOrders : new ArrayList<>();
     }
 
     /**
@@ -228,186 +555,199 @@ public class FulfillmentService {
 
             for (Map<String, Object> edge : edges) {
                 Map<String, Object> node = (Map<String, Object>) edge.get("node");
-                UnfulfilledOrder order = new UnfulfilledOrder();
-
-                // Basic order info
-                order.setOrderId((String) node.get("id"));
-                order.setOrderName((String) node.get("name"));
-                order.setDisplayFulfillmentStatus((String) node.get("displayFulfillmentStatus"));
-                order.setNote((String) node.get("note"));
-
-                // Parse created date
-                String createdAtStr = (String) node.get("createdAt");
-                if (createdAtStr != null) {
-                    order.setCreatedAt(ZonedDateTime.parse(createdAtStr).toLocalDateTime());
-                }
+                orders.add(parseShopifyOrder(node));
+            }
 
-                // Customer info
-                Map<String, Object> customer = (Map<String, Object>) node.get("customer");
-                if (customer != null) {
-                    String firstName = (String) customer.get("firstName");
-                    String lastName = (String) customer.get("lastName");
-                    order.setCustomerName((firstName != null ? firstName : "") + " " + (lastName != null ? lastName : ""));
-                    order.setCustomerEmail((String) customer.get("email"));
-                    order.setCustomerPhone((String) customer.get("phone"));
-                } else {
-                    order.setCustomerEmail((String) node.get("email"));
-                    order.setCustomerPhone((String) node.get("phone"));
-                }
+        } catch (Exception e) {
+            logger.error("Error parsing Shopify orders: {}", e.getMessage(), e);
+        }
 
-                // Price info
-                Map<String, Object> subtotalPriceSet = (Map<String, Object>) node.get("subtotalPriceSet");
-                if (subtotalPriceSet != null) {
-                    Map<String, Object> shopMoney = (Map<String, Object>) subtotalPriceSet.get("shopMoney");
-                    if (shopMoney != null) {
-                        String amount = (String) shopMoney.get("amount");
-                        if (amount != null) {
-                            order.setSubtotalPrice(new BigDecimal(amount));
-                        }
-                    }
+        return orders;
+    }
+
+    /**
+     * Parse a single Shopify order node into an UnfulfilledOrder
+     */
+    private UnfulfilledOrder parseShopifyOrder(Map<String, Object> node) {
+        UnfulfilledOrder order = new UnfulfilledOrder();
+
+        // Basic order info
+        order.setOrderId((String) node.get("id"));
+        order.setOrderName((String) node.get("name"));
+        order.setDisplayFulfillmentStatus((String) node.get("displayFulfillmentStatus"));
+        order.setNote((String) node.get("note"));
+
+        // Parse created date
+        String createdAtStr = (String) node.get("createdAt");
+        if (createdAtStr != null) {
+            order.setCreatedAt(ZonedDateTime.parse(createdAtStr).toLocalDateTime());
+        }
+
+        // Customer info
+        Map<String, Object> customer = (Map<String, Object>) node.get("customer");
+        if (customer != null) {
+            String firstName = (String) customer.get("firstName");
+            String lastName = (String) customer.get("lastName");
+            order.setCustomerName((firstName != null ? firstName : "") + " " + (lastName != null ? lastName : ""));
+            order.setCustomerEmail((String) customer.get("email"));
+            order.setCustomerPhone((String) customer.get("phone"));
+        } else {
+            order.setCustomerEmail((String) node.get("email"));
+            order.setCustomerPhone((String) node.get("phone"));
+        }
+
+        // Price info
+        Map<String, Object> subtotalPriceSet = (Map<String, Object>) node.get("subtotalPriceSet");
+        if (subtotalPriceSet != null) {
+            Map<String, Object> shopMoney = (Map<String, Object>) subtotalPriceSet.get("shopMoney");
+            if (shopMoney != null) {
+                String amount = (String) shopMoney.get("amount");
+                if (amount != null) {
+                    order.setSubtotalPrice(new BigDecimal(amount));
                 }
+            }
+        }
 
-                Map<String, Object> totalPriceSet = (Map<String, Object>) node.get("totalPriceSet");
-                if (totalPriceSet != null) {
-                    Map<String, Object> shopMoney = (Map<String, Object>) totalPriceSet.get("shopMoney");
-                    if (shopMoney != null) {
-                        String amount = (String) shopMoney.get("amount");
-                        if (amount != null) {
-                            order.setTotalPrice(new BigDecimal(amount));
-                        }
-                        order.setCurrencyCode((String) shopMoney.get("currencyCode"));
-                    }
+        Map<String, Object> totalPriceSet = (Map<String, Object>) node.get("totalPriceSet");
+        if (totalPriceSet != null) {
+            Map<String, Object> shopMoney = (Map<String, Object>) totalPriceSet.get("shopMoney");
+            if (shopMoney != null) {
+                String amount = (String) shopMoney.get("amount");
+                if (amount != null) {
+                    order.setTotalPrice(new BigDecimal(amount));
                 }
+                order.setCurrencyCode((String) shopMoney.get("currencyCode"));
+            }
+        }
 
-                // Discount info
-                Map<String, Object> totalDiscountsSet = (Map<String, Object>) node.get("totalDiscountsSet");
-                if (totalDiscountsSet != null) {
-                    Map<String, Object> shopMoney = (Map<String, Object>) totalDiscountsSet.get("shopMoney");
-                    if (shopMoney != null) {
-                        String amount = (String) shopMoney.get("amount");
-                        if (amount != null) {
-                            order.setTotalDiscounts(new BigDecimal(amount));
-                        }
-                    }
+        // Discount info
+        Map<String, Object> totalDiscountsSet = (Map<String, Object>) node.get("totalDiscountsSet");
+        if (totalDiscountsSet != null) {
+            Map<String, Object> shopMoney = (Map<String, Object>) totalDiscountsSet.get("shopMoney");
+            if (shopMoney != null) {
+                String amount = (String) shopMoney.get("amount");
+                if (amount != null) {
+                    order.setTotalDiscounts(new BigDecimal(amount));
                 }
+            }
+        }
 
-                // Discount codes - parse from discountApplications
-                Map<String, Object> discountApplications = (Map<String, Object>) node.get("discountApplications");
-                if (discountApplications != null) {
-                    List<Map<String, Object>> discountEdges = (List<Map<String, Object>>) discountApplications.get("edges");
-                    if (discountEdges != null && !discountEdges.isEmpty()) {
-                        StringBuilder discountCodes = new StringBuilder();
-                        for (Map<String, Object> discountEdge : discountEdges) {
-                            Map<String, Object> discountNode = (Map<String, Object>) discountEdge.get("node");
-                            if (discountNode != null && discountNode.containsKey("code")) {
-                                String code = (String) discountNode.get("code");
-                                if (discountCodes.length() > 0) {
-                                    discountCodes.append(", ");
-                                }
-                                discountCodes.append(code);
-                            }
-                        }
+        // Discount codes - parse from discountApplications
+        Map<String, Object> discountApplications = (Map<String, Object>) node.get("discountApplications");
+        if (discountApplications != null) {
+            List<Map<String, Object>> discountEdges = (List<Map<String, Object>>) discountApplications.get("edges");
+            if (discountEdges != null && !discountEdges.isEmpty()) {
+                StringBuilder discountCodes = new StringBuilder();
+                for (Map<String, Object> discountEdge : discountEdges) {
+                    Map<String, Object> discountNode = (Map<String, Object>) discountEdge.get("node");
+                    if (discountNode != null && discountNode.containsKey("code")) {
+                        String code = (String) discountNode.get("code");
                         if (discountCodes.length() > 0) {
-                            order.setDiscountCodes(discountCodes.toString());
+                            discountCodes.append(", ");
                         }
+                        discountCodes.append(code);
                     }
                 }
+                if (discountCodes.length() > 0) {
+                    order.setDiscountCodes(discountCodes.toString());
+                }
+            }
+        }
 
-                // Line items
-                Map<String, Object> lineItemsData = (Map<String, Object>) node.get("lineItems");
-                if (lineItemsData != null) {
-                    List<Map<String, Object>> lineItemEdges = (List<Map<String, Object>>) lineItemsData.get("edges");
-                    List<OrderLineItem> lineItems = new ArrayList<>();
-                    int totalItems = 0;
+        // Discount codes - bulk exports return them as a plain list
+        List<String> discountCodeList = (List<String>) node.get("discountCodes");
+        if (discountCodeList != null && !discountCodeList.isEmpty()) {
+            order.setDiscountCodes(String.join(", ", discountCodeList));
+        }
+
+        // Line items
+        Map<String, Object> lineItemsData = (Map<String, Object>) node.get("lineItems");
+        if (lineItemsData != null) {
+            List<Map<String, Object>> lineItemEdges = (List<Map<String, Object>>) lineItemsData.get("edges");
+            List<OrderLineItem> lineItems = new ArrayList<>();
+            int totalItems = 0;
 
-                    for (Map<String, Object> lineItemEdge : lineItemEdges) {
-                        Map<String, Object> lineItemNode = (Map<String, Object>) lineItemEdge.get("node");
-                        OrderLineItem lineItem = new OrderLineItem();
+            for (Map<String, Object> lineItemEdge : lineItemEdges) {
+                Map<String, Object> lineItemNode = (Map<String, Object>) lineItemEdge.get("node");
+                OrderLineItem lineItem = new OrderLineItem();
 
-                        lineItem.setLineItemId((String) lineItemNode.get("id"));
-                        lineItem.setTitle((String) lineItemNode.get("title"));
+                lineItem.setLineItemId((String) lineItemNode.get("id"));
+                lineItem.setTitle((String) lineItemNode.get("title"));
 
-                        Integer quantity = (Integer) lineItemNode.get("quantity");
-                        lineItem.setQuantity(quantity);
-                        totalItems += (quantity != null ? quantity : 0);
+                Integer quantity = (Integer) lineItemNode.get("quantity");
+                lineItem.setQuantity(quantity);
+                totalItems += (quantity != null ? quantity : 0);
 
-                        String priceStr = (String) lineItemNode.get("originalUnitPrice");
-                        if (priceStr != null) {
-                            lineItem.setPrice(new BigDecimal(priceStr));
+                String priceStr = (String) lineItemNode.get("originalUnitPrice");
+                if (priceStr != null) {
+                    lineItem.setPrice(new BigDecimal(priceStr));
+                }
+
+                // Discounted total price
+                Map<String, Object> discountedTotalSet = (Map<String, Object>) lineItemNode.get("discountedTotalSet");
+                if (discountedTotalSet != null) {
+                    Map<String, Object> shopMoney = (Map<String, Object>) discountedTotalSet.get("shopMoney");
+                    if (shopMoney != null) {
+                        String amount = (String) shopMoney.get("amount");
+                        if (amount != null) {
+                            lineItem.setDiscountedTotalPrice(new BigDecimal(amount));
                         }
+                    }
+                }
 
-                        // Discounted total price
-                        Map<String, Object> discountedTotalSet = (Map<String, Object>) lineItemNode.get("discountedTotalSet");
-                        if (discountedTotalSet != null) {
-                            Map<String, Object> shopMoney = (Map<String, Object>) discountedTotalSet.get("shopMoney");
+                // Discount allocations
+                List<Map<String, Object>> discountAllocations = (List<Map<String, Object>>) lineItemNode.get("discountAllocations");
+                if (discountAllocations != null && !discountAllocations.isEmpty()) {
+                    StringBuilder discountDesc = new StringBuilder();
+                    BigDecimal totalDiscount = BigDecimal.ZERO;
+
+                    for (Map<String, Object> allocation : discountAllocations) {
+                        Map<String, Object> allocatedAmountSet = (Map<String, Object>) allocation.get("allocatedAmountSet");
+                        if (allocatedAmountSet != null) {
+                            Map<String, Object> shopMoney = (Map<String, Object>) allocatedAmountSet.get("shopMoney");
                             if (shopMoney != null) {
                                 String amount = (String) shopMoney.get("amount");
                                 if (amount != null) {
-                                    lineItem.setDiscountedTotalPrice(new BigDecimal(amount));
+                                    totalDiscount = totalDiscount.add(new BigDecimal(amount));
                                 }
                             }
                         }
 
-                        // Discount allocations
-                        List<Map<String, Object>> discountAllocations = (List<Map<String, Object>>) lineItemNode.get("discountAllocations");
-                        if (discountAllocations != null && !discountAllocations.isEmpty()) {
-                            StringBuilder discountDesc = new StringBuilder();
-                            BigDecimal totalDiscount = BigDecimal.ZERO;
-
-                            for (Map<String, Object> allocation : discountAllocations) {
-                                Map<String, Object> allocatedAmountSet = (Map<String, Object>) allocation.get("allocatedAmountSet");
-                                if (allocatedAmountSet != null) {
-                                    Map<String, Object> shopMoney = (Map<String, Object>) allocatedAmountSet.get("shopMoney");
-                                    if (shopMoney != null) {
-                                        String amount = (String) shopMoney.get("amount");
-                                        if (amount != null) {
-                                            totalDiscount = totalDiscount.add(new BigDecimal(amount));
-                                        }
-                                    }
-                                }
-
-                                Map<String, Object> discountApp = (Map<String, Object>) allocation.get("discountApplication");
-                                if (discountApp != null && discountApp.containsKey("code")) {
-                                    String code = (String) discountApp.get("code");
-                                    if (discountDesc.length() > 0) {
-                                        discountDesc.append(", ");
-                                    }
-                                    discountDesc.append(code);
-                                }
-                            }
-
+                        Map<String, Object> discountApp = (Map<String, Object>) allocation.get("discountApplication");
+                        if (discountApp != null && discountApp.containsKey("code")) {
+                            String code = (String) discountApp.get("code");
                             if (discountDesc.length() > 0) {
-                                lineItem.setDiscountAllocations(discountDesc.toString() + " (-$" + totalDiscount.toString() + ")");
+                                discountDesc.append(", ");
                             }
+                            discountDesc.append(code);
                         }
-
-                        Map<String, Object> variant = (Map<String, Object>) lineItemNode.get("variant");
-                        if (variant != null) {
-                            lineItem.setSku((String) variant.get("sku"));
-                            lineItem.setVariantTitle((String) variant.get("title"));
-                        }
-
-                        lineItems.add(lineItem);
                     }
 
-                    order.setLineItems(lineItems);
-                    order.setItemCount(totalItems);
+                    if (discountDesc.length() > 0) {
+                        lineItem.setDiscountAllocations(discountDesc.toString() + " (-$" + totalDiscount.toString() + ")");
+                    }
                 }
 
-                // Shipping address
-                Map<String, Object> shippingAddr = (Map<String, Object>) node.get("shippingAddress");
-                if (shippingAddr != null) {
-                    order.setShippingAddress(formatAddress(shippingAddr));
+                Map<String, Object> variant = (Map<String, Object>) lineItemNode.get("variant");
+                if (variant != null) {
+                    lineItem.setSku((String) variant.get("sku"));
+                    lineItem.setVariantTitle((String) variant.get("title"));
                 }
 
-                orders.add(order);
+                lineItems.add(lineItem);
             }
 
-        } catch (Exception e) {
-            logger.error("Error parsing Shopify orders: {}", e.getMessage(), e);
+            order.setLineItems(lineItems);
+            order.setItemCount(totalItems);
         }
 
-        return orders;
+        // Shipping address
+        Map<String, Object> shippingAddr = (Map<String, Object>) node.get("shippingAddress");
+        if (shippingAddr != null) {
+            order.setShippingAddress(formatAddress(shippingAddr));
+        }
+
+        return order;
     }
 
     /**
@@ -458,141 +798,285 @@ public class FulfillmentService {
      * @return true if order exists in CRS, false otherwise
      */
     public Mono<Boolean> checkOrderInCRS(String orderName) {
+        return findOrdersInCRS(List.of(orderName))
+                .map(found -> found.contains(orderName));
+    }
+
+    /**
+     * Find which orders already exist in CRS
+     * Names are checked in chunks with one IN (...) query each, a few chunks at a time
+     * @param orderNames Shopify order names (e.g., "#1001")
+     * @return Set of the given names found in CRS; chunks that fail count as not found,
+     *         so those orders are included for fulfillment to be safe
+     */
+    public Mono<Set<String>> findOrdersInCRS(Collection<String> orderNames) {
         if (!mcpClient.isEnabled()) {
-            logger.warn("MCP is disabled, cannot check order in CRS");
-            return Mono.just(false);
+            logger.warn("MCP is disabled, cannot check orders in CRS");
+            return Mono.just(Collections.emptySet());
+        }
+
+        List<String> distinctNames = orderNames.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        if (distinctNames.isEmpty()) {
+            return Mono.just(Collections.emptySet());
+        }
+
+        List<List<String>> chunks = new ArrayList<>();
+        for (int i = 0; i < distinctNames.size(); i += orderCheckChunkSize) {
+            chunks.add(distinctNames.subList(i, Math.min(i + orderCheckChunkSize, distinctNames.size())));
         }
 
-        logger.debug("Checking if order {} exists in CRS", orderName);
+        logger.debug("Checking {} orders in CRS with {} queries", distinctNames.size(), chunks.size());
+
+        return Flux.fromIterable(chunks)
+                .flatMap(this::findOrderChunkInCRS, orderCheckConcurrency)
+                .<Set<String>>collect(HashSet::new, Set::addAll)
+                .doOnNext(found -> logger.info("{} of {} orders already exist in CRS", found.size(), distinctNames.size()));
+    }
+
+    /**
+     * Look up one chunk of order names in CRS
+     */
+    private Mono<Set<String>> findOrderChunkInCRS(List<String> orderNames) {
+        String inList = orderNames.stream()
+                .map(name -> "'" + name.replace("'", "''") + "'") // Escape single quotes
+                .collect(Collectors.joining(", "));
 
-        // Query CRS to check if order exists
         String query = String.format(
-            "SELECT COUNT(*) as OrderCount FROM InvoiceHeader WHERE ShopifyOrderNum = '%s'",
-            orderName.replace("'", "''") // Escape single quotes
+            "SELECT DISTINCT ShopifyOrderNum FROM InvoiceHeader WHERE ShopifyOrderNum IN (%s)",
+            inList
         );
 
         Map<String, Object> arguments = new HashMap<>();
         arguments.put("query", query);
 
         return mcpClient.callTool("query_database", arguments)
-                .map(result -> parseOrderCountResult(result))
-                .map(count -> count > 0)
+                .map(this::parseOrderNumbers)
                 .onErrorResume(e -> {
-                    logger.error("Error checking order {} in CRS: {}", orderName, e.getMessage());
-                    return Mono.just(false); // On error, assume not in CRS
+                    logger.error("Error checking {} orders in CRS: {}", orderNames.size(), e.getMessage());
+                    return Mono.just(Collections.emptySet()); // On error, assume not in CRS
                 });
     }
 
     /**
-     * Enrich order with CRS sale data for each line item
-     * Checks if products were on sale at time of order
+     * Enrich every line item of the given orders with CRS sale data
+     * Checks if products were on sale at time of order.
+     * Distinct SKUs are looked up once, from the price cache or with batched ItemMaster queries
      */
-    private void enrichOrderWithCRSSaleData(UnfulfilledOrder order) {
+    void enrichOrdersWithCRSSaleData(List<UnfulfilledOrder> orders) {
         if (!mcpClient.isEnabled()) {
             logger.debug("MCP is disabled, skipping CRS sale data enrichment");
             return;
         }
 
-        for (OrderLineItem lineItem : order.getLineItems()) {
-            try {
-                String sku = lineItem.getSku();
-                if (sku == null || sku.trim().isEmpty()) {
-                    continue;
+        Set<String> skus = new HashSet<>();
+        for (UnfulfilledOrder order : orders) {
+            if (order.getLineItems() == null) {
+                continue;
+            }
+            for (OrderLineItem lineItem : order.getLineItems()) {
+                String sku = normalizeSku(lineItem.getSku());
+                if (sku != null) {
+                    skus.add(sku);
                 }
+            }
+        }
+        if (skus.isEmpty()) {
+            return;
+        }
 
-                // Query CRS for product pricing information
-                String query = String.format(
-                    "SELECT ItemCode, RegularPrice, SalePrice, OnSale FROM ItemMaster WHERE ItemCode = '%s'",
-                    sku.replace("'", "''") // Escape single quotes
-                );
-
-                Map<String, Object> arguments = new HashMap<>();
-                arguments.put("query", query);
+        Map<String, ItemPrice> prices = getItemPrices(skus);
 
-                JsonNode result = mcpClient.callTool("query_database", arguments).block();
-                if (result != null) {
-                    parseCRSSaleData(result, lineItem);
+        for (UnfulfilledOrder order : orders) {
+            if (order.getLineItems() == null) {
+                continue;
+            }
+            for (OrderLineItem lineItem : order.getLineItems()) {
+                ItemPrice price = prices.get(normalizeSku(lineItem.getSku()));
+                if (price != null && price.found()) {
+                    lineItem.setCrsRegularPrice(price.regularPrice());
+                    lineItem.setCrsSalePrice(price.salePrice());
+                    lineItem.setOnSale(price.onSale());
                 }
-            } catch (Exception e) {
-                logger.debug("Could not fetch CRS sale data for SKU {}: {}", lineItem.getSku(), e.getMessage());
-                // Continue processing other items even if one fails
             }
         }
     }
 
     /**
-     * Parse CRS sale data from MCP response
+     * Get ItemMaster prices for SKUs, querying CRS only for SKUs not cached
+     * @param skus Normalized SKUs
+     * @return Prices by normalized SKU; SKUs whose lookup failed are absent
      */
-    private void parseCRSSaleData(JsonNode result, OrderLineItem lineItem) {
-        try {
-            if (result.has("content") && result.get("content").isArray() && result.get("content").size() > 0) {
-                JsonNode content = result.get("content").get(0);
-                if (content.has("text")) {
-                    String text = content.get("text").asText();
-
-                    // Extract JSON from text
-                    int jsonStart = text.indexOf('{');
-                    int jsonEnd = text.lastIndexOf('}');
-
-                    if (jsonStart != -1 && jsonEnd != -1 && jsonEnd > jsonStart) {
-                        String jsonStr = text.substring(jsonStart, jsonEnd + 1);
-                        JsonNode jsonNode = objectMapper.readTree(jsonStr);
-
-                        // Extract pricing information
-                        if (jsonNode.has("RegularPrice")) {
-                            double regularPrice = jsonNode.get("RegularPrice").asDouble();
-                            lineItem.setCrsRegularPrice(BigDecimal.valueOf(regularPrice));
-                        }
+    private Map<String, ItemPrice> getItemPrices(Set<String> skus) {
+        long now = System.currentTimeMillis();
+        Map<String, ItemPrice> prices = new HashMap<>();
+        List<String> misses = new ArrayList<>();
+
+        for (String sku : skus) {
+            ItemPrice cached = itemPriceCache.get(sku);
+            if (cached != null && cached.expiresAt() > now) {
+                prices.put(sku, cached);
+            } else {
+                misses.add(sku);
+            }
+        }
 
-                        if (jsonNode.has("SalePrice")) {
-                            double salePrice = jsonNode.get("SalePrice").asDouble();
-                            lineItem.setCrsSalePrice(BigDecimal.valueOf(salePrice));
-                        }
+        if (!misses.isEmpty()) {
+            List<List<String>> chunks = new ArrayList<>();
+            for (int i = 0; i < misses.size(); i += skuChunkSize) {
+                chunks.add(misses.subList(i, Math.min(i + skuChunkSize, misses.size())));
+            }
 
-                        if (jsonNode.has("OnSale")) {
-                            boolean onSale = jsonNode.get("OnSale").asBoolean();
-                            lineItem.setOnSale(onSale);
-                        }
+            Map<String, ItemPrice> fetched = Flux.fromIterable(chunks)
+                    .flatMap(this::fetchItemPriceChunk, orderCheckConcurrency)
+                    .<Map<String, ItemPrice>>collect(HashMap::new, Map::putAll)
+                    .block();
 
-                        logger.debug("Enriched SKU {} with CRS data: RegularPrice=${}, SalePrice=${}, OnSale={}",
-                                lineItem.getSku(), lineItem.getCrsRegularPrice(),
-                                lineItem.getCrsSalePrice(), lineItem.getOnSale());
-                    }
-                }
+            if (fetched != null) {
+                prices.putAll(fetched);
+                cacheItemPrices(fetched);
             }
-        } catch (Exception e) {
-            logger.debug("Error parsing CRS sale data for SKU {}: {}", lineItem.getSku(), e.getMessage());
         }
+
+        logger.info("Resolved CRS prices for {} SKUs ({} cached, {} queried)",
+                skus.size(), skus.size() - misses.size(), misses.size());
+
+        return prices;
     }
 
     /**
-     * Parse the COUNT result from CRS query
+     * Query ItemMaster for one chunk of SKUs
+     * SKUs missing from a successfully decoded result get a "not found" entry so they are not
+     * queried again until it expires; failed queries and undecodable results cache nothing
      */
-    private int parseOrderCountResult(JsonNode result) {
-        try {
-            if (result.has("content") && result.get("content").isArray() && result.get("content").size() > 0) {
-                JsonNode content = result.get("content").get(0);
-                if (content.has("text")) {
-                    String text = content.get("text").asText();
+    private Mono<Map<String, ItemPrice>> fetchItemPriceChunk(List<String> skus) {
+        String inList = skus.stream()
+                .map(sku -> "'" + sku.replace("'", "''") + "'") // Escape single quotes
+                .collect(Collectors.joining(", "));
 
-                    // Extract JSON from text
-                    int jsonStart = text.indexOf('{');
-                    int jsonEnd = text.lastIndexOf('}');
+        String query = String.format(
+            "SELECT ItemCode, RegularPrice, SalePrice, OnSale FROM ItemMaster WHERE ItemCode IN (%s)",
+            inList
+        );
 
-                    if (jsonStart != -1 && jsonEnd != -1 && jsonEnd > jsonStart) {
-                        String jsonStr = text.substring(jsonStart, jsonEnd + 1);
-                        JsonNode jsonNode = objectMapper.readTree(jsonStr);
+        Map<String, Object> arguments = new HashMap<>();
+        arguments.put("query", query);
 
-                        if (jsonNode.has("OrderCount")) {
-                            return jsonNode.get("OrderCount").asInt();
-                        }
+        return mcpClient.callTool("query_database", arguments)
+                .map(result -> {
+                    long expiresAt = System.currentTimeMillis() + itemPriceTtlMs;
+                    Map<String, ItemPrice> prices = parseItemPrices(result, expiresAt);
+                    for (String sku : skus) {
+                        prices.putIfAbsent(sku, new ItemPrice(false, null, null, null, expiresAt));
                     }
+                    return prices;
+                })
+                .onErrorResume(e -> {
+                    logger.debug("Could not fetch CRS sale data for {} SKUs: {}", skus.size(), e.getMessage());
+                    // Leave these SKUs unenriched (and uncached) rather than failing the whole list
+                    return Mono.just(new HashMap<>());
+                });
+    }
+
+    /**
+     * Parse ItemMaster rows from MCP response
+     * @throws RuntimeException if the result is a tool error or cannot be decoded, so a bad
+     *                          response is never mistaken for SKUs that are not in CRS
+     */
+    private Map<String, ItemPrice> parseItemPrices(JsonNode result, long expiresAt) {
+        if (result.path("isError").asBoolean(false)) {
+            throw new RuntimeException("CRS query failed: " + resultDecoder.extractText(result));
+        }
+
+        Map<String, ItemPrice> prices = new HashMap<>();
+        for (ItemPriceRow row : resultDecoder.readRows(result, ItemPriceRow.class)) {
+            String sku = normalizeSku(row.itemCode());
+            if (sku == null) {
+                continue;
+            }
+
+            prices.put(sku, new ItemPrice(true, row.regularPrice(), row.salePrice(), row.onSale(), expiresAt));
+        }
+
+        return prices;
+    }
+
+    /**
+     * Add prices to the cache, dropping expired entries (and then the oldest) once it is full
+     */
+    private void cacheItemPrices(Map<String, ItemPrice> prices) {
+        if (itemPriceCacheMaxSize <= 0) {
+            return;
+        }
+
+        if (itemPriceCache.size() + prices.size() > itemPriceCacheMaxSize) {
+            long now = System.currentTimeMillis();
+            itemPriceCache.values().removeIf(price -> price.expiresAt() <= now);
+
+            int excess = itemPriceCache.size() + prices.size() - itemPriceCacheMaxSize;
+            if (excess > 0) {
+                itemPriceCache.entrySet().stream()
+                        .sorted(Comparator.comparingLong(entry -> entry.getValue().expiresAt()))
+                        .limit(excess)
+                        .map(Map.Entry::getKey)
+                        .collect(Collectors.toList())
+                        .forEach(itemPriceCache::remove);
+            }
+        }
+
+        itemPriceCache.putAll(prices);
+    }
+
+    /**
+     * CRS item codes are matched case-insensitively
+     */
+    private String normalizeSku(String sku) {
+        if (sku == null || sku.trim().isEmpty()) {
+            return null;
+        }
+        return sku.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Parse the ShopifyOrderNum of every "Row N: { ... }" object in a CRS query result
+     */
+    private Set<String> parseOrderNumbers(JsonNode result) {
+        Set<String> orderNumbers = new HashSet<>();
+        try {
+            for (OrderNumberRow row : resultDecoder.readRows(result, OrderNumberRow.class)) {
+                if (row.shopifyOrderNum() != null) {
+                    orderNumbers.add(row.shopifyOrderNum());
                 }
             }
         } catch (Exception e) {
-            logger.error("Error parsing order count result: {}", e.getMessage());
+            logger.error("Error parsing order number result: {}", e.getMessage());
         }
 
-        return 0;
+        return orderNumbers;
+    }
+
+    /**
+     * Cached ItemMaster pricing for a SKU
+     * @param found Whether the SKU exists in CRS
+     */
+    private record ItemPrice(boolean found, BigDecimal regularPrice, BigDecimal salePrice,
+                             Boolean onSale, long expiresAt) {
+    }
+
+    /**
+     * ItemMaster pricing row
+     */
+    record ItemPriceRow(@JsonProperty("ItemCode") String itemCode,
+                        @JsonProperty("RegularPrice") BigDecimal regularPrice,
+                        @JsonProperty("SalePrice") BigDecimal salePrice,
+                        @JsonProperty("OnSale") Boolean onSale) {
+    }
+
+    /**
+     * InvoiceHeader order number row
+     */
+    record OrderNumberRow(@JsonProperty("ShopifyOrderNum") String shopifyOrderNum) {
     }
 }
@@ -1,10 +1,13 @@
 package com.shopify.api.service;
 
+import com.shopify.api.client.ShopifyBulkOperationClient;
 import com.shopify.api.client.ShopifyGraphQLClient;
+import com.shopify.api.model.BulkOrder;
 import com.shopify.api.model.GraphQLResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 
 import java.util.List;
 import java.util.Map;
@@ -19,9 +22,11 @@ public class OrderService {
     private static final Logger logger = LoggerFactory.getLogger(OrderService.class);
 
     private final ShopifyGraphQLClient graphQLClient;
+    private final ShopifyBulkOperationClient bulkOperationClient;
 
-    public OrderService(ShopifyGraphQLClient graphQLClient) {
+    public OrderService(ShopifyGraphQLClient graphQLClient, ShopifyBulkOperationClient bulkOperationClient) {
         this.graphQLClient = graphQLClient;
+        this.bulkOperationClient = bulkOperationClient;
     }
 
     /**
@@ -244,105 +249,166 @@ public class OrderService {
     }
 
     /**
-     * Get orders within a date range for analytics
-     * Automatically handles pagination to fetch all orders in the date range
-     * @param startDate Start date (ISO format: 2024-10-01T00:00:00Z)
-     * @param endDate End date (ISO format: 2024-10-08T00:00:00Z)
-     * @return Orders with sales, freight, and discount data
+     * Stream orders within a date range one at a time (non-blocking, backpressured)
+     * Pages are fetched lazily with one page of lookahead, so callers can aggregate
+     * incrementally without holding the whole range in memory
+     * @param startDate Start date (yyyy-MM-dd, inclusive)
+     * @param endDate End date (yyyy-MM-dd, inclusive)
+     * @return Flux of order nodes with sales, freight, and discount data
      */
-    public Map<String, Object> getOrdersByDateRange(String startDate, String endDate) {
+    public Flux<Map<String, Object>> streamOrdersByDateRange(String startDate, String endDate) {
+        return streamOrderPagesByDateRange(startDate, endDate)
+                .concatMapIterable(edges -> edges, 1)
+                .map(edge -> (Map<String, Object>) edge.get("node"));
+    }
+
+    /**
+     * Stream pages of orders within a date range (non-blocking, backpressured)
+     * @param startDate Start date (yyyy-MM-dd, inclusive)
+     * @param endDate End date (yyyy-MM-dd, inclusive)
+     * @return Flux of pages, each a list of up to 250 order edges
+     */
+    public Flux<List<Map<String, Object>>> streamOrderPagesByDateRange(String startDate, String endDate) {
         // Use simple date format that Shopify accepts (yyyy-MM-dd)
         // Use >= and <= to be inclusive of both start and end dates
         String dateQuery = String.format("created_at:>=%s AND created_at:<=%s", startDate, endDate);
 
         logger.info("Fetching orders between {} and {} with query: {}", startDate, endDate, dateQuery);
 
-        List<Map<String, Object>> allEdges = new java.util.ArrayList<>();
-        String cursor = null;
-        boolean hasNextPage = true;
-        int pageCount = 0;
-
-        // Fetch all pages of orders
-        while (hasNextPage && pageCount < 20) { // Max 20 pages = 5000 orders safety limit
-            pageCount++;
-            String cursorParam = cursor != null ? String.format(", after: \"%s\"", cursor) : "";
-
-            String query = String.format("""
-                {
-                  orders(first: 250, query: "%s"%s) {
-                    edges {
-                      cursor
-                      node {
-                        id
-                        name
-                        createdAt
-                        totalPriceSet {
-                          shopMoney {
-                            amount
-                            currencyCode
-                          }
-                        }
-                        totalShippingPriceSet {
-                          shopMoney {
-                            amount
-                            currencyCode
-                          }
-                        }
-                        totalDiscountsSet {
-                          shopMoney {
-                            amount
-                            currencyCode
-                          }
-                        }
+        String query = """
+            query ordersByDateRange($query: String, $after: String) {
+              orders(first: 250, query: $query, after: $after) {
+                edges {
+                  cursor
+                  node {
+                    id
+                    name
+                    createdAt
+                    totalPriceSet {
+                      shopMoney {
+                        amount
+                        currencyCode
+                      }
+                    }
+                    totalShippingPriceSet {
+                      shopMoney {
+                        amount
+                        currencyCode
                       }
                     }
-                    pageInfo {
-                      hasNextPage
-                      endCursor
+                    totalDiscountsSet {
+                      shopMoney {
+                        amount
+                        currencyCode
+                      }
                     }
                   }
                 }
-                """, dateQuery, cursorParam);
+                pageInfo {
+                  hasNextPage
+                  endCursor
+                }
+              }
+            }
+            """;
 
-            GraphQLResponse response = graphQLClient.executeQuery(query);
+        Map<String, Object> variables = new java.util.HashMap<>();
+        variables.put("query", dateQuery);
 
-            if (response.hasErrors()) {
-                logger.error("Error fetching orders by date range (page {}): {}", pageCount, response.getErrors());
-                throw new RuntimeException("Failed to fetch orders by date range: " +
-                        response.getErrors().get(0).getMessage());
-            }
+        return graphQLClient.executePaginatedQueryReactive(query, variables, "orders");
+    }
 
-            Map<String, Object> data = response.getData();
-            if (data != null && data.containsKey("orders")) {
-                Map<String, Object> ordersResponse = (Map<String, Object>) data.get("orders");
-                List<Map<String, Object>> edges = (List<Map<String, Object>>) ordersResponse.get("edges");
+    /**
+     * Stream all orders matching a search query one at a time (non-blocking, backpressured)
+     * @param searchQuery Shopify order search query (null for all orders)
+     * @return Flux of order nodes
+     */
+    public Flux<Map<String, Object>> streamOrders(String searchQuery) {
+        logger.info("Streaming orders with query: {}", searchQuery);
 
-                if (edges != null && !edges.isEmpty()) {
-                    allEdges.addAll(edges);
-                    logger.info("Fetched page {} with {} orders", pageCount, edges.size());
+        String query = """
+            query streamOrders($query: String, $after: String) {
+              orders(first: 250, query: $query, after: $after) {
+                edges {
+                  node {
+                    id
+                    name
+                    email
+                    createdAt
+                    updatedAt
+                    displayFinancialStatus
+                    displayFulfillmentStatus
+                    totalPrice
+                    currencyCode
+                    customer {
+                      id
+                      email
+                      firstName
+                      lastName
+                    }
+                  }
                 }
-
-                // Check if there are more pages
-                Map<String, Object> pageInfo = (Map<String, Object>) ordersResponse.get("pageInfo");
-                if (pageInfo != null) {
-                    hasNextPage = (Boolean) pageInfo.getOrDefault("hasNextPage", false);
-                    cursor = (String) pageInfo.get("endCursor");
-                } else {
-                    hasNextPage = false;
+                pageInfo {
+                  hasNextPage
+                  endCursor
                 }
-            } else {
-                hasNextPage = false;
+              }
             }
-        }
+            """;
 
-        logger.info("Total orders fetched for date range: {} (across {} pages)", allEdges.size(), pageCount);
+        Map<String, Object> variables = new java.util.HashMap<>();
+        variables.put("query", searchQuery);
+
+        return graphQLClient.executePaginatedQueryReactive(query, variables, "orders")
+                .concatMapIterable(edges -> edges, 1)
+                .map(edge -> (Map<String, Object>) edge.get("node"));
+    }
+
+    /**
+     * Stream all orders within a date range using a Shopify bulk operation
+     * One query for the whole range instead of a paginated request per 250 orders, and memory
+     * stays flat because orders are emitted one at a time as the result file downloads
+     * @param startDate Start date (yyyy-MM-dd, inclusive)
+     * @param endDate End date (yyyy-MM-dd, inclusive)
+     * @return Flux of order totals
+     */
+    public Flux<BulkOrder> exportOrdersByDateRange(String startDate, String endDate) {
+        String dateQuery = String.format("created_at:>=%s AND created_at:<=%s", startDate, endDate);
 
-        // Return data in same format as before
-        Map<String, Object> result = new java.util.HashMap<>();
-        Map<String, Object> orders = new java.util.HashMap<>();
-        orders.put("edges", allEdges);
-        result.put("orders", orders);
+        logger.info("Streaming orders between {} and {} via bulk operation", startDate, endDate);
+
+        String query = String.format("""
+            {
+              orders(query: "%s") {
+                edges {
+                  node {
+                    id
+                    name
+                    createdAt
+                    totalPriceSet {
+                      shopMoney {
+                        amount
+                        currencyCode
+                      }
+                    }
+                    totalShippingPriceSet {
+                      shopMoney {
+                        amount
+                        currencyCode
+                      }
+                    }
+                    totalDiscountsSet {
+                      shopMoney {
+                        amount
+                        currencyCode
+                      }
+                    }
+                  }
+                }
+              }
+            }
+            """, dateQuery);
 
-        return result;
+        return bulkOperationClient.streamQuery(query, BulkOrder.class);
     }
 }
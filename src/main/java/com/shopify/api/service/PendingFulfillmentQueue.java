@@ -0,0 +1,167 @@
+package com.shopify.api.service;
+
+import com.shopify.api.model.UnfulfilledOrder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Background-maintained queue of orders pending fulfillment in CRS
+ *
+ * The first refresh builds the queue from the recent orders, like FulfillmentService does.
+ * Later refreshes only:
+ * - Fetch orders created or updated in Shopify since the watermark
+ * - Re-check CRS for orders still in the queue (plus the updated ones)
+ * - Enrich newly queued orders with CRS sale prices
+ * Requests are served from an immutable in-memory snapshot.
+ */
+@Service
+public class PendingFulfillmentQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(PendingFulfillmentQueue.class);
+
+    // Overlap between polls so orders updated while a refresh runs are not missed
+    private static final Duration WATERMARK_OVERLAP = Duration.ofMinutes(2);
+
+    private final FulfillmentService fulfillmentService;
+    private final boolean enabled;
+
+    private final AtomicBoolean refreshing = new AtomicBoolean(false);
+
+    // Queue state, only touched by the refresh job
+    private final Map<String, UnfulfilledOrder> pendingOrders = new HashMap<>();
+    private OffsetDateTime watermark;
+
+    private volatile Snapshot snapshot;
+
+    public PendingFulfillmentQueue(FulfillmentService fulfillmentService,
+                                   @Value("${crs.fulfillment.queue.enabled:true}") boolean enabled) {
+        this.fulfillmentService = fulfillmentService;
+        this.enabled = enabled;
+        logger.info("PendingFulfillmentQueue initialized - Enabled: {}", enabled);
+    }
+
+    /**
+     * Current queue contents, newest orders first
+     * @return The latest snapshot, or empty if the queue is disabled or has not been built yet
+     */
+    public Optional<Snapshot> getSnapshot() {
+        return enabled ? Optional.ofNullable(snapshot) : Optional.empty();
+    }
+
+    /**
+     * Bring the queue up to date
+     */
+    @Scheduled(initialDelayString = "${crs.fulfillment.queue.initial-delay-ms:10000}",
+               fixedDelayString = "${crs.fulfillment.queue.refresh-interval-ms:60000}")
+    public void refresh() {
+        if (!enabled || !refreshing.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            OffsetDateTime refreshStartedAt = OffsetDateTime.now();
+
+            if (watermark == null) {
+                rebuild();
+            } else {
+                update();
+            }
+
+            watermark = refreshStartedAt.minus(WATERMARK_OVERLAP);
+            publishSnapshot();
+        } catch (Exception e) {
+            // Keep serving the previous snapshot; the same watermark is retried next time
+            logger.error("Error refreshing pending fulfillment queue: {}", e.getMessage(), e);
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    /**
+     * Build the queue from scratch from the recent orders
+     */
+    private void rebuild() {
+        List<UnfulfilledOrder> recentOrders = fulfillmentService.fetchRecentOrders();
+        Set<String> ordersInCRS = findOrdersInCRS(recentOrders);
+
+        List<UnfulfilledOrder> pending = recentOrders.stream()
+                .filter(order -> !ordersInCRS.contains(order.getOrderName()))
+                .collect(Collectors.toList());
+        fulfillmentService.enrichOrdersWithCRSSaleData(pending);
+
+        pendingOrders.clear();
+        pending.forEach(order -> pendingOrders.put(order.getOrderId(), order));
+
+        logger.info("Built pending fulfillment queue: {} of {} recent orders not in CRS",
+                pendingOrders.size(), recentOrders.size());
+    }
+
+    /**
+     * Apply Shopify changes since the watermark and drop orders that have reached CRS
+     */
+    private void update() {
+        List<UnfulfilledOrder> updatedOrders = fulfillmentService.fetchOrdersUpdatedSince(watermark);
+
+        // Updated orders replace their queued copy; anything else already queued is re-checked as is
+        Map<String, UnfulfilledOrder> candidates = new HashMap<>(pendingOrders);
+        Set<String> changedIds = new HashSet<>();
+        for (UnfulfilledOrder order : updatedOrders) {
+            candidates.put(order.getOrderId(), order);
+            changedIds.add(order.getOrderId());
+        }
+
+        Set<String> ordersInCRS = findOrdersInCRS(candidates.values());
+
+        LocalDateTime threeMonthsAgo = LocalDateTime.now().minusMonths(3);
+        List<UnfulfilledOrder> toEnrich = new ArrayList<>();
+        pendingOrders.clear();
+        for (UnfulfilledOrder order : candidates.values()) {
+            if (ordersInCRS.contains(order.getOrderName())
+                    || order.getCreatedAt() == null || order.getCreatedAt().isBefore(threeMonthsAgo)) {
+                continue;
+            }
+            pendingOrders.put(order.getOrderId(), order);
+            if (changedIds.contains(order.getOrderId())) {
+                toEnrich.add(order);
+            }
+        }
+        fulfillmentService.enrichOrdersWithCRSSaleData(toEnrich);
+
+        logger.info("Updated pending fulfillment queue: {} changed orders, {} pending",
+                updatedOrders.size(), pendingOrders.size());
+    }
+
+    private Set<String> findOrdersInCRS(Collection<UnfulfilledOrder> orders) {
+        List<String> orderNames = orders.stream()
+                .map(UnfulfilledOrder::getOrderName)
+                .collect(Collectors.toList());
+        Set<String> found = fulfillmentService.findOrdersInCRS(orderNames).block();
+        return found != null ? found : Collections.emptySet();
+    }
+
+    private void publishSnapshot() {
+        List<UnfulfilledOrder> orders = pendingOrders.values().stream()
+                .sorted(Comparator.comparing(UnfulfilledOrder::getCreatedAt,
+                        Comparator.nullsLast(Comparator.reverseOrder())))
+                .collect(Collectors.toList());
+        snapshot = new Snapshot(Collections.unmodifiableList(orders), LocalDateTime.now());
+    }
+
+    /**
+     * Immutable view of the queue
+     * @param orders Orders pending fulfillment, newest first
+     * @param lastRefreshedAt When the queue was last brought up to date
+     */
+    public record Snapshot(List<UnfulfilledOrder> orders, LocalDateTime lastRefreshedAt) {
+    }
+}
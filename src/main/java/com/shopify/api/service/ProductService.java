@@ -1,12 +1,16 @@
 package com.shopify.api.service;
 
+import com.shopify.api.client.ShopifyBulkOperationClient;
 import com.shopify.api.client.ShopifyGraphQLClient;
+import com.shopify.api.model.BulkProductVariant;
 import com.shopify.api.model.GraphQLResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -20,9 +24,11 @@ public class ProductService {
     private static final Logger logger = LoggerFactory.getLogger(ProductService.class);
 
     private final ShopifyGraphQLClient graphQLClient;
+    private final ShopifyBulkOperationClient bulkOperationClient;
 
-    public ProductService(ShopifyGraphQLClient graphQLClient) {
+    public ProductService(ShopifyGraphQLClient graphQLClient, ShopifyBulkOperationClient bulkOperationClient) {
         this.graphQLClient = graphQLClient;
+        this.bulkOperationClient = bulkOperationClient;
     }
 
     /**
@@ -158,6 +164,95 @@ public class ProductService {
         return response.getData();
     }
 
+    /**
+     * Stream all products matching a search query one at a time (non-blocking, backpressured)
+     * Pages of 250 are fetched lazily with one page of lookahead
+     * @param searchQuery Shopify product search query (null for all products)
+     * @return Flux of product nodes
+     */
+    public Flux<Map<String, Object>> streamProducts(String searchQuery) {
+        logger.info("Streaming products with query: {}", searchQuery);
+
+        String query = """
+            query streamProducts($query: String, $after: String) {
+              products(first: 250, query: $query, after: $after) {
+                edges {
+                  node {
+                    id
+                    title
+                    handle
+                    status
+                    vendor
+                    productType
+                    createdAt
+                    updatedAt
+                    tags
+                    variants(first: 10) {
+                      edges {
+                        node {
+                          id
+                          title
+                          sku
+                          price
+                          inventoryQuantity
+                        }
+                      }
+                    }
+                  }
+                }
+                pageInfo {
+                  hasNextPage
+                  endCursor
+                }
+              }
+            }
+            """;
+
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("query", searchQuery);
+
+        return graphQLClient.executePaginatedQueryReactive(query, variables, "products")
+                .concatMapIterable(edges -> edges, 1)
+                .map(edge -> (Map<String, Object>) edge.get("node"));
+    }
+
+    /**
+     * Stream a snapshot of the whole catalog (one row per variant) using a Shopify bulk operation
+     * @return Flux of variants with their product fields inlined
+     */
+    public Flux<BulkProductVariant> exportCatalogSnapshot() {
+        logger.info("Streaming catalog snapshot via bulk operation");
+
+        String query = """
+            {
+              productVariants {
+                edges {
+                  node {
+                    id
+                    title
+                    sku
+                    barcode
+                    price
+                    compareAtPrice
+                    inventoryQuantity
+                    product {
+                      id
+                      title
+                      handle
+                      status
+                      vendor
+                      productType
+                      updatedAt
+                    }
+                  }
+                }
+              }
+            }
+            """;
+
+        return bulkOperationClient.streamQuery(query, BulkProductVariant.class);
+    }
+
     /**
      * Search products by title or other fields
      * @param searchQuery The search query
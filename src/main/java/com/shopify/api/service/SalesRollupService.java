@@ -0,0 +1,324 @@
+package com.shopify.api.service;
+
+import com.shopify.api.model.analytics.DailySalesRollup;
+import com.shopify.api.model.analytics.SalesRollupWatermark;
+import com.shopify.api.repository.analytics.DailySalesRollupRepository;
+import com.shopify.api.repository.analytics.SalesRollupWatermarkRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service maintaining the daily_sales_rollups table
+ *
+ * A scheduled refresh fills in only the days that are missing or may have changed:
+ * - Shopify: days with no rollup yet, plus the creation days of orders updated since the channel's watermark
+ * - CRS: days with no rollup yet, plus a short trailing window while invoices are still being completed
+ * Analytics read settled days from the table and only compute today live.
+ */
+@Service
+public class SalesRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesRollupService.class);
+    private static final ZoneId STORE_TIMEZONE = ZoneId.of("Australia/Sydney");
+
+    private final DailySalesRollupRepository rollupRepository;
+    private final SalesRollupWatermarkRepository watermarkRepository;
+    private final AnalyticsService analyticsService;
+    private final CRSAnalyticsService crsAnalyticsService;
+    private final OrderService orderService;
+    private final boolean enabled;
+    private final int retentionDays;
+    private final int restateDays;
+    private final int maxDaysPerRun;
+
+    private final AtomicBoolean refreshing = new AtomicBoolean(false);
+
+    public SalesRollupService(DailySalesRollupRepository rollupRepository,
+                              SalesRollupWatermarkRepository watermarkRepository,
+                              AnalyticsService analyticsService,
+                              CRSAnalyticsService crsAnalyticsService,
+                              OrderService orderService,
+                              @Value("${analytics.rollup.enabled:true}") boolean enabled,
+                              @Value("${analytics.rollup.retention-days:460}") int retentionDays,
+                              @Value("${analytics.rollup.restate-days:3}") int restateDays,
+                              @Value("${analytics.rollup.max-days-per-run:31}") int maxDaysPerRun) {
+        this.rollupRepository = rollupRepository;
+        this.watermarkRepository = watermarkRepository;
+        this.analyticsService = analyticsService;
+        this.crsAnalyticsService = crsAnalyticsService;
+        this.orderService = orderService;
+        this.enabled = enabled;
+        this.retentionDays = retentionDays;
+        this.restateDays = restateDays;
+        this.maxDaysPerRun = maxDaysPerRun;
+        logger.info("SalesRollupService initialized - Enabled: {}, Retention: {} days", enabled, retentionDays);
+    }
+
+    /**
+     * Refresh rollups for new and changed days
+     * Runs hourly; the first runs backfill the retention window in batches of max-days-per-run
+     */
+    @Scheduled(cron = "${analytics.rollup.cron:0 15 * * * *}")
+    public void refreshRollups() {
+        if (!enabled) {
+            return;
+        }
+        if (!refreshing.compareAndSet(false, true)) {
+            logger.info("Sales rollup refresh already running, skipping");
+            return;
+        }
+
+        try {
+            LocalDate today = LocalDate.now(STORE_TIMEZONE);
+            LocalDate earliest = today.minusDays(retentionDays);
+            LocalDate yesterday = today.minusDays(1);
+
+            refreshShopify(earliest, yesterday);
+            if (crsAnalyticsService.isEnabled()) {
+                refreshInstore(earliest, yesterday);
+                refreshChannels(earliest, yesterday);
+            }
+
+            int pruned = rollupRepository.deleteBySalesDateBefore(earliest);
+            if (pruned > 0) {
+                logger.info("Pruned {} sales rollups older than {}", pruned, earliest);
+            }
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    /**
+     * Roll up Shopify days that are missing, or that have orders updated since the watermark
+     * The watermark only advances once every changed day has been saved; changed days left
+     * over by max-days-per-run or a failed fetch are found again by the next run.
+     */
+    private void refreshShopify(LocalDate earliest, LocalDate yesterday) {
+        // Orders updated while this run fetches are after the new watermark, so they are picked up next time
+        LocalDateTime runStartedAt = LocalDateTime.now();
+
+        SalesRollupWatermark watermark = watermarkRepository.findById(DailySalesRollup.CHANNEL_SHOPIFY).orElse(null);
+        SortedSet<LocalDate> changed;
+        try {
+            changed = new TreeSet<>(findChangedShopifyDays(watermark, earliest, yesterday));
+        } catch (Exception e) {
+            logger.error("Error finding changed Shopify days: {}", e.getMessage(), e);
+            changed = null;
+        }
+
+        // Changed days are served stale until refreshed, so they take precedence over missing ones
+        SortedSet<LocalDate> days = new TreeSet<>(changed != null ? limit(changed) : Collections.emptySet());
+        Iterator<LocalDate> missingNewestFirst = new TreeSet<>(findMissingDays(DailySalesRollup.CHANNEL_SHOPIFY, earliest, yesterday))
+            .descendingIterator();
+        while (days.size() < maxDaysPerRun && missingNewestFirst.hasNext()) {
+            days.add(missingNewestFirst.next());
+        }
+
+        Set<LocalDate> saved = new HashSet<>();
+        for (List<LocalDate> range : toRanges(days)) {
+            LocalDate start = range.get(0);
+            LocalDate end = range.get(range.size() - 1);
+            try {
+                save(analyticsService.computeDailyRollups(start, end, runStartedAt));
+                saved.addAll(range);
+                logger.info("Refreshed Shopify rollups from {} to {}", start, end);
+            } catch (Exception e) {
+                logger.error("Error refreshing Shopify rollups from {} to {}: {}", start, end, e.getMessage(), e);
+            }
+        }
+
+        if (changed == null) {
+            // Changes since the watermark are unknown, so look for them again next run
+            return;
+        }
+        if (!saved.containsAll(changed)) {
+            logger.info("Keeping Shopify rollup watermark at {}, {} changed days carried over to the next run",
+                watermark.getChangesThrough(), changed.stream().filter(day -> !saved.contains(day)).count());
+            return;
+        }
+        if (watermark == null) {
+            watermark = new SalesRollupWatermark(DailySalesRollup.CHANNEL_SHOPIFY, runStartedAt);
+        } else {
+            watermark.setChangesThrough(runStartedAt);
+        }
+        watermarkRepository.save(watermark);
+    }
+
+    /**
+     * Roll up in-store days that are missing, plus the trailing restate window
+     */
+    private void refreshInstore(LocalDate earliest, LocalDate yesterday) {
+        SortedSet<LocalDate> days = new TreeSet<>(findMissingDays(DailySalesRollup.CHANNEL_CRS_INSTORE, earliest, yesterday));
+        days.addAll(restateWindow(earliest, yesterday));
+
+        for (List<LocalDate> range : toRanges(limit(days))) {
+            LocalDate start = range.get(0);
+            LocalDate end = range.get(range.size() - 1);
+            try {
+                save(crsAnalyticsService.fetchInstoreRollups(start, end).block());
+                logger.info("Refreshed in-store rollups from {} to {}", start, end);
+            } catch (Exception e) {
+                logger.error("Error refreshing in-store rollups from {} to {}: {}", start, end, e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Roll up the CRS channel breakdown for missing days, plus the trailing restate window
+     * The breakdown tool only reports whole ranges, so it is called once per day.
+     */
+    private void refreshChannels(LocalDate earliest, LocalDate yesterday) {
+        SortedSet<LocalDate> days = new TreeSet<>(findMissingDays(DailySalesRollup.CHANNEL_CRS_TOTAL, earliest, yesterday));
+        days.addAll(restateWindow(earliest, yesterday));
+
+        for (LocalDate day : limit(days)) {
+            try {
+                save(crsAnalyticsService.fetchChannelRollups(day).block());
+            } catch (Exception e) {
+                logger.error("Error refreshing channel rollups for {}: {}", day, e.getMessage(), e);
+            }
+        }
+        logger.info("Refreshed channel rollups for {} days", Math.min(days.size(), maxDaysPerRun));
+    }
+
+    /**
+     * Creation days of orders updated since the watermark
+     * Without a watermark no day has been saved yet, so every day is missing rather than changed.
+     */
+    private Set<LocalDate> findChangedShopifyDays(SalesRollupWatermark watermark, LocalDate earliest, LocalDate yesterday) {
+        if (watermark == null) {
+            return Collections.emptySet();
+        }
+        LocalDateTime changesThrough = watermark.getChangesThrough();
+
+        String searchQuery = String.format("updated_at:>='%s' created_at:>='%s'",
+            changesThrough.atZone(ZoneId.systemDefault()).toInstant(), earliest);
+
+        Set<LocalDate> days = new HashSet<>();
+        orderService.streamOrders(searchQuery)
+            .doOnNext(node -> {
+                String createdAt = (String) node.get("createdAt");
+                if (createdAt != null) {
+                    LocalDate day = OffsetDateTime.parse(createdAt).atZoneSameInstant(STORE_TIMEZONE).toLocalDate();
+                    if (!day.isBefore(earliest) && !day.isAfter(yesterday)) {
+                        days.add(day);
+                    }
+                }
+            })
+            .blockLast();
+
+        if (!days.isEmpty()) {
+            logger.info("{} Shopify days have orders updated since {}", days.size(), changesThrough);
+        }
+        return days;
+    }
+
+    private List<LocalDate> findMissingDays(String channel, LocalDate earliest, LocalDate yesterday) {
+        Set<LocalDate> existing = new HashSet<>(rollupRepository.findSalesDatesByChannel(channel, earliest, yesterday));
+        List<LocalDate> missing = new ArrayList<>();
+        for (LocalDate day = earliest; !day.isAfter(yesterday); day = day.plusDays(1)) {
+            if (!existing.contains(day)) {
+                missing.add(day);
+            }
+        }
+        return missing;
+    }
+
+    private List<LocalDate> restateWindow(LocalDate earliest, LocalDate yesterday) {
+        List<LocalDate> days = new ArrayList<>();
+        for (int i = 0; i < restateDays; i++) {
+            LocalDate day = yesterday.minusDays(i);
+            if (!day.isBefore(earliest)) {
+                days.add(day);
+            }
+        }
+        return days;
+    }
+
+    /**
+     * Keep the most recent max-days-per-run days, so recent windows are served from rollups first
+     */
+    private SortedSet<LocalDate> limit(SortedSet<LocalDate> days) {
+        if (days.size() <= maxDaysPerRun) {
+            return days;
+        }
+        SortedSet<LocalDate> limited = new TreeSet<>();
+        Iterator<LocalDate> newestFirst = new TreeSet<>(days).descendingIterator();
+        while (limited.size() < maxDaysPerRun && newestFirst.hasNext()) {
+            limited.add(newestFirst.next());
+        }
+        return limited;
+    }
+
+    /**
+     * Group sorted days into runs of consecutive days
+     */
+    private List<List<LocalDate>> toRanges(SortedSet<LocalDate> days) {
+        List<List<LocalDate>> ranges = new ArrayList<>();
+        List<LocalDate> current = null;
+        for (LocalDate day : days) {
+            if (current == null || ChronoUnit.DAYS.between(current.get(current.size() - 1), day) != 1) {
+                current = new ArrayList<>();
+                ranges.add(current);
+            }
+            current.add(day);
+        }
+        return ranges;
+    }
+
+    /**
+     * Insert or update rollups, keyed by day and channel
+     */
+    private void save(List<DailySalesRollup> rollups) {
+        if (rollups == null || rollups.isEmpty()) {
+            return;
+        }
+
+        Map<String, List<DailySalesRollup>> byChannel = rollups.stream()
+            .collect(Collectors.groupingBy(DailySalesRollup::getChannel, LinkedHashMap::new, Collectors.toList()));
+
+        List<DailySalesRollup> toSave = new ArrayList<>();
+        for (Map.Entry<String, List<DailySalesRollup>> entry : byChannel.entrySet()) {
+            Set<LocalDate> days = entry.getValue().stream()
+                .map(DailySalesRollup::getSalesDate)
+                .collect(Collectors.toSet());
+            Map<LocalDate, DailySalesRollup> existing = rollupRepository.findByChannelAndSalesDateIn(entry.getKey(), days)
+                .stream()
+                .collect(Collectors.toMap(DailySalesRollup::getSalesDate, Function.identity()));
+
+            for (DailySalesRollup rollup : entry.getValue()) {
+                DailySalesRollup row = existing.get(rollup.getSalesDate());
+                if (row != null) {
+                    row.copyTotalsFrom(rollup);
+                    toSave.add(row);
+                } else {
+                    toSave.add(rollup);
+                }
+            }
+        }
+
+        // crs_total marks a channel day as covered, so it is written after the other channels
+        toSave.sort(Comparator.comparing(row -> DailySalesRollup.CHANNEL_CRS_TOTAL.equals(row.getChannel())));
+        rollupRepository.saveAll(toSave);
+    }
+
+    /**
+     * Whether the refresh job is enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.shopify.api.client.AnthropicClient;
 import com.shopify.api.model.ChatMessage;
 import com.shopify.api.model.SeoAgentRequest;
 import com.shopify.api.model.SeoAgentResponse;
@@ -13,14 +14,12 @@ import com.shopify.api.model.agent.Tool;
 import com.shopify.api.repository.agent.AgentRepository;
 import com.shopify.api.repository.agent.ToolRepository;
 import com.shopify.api.service.agent.AgentExecutionService;
+import com.shopify.api.service.agent.ToolHandlerRegistry;
 import com.shopify.api.handler.tool.ToolHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
 import java.util.ArrayList;
@@ -42,35 +41,32 @@ public class SeoAgentService {
 
     private static final Logger logger = LoggerFactory.getLogger(SeoAgentService.class);
 
-    @Value("${anthropic.api.key:}")
-    private String anthropicApiKey;
+    private static final String SESSION_SCOPE = "seo";
 
-    @Value("${anthropic.api.version:2023-06-01}")
-    private String anthropicApiVersion;
-
-    private final WebClient webClient;
+    private final AnthropicClient anthropicClient;
+    private final ChatSessionStore chatSessionStore;
     private final ToolRepository toolRepository;
     private final AgentRepository agentRepository;
     private final AgentExecutionService agentExecutionService;
     private final MCPClient mcpClient;
-    private final ApplicationContext applicationContext;
+    private final ToolHandlerRegistry toolHandlerRegistry;
     private final ObjectMapper objectMapper;
 
     @Autowired
-    public SeoAgentService(WebClient.Builder webClientBuilder,
+    public SeoAgentService(AnthropicClient anthropicClient,
+                          ChatSessionStore chatSessionStore,
                           ToolRepository toolRepository,
                           AgentRepository agentRepository,
                           AgentExecutionService agentExecutionService,
                           MCPClient mcpClient,
-                          ApplicationContext applicationContext) {
-        this.webClient = webClientBuilder
-                .baseUrl("https://api.anthropic.com/v1")
-                .build();
+                          ToolHandlerRegistry toolHandlerRegistry) {
+        this.anthropicClient = anthropicClient;
+        this.chatSessionStore = chatSessionStore;
         this.toolRepository = toolRepository;
         this.agentRepository = agentRepository;
         this.agentExecutionService = agentExecutionService;
         this.mcpClient = mcpClient;
-        this.applicationContext = applicationContext;
+        this.toolHandlerRegistry = toolHandlerRegistry;
         this.objectMapper = new ObjectMapper();
     }
 
@@ -83,19 +79,42 @@ public class SeoAgentService {
         long startTime = System.currentTimeMillis();
 
         // Check if API key is configured
-        if (anthropicApiKey == null || anthropicApiKey.trim().isEmpty()) {
+        if (!anthropicClient.isConfigured()) {
             logger.warn("Anthropic API key not configured");
             return Mono.just(createMockResponse(request.getMessage(), startTime));
         }
 
-        // Build system prompt from configuration
+        ChatSessionStore.ChatSession session = request.getSessionId() == null || request.getSessionId().isBlank()
+                ? null
+                : chatSessionStore.getOrCreate(SESSION_SCOPE, request.getSessionId());
+
+        // Build system prompt from configuration, plus the summary of compacted session turns
         String systemPrompt = buildSystemPrompt(request);
+        if (session != null && session.getSummary() != null) {
+            systemPrompt += "\n\n## Earlier in this conversation\n" + session.getSummary();
+        }
 
         // Build messages array
-        ArrayNode messages = buildMessagesArray(request);
+        ArrayNode messages = buildMessagesArray(request, session);
 
         // Call Claude API with configured tools
-        return callClaudeWithTools(request, systemPrompt, messages, 0, startTime, new ArrayList<>(), new ArrayList<>());
+        return callClaudeWithTools(request, systemPrompt, messages, 0, startTime, new ArrayList<>(), new ArrayList<>())
+                .doOnNext(response -> {
+                    // Failed turns are not kept in the transcript
+                    boolean failed = response.getMetadata() != null
+                            && "error".equals(response.getMetadata().getModelUsed());
+                    if (session != null && !failed) {
+                        chatSessionStore.recordExchange(session, request.getMessage(), response.getMessage().getContent());
+                    }
+                });
+    }
+
+    /**
+     * Drop the server-side transcript of an SEO agent session
+     * @return true if the session existed
+     */
+    public boolean clearSession(String sessionId) {
+        return chatSessionStore.remove(SESSION_SCOPE, sessionId);
     }
 
     /**
@@ -151,14 +170,7 @@ public class SeoAgentService {
         }
 
         // Call Claude API
-        return webClient.post()
-                .uri("/messages")
-                .header("x-api-key", anthropicApiKey)
-                .header("anthropic-version", anthropicApiVersion)
-                .header("Content-Type", "application/json")
-                .bodyValue(requestBody)
-                .retrieve()
-                .bodyToMono(JsonNode.class)
+        return anthropicClient.createMessage(requestBody)
                 .flatMap(response -> handleClaudeResponse(
                         request, response, systemPrompt, messages, iteration, startTime, toolsUsed, agentsInvoked))
                 .onErrorResume(error -> {
@@ -289,7 +301,7 @@ public class SeoAgentService {
      * Routes to appropriate execution based on tool type:
      * - Agent invocation: execute via AgentExecutionService.executeAgent
      * - MCP tools: call via MCPClient
-     * - Custom tools: load handler class dynamically
+     * - Custom tools: handler resolved by ToolHandlerRegistry
      */
     private Mono<String> executeToolCall(String toolName, JsonNode toolInput, SeoAgentRequest request) {
         logger.info("Executing tool: {} with input: {}", toolName, toolInput);
@@ -306,30 +318,21 @@ public class SeoAgentService {
             }
         }
 
-        // Look up tool from database
-        return Mono.fromCallable(() -> toolRepository.findAll().stream()
-                .filter(t -> t.getName().equals(toolName))
-                .findFirst()
-                .orElse(null))
-            .flatMap(tool -> {
-                if (tool == null) {
-                    logger.warn("Tool not found: {}", toolName);
-                    return Mono.just("{\"error\": \"Tool not found: " + toolName + "\"}");
-                }
-
-                String toolType = tool.getType();
-                logger.info("Tool type: {}", toolType);
+        // Look up tool and its resolved handler
+        ToolHandlerRegistry.RegisteredTool tool = toolHandlerRegistry.find(toolName).orElse(null);
+        if (tool == null) {
+            logger.warn("Tool not found: {}", toolName);
+            return Mono.just("{\"error\": \"Tool not found: " + toolName + "\"}");
+        }
+        logger.info("Tool type: {}", tool.type());
 
-                // Route based on tool type
-                if ("MCP".equals(toolType)) {
-                    // MCP tools - call via MCPClient
-                    return executeMCPTool(toolInput);
-                } else {
-                    // Custom tools (SHOPIFY, DATABASE, API, etc.)
-                    // Load and execute handler class dynamically
-                    return executeCustomTool(tool, toolInput);
-                }
-            });
+        // Route based on tool type
+        if (tool.isMcp()) {
+            // MCP tools - call via MCPClient
+            return executeMCPTool(toolInput);
+        }
+        // Custom tools (SHOPIFY, DATABASE, API, etc.)
+        return executeCustomTool(tool, toolInput);
     }
 
     /**
@@ -410,55 +413,29 @@ public class SeoAgentService {
     }
 
     /**
-     * Execute a custom tool by dynamically loading its handler class
-     * Uses reflection to instantiate the handler and Spring's ApplicationContext to get beans
+     * Execute a custom tool through its handler resolved by the ToolHandlerRegistry
      */
-    private Mono<String> executeCustomTool(Tool tool, JsonNode toolInput) {
-        logger.info("Executing custom tool: {} with handler: {}", tool.getName(), tool.getHandlerClass());
-
-        try {
-            // Load handler class via reflection
-            Class<?> handlerClass = Class.forName(tool.getHandlerClass());
-
-            // Check if class implements ToolHandler interface
-            if (!ToolHandler.class.isAssignableFrom(handlerClass)) {
-                logger.error("Handler class {} does not implement ToolHandler interface", tool.getHandlerClass());
-                return Mono.just("{\"error\": \"Invalid tool handler class\"}");
-            }
-
-            // Try to get handler bean from Spring context first (if it's a @Component)
-            ToolHandler handler;
-            try {
-                handler = (ToolHandler) applicationContext.getBean(handlerClass);
-                logger.debug("Retrieved handler {} from Spring context", tool.getHandlerClass());
-            } catch (Exception e) {
-                // If not found in context, try to instantiate manually
-                logger.debug("Handler {} not found in Spring context, attempting manual instantiation", tool.getHandlerClass());
-                handler = (ToolHandler) handlerClass.getDeclaredConstructor().newInstance();
-            }
-
-            // Validate input
-            if (!handler.validateInput(toolInput)) {
-                logger.warn("Tool input validation failed for tool: {}", tool.getName());
-                return Mono.just("{\"error\": \"Invalid input for tool: " + tool.getName() + "\"}");
-            }
-
-            // Execute tool and convert JsonNode result to String
-            return handler.execute(toolInput)
-                    .map(result -> result.toString())
-                    .doOnSuccess(result -> logger.info("Custom tool {} executed successfully", tool.getName()))
-                    .onErrorResume(error -> {
-                        logger.error("Custom tool {} execution failed: {}", tool.getName(), error.getMessage());
-                        return Mono.just("{\"error\": \"" + error.getMessage() + "\"}");
-                    });
+    private Mono<String> executeCustomTool(ToolHandlerRegistry.RegisteredTool tool, JsonNode toolInput) {
+        ToolHandler handler = tool.handler();
+        if (handler == null) {
+            return Mono.just("{\"error\": \"" + tool.resolutionError() + "\"}");
+        }
+        logger.info("Executing custom tool: {}", tool.name());
 
-        } catch (ClassNotFoundException e) {
-            logger.error("Tool handler class not found: {}", tool.getHandlerClass());
-            return Mono.just("{\"error\": \"Tool handler class not found: " + tool.getHandlerClass() + "\"}");
-        } catch (Exception e) {
-            logger.error("Error loading tool handler: {}", e.getMessage(), e);
-            return Mono.just("{\"error\": \"Failed to load tool handler: " + e.getMessage() + "\"}");
+        // Validate input
+        if (!handler.validateInput(toolInput)) {
+            logger.warn("Tool input validation failed for tool: {}", tool.name());
+            return Mono.just("{\"error\": \"Invalid input for tool: " + tool.name() + "\"}");
         }
+
+        // Execute tool and convert JsonNode result to String
+        return Mono.defer(() -> handler.execute(toolInput))
+                .map(result -> result.toString())
+                .doOnSuccess(result -> logger.info("Custom tool {} executed successfully", tool.name()))
+                .onErrorResume(error -> {
+                    logger.error("Custom tool {} execution failed: {}", tool.name(), error.getMessage());
+                    return Mono.just("{\"error\": \"" + error.getMessage() + "\"}");
+                });
     }
 
     /**
@@ -512,14 +489,15 @@ public class SeoAgentService {
     }
 
     /**
-     * Build messages array from conversation history
+     * Build messages array from the session transcript, or the client's conversation history
      */
-    private ArrayNode buildMessagesArray(SeoAgentRequest request) {
+    private ArrayNode buildMessagesArray(SeoAgentRequest request, ChatSessionStore.ChatSession session) {
         ArrayNode messages = objectMapper.createArrayNode();
 
         // Add conversation history
-        if (request.getConversationHistory() != null) {
-            for (ChatMessage msg : request.getConversationHistory()) {
+        List<ChatMessage> history = session != null ? session.getTurns() : request.getConversationHistory();
+        if (history != null) {
+            for (ChatMessage msg : history) {
                 ObjectNode messageNode = objectMapper.createObjectNode();
                 messageNode.put("role", msg.getRole());
                 messageNode.put("content", msg.getContent());
@@ -600,6 +578,7 @@ public class SeoAgentService {
 
     /**
      * Extract assistant message from Claude API response
+     * @return The text reply, or null if Claude returned no text
      */
     private ChatMessage extractAssistantMessage(JsonNode response) {
         try {
@@ -615,10 +594,10 @@ public class SeoAgentService {
                     return new ChatMessage("assistant", fullText.toString());
                 }
             }
-            return new ChatMessage("assistant", "No response generated");
+            return null;
         } catch (Exception e) {
             logger.error("Error extracting assistant message: {}", e.getMessage());
-            return new ChatMessage("assistant", "Error processing response");
+            return null;
         }
     }
 
@@ -629,6 +608,11 @@ public class SeoAgentService {
             List<String> toolsUsed, List<String> agentsInvoked) {
 
         ChatMessage message = extractAssistantMessage(claudeResponse);
+        if (message == null) {
+            // No text from Claude: an error response, so the turn is not recorded as an answer
+            logger.warn("Claude response contained no text");
+            return createErrorResponse(startTime);
+        }
         long processingTime = System.currentTimeMillis() - startTime;
 
         // Extract token usage if available
@@ -0,0 +1,132 @@
+package com.shopify.api.service.agent;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.shopify.api.model.agent.Agent;
+import com.shopify.api.model.agent.AgentTool;
+import com.shopify.api.model.agent.Tool;
+import com.shopify.api.repository.agent.AgentRepository;
+import com.shopify.api.util.AfterCommit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of agent definitions used to start executions
+ *
+ * Each entry is an immutable snapshot of the agent's model settings, system prompt and
+ * the Claude tools array built from its active tools, so repeat executions of an agent
+ * (SEO sub-agent calls, workflow steps) need no database round trip.
+ *
+ * AgentService and ToolRegistryService invalidate entries after their changes commit.
+ *
+ * See: docs/multi-agent/ARCHITECTURE.md for system design
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AgentDefinitionCache {
+
+    private final AgentRepository agentRepository;
+    private final ObjectMapper objectMapper;
+
+    private final Map<Long, AgentSnapshot> snapshots = new ConcurrentHashMap<>();
+
+    // Bumped on every invalidation; loads that raced with one are not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Snapshot of the agent, loading it with its tools on a miss
+     *
+     * @throws IllegalArgumentException if the agent does not exist
+     */
+    public AgentSnapshot get(Long agentId) {
+        AgentSnapshot snapshot = snapshots.get(agentId);
+        if (snapshot != null) {
+            return snapshot;
+        }
+
+        long loadedAt = generation.get();
+        Agent agent = agentRepository.findByIdWithTools(agentId)
+            .orElseThrow(() -> new IllegalArgumentException("Agent not found with ID: " + agentId));
+        snapshot = toSnapshot(agent);
+
+        if (generation.get() == loadedAt) {
+            snapshots.put(agentId, snapshot);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Drop one agent's snapshot once the current transaction commits
+     */
+    public void invalidate(Long agentId) {
+        AfterCommit.run(() -> {
+            generation.incrementAndGet();
+            snapshots.remove(agentId);
+        });
+    }
+
+    /**
+     * Drop every snapshot once the current transaction commits (e.g. a shared tool changed)
+     */
+    public void invalidateAll() {
+        AfterCommit.run(() -> {
+            generation.incrementAndGet();
+            snapshots.clear();
+        });
+    }
+
+    private AgentSnapshot toSnapshot(Agent agent) {
+        ArrayNode tools = objectMapper.createArrayNode();
+
+        // Stable tool order keeps the request prefix (and its prompt cache entry) identical
+        agent.getAgentTools().stream()
+            .map(AgentTool::getTool)
+            .filter(Tool::getIsActive)
+            .sorted(Comparator.comparing(Tool::getName))
+            .forEach(tool -> {
+                ObjectNode toolDef = tools.addObject();
+                toolDef.put("name", tool.getName());
+                toolDef.put("description", tool.getDescription());
+                toolDef.set("input_schema", tool.getInputSchemaJson().deepCopy());
+            });
+
+        log.info("Cached agent {} with {} active tools", agent.getName(), tools.size());
+        return new AgentSnapshot(
+            agent.getId(),
+            agent.getName(),
+            agent.getIsActive(),
+            agent.getModelProvider(),
+            agent.getModelName(),
+            agent.getSystemPrompt(),
+            agent.getMaxTokens(),
+            agent.getTemperature().doubleValue(),
+            tools);
+    }
+
+    /**
+     * Immutable view of an agent definition
+     *
+     * @param tools Claude tools array; shared between executions and must not be modified
+     *              (AnthropicClient only ever adds cache breakpoints to a copy)
+     */
+    public record AgentSnapshot(
+        Long id,
+        String name,
+        boolean active,
+        String modelProvider,
+        String modelName,
+        String systemPrompt,
+        int maxTokens,
+        double temperature,
+        JsonNode tools) {
+    }
+}
@@ -4,19 +4,16 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.shopify.api.client.AnthropicClient;
 import com.shopify.api.client.MCPClient;
-import com.shopify.api.model.agent.Agent;
 import com.shopify.api.model.agent.AgentExecution;
-import com.shopify.api.model.agent.AgentTool;
-import com.shopify.api.model.agent.Tool;
 import com.shopify.api.repository.agent.AgentExecutionRepository;
 import com.shopify.api.repository.agent.AgentRepository;
+import com.shopify.api.service.agent.AgentDefinitionCache.AgentSnapshot;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
@@ -30,7 +27,7 @@ import java.util.Map;
  * Service for executing AI agents
  *
  * This service handles the execution of database-defined agents with:
- * - Dynamic tool loading from agent_tools table
+ * - Dynamic tool loading from agent_tools table (cached per agent by AgentDefinitionCache)
  * - Multi-turn conversations with tool use
  * - Execution logging to agent_executions table
  * - Support for multiple LLM providers (Claude, GPT, Gemini)
@@ -44,15 +41,11 @@ public class AgentExecutionService {
 
     private final AgentRepository agentRepository;
     private final AgentExecutionRepository agentExecutionRepository;
-    private final WebClient.Builder webClientBuilder;
+    private final AnthropicClient anthropicClient;
     private final ObjectMapper objectMapper;
     private final MCPClient mcpClient;
-
-    @Value("${anthropic.api.key:}")
-    private String anthropicApiKey;
-
-    @Value("${anthropic.api.version:2023-06-01}")
-    private String anthropicApiVersion;
+    private final ToolHandlerRegistry toolHandlerRegistry;
+    private final AgentDefinitionCache agentDefinitionCache;
 
     /**
      * Execute an agent with given input and return structured result
@@ -65,18 +58,17 @@ public class AgentExecutionService {
     public Mono<AgentExecutionResult> executeAgent(Long agentId, JsonNode input) {
         log.info("Executing agent ID: {} with input", agentId);
 
-        // Load agent from database with eagerly fetched tools to avoid lazy loading
-        return Mono.fromCallable(() -> agentRepository.findByIdWithTools(agentId)
-                .orElseThrow(() -> new IllegalArgumentException("Agent not found with ID: " + agentId)))
+        // Agent definition with its tools, from cache after the first execution
+        return Mono.fromCallable(() -> agentDefinitionCache.get(agentId))
             .flatMap(agent -> {
                 // Validate agent is active
-                if (!agent.getIsActive()) {
-                    return Mono.error(new IllegalStateException("Agent is not active: " + agent.getName()));
+                if (!agent.active()) {
+                    return Mono.error(new IllegalStateException("Agent is not active: " + agent.name()));
                 }
 
-                // Create execution record
+                // Create execution record (the agent is referenced by ID, not loaded)
                 AgentExecution execution = AgentExecution.builder()
-                    .agent(agent)
+                    .agent(agentRepository.getReferenceById(agentId))
                     .status("RUNNING")
                     .inputDataJson(input)
                     .startedAt(LocalDateTime.now())
@@ -93,6 +85,8 @@ public class AgentExecutionService {
                         savedExecution.setOutputDataJson(result.output);
                         savedExecution.setCompletedAt(LocalDateTime.now());
                         savedExecution.setTokensUsed(result.inputTokens + result.outputTokens);
+                        savedExecution.setCacheCreationInputTokens(result.cacheCreationInputTokens);
+                        savedExecution.setCacheReadInputTokens(result.cacheReadInputTokens);
                         savedExecution.setExecutionTimeMs(
                             (int) java.time.Duration.between(savedExecution.getStartedAt(), LocalDateTime.now()).toMillis());
                         agentExecutionRepository.save(savedExecution);
@@ -112,9 +106,9 @@ public class AgentExecutionService {
     /**
      * Execute agent with the appropriate LLM provider
      */
-    private Mono<AgentExecutionResult> executeWithProvider(Agent agent, JsonNode input, AgentExecution execution) {
-        String provider = agent.getModelProvider();
-        log.info("Using provider: {} with model: {}", provider, agent.getModelName());
+    private Mono<AgentExecutionResult> executeWithProvider(AgentSnapshot agent, JsonNode input, AgentExecution execution) {
+        String provider = agent.modelProvider();
+        log.info("Using provider: {} with model: {}", provider, agent.modelName());
 
         switch (provider.toUpperCase()) {
             case "ANTHROPIC":
@@ -134,17 +128,13 @@ public class AgentExecutionService {
     /**
      * Execute agent using Claude API
      */
-    private Mono<AgentExecutionResult> executeWithClaude(Agent agent, JsonNode input, AgentExecution execution) {
-        if (anthropicApiKey == null || anthropicApiKey.trim().isEmpty()) {
+    private Mono<AgentExecutionResult> executeWithClaude(AgentSnapshot agent, JsonNode input, AgentExecution execution) {
+        if (!anthropicClient.isConfigured()) {
             return Mono.error(new IllegalStateException("Anthropic API key not configured"));
         }
 
-        WebClient webClient = webClientBuilder
-            .baseUrl("https://api.anthropic.com/v1")
-            .build();
-
         // Build system prompt
-        String systemPrompt = agent.getSystemPrompt();
+        String systemPrompt = agent.systemPrompt();
 
         // Build messages array with input
         ArrayNode messages = objectMapper.createArrayNode();
@@ -161,24 +151,24 @@ public class AgentExecutionService {
         userMessage.put("content", inputText);
         messages.add(userMessage);
 
-        // Load tools for this agent
-        ArrayNode tools = buildToolsArrayForAgent(agent);
+        // Tools for this agent, pre-built in the snapshot
+        JsonNode tools = agent.tools();
 
         // Call Claude API
-        return callClaudeWithTools(webClient, agent, systemPrompt, messages, tools, 0, execution.getId());
+        return callClaudeWithTools(agent, systemPrompt, messages, tools, 0, execution.getId(), new TokenUsage());
     }
 
     /**
      * Call Claude API with tool support (recursive for multi-turn conversations)
      */
     private Mono<AgentExecutionResult> callClaudeWithTools(
-            WebClient webClient,
-            Agent agent,
+            AgentSnapshot agent,
             String systemPrompt,
             ArrayNode messages,
-            ArrayNode tools,
+            JsonNode tools,
             int iteration,
-            Long executionId) {
+            Long executionId,
+            TokenUsage tokenUsage) {
 
         if (iteration >= 10) {
             log.warn("Max tool use iterations reached for execution {}", executionId);
@@ -187,9 +177,9 @@ public class AgentExecutionService {
 
         // Create request body
         ObjectNode requestBody = objectMapper.createObjectNode();
-        requestBody.put("model", agent.getModelName());
-        requestBody.put("max_tokens", agent.getMaxTokens());
-        requestBody.put("temperature", agent.getTemperature().doubleValue());
+        requestBody.put("model", agent.modelName());
+        requestBody.put("max_tokens", agent.maxTokens());
+        requestBody.put("temperature", agent.temperature());
         requestBody.put("system", systemPrompt);
         requestBody.set("messages", messages);
 
@@ -197,52 +187,48 @@ public class AgentExecutionService {
             requestBody.set("tools", tools);
         }
 
-        log.debug("Calling Claude API - iteration: {}, model: {}", iteration, agent.getModelName());
+        log.debug("Calling Claude API - iteration: {}, model: {}", iteration, agent.modelName());
 
         // Call Claude API
-        return webClient.post()
-            .uri("/messages")
-            .header("x-api-key", anthropicApiKey)
-            .header("anthropic-version", anthropicApiVersion)
-            .header("Content-Type", "application/json")
-            .bodyValue(requestBody)
-            .retrieve()
-            .bodyToMono(JsonNode.class)
+        return anthropicClient.createMessage(requestBody)
             .flatMap(response -> handleClaudeResponse(
-                webClient, agent, systemPrompt, messages, tools, response, iteration, executionId));
+                agent, systemPrompt, messages, tools, response, iteration, executionId, tokenUsage));
     }
 
     /**
      * Handle Claude API response - extract result or process tool calls
      */
     private Mono<AgentExecutionResult> handleClaudeResponse(
-            WebClient webClient,
-            Agent agent,
+            AgentSnapshot agent,
             String systemPrompt,
             ArrayNode messages,
-            ArrayNode tools,
+            JsonNode tools,
             JsonNode response,
             int iteration,
-            Long executionId) {
+            Long executionId,
+            TokenUsage tokenUsage) {
 
         try {
             String stopReason = response.get("stop_reason").asText();
             JsonNode content = response.get("content");
 
-            // Extract token usage
+            // Accumulate token usage over every iteration of the tool loop
             JsonNode usage = response.get("usage");
-            int inputTokens = usage != null && usage.has("input_tokens") ? usage.get("input_tokens").asInt() : 0;
-            int outputTokens = usage != null && usage.has("output_tokens") ? usage.get("output_tokens").asInt() : 0;
+            tokenUsage.add(usage);
 
-            log.debug("Claude response - stop_reason: {}, tokens: {}/{}", stopReason, inputTokens, outputTokens);
+            log.debug("Claude response - stop_reason: {}, tokens: {}/{}, cache read/created: {}/{}", stopReason,
+                usage != null ? usage.path("input_tokens").asInt() : 0,
+                usage != null ? usage.path("output_tokens").asInt() : 0,
+                usage != null ? usage.path("cache_read_input_tokens").asInt() : 0,
+                usage != null ? usage.path("cache_creation_input_tokens").asInt() : 0);
 
             if ("tool_use".equals(stopReason)) {
                 // Handle tool calls and continue
                 return handleToolUseAndContinue(
-                    webClient, agent, systemPrompt, messages, tools, response, iteration, executionId);
+                    agent, systemPrompt, messages, tools, response, iteration, executionId, tokenUsage);
             } else {
                 // Extract final response
-                return extractFinalResult(response, inputTokens, outputTokens);
+                return extractFinalResult(response, tokenUsage);
             }
         } catch (Exception e) {
             log.error("Error handling Claude response: {}", e.getMessage(), e);
@@ -254,14 +240,14 @@ public class AgentExecutionService {
      * Handle tool use: execute tools and continue conversation
      */
     private Mono<AgentExecutionResult> handleToolUseAndContinue(
-            WebClient webClient,
-            Agent agent,
+            AgentSnapshot agent,
             String systemPrompt,
             ArrayNode messages,
-            ArrayNode tools,
+            JsonNode tools,
             JsonNode response,
             int iteration,
-            Long executionId) {
+            Long executionId,
+            TokenUsage tokenUsage) {
 
         // Add assistant's message with tool_use to messages
         ObjectNode assistantMessage = objectMapper.createObjectNode();
@@ -310,28 +296,42 @@ public class AgentExecutionService {
 
             // Continue conversation
             return callClaudeWithTools(
-                webClient, agent, systemPrompt, messages, tools, iteration + 1, executionId);
+                agent, systemPrompt, messages, tools, iteration + 1, executionId, tokenUsage);
         });
     }
 
     /**
      * Execute a tool call
      *
-     * Currently implements:
-     * - mcp_call: Call external MCP server tools
-     * - Other tools: Return placeholder (TODO: implement handler loading)
+     * - MCP tools (e.g. mcp_call): Call external MCP server tools
+     * - Other tools: Dispatch to the handler resolved by ToolHandlerRegistry
      */
-    private Mono<String> executeToolCall(String toolName, JsonNode input, Agent agent) {
+    private Mono<String> executeToolCall(String toolName, JsonNode input, AgentSnapshot agent) {
         log.info("Tool execution: {} with input: {}", toolName, input);
 
+        ToolHandlerRegistry.RegisteredTool tool = toolHandlerRegistry.find(toolName).orElse(null);
+
         // Handle MCP tool calls
-        if ("mcp_call".equals(toolName)) {
+        if ("mcp_call".equals(toolName) || (tool != null && tool.isMcp())) {
             return executeMCPToolCall(input);
         }
 
-        // TODO: Implement actual tool execution by loading tool handler classes
-        // For now, return a placeholder for other tools
-        return Mono.just("{\"message\": \"Tool '" + toolName + "' executed successfully\", \"input\": " + input.toString() + "}");
+        if (tool == null) {
+            log.warn("Tool not found: {}", toolName);
+            return Mono.just("{\"error\": \"Tool not found: " + toolName + "\"}");
+        }
+        if (tool.handler() == null) {
+            return Mono.just("{\"error\": \"" + tool.resolutionError() + "\"}");
+        }
+        if (!tool.handler().validateInput(input)) {
+            log.warn("Tool input validation failed for tool: {}", toolName);
+            return Mono.just("{\"error\": \"Invalid input for tool: " + toolName + "\"}");
+        }
+
+        return Mono.defer(() -> tool.handler().execute(input))
+            .map(JsonNode::toString)
+            .doOnSuccess(result -> log.info("Tool {} completed", toolName))
+            .doOnError(error -> log.error("Tool {} failed: {}", toolName, error.getMessage()));
     }
 
     /**
@@ -385,36 +385,10 @@ public class AgentExecutionService {
         }
     }
 
-    /**
-     * Build tools array for agent from agent_tools relationship
-     */
-    private ArrayNode buildToolsArrayForAgent(Agent agent) {
-        ArrayNode tools = objectMapper.createArrayNode();
-
-        for (AgentTool agentTool : agent.getAgentTools()) {
-            Tool tool = agentTool.getTool();
-
-            if (!tool.getIsActive()) {
-                continue;
-            }
-
-            ObjectNode toolDef = objectMapper.createObjectNode();
-            toolDef.put("name", tool.getName());
-            toolDef.put("description", tool.getDescription());
-            toolDef.set("input_schema", tool.getInputSchemaJson());
-
-            tools.add(toolDef);
-            log.debug("Added tool: {} to agent: {}", tool.getName(), agent.getName());
-        }
-
-        log.info("Agent {} has {} active tools", agent.getName(), tools.size());
-        return tools;
-    }
-
     /**
      * Extract final result from Claude response
      */
-    private Mono<AgentExecutionResult> extractFinalResult(JsonNode response, int inputTokens, int outputTokens) {
+    private Mono<AgentExecutionResult> extractFinalResult(JsonNode response, TokenUsage tokenUsage) {
         try {
             JsonNode content = response.get("content");
             StringBuilder textBuilder = new StringBuilder();
@@ -434,8 +408,10 @@ public class AgentExecutionService {
 
             AgentExecutionResult result = AgentExecutionResult.builder()
                 .output(output)
-                .inputTokens(inputTokens)
-                .outputTokens(outputTokens)
+                .inputTokens(tokenUsage.inputTokens)
+                .outputTokens(tokenUsage.outputTokens)
+                .cacheCreationInputTokens(tokenUsage.cacheCreationInputTokens)
+                .cacheReadInputTokens(tokenUsage.cacheReadInputTokens)
                 .success(true)
                 .build();
 
@@ -456,6 +432,8 @@ public class AgentExecutionService {
         private JsonNode output;
         private int inputTokens;
         private int outputTokens;
+        private int cacheCreationInputTokens;
+        private int cacheReadInputTokens;
         private boolean success;
         private String errorMessage;
 
@@ -465,9 +443,33 @@ public class AgentExecutionService {
          */
         public BigDecimal calculateCost() {
             // Claude 3.5 Sonnet pricing (as of 2024): $3 per MTok input, $15 per MTok output
+            // Cache writes cost 1.25x and cache reads 0.1x the input price
             double inputCost = (inputTokens / 1_000_000.0) * 3.0;
+            double cacheCost = (cacheCreationInputTokens / 1_000_000.0) * 3.75
+                + (cacheReadInputTokens / 1_000_000.0) * 0.30;
             double outputCost = (outputTokens / 1_000_000.0) * 15.0;
-            return BigDecimal.valueOf(inputCost + outputCost);
+            return BigDecimal.valueOf(inputCost + cacheCost + outputCost);
+        }
+    }
+
+    /**
+     * Token usage summed over every Claude call of one execution
+     * input_tokens excludes tokens read from or written to the prompt cache
+     */
+    private static class TokenUsage {
+        private int inputTokens;
+        private int outputTokens;
+        private int cacheCreationInputTokens;
+        private int cacheReadInputTokens;
+
+        void add(JsonNode usage) {
+            if (usage == null) {
+                return;
+            }
+            inputTokens += usage.path("input_tokens").asInt();
+            outputTokens += usage.path("output_tokens").asInt();
+            cacheCreationInputTokens += usage.path("cache_creation_input_tokens").asInt();
+            cacheReadInputTokens += usage.path("cache_read_input_tokens").asInt();
         }
     }
 }
@@ -18,6 +18,7 @@ import java.util.Optional;
  *
  * Implements zero-hardcoding principle - all agents are dynamically
  * created and configured via database records.
+ * Changes invalidate the agent's entry in the AgentDefinitionCache.
  *
  * See: docs/multi-agent/ARCHITECTURE.md for system design
  */
@@ -29,6 +30,7 @@ public class AgentService {
     private final AgentRepository agentRepository;
     private final AgentToolRepository agentToolRepository;
     private final ToolRepository toolRepository;
+    private final AgentDefinitionCache agentDefinitionCache;
 
     /**
      * Create a new agent
@@ -111,7 +113,9 @@ public class AgentService {
         existingAgent.setConfigJson(updatedAgent.getConfigJson());
         existingAgent.setIsActive(updatedAgent.getIsActive());
 
-        return agentRepository.save(existingAgent);
+        Agent saved = agentRepository.save(existingAgent);
+        agentDefinitionCache.invalidate(id);
+        return saved;
     }
 
     /**
@@ -126,6 +130,7 @@ public class AgentService {
         }
 
         agentRepository.deleteById(id);
+        agentDefinitionCache.invalidate(id);
     }
 
     /**
@@ -150,7 +155,9 @@ public class AgentService {
             .tool(toolRepository.findById(toolId).get())
             .build();
 
-        return agentToolRepository.save(agentTool);
+        AgentTool saved = agentToolRepository.save(agentTool);
+        agentDefinitionCache.invalidate(agentId);
+        return saved;
     }
 
     /**
@@ -164,6 +171,7 @@ public class AgentService {
             .orElseThrow(() -> new IllegalArgumentException("Tool assignment not found"));
 
         agentToolRepository.delete(agentTool);
+        agentDefinitionCache.invalidate(agentId);
     }
 
     /**
@@ -186,6 +194,7 @@ public class AgentService {
 
         agent.setIsActive(true);
         agentRepository.save(agent);
+        agentDefinitionCache.invalidate(id);
     }
 
     /**
@@ -200,5 +209,6 @@ public class AgentService {
 
         agent.setIsActive(false);
         agentRepository.save(agent);
+        agentDefinitionCache.invalidate(id);
     }
 }
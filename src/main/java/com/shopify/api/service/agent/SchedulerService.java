@@ -3,6 +3,7 @@ package com.shopify.api.service.agent;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.shopify.api.model.agent.Workflow;
+import com.shopify.api.model.agent.WorkflowExecution;
 import com.shopify.api.model.agent.WorkflowSchedule;
 import com.shopify.api.repository.agent.WorkflowRepository;
 import com.shopify.api.repository.agent.WorkflowScheduleRepository;
@@ -32,7 +33,7 @@ public class SchedulerService {
 
     private final WorkflowScheduleRepository scheduleRepository;
     private final WorkflowRepository workflowRepository;
-    private final WorkflowOrchestratorService orchestratorService;
+    private final WorkflowQueueService workflowQueueService;
     private final ObjectMapper objectMapper;
 
     /**
@@ -180,14 +181,16 @@ public class SchedulerService {
                 triggerData = objectMapper.createObjectNode();
             }
 
-            // Execute workflow asynchronously
-            orchestratorService.executeWorkflow(schedule.getWorkflow().getId(), triggerData)
-                .subscribe(
-                    result -> log.info("Scheduled workflow {} completed successfully",
-                        schedule.getWorkflow().getName()),
-                    error -> log.error("Scheduled workflow {} failed: {}",
-                        schedule.getWorkflow().getName(), error.getMessage())
-                );
+            // Queue the execution; a queue worker runs it
+            try {
+                WorkflowExecution execution = workflowQueueService.enqueue(
+                    schedule.getWorkflow().getId(), triggerData, null);
+                log.info("Queued scheduled workflow {} as execution {}",
+                    schedule.getWorkflow().getName(), execution.getId());
+            } catch (IllegalStateException e) {
+                // Inactive workflow: skip this run but keep the schedule moving
+                log.warn("Skipping scheduled workflow {}: {}", schedule.getWorkflow().getName(), e.getMessage());
+            }
 
             // Update schedule
             schedule.setLastRunAt(LocalDateTime.now());
@@ -0,0 +1,145 @@
+package com.shopify.api.service.agent;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.shopify.api.handler.tool.ToolHandler;
+import com.shopify.api.model.agent.Tool;
+import com.shopify.api.repository.agent.ToolRepository;
+import com.shopify.api.util.AfterCommit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Registry of tools and their resolved handler instances, keyed by tool name
+ *
+ * Handler classes are resolved once (Spring bean if one exists, otherwise a new instance)
+ * when the application is ready, and again whenever ToolRegistryService changes a tool,
+ * so tool calls are a map lookup instead of a table scan plus reflection.
+ * Handlers may implement either handler.tool.ToolHandler or service.tool.ToolHandler.
+ *
+ * See: docs/multi-agent/ARCHITECTURE.md for system design
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ToolHandlerRegistry {
+
+    private final ToolRepository toolRepository;
+    private final ApplicationContext applicationContext;
+
+    // Replaced as a whole on reload, never mutated
+    private volatile Map<String, RegisteredTool> tools = Map.of();
+
+    /**
+     * Build the registry once startup runners (e.g. DataInitializer) have seeded the tools table
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        Map<String, RegisteredTool> resolved = new HashMap<>();
+        for (Tool tool : toolRepository.findAll()) {
+            resolved.put(tool.getName(), resolve(tool));
+        }
+        tools = resolved;
+
+        long unresolved = resolved.values().stream()
+            .filter(tool -> !tool.isMcp() && tool.handler() == null)
+            .count();
+        log.info("Tool handler registry loaded {} tools ({} without a usable handler)", resolved.size(), unresolved);
+    }
+
+    /**
+     * Reload after a tool was changed
+     * Inside a transaction the reload waits for the commit, so it sees the change.
+     */
+    public void toolsChanged() {
+        AfterCommit.run(this::reload);
+    }
+
+    /**
+     * Registered tool by name
+     */
+    public Optional<RegisteredTool> find(String toolName) {
+        return Optional.ofNullable(tools.get(toolName));
+    }
+
+    private RegisteredTool resolve(Tool tool) {
+        if ("MCP".equals(tool.getType())) {
+            return new RegisteredTool(tool.getName(), tool.getType(), null, null);
+        }
+
+        try {
+            Class<?> handlerClass = Class.forName(tool.getHandlerClass());
+            Object instance = instantiate(handlerClass);
+
+            if (instance instanceof ToolHandler handler) {
+                return new RegisteredTool(tool.getName(), tool.getType(), handler, null);
+            }
+            if (instance instanceof com.shopify.api.service.tool.ToolHandler handler) {
+                return new RegisteredTool(tool.getName(), tool.getType(), adapt(handler), null);
+            }
+            log.error("Handler class {} does not implement ToolHandler interface", tool.getHandlerClass());
+            return new RegisteredTool(tool.getName(), tool.getType(), null, "Invalid tool handler class");
+
+        } catch (ClassNotFoundException e) {
+            log.warn("Tool handler class not found for tool {}: {}", tool.getName(), tool.getHandlerClass());
+            return new RegisteredTool(tool.getName(), tool.getType(), null,
+                "Tool handler class not found: " + tool.getHandlerClass());
+        } catch (Exception e) {
+            log.error("Failed to create handler for tool {}: {}", tool.getName(), e.getMessage());
+            return new RegisteredTool(tool.getName(), tool.getType(), null,
+                "Failed to create tool handler: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Handler bean from the Spring context if it is a component, otherwise a new instance
+     */
+    private Object instantiate(Class<?> handlerClass) throws Exception {
+        if (!ToolHandler.class.isAssignableFrom(handlerClass)
+                && !com.shopify.api.service.tool.ToolHandler.class.isAssignableFrom(handlerClass)) {
+            return null;
+        }
+        Map<String, ?> beans = applicationContext.getBeansOfType(handlerClass);
+        if (!beans.isEmpty()) {
+            return beans.values().iterator().next();
+        }
+        log.debug("Handler {} not found in Spring context, instantiating it", handlerClass.getName());
+        return handlerClass.getDeclaredConstructor().newInstance();
+    }
+
+    private static ToolHandler adapt(com.shopify.api.service.tool.ToolHandler handler) {
+        return new ToolHandler() {
+            @Override
+            public Mono<JsonNode> execute(JsonNode input) {
+                return handler.execute(input);
+            }
+
+            @Override
+            public boolean validateInput(JsonNode input) {
+                return handler.validateInput(input);
+            }
+        };
+    }
+
+    /**
+     * A tool and its handler
+     *
+     * @param handler Resolved handler; null for MCP tools (called via MCPClient) and for
+     *                tools whose handler could not be resolved
+     * @param resolutionError Why the handler could not be resolved, or null
+     */
+    public record RegisteredTool(String name, String type, ToolHandler handler, String resolutionError) {
+
+        public boolean isMcp() {
+            return "MCP".equals(type);
+        }
+    }
+}
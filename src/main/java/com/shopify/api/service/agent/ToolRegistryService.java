@@ -15,6 +15,8 @@ import java.util.Optional;
  *
  * Tools are dynamically registered and can be assigned to agents.
  * Each tool has a handler class that implements the actual functionality.
+ * Every change is pushed to the ToolHandlerRegistry used for dispatch and drops
+ * the cached agent definitions that embed tool schemas.
  *
  * See: docs/multi-agent/ARCHITECTURE.md for system design
  */
@@ -24,6 +26,8 @@ import java.util.Optional;
 public class ToolRegistryService {
 
     private final ToolRepository toolRepository;
+    private final ToolHandlerRegistry toolHandlerRegistry;
+    private final AgentDefinitionCache agentDefinitionCache;
 
     /**
      * Register a new tool
@@ -36,7 +40,9 @@ public class ToolRegistryService {
             throw new IllegalArgumentException("Tool with name '" + tool.getName() + "' already exists");
         }
 
-        return toolRepository.save(tool);
+        Tool saved = toolRepository.save(tool);
+        toolsChanged();
+        return saved;
     }
 
     /**
@@ -111,7 +117,9 @@ public class ToolRegistryService {
         existingTool.setHandlerClass(updatedTool.getHandlerClass());
         existingTool.setIsActive(updatedTool.getIsActive());
 
-        return toolRepository.save(existingTool);
+        Tool saved = toolRepository.save(existingTool);
+        toolsChanged();
+        return saved;
     }
 
     /**
@@ -126,6 +134,7 @@ public class ToolRegistryService {
         }
 
         toolRepository.deleteById(id);
+        toolsChanged();
     }
 
     /**
@@ -140,6 +149,7 @@ public class ToolRegistryService {
 
         tool.setIsActive(true);
         toolRepository.save(tool);
+        toolsChanged();
     }
 
     /**
@@ -154,6 +164,12 @@ public class ToolRegistryService {
 
         tool.setIsActive(false);
         toolRepository.save(tool);
+        toolsChanged();
+    }
+
+    private void toolsChanged() {
+        toolHandlerRegistry.toolsChanged();
+        agentDefinitionCache.invalidateAll();
     }
 
     /**
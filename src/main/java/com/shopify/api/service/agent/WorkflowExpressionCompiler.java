@@ -0,0 +1,628 @@
+package com.shopify.api.service.agent;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiles workflow condition expressions and input mapping templates once, then evaluates
+ * the compiled form against the workflow context without re-parsing
+ *
+ * Conditions:
+ * - ${variable.path} alone is a truthiness check; ! negates
+ * - Comparisons: ==, !=, <, <=, >, >= (numeric when both sides are numbers, else text)
+ *   and "in" (element of an array, field of an object, or substring of a text)
+ * - && and || (&& binds tighter), parentheses
+ * - Operands: ${variable.path}, 'quoted' or "quoted" text, numbers, true/false/null,
+ *   [lists], or bare words taken as literal text (${status}==approved, ${reply}==Done!)
+ * - A whole expression may also be wrapped in ${...}, e.g. ${step1.sentiment == 'negative'};
+ *   bare words inside it are variable paths
+ *
+ * Templates (input_mapping_json): a string that is exactly ${path} is replaced by the value at
+ * path (left as-is when missing); other strings have each ${path} interpolated as text.
+ *
+ * Compiled forms are cached by their source (expression text, mapping JSON), so an edited
+ * step compiles anew while unchanged steps reuse theirs across executions.
+ *
+ * See: docs/multi-agent/ARCHITECTURE.md for system design
+ */
+@Component
+@Slf4j
+public class WorkflowExpressionCompiler {
+
+    private static final int MAX_CACHED = 10_000;
+    private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+
+    private final Map<String, CompiledCondition> conditions = new ConcurrentHashMap<>();
+    private final Map<JsonNode, CompiledTemplate> templates = new ConcurrentHashMap<>();
+
+    /**
+     * Compiled condition for the expression; an expression that does not parse is logged
+     * once and always evaluates to false
+     */
+    public CompiledCondition compileCondition(String expression) {
+        CompiledCondition condition = conditions.get(expression);
+        if (condition == null) {
+            try {
+                condition = new ConditionParser(expression).parse();
+            } catch (IllegalArgumentException e) {
+                log.warn("Invalid condition expression '{}': {}", expression, e.getMessage());
+                condition = context -> false;
+            }
+            cache(conditions, expression, condition);
+        }
+        return condition;
+    }
+
+    /**
+     * Compiled template for an input mapping
+     */
+    public CompiledTemplate compileTemplate(JsonNode template) {
+        CompiledTemplate compiled = templates.get(template);
+        if (compiled == null) {
+            compiled = compileNode(template);
+            cache(templates, template.deepCopy(), compiled);
+        }
+        return compiled;
+    }
+
+    private static <K, V> void cache(Map<K, V> cache, K key, V value) {
+        // Sources come from workflow definitions, so this only trips on unbounded churn
+        if (cache.size() >= MAX_CACHED) {
+            cache.clear();
+        }
+        cache.put(key, value);
+    }
+
+    /**
+     * Condition compiled from an expression
+     */
+    @FunctionalInterface
+    public interface CompiledCondition {
+        boolean test(JsonNode context);
+    }
+
+    /**
+     * Input mapping compiled from a JSON template
+     * Constant parts of the template are shared between results and must not be modified.
+     */
+    @FunctionalInterface
+    public interface CompiledTemplate {
+        JsonNode apply(JsonNode context);
+    }
+
+    // ---- Templates ----
+
+    private CompiledTemplate compileNode(JsonNode node) {
+        if (node.isTextual()) {
+            return compileText(node);
+        }
+
+        if (node.isObject()) {
+            List<String> names = new ArrayList<>();
+            List<CompiledTemplate> values = new ArrayList<>();
+            boolean constant = true;
+            for (Iterator<Map.Entry<String, JsonNode>> it = node.fields(); it.hasNext(); ) {
+                Map.Entry<String, JsonNode> field = it.next();
+                CompiledTemplate value = compileNode(field.getValue());
+                constant &= value instanceof ConstantTemplate;
+                names.add(field.getKey());
+                values.add(value);
+            }
+            if (constant) {
+                return new ConstantTemplate(node);
+            }
+            String[] fieldNames = names.toArray(new String[0]);
+            CompiledTemplate[] fieldValues = values.toArray(new CompiledTemplate[0]);
+            return context -> {
+                ObjectNode result = NODES.objectNode();
+                for (int i = 0; i < fieldNames.length; i++) {
+                    result.set(fieldNames[i], fieldValues[i].apply(context));
+                }
+                return result;
+            };
+        }
+
+        if (node.isArray()) {
+            List<CompiledTemplate> values = new ArrayList<>();
+            boolean constant = true;
+            for (JsonNode element : node) {
+                CompiledTemplate value = compileNode(element);
+                constant &= value instanceof ConstantTemplate;
+                values.add(value);
+            }
+            if (constant) {
+                return new ConstantTemplate(node);
+            }
+            CompiledTemplate[] elements = values.toArray(new CompiledTemplate[0]);
+            return context -> {
+                ArrayNode result = NODES.arrayNode(elements.length);
+                for (CompiledTemplate element : elements) {
+                    result.add(element.apply(context));
+                }
+                return result;
+            };
+        }
+
+        return new ConstantTemplate(node);
+    }
+
+    private CompiledTemplate compileText(JsonNode node) {
+        String text = node.asText();
+
+        // Whole value: ${path}
+        if (text.startsWith("${") && text.endsWith("}") && text.indexOf('}') == text.length() - 1) {
+            Path path = new Path(text.substring(2, text.length() - 1));
+            return context -> {
+                JsonNode value = path.resolve(context);
+                return value != null ? value : node;
+            };
+        }
+
+        if (!text.contains("${")) {
+            return new ConstantTemplate(node);
+        }
+
+        // Interpolation: literal text and ${path} parts
+        List<Object> parts = new ArrayList<>();
+        int position = 0;
+        int start;
+        while ((start = text.indexOf("${", position)) >= 0) {
+            int end = text.indexOf('}', start);
+            if (end < 0) {
+                break;
+            }
+            if (start > position) {
+                parts.add(text.substring(position, start));
+            }
+            parts.add(new Path(text.substring(start + 2, end)));
+            position = end + 1;
+        }
+        if (position < text.length()) {
+            parts.add(text.substring(position));
+        }
+
+        Object[] compiledParts = parts.toArray();
+        return context -> {
+            StringBuilder result = new StringBuilder();
+            for (Object part : compiledParts) {
+                if (part instanceof Path path) {
+                    JsonNode value = path.resolve(context);
+                    if (value != null && !value.isNull()) {
+                        result.append(value.isValueNode() ? value.asText() : value.toString());
+                    }
+                } else {
+                    result.append((String) part);
+                }
+            }
+            return NODES.textNode(result.toString());
+        };
+    }
+
+    private record ConstantTemplate(JsonNode value) implements CompiledTemplate {
+        @Override
+        public JsonNode apply(JsonNode context) {
+            return value;
+        }
+    }
+
+    // ---- Values ----
+
+    /**
+     * Dotted path into the context, split once; numeric segments also index arrays
+     */
+    private static final class Path {
+        private final String[] names;
+        private final int[] indexes;
+
+        Path(String path) {
+            this.names = path.trim().split("\\.");
+            this.indexes = new int[names.length];
+            for (int i = 0; i < names.length; i++) {
+                indexes[i] = isIndex(names[i]) ? Integer.parseInt(names[i]) : -1;
+            }
+        }
+
+        /**
+         * Value at the path, or null if any segment is missing
+         */
+        JsonNode resolve(JsonNode context) {
+            JsonNode current = context;
+            for (int i = 0; i < names.length && current != null; i++) {
+                if (current.isObject()) {
+                    current = current.get(names[i]);
+                } else if (current.isArray() && indexes[i] >= 0) {
+                    current = current.get(indexes[i]);
+                } else {
+                    return null;
+                }
+            }
+            return current;
+        }
+
+        private static boolean isIndex(String segment) {
+            if (segment.isEmpty() || segment.length() > 9) {
+                return false;
+            }
+            for (int i = 0; i < segment.length(); i++) {
+                if (!Character.isDigit(segment.charAt(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Operand of a condition; returns null when a referenced path is missing
+     */
+    @FunctionalInterface
+    private interface Operand {
+        JsonNode value(JsonNode context);
+    }
+
+    private static boolean isTruthy(JsonNode value) {
+        if (value == null || value.isNull() || value.isMissingNode()) {
+            return false;
+        }
+        if (value.isBoolean()) {
+            return value.asBoolean();
+        }
+        if (value.isContainerNode()) {
+            return value.size() > 0;
+        }
+        return !value.asText().isEmpty();
+    }
+
+    private static boolean valuesEqual(JsonNode left, JsonNode right) {
+        if (left.isContainerNode() || right.isContainerNode()) {
+            return left.equals(right);
+        }
+        if (isNumeric(left) && isNumeric(right)) {
+            return Double.compare(toDouble(left), toDouble(right)) == 0;
+        }
+        return left.asText().equals(right.asText());
+    }
+
+    private static int compareValues(JsonNode left, JsonNode right) {
+        if (isNumeric(left) && isNumeric(right)) {
+            return Double.compare(toDouble(left), toDouble(right));
+        }
+        return left.asText().compareTo(right.asText());
+    }
+
+    private static boolean contains(JsonNode container, JsonNode element) {
+        if (container.isArray()) {
+            for (JsonNode candidate : container) {
+                if (valuesEqual(element, candidate)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (container.isObject()) {
+            return container.has(element.asText());
+        }
+        return element.isValueNode() && container.asText().contains(element.asText());
+    }
+
+    private static boolean isNumeric(JsonNode value) {
+        if (value.isNumber()) {
+            return true;
+        }
+        if (!value.isTextual()) {
+            return false;
+        }
+        String text = value.asText();
+        if (text.isEmpty()) {
+            return false;
+        }
+        boolean digit = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isDigit(c)) {
+                digit = true;
+            } else if (!(c == '.' || (i == 0 && (c == '-' || c == '+')))) {
+                return false;
+            }
+        }
+        return digit && text.indexOf('.') == text.lastIndexOf('.');
+    }
+
+    private static double toDouble(JsonNode value) {
+        return value.isNumber() ? value.asDouble() : Double.parseDouble(value.asText());
+    }
+
+    // ---- Condition parser ----
+
+    private enum TokenType { PATH, STRING, WORD, OPERATOR, END }
+
+    private record Token(TokenType type, String text, int start, int end) {
+    }
+
+    /**
+     * Recursive descent parser:
+     * or := and ('||' and)* ; and := unary ('&&' unary)* ; unary := '!' unary | comparison ;
+     * comparison := operand (('==' | '!=' | '<' | '<=' | '>' | '>=' | 'in') operand)?
+     */
+    private static final class ConditionParser {
+        private final String source;
+        private final List<Token> tokens;
+        private final boolean barePaths;
+        private int position;
+
+        ConditionParser(String expression) {
+            String trimmed = expression.trim();
+            // ${ whole expression } form
+            String inner = wrappedExpression(trimmed);
+            this.barePaths = inner != null;
+            this.source = inner != null ? inner : trimmed;
+            this.tokens = tokenize(source);
+        }
+
+        CompiledCondition parse() {
+            if (peek().type() == TokenType.END) {
+                throw new IllegalArgumentException("empty expression");
+            }
+            CompiledCondition condition = parseOr();
+            if (peek().type() != TokenType.END) {
+                throw new IllegalArgumentException("unexpected '" + peek().text() + "'");
+            }
+            return condition;
+        }
+
+        private CompiledCondition parseOr() {
+            CompiledCondition left = parseAnd();
+            while (acceptOperator("||")) {
+                CompiledCondition first = left;
+                CompiledCondition second = parseAnd();
+                left = context -> first.test(context) || second.test(context);
+            }
+            return left;
+        }
+
+        private CompiledCondition parseAnd() {
+            CompiledCondition left = parseUnary();
+            while (acceptOperator("&&")) {
+                CompiledCondition first = left;
+                CompiledCondition second = parseUnary();
+                left = context -> first.test(context) && second.test(context);
+            }
+            return left;
+        }
+
+        private CompiledCondition parseUnary() {
+            if (acceptOperator("!")) {
+                CompiledCondition inner = parseUnary();
+                return context -> !inner.test(context);
+            }
+            if (acceptOperator("(")) {
+                CompiledCondition inner = parseOr();
+                expectOperator(")");
+                return inner;
+            }
+            return parseComparison();
+        }
+
+        private CompiledCondition parseComparison() {
+            Operand left = parseOperand();
+            Token token = peek();
+
+            String operator = null;
+            if (token.type() == TokenType.OPERATOR && List.of("==", "!=", "<", "<=", ">", ">=").contains(token.text())) {
+                operator = token.text();
+            } else if (token.type() == TokenType.WORD && "in".equals(token.text())) {
+                operator = "in";
+            }
+            if (operator == null) {
+                return context -> isTruthy(left.value(context));
+            }
+            position++;
+            Operand right = parseOperand();
+
+            // A missing side makes any comparison false
+            return switch (operator) {
+                case "==" -> context -> test(left, right, context, (a, b) -> valuesEqual(a, b));
+                case "!=" -> context -> test(left, right, context, (a, b) -> !valuesEqual(a, b));
+                case "<" -> context -> test(left, right, context, (a, b) -> compareValues(a, b) < 0);
+                case "<=" -> context -> test(left, right, context, (a, b) -> compareValues(a, b) <= 0);
+                case ">" -> context -> test(left, right, context, (a, b) -> compareValues(a, b) > 0);
+                case ">=" -> context -> test(left, right, context, (a, b) -> compareValues(a, b) >= 0);
+                default -> context -> test(left, right, context, (a, b) -> contains(b, a));
+            };
+        }
+
+        private static boolean test(Operand left, Operand right, JsonNode context, Comparison comparison) {
+            JsonNode a = left.value(context);
+            if (a == null) {
+                return false;
+            }
+            JsonNode b = right.value(context);
+            return b != null && comparison.test(a, b);
+        }
+
+        private Operand parseOperand() {
+            Token token = peek();
+            switch (token.type()) {
+                case PATH: {
+                    position++;
+                    Path path = new Path(token.text());
+                    return path::resolve;
+                }
+                case STRING: {
+                    position++;
+                    JsonNode value = NODES.textNode(token.text());
+                    return context -> value;
+                }
+                case WORD:
+                    return parseWords();
+                case OPERATOR:
+                    if ("[".equals(token.text())) {
+                        return parseList();
+                    }
+                    // fall through
+                default:
+                    throw new IllegalArgumentException("expected a value at '" + token.text() + "'");
+            }
+        }
+
+        /**
+         * Bare words: keywords, numbers, paths (inside ${...}) or literal text spanning
+         * consecutive words, e.g. "in progress"
+         */
+        private Operand parseWords() {
+            Token first = tokens.get(position++);
+            Token last = first;
+            if (!barePaths) {
+                while (peek().type() == TokenType.WORD && !"in".equals(peek().text())) {
+                    last = tokens.get(position++);
+                }
+            }
+            String text = source.substring(first.start(), last.end());
+
+            JsonNode literal;
+            if ("true".equals(text) || "false".equals(text)) {
+                literal = NODES.booleanNode(Boolean.parseBoolean(text));
+            } else if ("null".equals(text)) {
+                literal = NODES.nullNode();
+            } else if (isNumeric(NODES.textNode(text))) {
+                literal = NODES.numberNode(new BigDecimal(text));
+            } else if (barePaths) {
+                Path path = new Path(text);
+                return path::resolve;
+            } else {
+                literal = NODES.textNode(text);
+            }
+            JsonNode value = literal;
+            return context -> value;
+        }
+
+        private Operand parseList() {
+            expectOperator("[");
+            List<Operand> elements = new ArrayList<>();
+            if (!acceptOperator("]")) {
+                do {
+                    elements.add(parseOperand());
+                } while (acceptOperator(","));
+                expectOperator("]");
+            }
+            Operand[] items = elements.toArray(new Operand[0]);
+            return context -> {
+                ArrayNode list = NODES.arrayNode(items.length);
+                for (Operand item : items) {
+                    JsonNode value = item.value(context);
+                    list.add(value != null ? value : NODES.nullNode());
+                }
+                return list;
+            };
+        }
+
+        private Token peek() {
+            return tokens.get(position);
+        }
+
+        private boolean acceptOperator(String operator) {
+            Token token = peek();
+            if (token.type() == TokenType.OPERATOR && token.text().equals(operator)) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expectOperator(String operator) {
+            if (!acceptOperator(operator)) {
+                throw new IllegalArgumentException("expected '" + operator + "' at '" + peek().text() + "'");
+            }
+        }
+
+        /**
+         * Inner expression of "${ ... }" when the braces wrap the whole expression and it is
+         * more than a plain path; otherwise null
+         */
+        private static String wrappedExpression(String expression) {
+            if (!expression.startsWith("${") || !expression.endsWith("}")
+                    || expression.indexOf('}') != expression.length() - 1) {
+                return null;
+            }
+            String inner = expression.substring(2, expression.length() - 1).trim();
+            for (int i = 0; i < inner.length(); i++) {
+                char c = inner.charAt(i);
+                if (!(Character.isLetterOrDigit(c) || c == '_' || c == '.' || c == '-')) {
+                    return inner;
+                }
+            }
+            return null;
+        }
+
+        private static List<Token> tokenize(String source) {
+            List<Token> tokens = new ArrayList<>();
+            int i = 0;
+            while (i < source.length()) {
+                char c = source.charAt(i);
+                if (Character.isWhitespace(c)) {
+                    i++;
+                } else if (c == '$' && i + 1 < source.length() && source.charAt(i + 1) == '{') {
+                    int end = source.indexOf('}', i);
+                    if (end < 0) {
+                        throw new IllegalArgumentException("unterminated ${ at " + i);
+                    }
+                    tokens.add(new Token(TokenType.PATH, source.substring(i + 2, end), i, end + 1));
+                    i = end + 1;
+                } else if (c == '\'' || c == '"') {
+                    int end = source.indexOf(c, i + 1);
+                    if (end < 0) {
+                        throw new IllegalArgumentException("unterminated string at " + i);
+                    }
+                    tokens.add(new Token(TokenType.STRING, source.substring(i + 1, end), i, end + 1));
+                    i = end + 1;
+                } else if (source.startsWith("==", i) || source.startsWith("!=", i) || source.startsWith("<=", i)
+                        || source.startsWith(">=", i) || source.startsWith("&&", i) || source.startsWith("||", i)) {
+                    tokens.add(new Token(TokenType.OPERATOR, source.substring(i, i + 2), i, i + 2));
+                    i += 2;
+                } else if ("!<>()[],".indexOf(c) >= 0) {
+                    tokens.add(new Token(TokenType.OPERATOR, String.valueOf(c), i, i + 1));
+                    i++;
+                } else {
+                    int start = i;
+                    while (i < source.length() && !endsWord(source, i)) {
+                        i++;
+                    }
+                    if (i == start) {
+                        throw new IllegalArgumentException("unexpected '" + c + "' at " + i);
+                    }
+                    tokens.add(new Token(TokenType.WORD, source.substring(start, i), start, i));
+                }
+            }
+            tokens.add(new Token(TokenType.END, "<end>", source.length(), source.length()));
+            return tokens;
+        }
+
+        /**
+         * Whether a bare word ends at i; words stop at operators, brackets and ${, but may
+         * contain a lone !, =, &, | or quote (${status}==Done!, ${team}==R&D, ${name}==O'Brien)
+         */
+        private static boolean endsWord(String source, int i) {
+            char c = source.charAt(i);
+            return Character.isWhitespace(c) || "<>()[],".indexOf(c) >= 0
+                    || source.startsWith("==", i) || source.startsWith("!=", i)
+                    || source.startsWith("&&", i) || source.startsWith("||", i)
+                    || source.startsWith("${", i);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Comparison {
+        boolean test(JsonNode left, JsonNode right);
+    }
+}
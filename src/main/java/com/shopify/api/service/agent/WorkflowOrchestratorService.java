@@ -2,33 +2,56 @@ package com.shopify.api.service.agent;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.shopify.api.model.agent.ApprovalRequest;
 import com.shopify.api.model.agent.Workflow;
 import com.shopify.api.model.agent.WorkflowExecution;
 import com.shopify.api.model.agent.WorkflowStep;
+import com.shopify.api.model.agent.WorkflowStepCheckpoint;
+import com.shopify.api.repository.agent.ApprovalRequestRepository;
 import com.shopify.api.repository.agent.WorkflowExecutionRepository;
 import com.shopify.api.repository.agent.WorkflowRepository;
+import com.shopify.api.repository.agent.WorkflowStepCheckpointRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Service for orchestrating multi-agent workflows
  *
  * This service handles the execution of workflows which consist of multiple
- * agent steps executed in sequence or parallel. Features include:
- * - Sequential workflow execution
+ * agent steps executed in sequence or parallel. Executions are queued and handed
+ * to it by WorkflowQueueService. Features include:
+ * - Dependency graph execution (based on depends_on): each step starts as soon as the
+ *   steps it depends on have finished, up to workflow.execution.max-concurrency at once
  * - Context passing between agents
  * - Conditional execution (based on condition_expression)
- * - Dependency checking (based on depends_on)
+ * - PARALLEL join steps collecting the outputs of the steps they depend on
+ * - MAP steps running their agent once per element of a context array
+ * - Per-step checkpoints: resumed runs (after an approval, a retry or a crash) rebuild the
+ *   context from the checkpoints and only run the steps that have none
  * - Error handling and recovery
  *
  * See: docs/multi-agent/ARCHITECTURE.md for system design
@@ -43,138 +66,116 @@ public class WorkflowOrchestratorService {
     private final AgentExecutionService agentExecutionService;
     private final ApprovalService approvalService;
     private final ObjectMapper objectMapper;
+    private final WorkflowExpressionCompiler expressionCompiler;
+    private final WorkflowStepCheckpointRepository checkpointRepository;
+    private final ApprovalRequestRepository approvalRequestRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${workflow.execution.max-concurrency:4}")
+    private int maxConcurrency;
+
+    @Value("${workflow.map.max-concurrency:4}")
+    private int mapMaxConcurrency;
+
+    @Value("${workflow.map.rate-limit-retries:3}")
+    private int mapRateLimitRetries;
 
     /**
-     * Execute a workflow with given trigger data
+     * Run a queued workflow execution
+     * Called by WorkflowQueueService once it has claimed the execution (status RUNNING).
+     * Steps with a checkpoint from an earlier run are not run again.
      *
-     * @param workflowId  The ID of the workflow to execute
-     * @param triggerData The trigger data to initialize the workflow context
+     * @param executionId The claimed workflow execution
      * @return WorkflowExecutionResult with final context and status
      */
-    @Transactional
-    public Mono<WorkflowExecutionResult> executeWorkflow(Long workflowId, JsonNode triggerData) {
-        log.info("Starting workflow execution for workflow ID: {}", workflowId);
-
-        // Load workflow from database with all associations eagerly loaded
+    public Mono<WorkflowExecutionResult> runExecution(Long executionId) {
+        // Load the execution and its workflow with all associations eagerly loaded
         // This prevents lazy loading exceptions during async execution
         return Mono.fromCallable(() -> {
-            Workflow workflow = workflowRepository.findByIdWithStepsAndAgents(workflowId)
-                .orElseThrow(() -> new IllegalArgumentException("Workflow not found with ID: " + workflowId));
-
-            // Validate workflow is active
-            if (!workflow.getIsActive()) {
-                throw new IllegalStateException("Workflow is not active: " + workflow.getName());
-            }
-
-            return workflow;
-        }).flatMap(workflow -> {
-            // Create workflow execution record
-            WorkflowExecution execution = WorkflowExecution.builder()
-                .workflow(workflow)
-                .status("RUNNING")
-                .triggerDataJson(triggerData)
-                .startedAt(LocalDateTime.now())
-                .build();
-
-            WorkflowExecution savedExecution = workflowExecutionRepository.save(execution);
-            log.info("Created workflow execution record: {}", savedExecution.getId());
-
-            // Initialize workflow context with trigger data
+            WorkflowExecution execution = workflowExecutionRepository.findById(executionId)
+                .orElseThrow(() -> new IllegalArgumentException("Workflow execution not found: " + executionId));
+            Workflow workflow = workflowRepository.findByIdWithStepsAndAgents(execution.getWorkflow().getId())
+                .orElseThrow(() -> new IllegalArgumentException(
+                    "Workflow not found with ID: " + execution.getWorkflow().getId()));
+            execution.setWorkflow(workflow);
+            return execution;
+        }).flatMap(execution -> {
+            Workflow workflow = execution.getWorkflow();
+            log.info("Running workflow execution {} of workflow: {}", execution.getId(), workflow.getName());
+
+            // Initialize workflow context with trigger data plus the outputs of checkpointed steps
+            JsonNode triggerData = execution.getTriggerDataJson() != null
+                ? execution.getTriggerDataJson()
+                : objectMapper.createObjectNode();
             ObjectNode context = objectMapper.createObjectNode();
             context.set("trigger", triggerData);
 
+            Map<Integer, WorkflowStepCheckpoint> checkpoints = new HashMap<>();
+            for (WorkflowStepCheckpoint checkpoint : checkpointRepository.findByWorkflowExecutionIdOrderByIdAsc(execution.getId())) {
+                checkpoints.put(checkpoint.getStepOrder(), checkpoint);
+                if ("COMPLETED".equals(checkpoint.getStatus()) && checkpoint.getOutputVariable() != null
+                        && !checkpoint.getOutputVariable().isEmpty()) {
+                    context.set(checkpoint.getOutputVariable(), checkpoint.getOutputJson());
+                }
+            }
+            if (!checkpoints.isEmpty()) {
+                log.info("Resuming workflow execution {} from {} checkpointed steps", execution.getId(), checkpoints.size());
+            }
+
             // Get workflow steps ordered by step_order
-            List<WorkflowStep> steps = workflow.getWorkflowSteps().stream()
-                .sorted((s1, s2) -> Integer.compare(s1.getStepOrder(), s2.getStepOrder()))
-                .toList();
+            List<WorkflowStep> steps = sortedSteps(workflow);
 
             log.info("Executing {} steps for workflow: {}", steps.size(), workflow.getName());
 
-            // Execute steps sequentially
-            return executeStepsSequentially(steps, context, savedExecution, 0)
+            // Execute the step graph
+            return executeStepGraph(steps, context, execution, checkpoints)
                 .doOnSuccess(result -> {
+                    if (result.isPaused()) {
+                        // Stopped at approval steps; approving resumes from the checkpoints
+                        workflowExecutionRepository.pauseOrRequeue(execution.getId());
+                        log.info("Workflow execution {} paused for approval", execution.getId());
+                        return;
+                    }
+
                     // Update execution record with success
-                    savedExecution.setStatus("COMPLETED");
-                    savedExecution.setContextDataJson(result.context);
-                    savedExecution.setCompletedAt(LocalDateTime.now());
-                    workflowExecutionRepository.save(savedExecution);
-                    log.info("Workflow execution {} completed successfully", savedExecution.getId());
+                    execution.setStatus("COMPLETED");
+                    execution.setContextDataJson(result.context);
+                    execution.setCompletedAt(LocalDateTime.now());
+                    workflowExecutionRepository.save(execution);
+                    log.info("Workflow execution {} completed successfully", execution.getId());
                 })
                 .doOnError(error -> {
                     // Update execution record with error
-                    savedExecution.setStatus("FAILED");
-                    savedExecution.setErrorMessage(error.getMessage());
-                    savedExecution.setCompletedAt(LocalDateTime.now());
-                    workflowExecutionRepository.save(savedExecution);
-                    log.error("Workflow execution {} failed: {}", savedExecution.getId(), error.getMessage());
+                    execution.setStatus("FAILED");
+                    execution.setErrorMessage(error.getMessage());
+                    execution.setCompletedAt(LocalDateTime.now());
+                    workflowExecutionRepository.save(execution);
+                    log.error("Workflow execution {} failed: {}", execution.getId(), error.getMessage());
                 });
         });
     }
 
     /**
-     * Execute workflow steps sequentially
+     * Execute workflow steps as a dependency graph
      */
-    private Mono<WorkflowExecutionResult> executeStepsSequentially(
+    private Mono<WorkflowExecutionResult> executeStepGraph(
             List<WorkflowStep> steps,
             ObjectNode context,
             WorkflowExecution execution,
-            int stepIndex) {
-
-        // Base case: all steps completed
-        if (stepIndex >= steps.size()) {
-            log.info("All steps completed for workflow execution {}", execution.getId());
-            return Mono.just(WorkflowExecutionResult.builder()
-                .context(context)
-                .success(true)
-                .build());
-        }
-
-        WorkflowStep step = steps.get(stepIndex);
-        log.info("Executing step {}/{}: {} (type: {})",
-            stepIndex + 1, steps.size(), step.getName(), step.getStepType());
-
-        // Check if step should be skipped based on condition
-        if (shouldSkipStep(step, context)) {
-            log.info("Skipping step {} due to condition: {}", step.getName(), step.getConditionExpression());
-            return executeStepsSequentially(steps, context, execution, stepIndex + 1);
-        }
-
-        // Check dependencies
-        if (!dependenciesMet(step, context)) {
-            log.warn("Dependencies not met for step {}: {:?}", step.getName(), step.getDependsOn());
-            return Mono.error(new IllegalStateException(
-                "Dependencies not met for step: " + step.getName()));
-        }
-
-        // Execute step based on type
-        return executeStep(step, context, execution)
-            .flatMap(stepResult -> {
-                // Add step result to context with output variable name
-                if (step.getOutputVariable() != null && !step.getOutputVariable().isEmpty()) {
-                    context.set(step.getOutputVariable(), stepResult);
-                    log.debug("Stored step output in context as: {}", step.getOutputVariable());
+            Map<Integer, WorkflowStepCheckpoint> checkpoints) {
+
+        return Mono.defer(() -> new StepGraphRun(steps, context, execution, checkpoints).run())
+            .map(allStepsFinished -> {
+                if (allStepsFinished) {
+                    log.info("All steps completed for workflow execution {}", execution.getId());
+                } else {
+                    log.info("Workflow execution {} is waiting for approval", execution.getId());
                 }
-
-                // Continue to next step
-                return executeStepsSequentially(steps, context, execution, stepIndex + 1);
-            })
-            .onErrorResume(error -> {
-                log.error("Error executing step {}: {}", step.getName(), error.getMessage());
-
-                // Check if we should retry
-                if (step.getRetryConfigJson() != null) {
-                    return executeStepWithRetry(step, context, execution, 0)
-                        .flatMap(retryResult -> {
-                            // Add retry result to context and continue
-                            if (step.getOutputVariable() != null && !step.getOutputVariable().isEmpty()) {
-                                context.set(step.getOutputVariable(), retryResult);
-                            }
-                            return executeStepsSequentially(steps, context, execution, stepIndex + 1);
-                        });
-                }
-
-                // Propagate error (will mark workflow as FAILED)
-                return Mono.error(error);
+                return WorkflowExecutionResult.builder()
+                    .context(context)
+                    .success(true)
+                    .paused(!allStepsFinished)
+                    .build();
             });
     }
 
@@ -196,12 +197,8 @@ public class WorkflowOrchestratorService {
             case "APPROVAL":
                 return executeApprovalStep(step, context, execution);
 
-            case "PARALLEL":
-                // Parallel execution: run multiple sub-steps concurrently
-                // Note: Sub-steps would need to be defined in a separate relationship
-                // For now, this is a placeholder for future enhancement
-                log.warn("PARALLEL step type requires sub-steps configuration: {}", step.getName());
-                return Mono.just(objectMapper.createObjectNode().put("parallel", "not_fully_implemented"));
+            case "MAP":
+                return executeMapStep(step, context);
 
             default:
                 log.error("Unknown step type: {}", stepType);
@@ -232,9 +229,124 @@ public class WorkflowOrchestratorService {
                 new RuntimeException("Step timeout after " + step.getTimeoutSeconds() + " seconds: " + step.getName()));
     }
 
+    /**
+     * Execute a MAP step: run the step's agent once per element of a context array
+     *
+     * Config in input_mapping_json:
+     * {
+     *   "items": "${products.items}",     // required, array to iterate over
+     *   "itemVariable": "item",            // optional, element name in scope (position: ${itemIndex})
+     *   "input": { "title": "${item.title}" },  // optional per-element input mapping, default the element
+     *   "maxConcurrency": 4,               // optional, default workflow.map.max-concurrency
+     *   "requestsPerMinute": 50,           // optional, paces element starts to an LLM rate budget
+     *   "maxFailures": 10                  // optional, fail the step when more elements fail
+     * }
+     *
+     * Output: { "results": [...], "errors": [{ "index", "error" }], "succeeded", "failed" }
+     * with results in element order and null for failed elements. Rate-limited agent calls
+     * (HTTP 429 / 529) are retried with backoff before an element counts as failed.
+     */
+    private Mono<JsonNode> executeMapStep(WorkflowStep step, ObjectNode context) {
+        if (step.getAgent() == null) {
+            return Mono.error(new IllegalStateException("MAP step must have an agent assigned: " + step.getName()));
+        }
+        JsonNode config = step.getInputMappingJson();
+        if (config == null || !config.path("items").isTextual()) {
+            return Mono.error(new IllegalStateException("MAP step requires an \"items\" expression: " + step.getName()));
+        }
+
+        String itemVariable = config.path("itemVariable").asText("item");
+        WorkflowExpressionCompiler.CompiledTemplate inputMapping =
+            config.hasNonNull("input") ? expressionCompiler.compileTemplate(config.get("input")) : null;
+        int concurrency = Math.max(1, config.path("maxConcurrency").asInt(mapMaxConcurrency));
+        int requestsPerMinute = config.path("requestsPerMinute").asInt(0);
+        int maxFailures = config.path("maxFailures").asInt(Integer.MAX_VALUE);
+        Long agentId = step.getAgent().getId();
+        Duration itemTimeout = Duration.ofSeconds(step.getTimeoutSeconds() != null ? step.getTimeoutSeconds() : 300);
+
+        // Resolve the array and a shallow copy of the context for per-element scopes
+        JsonNode items;
+        ObjectNode baseScope = objectMapper.createObjectNode();
+        synchronized (context) {
+            items = expressionCompiler.compileTemplate(config.get("items")).apply(context);
+            baseScope.setAll(context);
+        }
+        if (items == null || !items.isArray()) {
+            return Mono.error(new IllegalStateException(
+                "MAP step items did not resolve to an array: " + config.get("items").asText()));
+        }
+
+        log.info("Mapping agent {} over {} items (concurrency: {}, requests/min: {})",
+            step.getAgent().getName(), items.size(), concurrency, requestsPerMinute > 0 ? requestsPerMinute : "unlimited");
+
+        Flux<Integer> indexes = Flux.range(0, items.size());
+        if (requestsPerMinute > 0) {
+            indexes = indexes.delayElements(Duration.ofMillis(60_000L / requestsPerMinute));
+        }
+
+        JsonNode[] results = new JsonNode[items.size()];
+        ArrayNode errors = objectMapper.createArrayNode();
+
+        return indexes
+            .flatMap(index -> {
+                ObjectNode scope = objectMapper.createObjectNode().setAll(baseScope);
+                scope.set(itemVariable, items.get(index));
+                scope.put(itemVariable + "Index", index);
+                JsonNode itemInput = inputMapping != null ? inputMapping.apply(scope) : items.get(index);
+
+                return agentExecutionService.executeAgent(agentId, itemInput)
+                    .map(result -> result.getOutput())
+                    .timeout(itemTimeout)
+                    .retryWhen(Retry.backoff(mapRateLimitRetries, Duration.ofSeconds(2))
+                        .filter(this::isRateLimited))
+                    .doOnNext(output -> {
+                        synchronized (results) {
+                            results[index] = output;
+                        }
+                    })
+                    .onErrorResume(error -> {
+                        log.warn("MAP step {} item {} failed: {}", step.getName(), index, error.getMessage());
+                        synchronized (results) {
+                            errors.addObject()
+                                .put("index", index)
+                                .put("error", error.getMessage());
+                            if (errors.size() > maxFailures) {
+                                return Mono.error(new RuntimeException(String.format(
+                                    "MAP step %s: %d of %d items failed", step.getName(), errors.size(), items.size())));
+                            }
+                        }
+                        return Mono.empty();
+                    });
+            }, concurrency)
+            .then(Mono.fromSupplier(() -> {
+                ObjectNode output = objectMapper.createObjectNode();
+                ArrayNode resultArray = output.putArray("results");
+                synchronized (results) {
+                    for (JsonNode result : results) {
+                        resultArray.add(result != null ? result : objectMapper.nullNode());
+                    }
+                    output.set("errors", errors);
+                    output.put("succeeded", items.size() - errors.size());
+                    output.put("failed", errors.size());
+                }
+                log.info("MAP step {} finished: {} succeeded, {} failed",
+                    step.getName(), items.size() - errors.size(), errors.size());
+                return (JsonNode) output;
+            }));
+    }
+
+    /**
+     * Whether an error is the LLM API rejecting a call for rate limits or overload
+     */
+    private boolean isRateLimited(Throwable error) {
+        return error instanceof WebClientResponseException responseError
+            && (responseError.getStatusCode().value() == 429 || responseError.getStatusCode().value() == 529);
+    }
+
     /**
      * Execute an approval step
-     * Creates an approval request and pauses the workflow
+     * Creates an approval request and an AWAITING_APPROVAL checkpoint in one transaction;
+     * the steps depending on it wait until the request is approved
      */
     private Mono<JsonNode> executeApprovalStep(WorkflowStep step, ObjectNode context, WorkflowExecution execution) {
         log.info("Creating approval request for step: {}", step.getName());
@@ -249,25 +361,24 @@ public class WorkflowOrchestratorService {
                 ? approvalConfig.get("timeoutMinutes").asInt()
                 : null;
 
-            // Create approval request
-            approvalService.createApprovalRequest(
-                execution.getId(),
-                step.getId(),
-                requiredRole,
-                timeoutMinutes
-            );
-
-            // Update workflow execution status to PAUSED
-            execution.setStatus("PAUSED");
-            workflowExecutionRepository.save(execution);
-
-            log.info("Workflow execution {} paused for approval", execution.getId());
-
-            // Return approval pending result
-            ObjectNode result = objectMapper.createObjectNode();
-            result.put("status", "PENDING");
-            result.put("message", "Waiting for approval");
-            return (JsonNode) result;
+            return transactionTemplate.execute(status -> {
+                // Create approval request
+                ApprovalRequest request = approvalService.createApprovalRequest(
+                    execution.getId(),
+                    step.getId(),
+                    requiredRole,
+                    timeoutMinutes
+                );
+
+                // Return approval pending result
+                ObjectNode result = objectMapper.createObjectNode();
+                result.put("status", "PENDING");
+                result.put("message", "Waiting for approval");
+                result.put("approvalRequestId", request.getId());
+
+                saveCheckpoint(execution, step, "AWAITING_APPROVAL", result);
+                return (JsonNode) result;
+            });
         });
     }
 
@@ -277,50 +388,23 @@ public class WorkflowOrchestratorService {
     private JsonNode buildAgentInput(WorkflowStep step, ObjectNode context) {
         JsonNode inputMapping = step.getInputMappingJson();
 
-        if (inputMapping == null || inputMapping.isNull()) {
-            // No mapping, pass entire context
-            return context;
-        }
-
-        // Apply variable substitution to input mapping
-        return substituteVariables(inputMapping, context);
-    }
-
-    /**
-     * Substitute context variables in a JSON structure
-     * Supports ${variable.path} syntax
-     */
-    private JsonNode substituteVariables(JsonNode node, ObjectNode context) {
-        if (node.isTextual()) {
-            String text = node.asText();
-            // Simple variable substitution: ${variableName}
-            if (text.matches("\\$\\{[^}]+\\}")) {
-                String varPath = text.substring(2, text.length() - 1);
-                JsonNode value = context.get(varPath);
-                return value != null ? value : node;
+        // Other steps may be writing to the context concurrently
+        synchronized (context) {
+            if (inputMapping == null || inputMapping.isNull()) {
+                // No mapping, pass a copy of the entire context
+                return context.deepCopy();
             }
-            return node;
-        } else if (node.isObject()) {
-            ObjectNode result = objectMapper.createObjectNode();
-            node.fields().forEachRemaining(entry -> {
-                result.set(entry.getKey(), substituteVariables(entry.getValue(), context));
-            });
-            return result;
-        } else if (node.isArray()) {
-            var arrayNode = objectMapper.createArrayNode();
-            node.forEach(item -> arrayNode.add(substituteVariables(item, context)));
-            return arrayNode;
+
+            // Apply variable substitution to input mapping
+            return expressionCompiler.compileTemplate(inputMapping).apply(context);
         }
-        return node;
     }
 
     /**
      * Check if step should be skipped based on condition_expression
-     * Supports simple expressions like:
-     * - ${variable}==value
-     * - ${variable}!=value
-     * - ${variable.field}==value
-     * - !${variable} (negation)
+     * The expression is compiled once by WorkflowExpressionCompiler, e.g.:
+     * - ${variable}==value, ${variable.field}!=value, !${variable}
+     * - ${order.total} >= 100 && ${order.country} in ['AU', 'NZ']
      */
     private boolean shouldSkipStep(WorkflowStep step, ObjectNode context) {
         String condition = step.getConditionExpression();
@@ -331,123 +415,13 @@ public class WorkflowOrchestratorService {
         log.debug("Evaluating condition: {}", condition);
 
         try {
-            // Handle negation: !${variable}
-            if (condition.startsWith("!")) {
-                String innerCondition = condition.substring(1).trim();
-                return !evaluateCondition(innerCondition, context);
-            }
-
-            return !evaluateCondition(condition, context);
+            return !expressionCompiler.compileCondition(condition).test(context);
         } catch (Exception e) {
             log.error("Error evaluating condition '{}': {}", condition, e.getMessage());
             return false; // Don't skip on error
         }
     }
 
-    /**
-     * Evaluate a condition expression
-     */
-    private boolean evaluateCondition(String condition, ObjectNode context) {
-        // Handle equality: ${variable}==value
-        if (condition.contains("==")) {
-            String[] parts = condition.split("==", 2);
-            String left = parts[0].trim();
-            String right = parts[1].trim();
-
-            JsonNode leftValue = resolveValue(left, context);
-            JsonNode rightValue = resolveValue(right, context);
-
-            if (leftValue == null || rightValue == null) {
-                return false;
-            }
-
-            return leftValue.asText().equals(rightValue.asText());
-        }
-
-        // Handle inequality: ${variable}!=value
-        if (condition.contains("!=")) {
-            String[] parts = condition.split("!=", 2);
-            String left = parts[0].trim();
-            String right = parts[1].trim();
-
-            JsonNode leftValue = resolveValue(left, context);
-            JsonNode rightValue = resolveValue(right, context);
-
-            if (leftValue == null || rightValue == null) {
-                return false;
-            }
-
-            return !leftValue.asText().equals(rightValue.asText());
-        }
-
-        // Handle simple boolean check: ${variable}
-        if (condition.matches("\\$\\{[^}]+\\}")) {
-            String varPath = condition.substring(2, condition.length() - 1);
-            JsonNode value = resolveNestedPath(varPath, context);
-
-            if (value == null || value.isNull()) {
-                return false;
-            }
-
-            if (value.isBoolean()) {
-                return value.asBoolean();
-            }
-
-            // Treat non-empty strings as true
-            return !value.asText().isEmpty();
-        }
-
-        log.warn("Unknown condition format: {}", condition);
-        return false;
-    }
-
-    /**
-     * Resolve a value from an expression (either ${variable} or literal)
-     */
-    private JsonNode resolveValue(String expr, ObjectNode context) {
-        expr = expr.trim();
-
-        // Variable reference: ${variable.path}
-        if (expr.matches("\\$\\{[^}]+\\}")) {
-            String varPath = expr.substring(2, expr.length() - 1);
-            return resolveNestedPath(varPath, context);
-        }
-
-        // Literal value
-        return objectMapper.getNodeFactory().textNode(expr);
-    }
-
-    /**
-     * Resolve nested path in context (e.g., "trigger.userId" or "step1.result.status")
-     */
-    private JsonNode resolveNestedPath(String path, ObjectNode context) {
-        String[] parts = path.split("\\.");
-        JsonNode current = context;
-
-        for (String part : parts) {
-            if (current == null || !current.has(part)) {
-                return null;
-            }
-            current = current.get(part);
-        }
-
-        return current;
-    }
-
-    /**
-     * Check if all dependencies for a step are met
-     */
-    private boolean dependenciesMet(WorkflowStep step, ObjectNode context) {
-        Integer[] dependsOn = step.getDependsOn();
-        if (dependsOn == null || dependsOn.length == 0) {
-            return true;
-        }
-
-        // Check if all dependent steps have been executed
-        // For now, assume sequential execution means all previous steps are complete
-        return true;
-    }
-
     /**
      * Execute a step with retry logic using exponential backoff
      * Retry config JSON format: { "maxRetries": 3, "initialDelayMs": 1000, "maxDelayMs": 30000, "multiplier": 2.0 }
@@ -483,47 +457,10 @@ public class WorkflowOrchestratorService {
             });
     }
 
-    /**
-     * Execute multiple steps in parallel
-     * Used for PARALLEL step type where multiple agents run concurrently
-     */
-    private Mono<JsonNode> executeStepsInParallel(List<WorkflowStep> steps, ObjectNode context,
-                                                     WorkflowExecution execution) {
-        log.info("Executing {} steps in parallel", steps.size());
-
-        // Execute all steps concurrently
-        List<Mono<Map.Entry<String, JsonNode>>> parallelExecutions = steps.stream()
-            .map(step -> executeStep(step, context, execution)
-                .map(result -> Map.entry(
-                    step.getOutputVariable() != null ? step.getOutputVariable() : "step_" + step.getId(),
-                    result))
-                .onErrorResume(error -> {
-                    log.error("Parallel step {} failed: {}", step.getName(), error.getMessage());
-                    // Return error result but don't fail entire parallel group
-                    ObjectNode errorNode = objectMapper.createObjectNode();
-                    errorNode.put("error", error.getMessage());
-                    errorNode.put("stepName", step.getName());
-                    return Mono.just(Map.entry(
-                        step.getOutputVariable() != null ? step.getOutputVariable() : "step_" + step.getId(),
-                        (JsonNode) errorNode));
-                }))
-            .toList();
-
-        // Wait for all to complete and combine results
-        return Mono.zip(parallelExecutions, results -> {
-            ObjectNode combinedResult = objectMapper.createObjectNode();
-            for (Object result : results) {
-                @SuppressWarnings("unchecked")
-                Map.Entry<String, JsonNode> entry = (Map.Entry<String, JsonNode>) result;
-                combinedResult.set(entry.getKey(), entry.getValue());
-            }
-            return (JsonNode) combinedResult;
-        });
-    }
-
     /**
      * Resume workflow execution after approval
-     * Called by ApprovalService when an approval is granted
+     * Called by ApprovalService when an approval is granted: completes the approval step's
+     * checkpoint and puts the execution back on the queue, where it continues from its checkpoints
      *
      * @param executionId Workflow execution ID
      * @param approvalId Approval request ID
@@ -532,25 +469,419 @@ public class WorkflowOrchestratorService {
     public Mono<Void> resumeWorkflowAfterApproval(Long executionId, Long approvalId) {
         log.info("Resuming workflow execution {} after approval {}", executionId, approvalId);
 
-        return Mono.fromCallable(() -> {
-            // Load workflow execution
-            WorkflowExecution execution = workflowExecutionRepository.findById(executionId)
-                .orElseThrow(() -> new IllegalArgumentException("Workflow execution not found: " + executionId));
+        return Mono.fromRunnable(() -> {
+            transactionTemplate.executeWithoutResult(status -> {
+                ApprovalRequest request = approvalRequestRepository.findById(approvalId)
+                    .orElseThrow(() -> new IllegalArgumentException("Approval request not found: " + approvalId));
+                Integer stepOrder = request.getWorkflowStep().getStepOrder();
+
+                WorkflowStepCheckpoint checkpoint = checkpointRepository
+                    .findByWorkflowExecutionIdAndStepOrder(executionId, stepOrder)
+                    .orElseThrow(() -> new IllegalStateException(
+                        "No approval checkpoint for step " + stepOrder + " of workflow execution " + executionId));
+                if (!"AWAITING_APPROVAL".equals(checkpoint.getStatus())) {
+                    log.warn("Step {} of workflow execution {} is not waiting for approval (status: {})",
+                        stepOrder, executionId, checkpoint.getStatus());
+                    return;
+                }
+
+                // The approval becomes the step's output
+                ObjectNode output = objectMapper.createObjectNode();
+                output.put("status", "APPROVED");
+                output.put("approvalRequestId", request.getId());
+                output.put("approvedBy", request.getApprovedBy());
+                output.put("comments", request.getComments());
+                checkpoint.setStatus("COMPLETED");
+                checkpoint.setOutputJson(output);
+                checkpointRepository.save(checkpoint);
+            });
 
-            // Verify execution is in PAUSED state
-            if (!"PAUSED".equals(execution.getStatus())) {
-                log.warn("Workflow execution {} is not paused (status: {}), cannot resume",
-                    executionId, execution.getStatus());
-                return null;
+            // Requeue once the checkpoint is committed; an execution still running picks the
+            // approval up when its run stops (see WorkflowExecutionRepository.pauseOrRequeue)
+            if (workflowExecutionRepository.requeue(executionId, List.of("PAUSED")) > 0) {
+                log.info("Requeued workflow execution {} after approval", executionId);
             }
+        }).subscribeOn(Schedulers.boundedElastic()).then();
+    }
+
+    /**
+     * Drop checkpoints so that a retry of the execution runs those steps again
+     * Checkpoints still waiting for approval are always dropped (the approval is requested
+     * again); with fromStepOrder, that step and every step depending on it, directly or
+     * transitively, are dropped too. Failed steps never have a checkpoint, so a retry without
+     * fromStepOrder continues from the step that failed.
+     *
+     * @throws IllegalArgumentException if fromStepOrder is not a step of the workflow
+     */
+    public void discardCheckpointsForRetry(WorkflowExecution execution, Integer fromStepOrder) {
+        checkpointRepository.deleteByWorkflowExecutionIdAndStatus(execution.getId(), "AWAITING_APPROVAL");
+        if (fromStepOrder == null) {
+            return;
+        }
+
+        Long workflowId = execution.getWorkflow().getId();
+        Workflow workflow = workflowRepository.findByIdWithStepsAndAgents(workflowId)
+            .orElseThrow(() -> new IllegalArgumentException("Workflow not found with ID: " + workflowId));
+        Set<Integer> stepOrders = new StepGraphRun(sortedSteps(workflow), null, execution, Map.of())
+            .stepOrdersFrom(fromStepOrder);
 
-            // Update status from PAUSED to RUNNING
-            execution.setStatus("RUNNING");
-            workflowExecutionRepository.save(execution);
+        long discarded = checkpointRepository.deleteByWorkflowExecutionIdAndStepOrderIn(execution.getId(), stepOrders);
+        log.info("Discarded {} checkpoints of workflow execution {} from step {}",
+            discarded, execution.getId(), fromStepOrder);
+    }
+
+    private List<WorkflowStep> sortedSteps(Workflow workflow) {
+        return workflow.getWorkflowSteps().stream()
+            .sorted((s1, s2) -> Integer.compare(s1.getStepOrder(), s2.getStepOrder()))
+            .toList();
+    }
 
-            log.info("Resumed workflow execution {}", executionId);
-            return null;
-        }).then();
+    private void saveCheckpoint(WorkflowExecution execution, WorkflowStep step, String status, JsonNode output) {
+        checkpointRepository.save(WorkflowStepCheckpoint.builder()
+            .workflowExecution(execution)
+            .workflowStep(step)
+            .stepOrder(step.getStepOrder())
+            .status(status)
+            .outputVariable(step.getOutputVariable())
+            .outputJson(output)
+            .build());
+    }
+
+    /**
+     * One run of a workflow's step graph
+     *
+     * A step with depends_on lists the step_order values it waits for (an empty list means
+     * none); a step without depends_on waits for the step before it, so workflows that never
+     * set it keep running sequentially. Ready steps start as soon as their last dependency
+     * finishes (completed or skipped by its condition), at most maxConcurrency at a time.
+     * The first failing step (after retries) cancels the running steps and fails the run.
+     *
+     * Every step that finishes is checkpointed. Steps checkpointed by an earlier run count as
+     * finished from the start. An APPROVAL step does not finish until its request is approved:
+     * the steps depending on it wait, the other branches run on, and the run stops (paused)
+     * once nothing else can start.
+     */
+    private class StepGraphRun {
+        private final List<WorkflowStep> steps;
+        private final ObjectNode context;
+        private final WorkflowExecution execution;
+
+        // By index into steps
+        private final List<List<Integer>> dependencies = new ArrayList<>();
+        private final List<List<Integer>> dependents = new ArrayList<>();
+        private final int[] pendingDependencies;
+
+        // Run state, guarded by this
+        private final Map<Integer, JsonNode> outputs = new HashMap<>();
+        private final Deque<Integer> ready = new ArrayDeque<>();
+        private int running;
+        private int finished;
+        private boolean failed;
+
+        private final Disposable.Composite inFlight = Disposables.composite();
+        private MonoSink<Boolean> sink;
+
+        StepGraphRun(List<WorkflowStep> steps, ObjectNode context, WorkflowExecution execution,
+                     Map<Integer, WorkflowStepCheckpoint> checkpoints) {
+            this.steps = steps;
+            this.context = context;
+            this.execution = execution;
+            this.pendingDependencies = new int[steps.size()];
+
+            for (int i = 0; i < steps.size(); i++) {
+                dependencies.add(resolveDependencies(i));
+                dependents.add(new ArrayList<>());
+            }
+            for (int i = 0; i < steps.size(); i++) {
+                for (int dependency : dependencies.get(i)) {
+                    dependents.get(dependency).add(i);
+                }
+            }
+            checkAcyclic();
+
+            // Steps checkpointed by an earlier run: finished, or still waiting for approval
+            boolean[] done = new boolean[steps.size()];
+            boolean[] waiting = new boolean[steps.size()];
+            for (int i = 0; i < steps.size(); i++) {
+                WorkflowStepCheckpoint checkpoint = checkpoints.get(steps.get(i).getStepOrder());
+                if (checkpoint == null) {
+                    continue;
+                }
+                if ("AWAITING_APPROVAL".equals(checkpoint.getStatus())) {
+                    waiting[i] = true;
+                } else {
+                    done[i] = true;
+                    finished++;
+                    if ("COMPLETED".equals(checkpoint.getStatus())) {
+                        outputs.put(i, checkpoint.getOutputJson());
+                    }
+                }
+            }
+            for (int i = 0; i < steps.size(); i++) {
+                for (int dependency : dependencies.get(i)) {
+                    if (!done[dependency]) {
+                        pendingDependencies[i]++;
+                    }
+                }
+                if (!done[i] && !waiting[i] && pendingDependencies[i] == 0) {
+                    ready.add(i);
+                }
+            }
+        }
+
+        /**
+         * Indexes of the steps a step waits for
+         */
+        private List<Integer> resolveDependencies(int index) {
+            WorkflowStep step = steps.get(index);
+            Integer[] dependsOn = step.getDependsOn();
+            if (dependsOn == null) {
+                return index == 0 ? List.of() : List.of(index - 1);
+            }
+
+            List<Integer> resolved = new ArrayList<>();
+            for (Integer stepOrder : dependsOn) {
+                boolean found = false;
+                for (int j = 0; j < steps.size(); j++) {
+                    if (steps.get(j).getStepOrder().equals(stepOrder)) {
+                        resolved.add(j);
+                        found = true;
+                    }
+                }
+                if (!found) {
+                    throw new IllegalStateException(
+                        "Step " + step.getName() + " depends on unknown step_order " + stepOrder);
+                }
+            }
+            return resolved;
+        }
+
+        private void checkAcyclic() {
+            int[] pending = new int[steps.size()];
+            Deque<Integer> queue = new ArrayDeque<>();
+            for (int i = 0; i < steps.size(); i++) {
+                pending[i] = dependencies.get(i).size();
+                if (pending[i] == 0) {
+                    queue.add(i);
+                }
+            }
+            int visited = 0;
+            while (!queue.isEmpty()) {
+                visited++;
+                for (int dependent : dependents.get(queue.poll())) {
+                    if (--pending[dependent] == 0) {
+                        queue.add(dependent);
+                    }
+                }
+            }
+            if (visited < steps.size()) {
+                throw new IllegalStateException("Workflow steps have circular depends_on references");
+            }
+        }
+
+        /**
+         * Step orders of the step and of every step depending on it, directly or transitively
+         */
+        Set<Integer> stepOrdersFrom(Integer stepOrder) {
+            Deque<Integer> queue = new ArrayDeque<>();
+            for (int i = 0; i < steps.size(); i++) {
+                if (steps.get(i).getStepOrder().equals(stepOrder)) {
+                    queue.add(i);
+                }
+            }
+            if (queue.isEmpty()) {
+                throw new IllegalArgumentException("Workflow has no step with step_order " + stepOrder);
+            }
+
+            Set<Integer> stepOrders = new HashSet<>();
+            while (!queue.isEmpty()) {
+                int index = queue.poll();
+                if (stepOrders.add(steps.get(index).getStepOrder())) {
+                    queue.addAll(dependents.get(index));
+                }
+            }
+            return stepOrders;
+        }
+
+        /**
+         * Run the remaining steps
+         *
+         * @return true once every step has finished, false if the run stopped at approval steps
+         */
+        Mono<Boolean> run() {
+            log.info("Running {} of {} steps of workflow execution {} with up to {} concurrently",
+                steps.size() - finished, steps.size(), execution.getId(), maxConcurrency);
+
+            return Mono.create(sink -> {
+                this.sink = sink;
+                sink.onCancel(inFlight);
+                if (finished == steps.size()) {
+                    sink.success(true);
+                    return;
+                }
+                if (ready.isEmpty()) {
+                    // Everything left waits for an approval
+                    sink.success(false);
+                    return;
+                }
+                launchReady();
+            });
+        }
+
+        private void launchReady() {
+            List<Integer> launch = new ArrayList<>();
+            synchronized (this) {
+                while (!failed && running < Math.max(1, maxConcurrency) && !ready.isEmpty()) {
+                    launch.add(ready.poll());
+                    running++;
+                }
+            }
+
+            for (int index : launch) {
+                inFlight.add(runStep(index)
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .subscribe(stepFinished -> stepDone(index, stepFinished), error -> stepFailed(index, error)));
+            }
+        }
+
+        /**
+         * @param stepFinished false for an approval step that is now waiting for approval
+         */
+        private void stepDone(int index, boolean stepFinished) {
+            boolean complete;
+            boolean stalled;
+            synchronized (this) {
+                if (failed) {
+                    return;
+                }
+                running--;
+                if (stepFinished) {
+                    finished++;
+                    for (int dependent : dependents.get(index)) {
+                        if (--pendingDependencies[dependent] == 0) {
+                            ready.add(dependent);
+                        }
+                    }
+                }
+                complete = finished == steps.size();
+                stalled = !complete && running == 0 && ready.isEmpty();
+            }
+
+            if (complete) {
+                sink.success(true);
+            } else if (stalled) {
+                sink.success(false);
+            } else {
+                launchReady();
+            }
+        }
+
+        private void stepFailed(int index, Throwable error) {
+            synchronized (this) {
+                if (failed) {
+                    return;
+                }
+                failed = true;
+            }
+            log.error("Step {} failed, cancelling running steps: {}", steps.get(index).getName(), error.getMessage());
+            inFlight.dispose();
+            sink.error(error);
+        }
+
+        /**
+         * Run one step, checkpoint it and store its output
+         *
+         * @return true once the step has finished (or was skipped), false if it is an approval
+         *         step now waiting for approval
+         */
+        private Mono<Boolean> runStep(int index) {
+            WorkflowStep step = steps.get(index);
+
+            return Mono.defer(() -> {
+                // Check if step should be skipped based on condition
+                boolean skip;
+                synchronized (context) {
+                    skip = shouldSkipStep(step, context);
+                }
+                if (skip) {
+                    log.info("Skipping step {} due to condition: {}", step.getName(), step.getConditionExpression());
+                    return Mono.fromCallable(() -> {
+                        saveCheckpoint(execution, step, "SKIPPED", null);
+                        return true;
+                    });
+                }
+
+                log.info("Executing step {} (order: {}, type: {})",
+                    step.getName(), step.getStepOrder(), step.getStepType());
+
+                if ("APPROVAL".equals(step.getStepType())) {
+                    // Not retried: each attempt would create another approval request
+                    return executeApprovalStep(step, context, execution).thenReturn(false);
+                }
+
+                Mono<JsonNode> output;
+                if ("PARALLEL".equals(step.getStepType())) {
+                    output = Mono.fromSupplier(() -> joinDependencies(index));
+                } else {
+                    output = executeStep(step, context, execution)
+                        .onErrorResume(error -> {
+                            log.error("Error executing step {}: {}", step.getName(), error.getMessage());
+
+                            // Check if we should retry
+                            if (step.getRetryConfigJson() != null) {
+                                return executeStepWithRetry(step, context, execution, 0);
+                            }
+
+                            // Propagate error (will mark workflow as FAILED)
+                            return Mono.error(error);
+                        });
+                }
+
+                // Checkpoint off the thread that produced the output (it may be an event loop)
+                return output
+                    .publishOn(Schedulers.boundedElastic())
+                    .doOnNext(result -> {
+                        saveCheckpoint(execution, step, "COMPLETED", result);
+                        storeOutput(index, result);
+                    })
+                    .thenReturn(true);
+            });
+        }
+
+        private void storeOutput(int index, JsonNode output) {
+            synchronized (this) {
+                outputs.put(index, output);
+            }
+
+            // Add step result to context with output variable name
+            WorkflowStep step = steps.get(index);
+            if (step.getOutputVariable() != null && !step.getOutputVariable().isEmpty()) {
+                synchronized (context) {
+                    context.set(step.getOutputVariable(), output);
+                }
+                log.debug("Stored step output in context as: {}", step.getOutputVariable());
+            }
+        }
+
+        /**
+         * Output of a PARALLEL step: the outputs of the steps it depends on, keyed by their
+         * output variable (or step_{order}); skipped steps are left out
+         */
+        private synchronized JsonNode joinDependencies(int index) {
+            ObjectNode combined = objectMapper.createObjectNode();
+            for (int dependency : dependencies.get(index)) {
+                JsonNode output = outputs.get(dependency);
+                if (output == null) {
+                    continue;
+                }
+                WorkflowStep step = steps.get(dependency);
+                String key = step.getOutputVariable() != null && !step.getOutputVariable().isEmpty()
+                    ? step.getOutputVariable()
+                    : "step_" + step.getStepOrder();
+                combined.set(key, output);
+            }
+            return combined;
+        }
     }
 
     /**
@@ -561,6 +892,7 @@ public class WorkflowOrchestratorService {
     public static class WorkflowExecutionResult {
         private JsonNode context;
         private boolean success;
+        private boolean paused;
         private String errorMessage;
         private Map<String, Object> metadata;
 
@@ -0,0 +1,298 @@
+package com.shopify.api.service.agent;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopify.api.model.agent.Workflow;
+import com.shopify.api.model.agent.WorkflowExecution;
+import com.shopify.api.repository.agent.WorkflowExecutionRepository;
+import com.shopify.api.repository.agent.WorkflowRepository;
+import com.shopify.api.util.AfterCommit;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.scheduler.Schedulers;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Durable queue of workflow executions, stored in workflow_executions
+ *
+ * Executions are enqueued with status QUEUED and claimed by a pool of
+ * workflow.queue.workers slots per instance using SELECT ... FOR UPDATE SKIP LOCKED, so
+ * several instances can share the queue. Higher priority executions are claimed first,
+ * and a workflow never has more than its max_concurrent_executions (or
+ * workflow.queue.default-max-per-workflow) running at once.
+ *
+ * Workers heartbeat the executions they run; a RUNNING execution whose heartbeat is older
+ * than workflow.queue.stale-after-ms (its instance died or restarted) goes back on the
+ * queue, or fails once it has been claimed workflow.queue.max-attempts times. Requeued
+ * executions continue from their step checkpoints (see WorkflowOrchestratorService).
+ *
+ * See: docs/multi-agent/ARCHITECTURE.md for system design
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WorkflowQueueService {
+
+    private final WorkflowRepository workflowRepository;
+    private final WorkflowExecutionRepository workflowExecutionRepository;
+    private final WorkflowOrchestratorService orchestratorService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    private static final List<String> RETRYABLE_STATUSES = List.of("COMPLETED", "FAILED", "CANCELLED");
+
+    @Value("${workflow.queue.enabled:true}")
+    private boolean enabled;
+
+    @Value("${workflow.queue.workers:4}")
+    private int workers;
+
+    @Value("${workflow.queue.default-max-per-workflow:0}")
+    private int defaultMaxPerWorkflow;
+
+    @Value("${workflow.queue.stale-after-ms:300000}")
+    private long staleAfterMs;
+
+    @Value("${workflow.queue.max-attempts:3}")
+    private int maxAttempts;
+
+    private final String workerId = newWorkerId();
+
+    // Executions this instance is running
+    private final Set<Long> running = ConcurrentHashMap.newKeySet();
+
+    // Only one poll claims at a time
+    private final AtomicBoolean polling = new AtomicBoolean();
+
+    private volatile boolean shuttingDown;
+
+    /**
+     * Queue an execution of the workflow
+     *
+     * @param workflowId  The workflow to execute
+     * @param triggerData The trigger data to initialize the workflow context
+     * @param priority    Queue priority (higher runs first); null uses the workflow's priority
+     * @return The queued execution
+     * @throws IllegalArgumentException if the workflow does not exist
+     * @throws IllegalStateException if the workflow is not active
+     */
+    @Transactional
+    public WorkflowExecution enqueue(Long workflowId, JsonNode triggerData, Integer priority) {
+        Workflow workflow = workflowRepository.findById(workflowId)
+            .orElseThrow(() -> new IllegalArgumentException("Workflow not found with ID: " + workflowId));
+
+        if (!workflow.getIsActive()) {
+            throw new IllegalStateException("Workflow is not active: " + workflow.getName());
+        }
+
+        WorkflowExecution execution = WorkflowExecution.builder()
+            .workflow(workflow)
+            .status("QUEUED")
+            .priority(priority != null ? priority : workflow.getPriority())
+            .triggerDataJson(triggerData != null ? triggerData : objectMapper.createObjectNode())
+            .build();
+
+        WorkflowExecution saved = workflowExecutionRepository.save(execution);
+        log.info("Queued workflow execution {} for workflow {} (priority {})",
+            saved.getId(), workflow.getName(), saved.getPriority());
+
+        // Start it right away if a worker is free, instead of waiting for the next poll
+        AfterCommit.run(this::pollSoon);
+        return saved;
+    }
+
+    /**
+     * Queue a finished execution again, continuing from its checkpoints
+     * Without fromStepOrder the run continues from the step that failed; with it, that step
+     * and every step depending on it run again.
+     *
+     * @return The requeued execution
+     * @throws IllegalArgumentException if the execution (or step) does not exist
+     * @throws IllegalStateException if the execution has not finished
+     */
+    @Transactional
+    public WorkflowExecution retry(Long executionId, Integer fromStepOrder) {
+        WorkflowExecution execution = workflowExecutionRepository.findById(executionId)
+            .orElseThrow(() -> new IllegalArgumentException("Workflow execution not found: " + executionId));
+
+        if (!RETRYABLE_STATUSES.contains(execution.getStatus())) {
+            throw new IllegalStateException("Cannot retry workflow execution with status: " + execution.getStatus());
+        }
+
+        orchestratorService.discardCheckpointsForRetry(execution, fromStepOrder);
+        workflowExecutionRepository.requeue(executionId, RETRYABLE_STATUSES);
+        log.info("Requeued workflow execution {} for retry{}", executionId,
+            fromStepOrder != null ? " from step " + fromStepOrder : "");
+
+        AfterCommit.run(this::pollSoon);
+        return workflowExecutionRepository.findById(executionId).orElseThrow();
+    }
+
+    /**
+     * Execution by ID, whatever its status
+     */
+    public Optional<WorkflowExecution> findExecution(Long executionId) {
+        return workflowExecutionRepository.findById(executionId);
+    }
+
+    /**
+     * Claim queued executions while this instance has free workers
+     */
+    @Scheduled(fixedDelayString = "${workflow.queue.poll-interval-ms:1000}")
+    public void poll() {
+        if (!enabled || shuttingDown || !polling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            while (running.size() < workers) {
+                WorkflowExecution claimed = claimNext();
+                if (claimed == null) {
+                    break;
+                }
+                start(claimed);
+            }
+        } catch (Exception e) {
+            log.error("Error polling workflow queue: {}", e.getMessage(), e);
+        } finally {
+            polling.set(false);
+        }
+    }
+
+    /**
+     * Keep the claims of running executions alive
+     */
+    @Scheduled(fixedDelayString = "${workflow.queue.heartbeat-interval-ms:30000}")
+    public void heartbeat() {
+        if (running.isEmpty()) {
+            return;
+        }
+        try {
+            workflowExecutionRepository.heartbeat(new ArrayList<>(running), LocalDateTime.now());
+        } catch (Exception e) {
+            log.error("Error recording workflow queue heartbeat: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Requeue (or fail) executions whose worker stopped heartbeating
+     */
+    @Scheduled(fixedDelayString = "${workflow.queue.recovery-interval-ms:60000}")
+    public void recoverStale() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime staleBefore = now.minus(Duration.ofMillis(staleAfterMs));
+
+            int failed = workflowExecutionRepository.failStale(staleBefore, maxAttempts,
+                "Workflow execution abandoned by its worker " + maxAttempts + " times", now);
+            int requeued = workflowExecutionRepository.requeueStale(staleBefore);
+
+            if (failed > 0 || requeued > 0) {
+                log.warn("Recovered stale workflow executions - requeued: {}, failed: {}", requeued, failed);
+                pollSoon();
+            }
+        } catch (Exception e) {
+            log.error("Error recovering stale workflow executions: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Queue and worker counts for the status endpoint
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("worker_id", workerId);
+        stats.put("workers", workers);
+        stats.put("running_here", running.size());
+        stats.put("queued", workflowExecutionRepository.countByStatus("QUEUED"));
+        stats.put("running", workflowExecutionRepository.countByStatus("RUNNING"));
+        return stats;
+    }
+
+    /**
+     * Stop claiming; executions still running are requeued by another instance (or this one
+     * after a restart) once their heartbeat goes stale
+     */
+    @PreDestroy
+    public void shutdown() {
+        shuttingDown = true;
+        if (!running.isEmpty()) {
+            log.info("Stopping workflow queue with {} executions still running", running.size());
+        }
+    }
+
+    /**
+     * Lock the next eligible execution and mark it RUNNING for this worker
+     *
+     * @return The claimed execution, or null if nothing is eligible
+     */
+    private WorkflowExecution claimNext() {
+        return transactionTemplate.execute(status ->
+            workflowExecutionRepository.lockNextQueued(defaultMaxPerWorkflow)
+                .map(execution -> {
+                    LocalDateTime now = LocalDateTime.now();
+                    execution.setStatus("RUNNING");
+                    execution.setStartedAt(now);
+                    execution.setClaimedBy(workerId);
+                    execution.setClaimedAt(now);
+                    execution.setHeartbeatAt(now);
+                    execution.setAttempts(execution.getAttempts() + 1);
+                    return workflowExecutionRepository.save(execution);
+                })
+                .orElse(null));
+    }
+
+    private void start(WorkflowExecution execution) {
+        Long executionId = execution.getId();
+        running.add(executionId);
+        log.info("Claimed workflow execution {} (attempt {})", executionId, execution.getAttempts());
+
+        orchestratorService.runExecution(executionId)
+            .subscribeOn(Schedulers.boundedElastic())
+            .doFinally(signal -> {
+                running.remove(executionId);
+                pollSoon();
+            })
+            .subscribe(
+                result -> log.info("Queued workflow execution {} completed", executionId),
+                error -> log.error("Queued workflow execution {} failed: {}", executionId, error.getMessage())
+            );
+    }
+
+    /**
+     * Poll off the calling thread (request threads, transaction callbacks, finished runs)
+     */
+    private void pollSoon() {
+        Schedulers.boundedElastic().schedule(this::poll);
+    }
+
+    private static String newWorkerId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        return host + ":" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -122,6 +122,10 @@ public class WorkflowService {
         existingWorkflow.setInterfaceType(updatedWorkflow.getInterfaceType());
         existingWorkflow.setIsPublic(updatedWorkflow.getIsPublic());
 
+        // Queue settings
+        existingWorkflow.setPriority(updatedWorkflow.getPriority());
+        existingWorkflow.setMaxConcurrentExecutions(updatedWorkflow.getMaxConcurrentExecutions());
+
         return workflowRepository.save(existingWorkflow);
     }
 
@@ -0,0 +1,133 @@
+package com.shopify.api.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Consecutive-failure circuit breaker
+ * - CLOSED: requests flow; after failureThreshold consecutive failures the circuit opens
+ * - OPEN: requests are rejected until openDurationMs has passed
+ * - HALF_OPEN: a single trial request is let through; success closes the circuit, failure re-opens it.
+ *   A trial that is cancelled, or reports nothing within openDurationMs, no longer blocks the next one.
+ */
+public class CircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final boolean enabled;
+    private final int failureThreshold;
+    private final long openDurationMs;
+    private final LongSupplier clock;
+
+    // Breaker state, guarded by this
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+    private long trialStartedAt;
+    private long rejected;
+
+    public CircuitBreaker(String name, boolean enabled, int failureThreshold, long openDurationMs) {
+        this(name, enabled, failureThreshold, openDurationMs, System::currentTimeMillis);
+    }
+
+    /**
+     * @param clock Current time in milliseconds
+     */
+    public CircuitBreaker(String name, boolean enabled, int failureThreshold, long openDurationMs, LongSupplier clock) {
+        this.name = name;
+        this.enabled = enabled;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDurationMs = openDurationMs;
+        this.clock = clock;
+    }
+
+    /**
+     * Check whether a request may be sent now
+     * Callers that get true must report the outcome with {@link #recordSuccess} or {@link #recordFailure},
+     * or {@link #recordCancelled} if they gave up on the request.
+     */
+    public synchronized boolean tryAcquire() {
+        if (!enabled || state == State.CLOSED) {
+            return true;
+        }
+
+        long now = clock.getAsLong();
+        if (state == State.OPEN && now - openedAt >= openDurationMs) {
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+            logger.info("Circuit {} half-open, sending a trial request", name);
+        }
+
+        if (state == State.HALF_OPEN && trialInFlight && now - trialStartedAt >= openDurationMs) {
+            logger.warn("Circuit {} trial request reported no outcome within {} ms, allowing another", name, openDurationMs);
+            trialInFlight = false;
+        }
+
+        if (state == State.HALF_OPEN && !trialInFlight) {
+            trialInFlight = true;
+            trialStartedAt = now;
+            return true;
+        }
+
+        rejected++;
+        return false;
+    }
+
+    public synchronized void recordSuccess() {
+        if (state != State.CLOSED) {
+            logger.info("Circuit {} closed", name);
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        trialInFlight = false;
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        trialInFlight = false;
+
+        if (!enabled) {
+            return;
+        }
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            state = State.OPEN;
+            openedAt = clock.getAsLong();
+            logger.warn("Circuit {} opened after {} consecutive failures; rejecting requests for {} ms",
+                    name, consecutiveFailures, openDurationMs);
+        }
+    }
+
+    /**
+     * The request was cancelled before an outcome; frees the half-open trial without counting a failure
+     */
+    public synchronized void recordCancelled() {
+        trialInFlight = false;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Breaker state for status endpoints
+     */
+    public synchronized Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new HashMap<>();
+        snapshot.put("enabled", enabled);
+        snapshot.put("state", state.name());
+        snapshot.put("consecutive_failures", consecutiveFailures);
+        snapshot.put("failure_threshold", failureThreshold);
+        snapshot.put("rejected", rejected);
+        snapshot.put("opened_at", state == State.CLOSED ? null : Instant.ofEpochMilli(openedAt).toString());
+        return snapshot;
+    }
+}
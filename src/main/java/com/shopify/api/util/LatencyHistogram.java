@@ -0,0 +1,85 @@
+package com.shopify.api.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with logarithmic buckets
+ * Each bucket is 10% wider than the previous one, so reported percentiles are
+ * within ~10% of the true value while memory stays fixed.
+ */
+public class LatencyHistogram {
+
+    private static final double GROWTH = 1.1;
+    private static final int BUCKETS = 200;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong maxMs = new AtomicLong();
+
+    /**
+     * Record one call
+     * @param latencyMs Call duration in milliseconds
+     * @param success False if the call failed or timed out
+     */
+    public void record(long latencyMs, boolean success) {
+        long ms = Math.max(0, latencyMs);
+        counts.incrementAndGet(bucketFor(ms));
+        count.incrementAndGet();
+        if (!success) {
+            errors.incrementAndGet();
+        }
+        maxMs.accumulateAndGet(ms, Math::max);
+    }
+
+    /**
+     * Approximate latency at the given percentile
+     * @param percentile Between 0 and 100
+     * @return Upper bound of the bucket holding that percentile, in milliseconds (0 if empty)
+     */
+    public long percentile(double percentile) {
+        long total = count.get();
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(total * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBound(i), maxMs.get());
+            }
+        }
+        return maxMs.get();
+    }
+
+    /**
+     * Summary for status endpoints
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new HashMap<>();
+        snapshot.put("count", count.get());
+        snapshot.put("errors", errors.get());
+        snapshot.put("p50_ms", percentile(50));
+        snapshot.put("p95_ms", percentile(95));
+        snapshot.put("p99_ms", percentile(99));
+        snapshot.put("max_ms", maxMs.get());
+        return snapshot;
+    }
+
+    private static int bucketFor(long ms) {
+        if (ms <= 1) {
+            return 0;
+        }
+        int bucket = (int) Math.ceil(Math.log(ms) / Math.log(GROWTH));
+        return Math.min(bucket, BUCKETS - 1);
+    }
+
+    private static long upperBound(int bucket) {
+        return (long) Math.ceil(Math.pow(GROWTH, bucket));
+    }
+}
@@ -1,84 +1,160 @@
 package com.shopify.api.util;
 
 import com.shopify.api.config.ShopifyConfig;
+import com.shopify.api.model.GraphQLResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
 
-import java.time.Instant;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
+import java.time.Duration;
 
 /**
  * Rate limiter for Shopify API requests
- * Implements token bucket algorithm to stay within Shopify's rate limits
+ * Implements Shopify's leaky bucket locally and keeps it in sync with the
+ * throttleStatus Shopify reports in extensions.cost after every query
  */
 @Component
 public class RateLimiter {
 
     private static final Logger logger = LoggerFactory.getLogger(RateLimiter.class);
 
-    private final ShopifyConfig shopifyConfig;
-    private final AtomicInteger availablePoints;
-    private final AtomicLong lastRefillTime;
+    // Bucket state, guarded by this
+    private double availablePoints;
+    private double maximumAvailable;
+    private double restoreRate;
+    private long lastRefillTime;
+
+    // Points charged locally for requests Shopify has not answered yet
+    private int inFlightPoints;
 
     public RateLimiter(ShopifyConfig shopifyConfig) {
-        this.shopifyConfig = shopifyConfig;
-        this.availablePoints = new AtomicInteger(shopifyConfig.getRateLimit().getMaxPointsPerSecond());
-        this.lastRefillTime = new AtomicLong(Instant.now().toEpochMilli());
+        this.maximumAvailable = shopifyConfig.getRateLimit().getBucketSize();
+        this.restoreRate = shopifyConfig.getRateLimit().getMaxPointsPerSecond();
+        this.availablePoints = maximumAvailable;
+        this.lastRefillTime = System.currentTimeMillis();
     }
 
     /**
-     * Wait if necessary to stay within rate limits
-     * @param estimatedCost Estimated cost of the query in points
+     * Wait if necessary to stay within rate limits, then charge the cost to the bucket
+     * @param estimatedCost Estimated (requested) cost of the query in points
+     * @return The number of points actually charged; pass it back to {@link #recordActualCost}
      */
-    public synchronized void waitIfNecessary(int estimatedCost) {
-        refillPoints();
-
-        while (availablePoints.get() < estimatedCost) {
-            long waitTime = calculateWaitTime(estimatedCost);
-            if (waitTime > 0) {
-                logger.debug("Rate limit reached. Waiting {} ms before next request", waitTime);
-                try {
-                    Thread.sleep(waitTime);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    logger.error("Rate limiter interrupted", e);
-                }
+    public synchronized int waitIfNecessary(int estimatedCost) {
+        int cost = capCost(estimatedCost);
+
+        long waitTime;
+        while ((waitTime = tryConsume(cost)) > 0) {
+            logger.debug("Rate limit reached. Waiting {} ms before next request", waitTime);
+            try {
+                // wait() releases the monitor so responses can resync the bucket meanwhile
+                wait(waitTime);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.error("Rate limiter interrupted", e);
+                forceConsume(cost);
+                break;
             }
-            refillPoints();
         }
 
-        availablePoints.addAndGet(-estimatedCost);
-        logger.debug("Consumed {} points. {} points remaining", estimatedCost, availablePoints.get());
+        return cost;
     }
 
     /**
-     * Record actual query cost from Shopify response
-     * @param actualCost The actual cost returned by Shopify
+     * Non-blocking variant of {@link #waitIfNecessary} for reactive pipelines.
+     * Waits on Reactor's timer instead of parking the subscribing thread, so it
+     * is safe to use from Netty event-loop threads.
+     * @param estimatedCost Estimated (requested) cost of the query in points
+     * @return Mono emitting the number of points charged once the bucket has room;
+     *         pass it back to {@link #recordActualCost}
      */
-    public void recordActualCost(int actualCost) {
-        logger.debug("Query actual cost: {} points", actualCost);
+    public Mono<Integer> acquire(int estimatedCost) {
+        return Mono.defer(() -> {
+            int cost;
+            long waitTime;
+            synchronized (this) {
+                cost = capCost(estimatedCost);
+                waitTime = tryConsume(cost);
+            }
+
+            if (waitTime == 0) {
+                return Mono.just(cost);
+            }
+
+            logger.debug("Rate limit reached. Delaying request {} ms", waitTime);
+            return Mono.delay(Duration.ofMillis(waitTime)).then(acquire(estimatedCost));
+        });
     }
 
     /**
-     * Refill points based on time elapsed
+     * A single query can never need more than a full bucket
      */
-    private void refillPoints() {
-        long now = Instant.now().toEpochMilli();
-        long lastRefill = lastRefillTime.get();
-        long elapsedMs = now - lastRefill;
+    private int capCost(int estimatedCost) {
+        return (int) Math.min(estimatedCost, maximumAvailable);
+    }
 
-        if (elapsedMs >= 1000) {
-            int maxPoints = shopifyConfig.getRateLimit().getMaxPointsPerSecond();
-            int secondsElapsed = (int) (elapsedMs / 1000);
-            int pointsToAdd = secondsElapsed * maxPoints;
+    /**
+     * Consume points if the bucket has room. Caller must hold the monitor.
+     * @return 0 if the points were consumed, otherwise the milliseconds to wait before retrying
+     */
+    private long tryConsume(int cost) {
+        refillPoints();
 
-            availablePoints.updateAndGet(current ->
-                    Math.min(current + pointsToAdd, maxPoints));
+        if (availablePoints < cost) {
+            return Math.max(1, calculateWaitTime(cost));
+        }
 
-            lastRefillTime.set(now);
-            logger.debug("Refilled points. Available: {}", availablePoints.get());
+        forceConsume(cost);
+        return 0;
+    }
+
+    private void forceConsume(int cost) {
+        availablePoints -= cost;
+        inFlightPoints += cost;
+        logger.debug("Consumed {} points. {} points remaining", cost, (int) availablePoints);
+    }
+
+    /**
+     * Record actual query cost from Shopify response and resync the bucket
+     * @param chargedCost The points charged by {@link #waitIfNecessary} or {@link #acquire} for this request
+     * @param actualCost The actual cost returned by Shopify (null if unknown)
+     * @param throttleStatus Shopify's bucket state after the query (null if unknown)
+     */
+    public synchronized void recordActualCost(int chargedCost, Integer actualCost,
+                                              GraphQLResponse.ThrottleStatus throttleStatus) {
+        inFlightPoints = Math.max(0, inFlightPoints - chargedCost);
+
+        if (throttleStatus != null) {
+            maximumAvailable = throttleStatus.getMaximumAvailable();
+            restoreRate = throttleStatus.getRestoreRate();
+            // Shopify has not yet seen the requests still in flight, so keep them charged
+            availablePoints = Math.max(0, Math.min(
+                    throttleStatus.getCurrentlyAvailable() - inFlightPoints, maximumAvailable));
+            lastRefillTime = System.currentTimeMillis();
+            logger.debug("Query actual cost: {} points. Synced bucket: {}/{} available, restoring {}/s",
+                    actualCost, (int) availablePoints, (int) maximumAvailable, restoreRate);
+        } else if (actualCost != null) {
+            // No throttle status: refund the difference between estimate and actual
+            availablePoints = Math.min(availablePoints + chargedCost - actualCost, maximumAvailable);
+            logger.debug("Query actual cost: {} points (charged {})", actualCost, chargedCost);
+        } else {
+            // Request never reached Shopify's cost calculator; give the points back
+            availablePoints = Math.min(availablePoints + chargedCost, maximumAvailable);
+        }
+
+        notifyAll();
+    }
+
+    /**
+     * Refill points based on time elapsed and the current restore rate
+     */
+    private void refillPoints() {
+        long now = System.currentTimeMillis();
+        long elapsedMs = now - lastRefillTime;
+
+        if (elapsedMs > 0) {
+            availablePoints = Math.min(availablePoints + elapsedMs * restoreRate / 1000.0, maximumAvailable);
+            lastRefillTime = now;
         }
     }
 
@@ -86,18 +162,31 @@ public class RateLimiter {
      * Calculate how long to wait before next request
      */
     private long calculateWaitTime(int requiredPoints) {
-        int deficit = requiredPoints - availablePoints.get();
+        double deficit = requiredPoints - availablePoints;
         if (deficit <= 0) return 0;
 
-        int maxPointsPerSecond = shopifyConfig.getRateLimit().getMaxPointsPerSecond();
-        return (long) Math.ceil((double) deficit / maxPointsPerSecond * 1000);
+        return (long) Math.ceil(deficit / restoreRate * 1000);
     }
 
     /**
      * Get current available points
      */
-    public int getAvailablePoints() {
+    public synchronized int getAvailablePoints() {
         refillPoints();
-        return availablePoints.get();
+        return (int) availablePoints;
+    }
+
+    /**
+     * Get the bucket size last reported by Shopify (or configured, before the first response)
+     */
+    public synchronized int getMaximumAvailable() {
+        return (int) maximumAvailable;
+    }
+
+    /**
+     * Get the restore rate in points per second last reported by Shopify
+     */
+    public synchronized double getRestoreRate() {
+        return restoreRate;
     }
 }
@@ -0,0 +1,35 @@
+-- ============================================
+-- Daily Sales Rollups
+-- Version: 5
+-- Date: 2025-10-20
+-- Description: Per-day sales totals per channel, so analytics
+--              endpoints only compute "today" live
+-- ============================================
+
+CREATE TABLE IF NOT EXISTS daily_sales_rollups (
+    id BIGSERIAL PRIMARY KEY,
+    sales_date DATE NOT NULL,
+    channel VARCHAR(50) NOT NULL,
+    order_count INTEGER NOT NULL DEFAULT 0,
+    item_count INTEGER NOT NULL DEFAULT 0,
+    total_sales DECIMAL(14,2) NOT NULL DEFAULT 0,
+    total_freight DECIMAL(14,2) NOT NULL DEFAULT 0,
+    total_discounts DECIMAL(14,2) NOT NULL DEFAULT 0,
+    total_cost DECIMAL(14,2) NOT NULL DEFAULT 0,
+    currency_code VARCHAR(3) NOT NULL DEFAULT 'AUD',
+    refreshed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_daily_sales_rollups_day_channel ON daily_sales_rollups(channel, sales_date);
+
+COMMENT ON TABLE daily_sales_rollups IS 'One row per store-local day per sales channel; zero rows are stored so coverage can be checked';
+COMMENT ON COLUMN daily_sales_rollups.channel IS 'shopify, crs_instore, or a CRS channel breakdown (crs_hobbyman, crs_hearns_hobbies, ...)';
+COMMENT ON COLUMN daily_sales_rollups.total_cost IS 'Cost of goods sold; only crs_instore rows carry it (CRS invoice cost), other channels store 0';
+COMMENT ON COLUMN daily_sales_rollups.refreshed_at IS 'When the day was last recomputed from source orders';
+
+DO $$
+BEGIN
+    RAISE NOTICE 'Migration V005 completed: Added daily_sales_rollups';
+END $$;
@@ -0,0 +1,18 @@
+-- ============================================
+-- Agent Execution Prompt Cache Tokens
+-- Version: 6
+-- Date: 2025-10-22
+-- Description: Record prompt cache reads and writes per agent execution
+-- ============================================
+
+ALTER TABLE agent_executions ADD COLUMN IF NOT EXISTS cache_creation_input_tokens INTEGER;
+ALTER TABLE agent_executions ADD COLUMN IF NOT EXISTS cache_read_input_tokens INTEGER;
+
+COMMENT ON COLUMN agent_executions.tokens_used IS 'Uncached input plus output tokens, summed over every model call of the execution';
+COMMENT ON COLUMN agent_executions.cache_creation_input_tokens IS 'Input tokens written to the prompt cache';
+COMMENT ON COLUMN agent_executions.cache_read_input_tokens IS 'Input tokens served from the prompt cache';
+
+DO $$
+BEGIN
+    RAISE NOTICE 'Migration V006 completed: Added prompt cache token columns to agent_executions';
+END $$;
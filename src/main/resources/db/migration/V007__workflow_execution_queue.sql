@@ -0,0 +1,42 @@
+-- ============================================
+-- Workflow Execution Queue
+-- Version: 7
+-- Date: 2025-10-24
+-- Description: Queue workflow executions in workflow_executions
+--              (status QUEUED) and claim them with
+--              FOR UPDATE SKIP LOCKED; per-workflow priority and
+--              concurrency limit; worker heartbeats for recovery
+-- ============================================
+
+ALTER TABLE workflows ADD COLUMN IF NOT EXISTS priority INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE workflows ADD COLUMN IF NOT EXISTS max_concurrent_executions INTEGER;
+
+ALTER TABLE workflow_executions ADD COLUMN IF NOT EXISTS priority INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE workflow_executions ADD COLUMN IF NOT EXISTS claimed_by VARCHAR(100);
+ALTER TABLE workflow_executions ADD COLUMN IF NOT EXISTS claimed_at TIMESTAMP;
+ALTER TABLE workflow_executions ADD COLUMN IF NOT EXISTS heartbeat_at TIMESTAMP;
+ALTER TABLE workflow_executions ADD COLUMN IF NOT EXISTS attempts INTEGER NOT NULL DEFAULT 0;
+
+-- Claim order: highest priority first, then oldest
+CREATE INDEX IF NOT EXISTS idx_workflow_executions_queue
+ON workflow_executions(priority DESC, created_at, id)
+WHERE status = 'QUEUED';
+
+-- Running executions per workflow (concurrency limit) and stale claims (recovery)
+CREATE INDEX IF NOT EXISTS idx_workflow_executions_running
+ON workflow_executions(workflow_id, heartbeat_at)
+WHERE status = 'RUNNING';
+
+COMMENT ON COLUMN workflows.priority IS 'Default queue priority of the workflow''s executions; higher runs first';
+COMMENT ON COLUMN workflows.max_concurrent_executions IS 'Executions of this workflow running at once; NULL uses workflow.queue.default-max-per-workflow';
+COMMENT ON COLUMN workflow_executions.priority IS 'Queue priority; higher is claimed first';
+COMMENT ON COLUMN workflow_executions.claimed_by IS 'Worker (instance) running the execution';
+COMMENT ON COLUMN workflow_executions.claimed_at IS 'When the worker claimed the execution';
+COMMENT ON COLUMN workflow_executions.heartbeat_at IS 'Last heartbeat of the claiming worker; stale RUNNING executions are requeued';
+COMMENT ON COLUMN workflow_executions.attempts IS 'Times the execution was claimed; stale executions past workflow.queue.max-attempts fail instead of requeueing';
+
+DO $$
+BEGIN
+    RAISE NOTICE 'Migration V007 completed: Added workflow execution queue columns';
+    RAISE NOTICE 'New columns: workflows.priority, workflows.max_concurrent_executions, workflow_executions.priority, claimed_by, claimed_at, heartbeat_at, attempts';
+END $$;
@@ -0,0 +1,37 @@
+-- ============================================
+-- Workflow Step Checkpoints
+-- Version: 8
+-- Date: 2025-10-25
+-- Description: One row per finished (or approval-waiting) step
+--              of a workflow execution, holding that step's
+--              output; resumes rebuild the context from them
+--              and only run steps without a checkpoint
+-- ============================================
+
+CREATE TABLE IF NOT EXISTS workflow_step_checkpoints (
+    id BIGSERIAL PRIMARY KEY,
+    workflow_execution_id BIGINT NOT NULL REFERENCES workflow_executions(id) ON DELETE CASCADE,
+    workflow_step_id BIGINT REFERENCES workflow_steps(id) ON DELETE SET NULL,
+    step_order INTEGER NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    output_variable VARCHAR(255),
+    output_json JSONB,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uq_workflow_step_checkpoints_step UNIQUE (workflow_execution_id, step_order)
+);
+
+-- Approval checkpoints still waiting, checked when a run stops at an approval step
+CREATE INDEX IF NOT EXISTS idx_workflow_step_checkpoints_awaiting
+ON workflow_step_checkpoints(workflow_execution_id)
+WHERE status = 'AWAITING_APPROVAL';
+
+COMMENT ON TABLE workflow_step_checkpoints IS 'Per-step progress of workflow executions, used to resume after approvals, retries and crashes';
+COMMENT ON COLUMN workflow_step_checkpoints.status IS 'COMPLETED, SKIPPED (condition false) or AWAITING_APPROVAL';
+COMMENT ON COLUMN workflow_step_checkpoints.output_variable IS 'Context key the output was stored under, if any';
+COMMENT ON COLUMN workflow_step_checkpoints.output_json IS 'Output of the step (only this step, not the whole context)';
+
+DO $$
+BEGIN
+    RAISE NOTICE 'Migration V008 completed: Created workflow_step_checkpoints table';
+END $$;
@@ -0,0 +1,30 @@
+-- ============================================
+-- Sales Rollup Watermarks
+-- Version: 9
+-- Date: 2025-10-26
+-- Description: Per-channel change watermark for the rollup
+--              refresh, advanced only once every changed day
+--              found by a run has been saved
+-- ============================================
+
+CREATE TABLE IF NOT EXISTS sales_rollup_watermarks (
+    channel VARCHAR(50) PRIMARY KEY,
+    changes_through TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Continue from the latest Shopify refresh, so changes made since then are not lost
+INSERT INTO sales_rollup_watermarks (channel, changes_through)
+SELECT channel, MAX(refreshed_at)
+FROM daily_sales_rollups
+WHERE channel = 'shopify'
+GROUP BY channel
+ON CONFLICT (channel) DO NOTHING;
+
+COMMENT ON TABLE sales_rollup_watermarks IS 'How far the rollup refresh has applied source changes, per channel';
+COMMENT ON COLUMN sales_rollup_watermarks.changes_through IS 'Orders updated before this time are reflected in every saved rollup of the channel';
+
+DO $$
+BEGIN
+    RAISE NOTICE 'Migration V009 completed: Added sales_rollup_watermarks';
+END $$;
@@ -69,7 +69,7 @@ Error generating stack: `+a.message+`
 `)}getSetCookie(){return this.get("set-cookie")||[]}get[Symbol.toStringTag](){return"AxiosHeaders"}static from(t){return t instanceof this?t:new this(t)}static concat(t,...r){const n=new this(t);return r.forEach(l=>n.set(l)),n}static accessor(t){const n=(this[pc]=this[pc]={accessors:{}}).accessors,l=this.prototype;function a(o){const i=Kr(o);n[i]||(mg(l,o),n[i]=!0)}return C.isArray(t)?t.forEach(a):a(t),this}};Fe.accessor(["Content-Type","Content-Length","Accept","Accept-Encoding","User-Agent","Authorization"]);C.reduceDescriptors(Fe.prototype,({value:e},t)=>{let r=t[0].toUpperCase()+t.slice(1);return{get:()=>e,set(n){this[r]=n}}});C.freezeMethods(Fe);function Vl(e,t){const r=this||zn,n=t||r,l=Fe.from(n.headers);let a=n.data;return C.forEach(e,function(i){a=i.call(r,a,l.normalize(),t?t.status:void 0)}),l.normalize(),a}function gf(e){return!!(e&&e.__CANCEL__)}function zr(e,t,r){B.call(this,e??"canceled",B.ERR_CANCELED,t,r),this.name="CanceledError"}C.inherits(zr,B,{__CANCEL__:!0});function yf(e,t,r){const n=r.config.validateStatus;!r.status||!n||n(r.status)?e(r):t(new B("Request failed with status code "+r.status,[B.ERR_BAD_REQUEST,B.ERR_BAD_RESPONSE][Math.floor(r.status/100)-4],r.config,r.request,r))}function pg(e){const t=/^([-+\w]{1,25})(:?\/\/|:)/.exec(e);return t&&t[1]||""}function hg(e,t){e=e||10;const r=new Array(e),n=new Array(e);let l=0,a=0,o;return t=t!==void 0?t:1e3,function(c){const u=Date.now(),f=n[a];o||(o=u),r[l]=c,n[l]=u;let d=a,y=0;for(;d!==l;)y+=r[d++],d=d%e;if(l=(l+1)%e,l===a&&(a=(a+1)%e),u-o<t)return;const w=f&&u-f;return w?Math.round(y*1e3/w):void 0}}function xg(e,t){let r=0,n=1e3/t,l,a;const o=(u,f=Date.now())=>{r=f,l=null,a&&(clearTimeout(a),a=null),e(...u)};return[(...u)=>{const f=Date.now(),d=f-r;d>=n?o(u,f):(l=u,a||(a=setTimeout(()=>{a=null,o(l)},n-d)))},()=>l&&o(l)]}const Js=(e,t,r=3)=>{let n=0;const l=hg(50,250);return xg(a=>{const o=a.loaded,i=a.lengthComputable?a.total:void 0,c=o-n,u=l(c),f=o<=i;n=o;const d={loaded:o,total:i,progress:i?o/i:void 0,bytes:c,rate:u||void 0,estimated:u&&i&&f?(i-o)/u:void 0,event:a,lengthComputable:i!=null,[t?"download":"upload"]:!0};e(d)},r)},hc=(e,t)=>{const r=e!=null;return[n=>t[0]({lengthComputable:r,total:e,loaded:n}),t[1]]},xc=e=>(...t)=>C.asap(()=>e(...t)),gg=Ne.hasStandardBrowserEnv?((e,t)=>r=>(r=new URL(r,Ne.origin),e.protocol===r.protocol&&e.host===r.host&&(t||e.port===r.port)))(new URL(Ne.origin),Ne.navigator&&/(msie|trident)/i.test(Ne.navigator.userAgent)):()=>!0,yg=Ne.hasStandardBrowserEnv?{write(e,t,r,n,l,a){const o=[e+"="+encodeURIComponent(t)];C.isNumber(r)&&o.push("expires="+new Date(r).toGMTString()),C.isString(n)&&o.push("path="+n),C.isString(l)&&o.push("domain="+l),a===!0&&o.push("secure"),document.cookie=o.join("; ")},read(e){const t=document.cookie.match(new RegExp("(^|;\\s*)("+e+")=([^;]*)"));return t?decodeURIComponent(t[3]):null},remove(e){this.write(e,"",Date.now()-864e5)}}:{write(){},read(){return null},remove(){}};function vg(e){return/^([a-z][a-z\d+\-.]*:)?\/\//i.test(e)}function wg(e,t){return t?e.replace(/\/?\/$/,"")+"/"+t.replace(/^\/+/,""):e}function vf(e,t,r){let n=!vg(t);return e&&(n||r==!1)?wg(e,t):t}const gc=e=>e instanceof Fe?{...e}:e;function nr(e,t){t=t||{};const r={};function n(u,f,d,y){return C.isPlainObject(u)&&C.isPlainObject(f)?C.merge.call({caseless:y},u,f):C.isPlainObject(f)?C.merge({},f):C.isArray(f)?f.slice():f}function l(u,f,d,y){if(C.isUndefined(f)){if(!C.isUndefined(u))return n(void 0,u,d,y)}else return n(u,f,d,y)}function a(u,f){if(!C.isUndefined(f))return n(void 0,f)}function o(u,f){if(C.isUndefined(f)){if(!C.isUndefined(u))return n(void 0,u)}else return n(void 0,f)}function i(u,f,d){if(d in t)return n(u,f);if(d in e)return n(void 0,u)}const c={url:a,method:a,data:a,baseURL:o,transformRequest:o,transformResponse:o,paramsSerializer:o,timeout:o,timeoutMessage:o,withCredentials:o,withXSRFToken:o,adapter:o,responseType:o,xsrfCookieName:o,xsrfHeaderName:o,onUploadProgress:o,onDownloadProgress:o,decompress:o,maxContentLength:o,maxBodyLength:o,beforeRedirect:o,transport:o,httpAgent:o,httpsAgent:o,cancelToken:o,socketPath:o,responseEncoding:o,validateStatus:i,headers:(u,f,d)=>l(gc(u),gc(f),d,!0)};return C.forEach(Object.keys({...e,...t}),function(f){const d=c[f]||l,y=d(e[f],t[f],f);C.isUndefined(y)&&d!==i||(r[f]=y)}),r}const wf=e=>{const t=nr({},e);let{data:r,withXSRFToken:n,xsrfHeaderName:l,xsrfCookieName:a,headers:o,auth:i}=t;if(t.headers=o=Fe.from(o),t.url=pf(vf(t.baseURL,t.url,t.allowAbsoluteUrls),e.params,e.paramsSerializer),i&&o.set("Authorization","Basic "+btoa((i.username||"")+":"+(i.password?unescape(encodeURIComponent(i.password)):""))),C.isFormData(r)){if(Ne.hasStandardBrowserEnv||Ne.hasStandardBrowserWebWorkerEnv)o.setContentType(void 0);else if(C.isFunction(r.getHeaders)){const c=r.getHeaders(),u=["content-type","content-length"];Object.entries(c).forEach(([f,d])=>{u.includes(f.toLowerCase())&&o.set(f,d)})}}if(Ne.hasStandardBrowserEnv&&(n&&C.isFunction(n)&&(n=n(t)),n||n!==!1&&gg(t.url))){const c=l&&a&&yg.read(a);c&&o.set(l,c)}return t},jg=typeof XMLHttpRequest<"u",Ng=jg&&function(e){return new Promise(function(r,n){const l=wf(e);let a=l.data;const o=Fe.from(l.headers).normalize();let{responseType:i,onUploadProgress:c,onDownloadProgress:u}=l,f,d,y,w,p;function g(){w&&w(),p&&p(),l.cancelToken&&l.cancelToken.unsubscribe(f),l.signal&&l.signal.removeEventListener("abort",f)}let N=new XMLHttpRequest;N.open(l.method.toUpperCase(),l.url,!0),N.timeout=l.timeout;function h(){if(!N)return;const x=Fe.from("getAllResponseHeaders"in N&&N.getAllResponseHeaders()),k={data:!i||i==="text"||i==="json"?N.responseText:N.response,status:N.status,statusText:N.statusText,headers:x,config:e,request:N};yf(function(P){r(P),g()},function(P){n(P),g()},k),N=null}"onloadend"in N?N.onloadend=h:N.onreadystatechange=function(){!N||N.readyState!==4||N.status===0&&!(N.responseURL&&N.responseURL.indexOf("file:")===0)||setTimeout(h)},N.onabort=function(){N&&(n(new B("Request aborted",B.ECONNABORTED,e,N)),N=null)},N.onerror=function(v){const k=v&&v.message?v.message:"Network Error",S=new B(k,B.ERR_NETWORK,e,N);S.event=v||null,n(S),N=null},N.ontimeout=function(){let v=l.timeout?"timeout of "+l.timeout+"ms exceeded":"timeout exceeded";const k=l.transitional||hf;l.timeoutErrorMessage&&(v=l.timeoutErrorMessage),n(new B(v,k.clarifyTimeoutError?B.ETIMEDOUT:B.ECONNABORTED,e,N)),N=null},a===void 0&&o.setContentType(null),"setRequestHeader"in N&&C.forEach(o.toJSON(),function(v,k){N.setRequestHeader(k,v)}),C.isUndefined(l.withCredentials)||(N.withCredentials=!!l.withCredentials),i&&i!=="json"&&(N.responseType=l.responseType),u&&([y,p]=Js(u,!0),N.addEventListener("progress",y)),c&&N.upload&&([d,w]=Js(c),N.upload.addEventListener("progress",d),N.upload.addEventListener("loadend",w)),(l.cancelToken||l.signal)&&(f=x=>{N&&(n(!x||x.type?new zr(null,e,N):x),N.abort(),N=null)},l.cancelToken&&l.cancelToken.subscribe(f),l.signal&&(l.signal.aborted?f():l.signal.addEventListener("abort",f)));const m=pg(l.url);if(m&&Ne.protocols.indexOf(m)===-1){n(new B("Unsupported protocol "+m+":",B.ERR_BAD_REQUEST,e));return}N.send(a||null)})},bg=(e,t)=>{const{length:r}=e=e?e.filter(Boolean):[];if(t||r){let n=new AbortController,l;const a=function(u){if(!l){l=!0,i();const f=u instanceof Error?u:this.reason;n.abort(f instanceof B?f:new zr(f instanceof Error?f.message:f))}};let o=t&&setTimeout(()=>{o=null,a(new B(`timeout ${t} of ms exceeded`,B.ETIMEDOUT))},t);const i=()=>{e&&(o&&clearTimeout(o),o=null,e.forEach(u=>{u.unsubscribe?u.unsubscribe(a):u.removeEventListener("abort",a)}),e=null)};e.forEach(u=>u.addEventListener("abort",a));const{signal:c}=n;return c.unsubscribe=()=>C.asap(i),c}},Sg=function*(e,t){let r=e.byteLength;if(r<t){yield e;return}let n=0,l;for(;n<r;)l=n+t,yield e.slice(n,l),n=l},kg=async function*(e,t){for await(const r of Cg(e))yield*Sg(r,t)},Cg=async function*(e){if(e[Symbol.asyncIterator]){yield*e;return}const t=e.getReader();try{for(;;){const{done:r,value:n}=await t.read();if(r)break;yield n}}finally{await t.cancel()}},yc=(e,t,r,n)=>{const l=kg(e,t);let a=0,o,i=c=>{o||(o=!0,n&&n(c))};return new ReadableStream({async pull(c){try{const{done:u,value:f}=await l.next();if(u){i(),c.close();return}let d=f.byteLength;if(r){let y=a+=d;r(y)}c.enqueue(new Uint8Array(f))}catch(u){throw i(u),u}},cancel(c){return i(c),l.return()}},{highWaterMark:2})},vc=64*1024,{isFunction:ls}=C,Eg=(({Request:e,Response:t})=>({Request:e,Response:t}))(C.global),{ReadableStream:wc,TextEncoder:jc}=C.global,Nc=(e,...t)=>{try{return!!e(...t)}catch{return!1}},Pg=e=>{e=C.merge.call({skipUndefined:!0},Eg,e);const{fetch:t,Request:r,Response:n}=e,l=t?ls(t):typeof fetch=="function",a=ls(r),o=ls(n);if(!l)return!1;const i=l&&ls(wc),c=l&&(typeof jc=="function"?(p=>g=>p.encode(g))(new jc):async p=>new Uint8Array(await new r(p).arrayBuffer())),u=a&&i&&Nc(()=>{let p=!1;const g=new r(Ne.origin,{body:new wc,method:"POST",get duplex(){return p=!0,"half"}}).headers.has("Content-Type");return p&&!g}),f=o&&i&&Nc(()=>C.isReadableStream(new n("").body)),d={stream:f&&(p=>p.body)};l&&["text","arrayBuffer","blob","formData","stream"].forEach(p=>{!d[p]&&(d[p]=(g,N)=>{let h=g&&g[p];if(h)return h.call(g);throw new B(`Response type '${p}' is not supported`,B.ERR_NOT_SUPPORT,N)})});const y=async p=>{if(p==null)return 0;if(C.isBlob(p))return p.size;if(C.isSpecCompliantForm(p))return(await new r(Ne.origin,{method:"POST",body:p}).arrayBuffer()).byteLength;if(C.isArrayBufferView(p)||C.isArrayBuffer(p))return p.byteLength;if(C.isURLSearchParams(p)&&(p=p+""),C.isString(p))return(await c(p)).byteLength},w=async(p,g)=>{const N=C.toFiniteNumber(p.getContentLength());return N??y(g)};return async p=>{let{url:g,method:N,data:h,signal:m,cancelToken:x,timeout:v,onDownloadProgress:k,onUploadProgress:S,responseType:P,headers:E,withCredentials:I="same-origin",fetchOptions:M}=wf(p),F=t||fetch;P=P?(P+"").toLowerCase():"text";let T=bg([m,x&&x.toAbortSignal()],v),L=null;const b=T&&T.unsubscribe&&(()=>{T.unsubscribe()});let $;try{if(S&&u&&N!=="get"&&N!=="head"&&($=await w(E,h))!==0){let H=new r(g,{method:"POST",body:h,duplex:"half"}),K;if(C.isFormData(h)&&(K=H.headers.get("content-type"))&&E.setContentType(K),H.body){const[Qe,Se]=hc($,Js(xc(S)));h=yc(H.body,vc,Qe,Se)}}C.isString(I)||(I=I?"include":"omit");const z=a&&"credentials"in r.prototype,le={...M,signal:T,method:N.toUpperCase(),headers:E.normalize().toJSON(),body:h,duplex:"half",credentials:z?I:void 0};L=a&&new r(g,le);let O=await(a?F(L,M):F(g,le));const U=f&&(P==="stream"||P==="response");if(f&&(k||U&&b)){const H={};["status","statusText","headers"].forEach(G=>{H[G]=O[G]});const K=C.toFiniteNumber(O.headers.get("content-length")),[Qe,Se]=k&&hc(K,Js(xc(k),!0))||[];O=new n(yc(O.body,vc,Qe,()=>{Se&&Se(),b&&b()}),H)}P=P||"text";let W=await d[C.findKey(d,P)||"text"](O,p);return!U&&b&&b(),await new Promise((H,K)=>{yf(H,K,{data:W,headers:Fe.from(O.headers),status:O.status,statusText:O.statusText,config:p,request:L})})}catch(z){throw b&&b(),z&&z.name==="TypeError"&&/Load failed|fetch/i.test(z.message)?Object.assign(new B("Network Error",B.ERR_NETWORK,p,L),{cause:z.cause||z}):B.from(z,z&&z.code,p,L)}}},Tg=new Map,jf=e=>{let t=e?e.env:{};const{fetch:r,Request:n,Response:l}=t,a=[n,l,r];let o=a.length,i=o,c,u,f=Tg;for(;i--;)c=a[i],u=f.get(c),u===void 0&&f.set(c,u=i?new Map:Pg(t)),f=u;return u};jf();const Ha={http:qx,xhr:Ng,fetch:{get:jf}};C.forEach(Ha,(e,t)=>{if(e){try{Object.defineProperty(e,"name",{value:t})}catch{}Object.defineProperty(e,"adapterName",{value:t})}});const bc=e=>`- ${e}`,Ag=e=>C.isFunction(e)||e===null||e===!1,Nf={getAdapter:(e,t)=>{e=C.isArray(e)?e:[e];const{length:r}=e;let n,l;const a={};for(let o=0;o<r;o++){n=e[o];let i;if(l=n,!Ag(n)&&(l=Ha[(i=String(n)).toLowerCase()],l===void 0))throw new B(`Unknown adapter '${i}'`);if(l&&(C.isFunction(l)||(l=l.get(t))))break;a[i||"#"+o]=l}if(!l){const o=Object.entries(a).map(([c,u])=>`adapter ${c} `+(u===!1?"is not supported by the environment":"is not available in the build"));let i=r?o.length>1?`since :
 `+o.map(bc).join(`
 `):" "+bc(o[0]):"as no adapter specified";throw new B("There is no suitable adapter to dispatch the request "+i,"ERR_NOT_SUPPORT")}return l},adapters:Ha};function Hl(e){if(e.cancelToken&&e.cancelToken.throwIfRequested(),e.signal&&e.signal.aborted)throw new zr(null,e)}function Sc(e){return Hl(e),e.headers=Fe.from(e.headers),e.data=Vl.call(e,e.transformRequest),["post","put","patch"].indexOf(e.method)!==-1&&e.headers.setContentType("application/x-www-form-urlencoded",!1),Nf.getAdapter(e.adapter||zn.adapter,e)(e).then(function(n){return Hl(e),n.data=Vl.call(e,e.transformResponse,n),n.headers=Fe.from(n.headers),n},function(n){return gf(n)||(Hl(e),n&&n.response&&(n.response.data=Vl.call(e,e.transformResponse,n.response),n.response.headers=Fe.from(n.response.headers))),Promise.reject(n)})}const bf="1.12.2",hl={};["object","boolean","number","function","string","symbol"].forEach((e,t)=>{hl[e]=function(n){return typeof n===e||"a"+(t<1?"n ":" ")+e}});const kc={};hl.transitional=function(t,r,n){function l(a,o){return"[Axios v"+bf+"] Transitional option '"+a+"'"+o+(n?". "+n:"")}return(a,o,i)=>{if(t===!1)throw new B(l(o," has been removed"+(r?" in "+r:"")),B.ERR_DEPRECATED);return r&&!kc[o]&&(kc[o]=!0,console.warn(l(o," has been deprecated since v"+r+" and will be removed in the near future"))),t?t(a,o,i):!0}};hl.spelling=function(t){return(r,n)=>(console.warn(`${n} is likely a misspelling of ${t}`),!0)};function Og(e,t,r){if(typeof e!="object")throw new B("options must be an object",B.ERR_BAD_OPTION_VALUE);const n=Object.keys(e);let l=n.length;for(;l-- >0;){const a=n[l],o=t[a];if(o){const i=e[a],c=i===void 0||o(i,a,e);if(c!==!0)throw new B("option "+a+" must be "+c,B.ERR_BAD_OPTION_VALUE);continue}if(r!==!0)throw new B("Unknown option "+a,B.ERR_BAD_OPTION)}}const ws={assertOptions:Og,validators:hl},st=ws.validators;let Yt=class{constructor(t){this.defaults=t||{},this.interceptors={request:new mc,response:new mc}}async request(t,r){try{return await this._request(t,r)}catch(n){if(n instanceof Error){let l={};Error.captureStackTrace?Error.captureStackTrace(l):l=new Error;const a=l.stack?l.stack.replace(/^.+\n/,""):"";try{n.stack?a&&!String(n.stack).endsWith(a.replace(/^.+\n.+\n/,""))&&(n.stack+=`
-`+a):n.stack=a}catch{}}throw n}}_request(t,r){typeof t=="string"?(r=r||{},r.url=t):r=t||{},r=nr(this.defaults,r);const{transitional:n,paramsSerializer:l,headers:a}=r;n!==void 0&&ws.assertOptions(n,{silentJSONParsing:st.transitional(st.boolean),forcedJSONParsing:st.transitional(st.boolean),clarifyTimeoutError:st.transitional(st.boolean)},!1),l!=null&&(C.isFunction(l)?r.paramsSerializer={serialize:l}:ws.assertOptions(l,{encode:st.function,serialize:st.function},!0)),r.allowAbsoluteUrls!==void 0||(this.defaults.allowAbsoluteUrls!==void 0?r.allowAbsoluteUrls=this.defaults.allowAbsoluteUrls:r.allowAbsoluteUrls=!0),ws.assertOptions(r,{baseUrl:st.spelling("baseURL"),withXsrfToken:st.spelling("withXSRFToken")},!0),r.method=(r.method||this.defaults.method||"get").toLowerCase();let o=a&&C.merge(a.common,a[r.method]);a&&C.forEach(["delete","get","head","post","put","patch","common"],p=>{delete a[p]}),r.headers=Fe.concat(o,a);const i=[];let c=!0;this.interceptors.request.forEach(function(g){typeof g.runWhen=="function"&&g.runWhen(r)===!1||(c=c&&g.synchronous,i.unshift(g.fulfilled,g.rejected))});const u=[];this.interceptors.response.forEach(function(g){u.push(g.fulfilled,g.rejected)});let f,d=0,y;if(!c){const p=[Sc.bind(this),void 0];for(p.unshift(...i),p.push(...u),y=p.length,f=Promise.resolve(r);d<y;)f=f.then(p[d++],p[d++]);return f}y=i.length;let w=r;for(;d<y;){const p=i[d++],g=i[d++];try{w=p(w)}catch(N){g.call(this,N);break}}try{f=Sc.call(this,w)}catch(p){return Promise.reject(p)}for(d=0,y=u.length;d<y;)f=f.then(u[d++],u[d++]);return f}getUri(t){t=nr(this.defaults,t);const r=vf(t.baseURL,t.url,t.allowAbsoluteUrls);return pf(r,t.params,t.paramsSerializer)}};C.forEach(["delete","get","head","options"],function(t){Yt.prototype[t]=function(r,n){return this.request(nr(n||{},{method:t,url:r,data:(n||{}).data}))}});C.forEach(["post","put","patch"],function(t){function r(n){return function(a,o,i){return this.request(nr(i||{},{method:t,headers:n?{"Content-Type":"multipart/form-data"}:{},url:a,data:o}))}}Yt.prototype[t]=r(),Yt.prototype[t+"Form"]=r(!0)});let Rg=class Sf{constructor(t){if(typeof t!="function")throw new TypeError("executor must be a function.");let r;this.promise=new Promise(function(a){r=a});const n=this;this.promise.then(l=>{if(!n._listeners)return;let a=n._listeners.length;for(;a-- >0;)n._listeners[a](l);n._listeners=null}),this.promise.then=l=>{let a;const o=new Promise(i=>{n.subscribe(i),a=i}).then(l);return o.cancel=function(){n.unsubscribe(a)},o},t(function(a,o,i){n.reason||(n.reason=new zr(a,o,i),r(n.reason))})}throwIfRequested(){if(this.reason)throw this.reason}subscribe(t){if(this.reason){t(this.reason);return}this._listeners?this._listeners.push(t):this._listeners=[t]}unsubscribe(t){if(!this._listeners)return;const r=this._listeners.indexOf(t);r!==-1&&this._listeners.splice(r,1)}toAbortSignal(){const t=new AbortController,r=n=>{t.abort(n)};return this.subscribe(r),t.signal.unsubscribe=()=>this.unsubscribe(r),t.signal}static source(){let t;return{token:new Sf(function(l){t=l}),cancel:t}}};function Lg(e){return function(r){return e.apply(null,r)}}function _g(e){return C.isObject(e)&&e.isAxiosError===!0}const qa={Continue:100,SwitchingProtocols:101,Processing:102,EarlyHints:103,Ok:200,Created:201,Accepted:202,NonAuthoritativeInformation:203,NoContent:204,ResetContent:205,PartialContent:206,MultiStatus:207,AlreadyReported:208,ImUsed:226,MultipleChoices:300,MovedPermanently:301,Found:302,SeeOther:303,NotModified:304,UseProxy:305,Unused:306,TemporaryRedirect:307,PermanentRedirect:308,BadRequest:400,Unauthorized:401,PaymentRequired:402,Forbidden:403,NotFound:404,MethodNotAllowed:405,NotAcceptable:406,ProxyAuthenticationRequired:407,RequestTimeout:408,Conflict:409,Gone:410,LengthRequired:411,PreconditionFailed:412,PayloadTooLarge:413,UriTooLong:414,UnsupportedMediaType:415,RangeNotSatisfiable:416,ExpectationFailed:417,ImATeapot:418,MisdirectedRequest:421,UnprocessableEntity:422,Locked:423,FailedDependency:424,TooEarly:425,UpgradeRequired:426,PreconditionRequired:428,TooManyRequests:429,RequestHeaderFieldsTooLarge:431,UnavailableForLegalReasons:451,InternalServerError:500,NotImplemented:501,BadGateway:502,ServiceUnavailable:503,GatewayTimeout:504,HttpVersionNotSupported:505,VariantAlsoNegotiates:506,InsufficientStorage:507,LoopDetected:508,NotExtended:510,NetworkAuthenticationRequired:511};Object.entries(qa).forEach(([e,t])=>{qa[t]=e});function kf(e){const t=new Yt(e),r=tf(Yt.prototype.request,t);return C.extend(r,Yt.prototype,t,{allOwnKeys:!0}),C.extend(r,t,null,{allOwnKeys:!0}),r.create=function(l){return kf(nr(e,l))},r}const ce=kf(zn);ce.Axios=Yt;ce.CanceledError=zr;ce.CancelToken=Rg;ce.isCancel=gf;ce.VERSION=bf;ce.toFormData=pl;ce.AxiosError=B;ce.Cancel=ce.CanceledError;ce.all=function(t){return Promise.all(t)};ce.spread=Lg;ce.isAxiosError=_g;ce.mergeConfig=nr;ce.AxiosHeaders=Fe;ce.formToJSON=e=>xf(C.isHTMLForm(e)?new FormData(e):e);ce.getAdapter=Nf.getAdapter;ce.HttpStatusCode=qa;ce.default=ce;const{Axios:i0,AxiosError:c0,CanceledError:u0,isCancel:d0,CancelToken:f0,VERSION:m0,all:p0,Cancel:h0,isAxiosError:x0,spread:g0,toFormData:y0,AxiosHeaders:v0,HttpStatusCode:w0,formToJSON:j0,getAdapter:N0,mergeConfig:b0}=ce,R=ce.create({baseURL:"/api",headers:{"Content-Type":"application/json"}}),D={getHealth:()=>R.get("/health"),getStatus:()=>R.get("/status"),getProducts:(e=10,t=null)=>{const r={first:e};return t&&(r.after=t),R.get("/products",{params:r})},getProductById:e=>R.get(`/products/${e}`),searchProducts:(e,t=20,r=!1)=>R.get("/products/search",{params:{q:e,first:t,includeArchived:r}}),getOrders:(e=10,t=null)=>{const r={first:e};return t&&(r.after=t),R.get("/orders",{params:r})},getOrderById:e=>R.get(`/orders/${e}`),searchOrders:(e,t=20)=>R.get("/orders/search",{params:{q:e,first:t}}),getCustomers:(e=10,t=null)=>{const r={first:e};return t&&(r.after=t),R.get("/customers",{params:r})},getCustomerById:e=>R.get(`/customers/${e}`),searchCustomers:(e,t=20)=>R.get("/customers/search",{params:{q:e,first:t}}),getInventory:(e=10,t=null)=>{const r={first:e};return t&&(r.after=t),R.get("/inventory",{params:r})},getInventoryLocations:()=>R.get("/inventory/locations"),sendChatMessage:(e,t=[])=>R.post("/chat/message",{message:e,conversationHistory:t}),getChatStatus:()=>R.get("/chat/status"),getAIConfig:()=>R.get("/config/ai"),updateAIConfig:e=>R.put("/config/ai",e),getSystemPrompt:()=>R.get("/config/prompt"),getAvailableModels:()=>R.get("/config/models"),getChatbotConfig:()=>R.get("/config/chatbot"),updateChatbotConfig:e=>R.put("/config/chatbot",e),resetChatbotConfig:()=>R.post("/config/chatbot/reset"),previewSystemPrompt:()=>R.get("/config/chatbot/preview-prompt"),getSalesAnalytics:(e="7d")=>R.get("/analytics/sales",{params:{period:e}}),getAllSalesAnalytics:()=>R.get("/analytics/sales/all"),getInstoreSalesAnalytics:(e="7d")=>R.get("/analytics/instore/sales",{params:{period:e}}),getAllInstoreSalesAnalytics:()=>R.get("/analytics/instore/sales/all"),getChannelSalesAnalytics:(e="7d")=>R.get("/analytics/channels",{params:{period:e}}),getAllChannelSalesAnalytics:()=>R.get("/analytics/channels/all"),getPendingFulfillments:(e=!1,t=!1)=>R.get("/fulfillment/pending",{params:{includeDiscounts:e,includeSalePrices:t}}),getFulfillmentDetails:e=>R.get(`/fulfillment/${e}`),getAgents:(e=null)=>{const t={};return e!==null&&(t.activeOnly=e),R.get("/agents",{params:t})},getAgent:e=>R.get(`/agents/${e}`),createAgent:e=>R.post("/agents",e),updateAgent:(e,t)=>R.put(`/agents/${e}`,t),deleteAgent:e=>R.delete(`/agents/${e}`),activateAgent:e=>R.post(`/agents/${e}/activate`),deactivateAgent:e=>R.post(`/agents/${e}/deactivate`),executeAgent:(e,t)=>R.post(`/agents/${e}/execute`,t),getWorkflows:(e=null,t=null)=>{const r={};return e!==null&&(r.activeOnly=e),t!==null&&(r.triggerType=t),R.get("/workflows",{params:r})},getWorkflow:e=>R.get(`/workflows/${e}`),createWorkflow:e=>R.post("/workflows",e),updateWorkflow:(e,t)=>R.put(`/workflows/${e}`,t),deleteWorkflow:e=>R.delete(`/workflows/${e}`),activateWorkflow:e=>R.post(`/workflows/${e}/activate`),deactivateWorkflow:e=>R.post(`/workflows/${e}/deactivate`),executeWorkflow:(e,t)=>R.post(`/workflows/${e}/execute`,t),executePublicWorkflow:(e,t)=>R.post(`/workflows/public/${e}/execute`,t),getWorkflowSteps:e=>R.get(`/workflows/${e}/steps`),createWorkflowStep:(e,t)=>R.post(`/workflows/${e}/steps`,t),updateWorkflowStep:(e,t,r)=>R.put(`/workflows/${e}/steps/${t}`,r),deleteWorkflowStep:(e,t)=>R.delete(`/workflows/${e}/steps/${t}`),reorderWorkflowSteps:(e,t)=>R.post(`/workflows/${e}/steps/reorder`,t),getWorkflowExecutions:e=>R.get(`/workflows/${e}/executions`),getAllExecutions:()=>R.get("/executions"),getExecutionDetails:e=>R.get(`/executions/${e}`),getPendingApprovals:(e=null)=>{const t={};return e!==null&&(t.role=e),R.get("/approvals/pending",{params:t})},getApprovalsByExecution:e=>R.get(`/approvals/execution/${e}`),getApprovalCount:()=>R.get("/approvals/count"),approveRequest:(e,t,r)=>R.post(`/approvals/${e}/approve`,{approvedBy:t,comments:r}),rejectRequest:(e,t,r)=>R.post(`/approvals/${e}/reject`,{rejectedBy:t,reason:r}),getTools:(e=null)=>{const t={};return e!==null&&(t.activeOnly=e),R.get("/tools",{params:t})},getTool:e=>R.get(`/tools/${e}`),createTool:e=>R.post("/tools",e),updateTool:(e,t)=>R.put(`/tools/${e}`,t),deleteTool:e=>R.delete(`/tools/${e}`),getSchedules:(e=!0)=>{const t={};return e!==null&&(t.active=e),R.get("/schedules",{params:t})},getSchedulesForWorkflow:e=>R.get(`/schedules/workflow/${e}`),createSchedule:(e,t,r=null)=>R.post("/schedules",{workflowId:e,cronExpression:t,triggerData:r}),cancelSchedule:e=>R.delete(`/schedules/${e}`),activateSchedule:e=>R.put(`/schedules/${e}/activate`),updateScheduleCron:(e,t)=>R.put(`/schedules/${e}/cron`,{cronExpression:t}),updateScheduleTriggerData:(e,t)=>R.put(`/schedules/${e}/trigger-data`,t),sendSeoAgentMessage:(e,t=[],r=null)=>R.post("/seo-agent/chat",{message:e,conversationHistory:t,config:r}),getSeoAgentStatus:()=>R.get("/seo-agent/status"),getAgentTools:(e=!0)=>{const t={};return e!==null&&(t.activeOnly=e),R.get("/tools",{params:t})}};function Fg(){const e=Fn(),[t,r]=j.useState(0),[n,l]=j.useState(!1),a=j.useRef(null);j.useEffect(()=>{o();const d=setInterval(o,3e4);return()=>clearInterval(d)},[]),j.useEffect(()=>{function d(y){a.current&&!a.current.contains(y.target)&&l(!1)}return document.addEventListener("mousedown",d),()=>document.removeEventListener("mousedown",d)},[]);const o=async()=>{try{const d=await D.getApprovalCount();r(d.data.count)}catch(d){console.error("Error loading approval count:",d)}},i=[{path:"/",label:"Dashboard",icon:"🏠"},{path:"/products",label:"Product Search",icon:"🔍"},{path:"/chat",label:"AI Chat Agent",icon:"💬"},{path:"/fulfillment",label:"Orders to Fulfill",icon:"📦"},{path:"/agents",label:"Agents",icon:"🤖"},{path:"/seo-agent",label:"SEO Agent",icon:"🎯"},{path:"/settings",label:"Settings",icon:"⚙️"},{path:"/analytics",label:"Analytics",icon:"📊"},{path:"/market-intel",label:"Market Intel",icon:"💰"}],c=[{path:"/workflows",label:"Workflows",icon:"🔄"},{path:"/workflow-gallery",label:"Workflow Gallery",icon:"🎨"},{path:"/executions",label:"Executions",icon:"📈"},{path:"/approvals",label:"Approvals",icon:"✅",badge:t}],u=d=>d==="/workflows"?e.pathname.startsWith("/workflows"):d==="/agents"?e.pathname.startsWith("/agents"):d==="/executions"?e.pathname.startsWith("/executions"):d==="/approvals"?e.pathname.startsWith("/approvals"):d==="/seo-agent"?e.pathname.startsWith("/seo-agent"):e.pathname===d,f=()=>c.some(d=>u(d.path));return s.jsx("nav",{className:"bg-white shadow-md",children:s.jsx("div",{className:"container mx-auto px-4",children:s.jsxs("div",{className:"flex items-center justify-between h-16",children:[s.jsx("div",{className:"flex items-center",children:s.jsx("h1",{className:"text-xl font-bold text-primary-600",children:"Customer Service Hub"})}),s.jsxs("div",{className:"flex space-x-4",children:[i.map(d=>s.jsxs(qs,{to:d.path,className:`px-3 py-2 rounded-md text-sm font-medium transition-colors duration-200 relative ${u(d.path)?"bg-primary-100 text-primary-700":"text-gray-700 hover:bg-gray-100"}`,children:[s.jsx("span",{className:"mr-2",children:d.icon}),d.label,d.badge>0&&s.jsx("span",{className:"absolute -top-1 -right-1 bg-red-500 text-white text-xs rounded-full h-5 w-5 flex items-center justify-center font-bold",children:d.badge})]},d.path)),s.jsxs("div",{ref:a,className:"relative",children:[s.jsxs("button",{onClick:()=>l(!n),className:`px-3 py-2 rounded-md text-sm font-medium transition-colors duration-200 flex items-center ${f()?"bg-primary-100 text-primary-700":"text-gray-700 hover:bg-gray-100"}`,children:[s.jsx("span",{className:"mr-2",children:"🚧"}),"Temp Dev",s.jsx("svg",{className:`ml-1 h-4 w-4 transition-transform ${n?"rotate-180":""}`,fill:"none",stroke:"currentColor",viewBox:"0 0 24 24",children:s.jsx("path",{strokeLinecap:"round",strokeLinejoin:"round",strokeWidth:2,d:"M19 9l-7 7-7-7"})})]}),n&&s.jsx("div",{className:"absolute top-full right-0 mt-2 w-56 bg-white rounded-md shadow-lg py-1 z-50 border border-gray-200",children:c.map(d=>s.jsxs(qs,{to:d.path,onClick:()=>l(!1),className:`block px-4 py-2 text-sm transition-colors relative ${u(d.path)?"bg-primary-100 text-primary-700":"text-gray-700 hover:bg-gray-100"}`,children:[s.jsx("span",{className:"mr-2",children:d.icon}),d.label,d.badge>0&&s.jsx("span",{className:"absolute top-1/2 right-3 transform -translate-y-1/2 bg-red-500 text-white text-xs rounded-full h-5 w-5 flex items-center justify-center font-bold",children:d.badge})]},d.path))})]})]})]})})})}function Ig(){const[e,t]=j.useState(null),[r,n]=j.useState(!0);j.useEffect(()=>{(async()=>{try{const o=await D.getStatus();t(o.data)}catch(o){console.error("Error fetching status:",o)}finally{n(!1)}})()},[]);const l=[{title:"Product Search",description:"Search products, view details, and generate cart links",icon:"🔍",path:"/products",status:"Active",color:"bg-green-100 text-green-800"},{title:"AI Chat Agent",description:"Sales and customer support automation",icon:"💬",path:"/chat",status:"Active",color:"bg-green-100 text-green-800"},{title:"Orders to Fulfill",description:"View Shopify orders pending CRS fulfillment",icon:"📦",path:"/fulfillment",status:"Active",color:"bg-orange-100 text-orange-800"},{title:"Analytics Dashboard",description:"Business insights and reporting",icon:"📊",path:"/analytics",status:"Active",color:"bg-green-100 text-green-800"},{title:"Market Intelligence",description:"Competitive pricing and discount tracking",icon:"💰",path:"/market-intel",status:"Coming Soon",color:"bg-yellow-100 text-yellow-800"}];return s.jsxs("div",{className:"space-y-8",children:[s.jsxs("div",{className:"text-center",children:[s.jsx("h1",{className:"text-4xl font-bold text-gray-900 mb-2",children:"Welcome to Customer Service Hub"}),s.jsx("p",{className:"text-lg text-gray-600",children:"Your central tool for sales, support, and business intelligence"})]}),s.jsxs("div",{className:"card",children:[s.jsx("h2",{className:"text-xl font-semibold mb-4",children:"System Status"}),r?s.jsx("div",{className:"text-gray-500",children:"Loading status..."}):e?s.jsxs("div",{className:"grid grid-cols-2 md:grid-cols-4 gap-4",children:[s.jsxs("div",{className:"text-center",children:[s.jsx("div",{className:"text-2xl font-bold text-primary-600",children:e.shopify_connected?"✅":"❌"}),s.jsx("div",{className:"text-sm text-gray-600",children:"Shopify Connected"})]}),s.jsxs("div",{className:"text-center",children:[s.jsx("div",{className:"text-2xl font-bold text-primary-600",children:e.api_version}),s.jsx("div",{className:"text-sm text-gray-600",children:"API Version"})]}),s.jsxs("div",{className:"text-center",children:[s.jsx("div",{className:"text-2xl font-bold text-primary-600",children:e.environment}),s.jsx("div",{className:"text-sm text-gray-600",children:"Environment"})]}),s.jsxs("div",{className:"text-center",children:[s.jsx("div",{className:"text-2xl font-bold text-green-600",children:"UP"}),s.jsx("div",{className:"text-sm text-gray-600",children:"Service Status"})]})]}):s.jsx("div",{className:"text-red-500",children:"Unable to fetch status"})]}),s.jsx("div",{className:"grid grid-cols-1 md:grid-cols-2 gap-6",children:l.map(a=>s.jsx(qs,{to:a.path,className:"card hover:shadow-lg transition-shadow duration-200",children:s.jsx("div",{className:"flex items-start justify-between",children:s.jsxs("div",{className:"flex-1",children:[s.jsx("div",{className:"text-4xl mb-3",children:a.icon}),s.jsx("h3",{className:"text-xl font-semibold text-gray-900 mb-2",children:a.title}),s.jsx("p",{className:"text-gray-600 mb-3",children:a.description}),s.jsx("span",{className:`inline-block px-3 py-1 rounded-full text-xs font-medium ${a.color}`,children:a.status})]})})},a.path))}),s.jsx("div",{className:"card bg-primary-50 border border-primary-200",children:s.jsxs("div",{className:"text-center",children:[s.jsx("h3",{className:"text-lg font-semibold text-gray-900 mb-2",children:"Quick Product Search"}),s.jsx("p",{className:"text-gray-600 mb-4",children:"Search for products and generate cart links instantly"}),s.jsx(qs,{to:"/products",className:"btn-primary inline-block",children:"Go to Product Search →"})]})})]})}function Dg({value:e,onChange:t,onSearch:r,loading:n}){const[l,a]=j.useState(e),o=u=>{u.preventDefault(),r(l)},i=u=>{const f=u.target.value;a(f),t(f)},c=()=>{a(""),t(""),r("")};return s.jsxs("form",{onSubmit:o,className:"card",children:[s.jsxs("div",{className:"flex gap-2",children:[s.jsxs("div",{className:"flex-1 relative",children:[s.jsx("input",{type:"text",value:l,onChange:i,placeholder:"Search by product name, SKU, or keyword...",className:"input-field pr-10",disabled:n}),l&&s.jsx("button",{type:"button",onClick:c,className:"absolute right-3 top-1/2 transform -translate-y-1/2 text-gray-400 hover:text-gray-600",children:"✕"})]}),s.jsx("button",{type:"submit",disabled:n||!l.trim(),className:"btn-primary disabled:opacity-50 disabled:cursor-not-allowed",children:n?s.jsxs("span",{className:"flex items-center",children:[s.jsx("span",{className:"animate-spin mr-2",children:"⏳"}),"Searching..."]}):s.jsx("span",{children:"🔍 Search"})})]}),s.jsxs("div",{className:"mt-3 text-sm text-gray-600",children:[s.jsx("strong",{children:"Search tips:"}),' Try "title:Gundam" for title search, or just "Gundam" for general search']})]})}function $g({product:e,onClick:t}){var i,c,u,f,d,y,w,p;const r=(f=(u=(c=(i=e.images)==null?void 0:i.edges)==null?void 0:c[0])==null?void 0:u.node)==null?void 0:f.url,n=(w=(y=(d=e.variants)==null?void 0:d.edges)==null?void 0:y[0])==null?void 0:w.node,l=(n==null?void 0:n.price)||"N/A",a=(n==null?void 0:n.sku)||"N/A",o={ACTIVE:"bg-green-100 text-green-800",DRAFT:"bg-yellow-100 text-yellow-800",ARCHIVED:"bg-red-100 text-red-800"};return s.jsxs("div",{onClick:t,className:"card hover:shadow-xl transition-all duration-200 cursor-pointer group",children:[s.jsxs("div",{className:"relative w-full h-48 bg-gray-100 rounded-lg overflow-hidden mb-4",children:[r?s.jsx("img",{src:r,alt:e.title,className:"w-full h-full object-cover group-hover:scale-105 transition-transform duration-200"}):s.jsx("div",{className:"w-full h-full flex items-center justify-center text-gray-400 text-4xl",children:"📦"}),s.jsx("div",{className:"absolute top-2 right-2",children:s.jsx("span",{className:`px-2 py-1 rounded text-xs font-medium ${o[e.status]||"bg-gray-100 text-gray-800"}`,children:e.status})})]}),s.jsxs("div",{className:"space-y-2",children:[s.jsx("h3",{className:"font-semibold text-gray-900 line-clamp-2 group-hover:text-primary-600 transition-colors",children:e.title}),s.jsxs("div",{className:"flex items-center justify-between text-sm",children:[s.jsxs("span",{className:"text-gray-600",children:["SKU: ",a]}),s.jsxs("span",{className:"text-lg font-bold text-primary-600",children:["$",l]})]}),e.vendor&&s.jsxs("div",{className:"text-sm text-gray-500",children:["Vendor: ",e.vendor]}),((p=e.variants)==null?void 0:p.edges)&&s.jsxs("div",{className:"text-sm text-gray-500",children:[e.variants.edges.length," variant",e.variants.edges.length!==1?"s":""]})]}),s.jsx("div",{className:"mt-4 text-center text-sm text-primary-600 opacity-0 group-hover:opacity-100 transition-opacity",children:"Click for details →"})]})}function Mg({variants:e,selectedVariant:t,onSelectVariant:r}){return!e||e.length===0?null:e.length===1&&e[0].title==="Default Title"?s.jsxs("div",{className:"space-y-2",children:[s.jsx("h4",{className:"font-semibold text-gray-900",children:"Variant Information"}),s.jsx("div",{className:"bg-gray-50 rounded-lg p-4",children:s.jsxs("div",{className:"grid grid-cols-2 gap-4 text-sm",children:[s.jsxs("div",{children:[s.jsx("span",{className:"text-gray-600",children:"SKU:"}),s.jsx("span",{className:"ml-2 font-medium",children:e[0].sku||"N/A"})]}),s.jsxs("div",{children:[s.jsx("span",{className:"text-gray-600",children:"Price:"}),s.jsxs("span",{className:"ml-2 font-medium text-primary-600",children:["$",e[0].price]})]}),e[0].inventoryQuantity!==void 0&&s.jsxs("div",{children:[s.jsx("span",{className:"text-gray-600",children:"In Stock:"}),s.jsxs("span",{className:"ml-2 font-medium",children:[e[0].inventoryQuantity," units"]})]})]})})]}):s.jsxs("div",{className:"space-y-4",children:[s.jsx("h4",{className:"font-semibold text-gray-900",children:"Select Variant"}),s.jsx("div",{className:"grid grid-cols-1 gap-3",children:e.map(n=>{const l=(t==null?void 0:t.id)===n.id;return s.jsx("button",{onClick:()=>r(n),className:`text-left p-4 rounded-lg border-2 transition-all duration-200 ${l?"border-primary-500 bg-primary-50":"border-gray-200 bg-white hover:border-gray-300"}`,children:s.jsxs("div",{className:"flex items-center justify-between",children:[s.jsxs("div",{className:"flex-1",children:[s.jsxs("div",{className:"flex items-center gap-2",children:[s.jsx("span",{className:"font-medium text-gray-900",children:n.title}),l&&s.jsx("span",{className:"text-primary-600",children:"✓"})]}),s.jsxs("div",{className:"flex items-center gap-4 mt-1 text-sm text-gray-600",children:[n.sku&&s.jsxs("span",{children:["SKU: ",n.sku]}),n.inventoryQuantity!==void 0&&s.jsxs("span",{children:["Stock: ",n.inventoryQuantity]})]})]}),s.jsx("div",{className:"text-right",children:s.jsxs("div",{className:"text-lg font-bold text-primary-600",children:["$",n.price]})})]})},n.id)})}),t&&s.jsxs("div",{className:"bg-blue-50 border border-blue-200 rounded-lg p-3 text-sm text-blue-800",children:["Selected: ",s.jsx("strong",{children:t.title})," - $",t.price]})]})}function zg({product:e,onClose:t}){var f,d,y,w,p,g,N,h;const[r,n]=j.useState(((y=(d=(f=e.variants)==null?void 0:f.edges)==null?void 0:d[0])==null?void 0:y.node)||null),l="hearnshobbies.myshopify.com",a=e.onlineStoreUrl||(e.handle?`https://${l}/products/${e.handle}`:null),i=r?((m,x=1)=>{if(!m)return null;const v=m.includes("/")?m.substring(m.lastIndexOf("/")+1):m;return`https://${l}/cart/${v}:${x}`})(r.id):null,c=(m,x)=>{navigator.clipboard.writeText(m),alert(`${x} link copied to clipboard!`)},u=m=>{window.open(m,"_blank")};return s.jsx("div",{className:"fixed inset-0 bg-black bg-opacity-50 flex items-center justify-center z-50 p-4",children:s.jsxs("div",{className:"bg-white rounded-lg max-w-4xl w-full max-h-[90vh] overflow-y-auto",children:[s.jsxs("div",{className:"sticky top-0 bg-white border-b border-gray-200 px-6 py-4 flex items-center justify-between",children:[s.jsx("h2",{className:"text-2xl font-bold text-gray-900",children:"Product Details"}),s.jsx("button",{onClick:t,className:"text-gray-400 hover:text-gray-600 text-2xl",children:"✕"})]}),s.jsxs("div",{className:"p-6 space-y-6",children:[s.jsxs("div",{className:"grid grid-cols-1 md:grid-cols-2 gap-6",children:[s.jsx("div",{children:(N=(g=(p=(w=e.images)==null?void 0:w.edges)==null?void 0:p[0])==null?void 0:g.node)!=null&&N.url?s.jsx("img",{src:e.images.edges[0].node.url,alt:e.title,className:"w-full rounded-lg shadow-md"}):s.jsx("div",{className:"w-full h-64 bg-gray-100 rounded-lg flex items-center justify-center text-gray-400 text-6xl",children:"📦"})}),s.jsxs("div",{className:"space-y-4",children:[s.jsxs("div",{children:[s.jsx("h3",{className:"text-2xl font-bold text-gray-900 mb-2",children:e.title}),s.jsx("div",{className:"flex items-center gap-2 text-sm",children:s.jsx("span",{className:`px-3 py-1 rounded-full ${e.status==="ACTIVE"?"bg-green-100 text-green-800":e.status==="DRAFT"?"bg-yellow-100 text-yellow-800":"bg-gray-100 text-gray-800"}`,children:e.status})})]}),e.description&&s.jsxs("div",{children:[s.jsx("h4",{className:"font-semibold text-gray-700 mb-1",children:"Description"}),s.jsx("p",{className:"text-gray-600 text-sm",children:e.description})]}),e.vendor&&s.jsxs("div",{children:[s.jsx("h4",{className:"font-semibold text-gray-700 mb-1",children:"Vendor"}),s.jsx("p",{className:"text-gray-600",children:e.vendor})]}),e.productType&&s.jsxs("div",{children:[s.jsx("h4",{className:"font-semibold text-gray-700 mb-1",children:"Product Type"}),s.jsx("p",{className:"text-gray-600",children:e.productType})]}),e.tags&&e.tags.length>0&&s.jsxs("div",{children:[s.jsx("h4",{className:"font-semibold text-gray-700 mb-1",children:"Tags"}),s.jsx("div",{className:"flex flex-wrap gap-2",children:e.tags.map((m,x)=>s.jsx("span",{className:"px-2 py-1 bg-gray-100 text-gray-700 text-xs rounded",children:m},x))})]})]})]}),((h=e.variants)==null?void 0:h.edges)&&e.variants.edges.length>0&&s.jsx("div",{className:"border-t border-gray-200 pt-6",children:s.jsx(Mg,{variants:e.variants.edges.map(m=>m.node),selectedVariant:r,onSelectVariant:n})}),s.jsxs("div",{className:"border-t border-gray-200 pt-6 space-y-4",children:[s.jsx("h4",{className:"font-semibold text-gray-900 text-lg",children:"Actions"}),a&&s.jsxs("div",{className:"space-y-2",children:[s.jsx("label",{className:"text-sm font-medium text-gray-700",children:"Product Page"}),s.jsxs("div",{className:"flex gap-2",children:[s.jsx("input",{type:"text",value:a,readOnly:!0,className:"flex-1 px-3 py-2 border border-gray-300 rounded-lg bg-gray-50 text-sm"}),s.jsx("button",{onClick:()=>c(a,"Product"),className:"btn-secondary",children:"📋 Copy"}),s.jsx("button",{onClick:()=>u(a),className:"btn-primary",children:"🔗 View"})]})]}),i&&s.jsxs("div",{className:"space-y-2",children:[s.jsxs("label",{className:"text-sm font-medium text-gray-700",children:["Add to Cart Link",r&&s.jsxs("span",{className:"ml-2 text-xs text-gray-500",children:["(",r.title,")"]})]}),s.jsxs("div",{className:"flex gap-2",children:[s.jsx("input",{type:"text",value:i,readOnly:!0,className:"flex-1 px-3 py-2 border border-gray-300 rounded-lg bg-gray-50 text-sm"}),s.jsx("button",{onClick:()=>c(i,"Cart"),className:"btn-secondary",children:"📋 Copy"}),s.jsx("button",{onClick:()=>u(i),className:"btn-primary",children:"🛒 Add to Cart"})]}),s.jsx("p",{className:"text-xs text-gray-500",children:"Share this link with customers. When clicked, the item will be automatically added to their cart."})]})]}),s.jsx("div",{className:"border-t border-gray-200 pt-6",children:s.jsx("button",{onClick:t,className:"w-full btn-secondary",children:"Close"})})]})]})})}function Ug(){const[e,t]=j.useState(""),[r,n]=j.useState([]),[l,a]=j.useState(!1),[o,i]=j.useState(null),[c,u]=j.useState(null),[f,d]=j.useState(!1),y=async g=>{var N;if(!g.trim()){n([]);return}a(!0),i(null);try{const h=await D.searchProducts(g,20,f);if(h.data.success&&h.data.data){const x=(((N=h.data.data.products)==null?void 0:N.edges)||[]).map(v=>v.node);n(x),x.length===0&&i("No products found matching your search.")}else i("Failed to fetch products. Please try again.")}catch(h){console.error("Search error:",h),i("An error occurred while searching. Please try again.")}finally{a(!1)}},w=g=>{u(g)},p=()=>{u(null)};return s.jsxs("div",{className:"space-y-6",children:[s.jsxs("div",{className:"text-center",children:[s.jsx("h1",{className:"text-3xl font-bold text-gray-900 mb-2",children:"Product Search"}),s.jsx("p",{className:"text-gray-600",children:"Search for products and generate cart links for customers"})]}),s.jsx(Dg,{value:e,onChange:t,onSearch:y,loading:l}),s.jsxs("div",{className:"flex items-center space-x-2",children:[s.jsx("input",{type:"checkbox",id:"includeArchived",checked:f,onChange:g=>d(g.target.checked),className:"h-4 w-4 text-blue-600 focus:ring-blue-500 border-gray-300 rounded"}),s.jsx("label",{htmlFor:"includeArchived",className:"text-sm text-gray-700 cursor-pointer select-none",children:"Include archived products"})]}),o&&s.jsx("div",{className:"card bg-red-50 border border-red-200 text-red-700",children:o}),l&&s.jsxs("div",{className:"text-center py-12",children:[s.jsx("div",{className:"inline-block animate-spin rounded-full h-12 w-12 border-b-2 border-primary-600"}),s.jsx("p",{className:"mt-4 text-gray-600",children:"Searching products..."})]}),!l&&r.length>0&&s.jsxs("div",{children:[s.jsxs("div",{className:"mb-4 text-sm text-gray-600",children:["Found ",r.length," product",r.length!==1?"s":""]}),s.jsx("div",{className:"grid grid-cols-1 md:grid-cols-2 lg:grid-cols-3 gap-6",children:r.map(g=>s.jsx($g,{product:g,onClick:()=>w(g)},g.id))})]}),!l&&!o&&r.length===0&&e&&s.jsxs("div",{className:"text-center py-12 text-gray-500",children:[s.jsx("div",{className:"text-6xl mb-4",children:"🔍"}),s.jsx("p",{children:"Enter a search term to find products"})]}),!l&&!e&&s.jsxs("div",{className:"card bg-blue-50 border border-blue-200",children:[s.jsx("h3",{className:"text-lg font-semibold text-gray-900 mb-2",children:"How to use Product Search"}),s.jsxs("ul",{className:"list-disc list-inside text-gray-700 space-y-1",children:[s.jsx("li",{children:"Enter product name, SKU, or keyword in the search box"}),s.jsx("li",{children:"Click on a product card to view full details"}),s.jsx("li",{children:'Use "View Product" to open the product page'}),s.jsx("li",{children:'Use "Add to Cart" to generate a direct cart link'}),s.jsx("li",{children:"Share cart links with customers via email, SMS, or chat"})]})]}),c&&s.jsx(zg,{product:c,onClose:p})]})}function Cf({message:e}){const t=e.role==="user",r=e.timestamp?new Date(e.timestamp).toLocaleTimeString([],{hour:"2-digit",minute:"2-digit"}):"",n=l=>{const a=/(https?:\/\/[^\s]+)/g;return l.split(a).map((i,c)=>{if(i.match(a)){const u=i.includes("/cart/");return s.jsx("a",{href:i,target:"_blank",rel:"noopener noreferrer",className:`underline ${u?"text-blue-600 font-semibold":"text-blue-500"}`,children:u?"🛒 Add to Cart":i},c)}return s.jsx("span",{children:i},c)})};return s.jsxs("div",{className:`flex ${t?"justify-end":"justify-start"} mb-4`,children:[s.jsxs("div",{className:`max-w-3/4 ${t?"order-2":"order-1"}`,children:[s.jsx("div",{className:`rounded-lg px-4 py-3 ${t?"bg-primary-600 text-white":"bg-gray-200 text-gray-900"}`,children:s.jsx("div",{className:"whitespace-pre-wrap break-words",children:n(e.content)})}),r&&s.jsx("div",{className:`text-xs text-gray-500 mt-1 ${t?"text-right":"text-left"}`,children:r})]}),!t&&s.jsx("div",{className:"w-8 h-8 rounded-full bg-primary-100 flex items-center justify-center mr-2 order-0",children:s.jsx("span",{className:"text-primary-600",children:"🤖"})}),t&&s.jsx("div",{className:"w-8 h-8 rounded-full bg-gray-300 flex items-center justify-center ml-2 order-3",children:s.jsx("span",{children:"👤"})})]})}function Ef({onSend:e,disabled:t}){const[r,n]=j.useState(""),l=o=>{o.preventDefault(),r.trim()&&!t&&(e(r),n(""))},a=o=>{o.key==="Enter"&&!o.shiftKey&&(o.preventDefault(),l(o))};return s.jsxs("form",{onSubmit:l,className:"border-t border-gray-200 bg-white p-4",children:[s.jsxs("div",{className:"flex items-end space-x-2",children:[s.jsx("textarea",{value:r,onChange:o=>n(o.target.value),onKeyPress:a,placeholder:"Ask about Gundam models, product recommendations, or anything else...",disabled:t,className:"flex-1 border border-gray-300 rounded-lg px-4 py-2 focus:outline-none focus:ring-2 focus:ring-primary-500 disabled:bg-gray-100 disabled:cursor-not-allowed resize-none",rows:"2"}),s.jsx("button",{type:"submit",disabled:t||!r.trim(),className:"bg-primary-600 text-white px-6 py-2 rounded-lg hover:bg-primary-700 disabled:bg-gray-300 disabled:cursor-not-allowed transition-colors h-12",children:t?s.jsxs("span",{className:"flex items-center",children:[s.jsxs("svg",{className:"animate-spin h-5 w-5 mr-2",viewBox:"0 0 24 24",children:[s.jsx("circle",{className:"opacity-25",cx:"12",cy:"12",r:"10",stroke:"currentColor",strokeWidth:"4",fill:"none"}),s.jsx("path",{className:"opacity-75",fill:"currentColor",d:"M4 12a8 8 0 018-8V0C5.373 0 0 5.373 0 12h4zm2 5.291A7.962 7.962 0 014 12H0c0 3.042 1.135 5.824 3 7.938l3-2.647z"})]}),"Sending..."]}):"Send"})]}),s.jsx("div",{className:"text-xs text-gray-500 mt-2",children:"Press Enter to send, Shift+Enter for new line"})]})}function Wg(){const[e,t]=j.useState([]),[r,n]=j.useState(!1),[l,a]=j.useState(null),[o,i]=j.useState(null),c=j.useRef(null),u=()=>{var w;(w=c.current)==null||w.scrollIntoView({behavior:"smooth"})};j.useEffect(()=>{u()},[e]),j.useEffect(()=>{f(),t([{role:"assistant",content:"Hello! 👋 I'm your Gundam store assistant. I can help you find the perfect model kit, answer questions about products, and generate direct purchase links. How can I assist you today?",timestamp:Date.now()}])},[]);const f=async()=>{try{const w=await D.getChatStatus();w.data.success&&i(w.data.data)}catch(w){console.error("Error loading chat status:",w)}},d=async w=>{const p={role:"user",content:w,timestamp:Date.now()};t(g=>[...g,p]),n(!0),a(null);try{const g=await D.sendChatMessage(w,e);if(g.data.success&&g.data.data){const N={role:"assistant",content:g.data.data.content,timestamp:g.data.data.timestamp||Date.now()};t(h=>[...h,N])}else a("Failed to get response from assistant")}catch(g){console.error("Error sending message:",g),a("An error occurred while sending your message. Please try again.");const N={role:"assistant",content:"I apologize, but I'm having trouble processing your request. Please try again or use the Product Search page to browse our catalog.",timestamp:Date.now()};t(h=>[...h,N])}finally{n(!1)}},y=()=>{t([{role:"assistant",content:"Chat cleared! How can I help you today?",timestamp:Date.now()}]),a(null)};return s.jsxs("div",{className:"max-w-5xl mx-auto",children:[s.jsxs("div",{className:"bg-white rounded-lg shadow-sm p-6 mb-6",children:[s.jsxs("div",{className:"flex items-center justify-between",children:[s.jsxs("div",{children:[s.jsx("h1",{className:"text-2xl font-bold text-gray-900 mb-2",children:"🤖 AI Chat Assistant"}),s.jsx("p",{className:"text-gray-600",children:"Ask about products, get recommendations, and receive direct purchase links"})]}),s.jsx("button",{onClick:y,className:"bg-gray-200 text-gray-700 px-4 py-2 rounded-lg hover:bg-gray-300 transition-colors",children:"Clear Chat"})]}),o&&s.jsx("div",{className:"mt-4 p-3 bg-primary-50 rounded-lg",children:s.jsxs("div",{className:"flex items-center text-sm text-primary-800",children:[s.jsx("span",{className:"w-2 h-2 bg-green-500 rounded-full mr-2"}),s.jsx("span",{className:"font-semibold",children:o.provider}),s.jsx("span",{className:"mx-2",children:"•"}),s.jsx("span",{children:o.description})]})})]}),s.jsxs("div",{className:"bg-white rounded-lg shadow-sm flex flex-col",style:{height:"calc(100vh - 320px)"},children:[s.jsxs("div",{className:"flex-1 overflow-y-auto p-6",children:[e.map((w,p)=>s.jsx(Cf,{message:w},p)),r&&s.jsx("div",{className:"flex justify-start mb-4",children:s.jsx("div",{className:"bg-gray-200 rounded-lg px-4 py-3",children:s.jsxs("div",{className:"flex items-center space-x-2",children:[s.jsx("div",{className:"w-2 h-2 bg-gray-500 rounded-full animate-bounce",style:{animationDelay:"0ms"}}),s.jsx("div",{className:"w-2 h-2 bg-gray-500 rounded-full animate-bounce",style:{animationDelay:"150ms"}}),s.jsx("div",{className:"w-2 h-2 bg-gray-500 rounded-full animate-bounce",style:{animationDelay:"300ms"}})]})})}),l&&s.jsx("div",{className:"bg-red-50 border border-red-200 rounded-lg p-4 mb-4",children:s.jsx("p",{className:"text-red-800 text-sm",children:l})}),s.jsx("div",{ref:c})]}),s.jsx(Ef,{onSend:d,disabled:r})]}),s.jsxs("div",{className:"mt-6 bg-white rounded-lg shadow-sm p-6",children:[s.jsx("h3",{className:"font-semibold text-gray-900 mb-3",children:"Try asking:"}),s.jsx("div",{className:"grid grid-cols-1 md:grid-cols-2 gap-2",children:["Show me popular Gundam models under $50","What's the difference between HG and MG kits?","I'm a beginner, what model should I start with?","Do you have any limited edition kits in stock?"].map((w,p)=>s.jsx("button",{onClick:()=>!r&&d(w),disabled:r,className:"text-left p-3 border border-gray-200 rounded-lg hover:bg-gray-50 hover:border-primary-300 transition-colors text-sm text-gray-700 disabled:opacity-50 disabled:cursor-not-allowed",children:w},p))})]})]})}function Bg(){const[e,t]=j.useState("ai"),[r,n]=j.useState({model:"",maxTokens:1024,temperature:.7}),[l,a]=j.useState(""),[o,i]=j.useState([]),[c,u]=j.useState(null),[f,d]=j.useState({storeName:"",storeDescription:"",storeCategories:"",scopeInstructions:"",outOfScopeResponse:"",requireSearchBeforeRecommendation:!0,enableProductSearch:!0,maxSearchResults:5,toneOfVoice:"friendly",includeCartLinks:!0,showPrices:!0,showSkus:!0,customInstructions:""}),[y,w]=j.useState(null),[p,g]=j.useState(""),[N,h]=j.useState(!0),[m,x]=j.useState(!1),[v,k]=j.useState(null);j.useEffect(()=>{S()},[e]);const S=async()=>{try{if(h(!0),e==="ai"){const[b,$,z]=await Promise.all([D.getAIConfig(),D.getSystemPrompt(),D.getAvailableModels()]);n(b.data),u(b.data),a($.data.prompt),i(z.data.models)}else if(e==="chatbot"){const[b,$]=await Promise.all([D.getChatbotConfig(),D.previewSystemPrompt()]);d(b.data),w(b.data),g($.data.prompt)}}catch(b){console.error("Error loading settings:",b),k({type:"error",text:"Failed to load settings"})}finally{h(!1)}},P=async()=>{var b,$;try{x(!0),k(null);const z=await D.updateAIConfig(r);u(r),k({type:"success",text:z.data.message||"AI settings saved successfully (runtime only)"})}catch(z){console.error("Error saving AI settings:",z),k({type:"error",text:(($=(b=z.response)==null?void 0:b.data)==null?void 0:$.message)||"Failed to save AI settings"})}finally{x(!1)}},E=async()=>{var b,$;try{x(!0),k(null);const z=await D.updateChatbotConfig(f);w(f);const le=await D.previewSystemPrompt();g(le.data.prompt),k({type:"success",text:z.data.message||"Chatbot settings saved successfully (runtime only)"})}catch(z){console.error("Error saving chatbot settings:",z),k({type:"error",text:(($=(b=z.response)==null?void 0:b.data)==null?void 0:$.message)||"Failed to save chatbot settings"})}finally{x(!1)}},I=async()=>{try{x(!0),k(null);const b=await D.resetChatbotConfig();d(b.data.config),w(b.data.config);const $=await D.previewSystemPrompt();g($.data.prompt),k({type:"success",text:"Chatbot configuration reset to defaults"})}catch(b){console.error("Error resetting chatbot settings:",b),k({type:"error",text:"Failed to reset chatbot settings"})}finally{x(!1)}},M=()=>{n(c),k({type:"info",text:"AI settings reset to last saved values"})},F=()=>{d(y),k({type:"info",text:"Chatbot settings reset to last saved values"})},T=()=>JSON.stringify(r)!==JSON.stringify(c),L=()=>JSON.stringify(f)!==JSON.stringify(y);return N?s.jsx("div",{className:"flex justify-center items-center h-64",children:s.jsx("div",{className:"text-gray-500",children:"Loading settings..."})}):s.jsxs("div",{className:"space-y-6",children:[s.jsxs("div",{children:[s.jsx("h1",{className:"text-3xl font-bold text-gray-900 mb-2",children:"Settings"}),s.jsx("p",{className:"text-gray-600",children:"Manage AI chatbot configuration and behavior"})]}),s.jsx("div",{className:"border-b border-gray-200",children:s.jsxs("nav",{className:"-mb-px flex space-x-8",children:[s.jsx("button",{onClick:()=>t("ai"),className:`py-4 px-1 border-b-2 font-medium text-sm ${e==="ai"?"border-primary-500 text-primary-600":"border-transparent text-gray-500 hover:text-gray-700 hover:border-gray-300"}`,children:"AI Parameters"}),s.jsx("button",{onClick:()=>t("chatbot"),className:`py-4 px-1 border-b-2 font-medium text-sm ${e==="chatbot"?"border-primary-500 text-primary-600":"border-transparent text-gray-500 hover:text-gray-700 hover:border-gray-300"}`,children:"Chatbot Configuration"})]})}),v&&s.jsx("div",{className:`p-4 rounded-lg ${v.type==="success"?"bg-green-100 text-green-800":v.type==="error"?"bg-red-100 text-red-800":"bg-blue-100 text-blue-800"}`,children:v.text}),e==="ai"&&s.jsxs(s.Fragment,{children:[s.jsxs("div",{className:"card",children:[s.jsx("h2",{className:"text-xl font-semibold mb-6",children:"AI Model Settings"}),s.jsxs("div",{className:"space-y-6",children:[s.jsxs("div",{children:[s.jsx("label",{className:"block text-sm font-medium text-gray-700 mb-2",children:"Model"}),s.jsx("select",{value:r.model,onChange:b=>n({...r,model:b.target.value}),className:"w-full px-3 py-2 border border-gray-300 rounded-lg focus:ring-2 focus:ring-primary-500 focus:border-primary-500",children:o.map(b=>s.jsx("option",{value:b,children:b},b))}),s.jsx("p",{className:"mt-1 text-sm text-gray-500",children:"Select which Claude model to use for chat responses"})]}),s.jsxs("div",{children:[s.jsxs("label",{className:"block text-sm font-medium text-gray-700 mb-2",children:["Temperature: ",r.temperature.toFixed(2)]}),s.jsx("input",{type:"range",min:"0",max:"1",step:"0.05",value:r.temperature,onChange:b=>n({...r,temperature:parseFloat(b.target.value)}),className:"w-full"}),s.jsxs("div",{className:"flex justify-between text-xs text-gray-500 mt-1",children:[s.jsx("span",{children:"More Focused (0.0)"}),s.jsx("span",{children:"More Creative (1.0)"})]}),s.jsx("p",{className:"mt-2 text-sm text-gray-500",children:"Controls randomness in responses. Lower values are more focused and deterministic"})]}),s.jsxs("div",{children:[s.jsx("label",{className:"block text-sm font-medium text-gray-700 mb-2",children:"Max Tokens"}),s.jsx("input",{type:"number",min:"256",max:"4096",step:"256",value:r.maxTokens,onChange:b=>n({...r,maxTokens:parseInt(b.target.value)}),className:"w-full px-3 py-2 border border-gray-300 rounded-lg focus:ring-2 focus:ring-primary-500 focus:border-primary-500"}),s.jsx("p",{className:"mt-1 text-sm text-gray-500",children:"Maximum length of AI responses (256-4096 tokens)"})]}),s.jsxs("div",{className:"flex gap-3 pt-4 border-t",children:[s.jsx("button",{onClick:P,disabled:m||!T(),className:"btn-primary disabled:opacity-50 disabled:cursor-not-allowed",children:m?"Saving...":"Save Changes"}),s.jsx("button",{onClick:M,disabled:!T(),className:"px-4 py-2 border border-gray-300 rounded-lg hover:bg-gray-50 disabled:opacity-50 disabled:cursor-not-allowed",children:"Reset"})]}),s.jsx("div",{className:"bg-yellow-50 border border-yellow-200 rounded-lg p-4",children:s.jsxs("p",{className:"text-sm text-yellow-800",children:[s.jsx("strong",{children:"Note:"})," Runtime changes only. Restart resets to defaults."]})})]})]}),s.jsxs("div",{className:"card",children:[s.jsx("h2",{className:"text-xl font-semibold mb-4",children:"Generated System Prompt"}),s.jsx("div",{className:"bg-gray-50 rounded-lg p-4 border border-gray-200",children:s.jsx("pre",{className:"text-sm text-gray-700 whitespace-pre-wrap font-mono",children:l})}),s.jsx("div",{className:"mt-4 bg-blue-50 border border-blue-200 rounded-lg p-4",children:s.jsxs("p",{className:"text-sm text-blue-800",children:["This prompt is dynamically generated from your chatbot configuration. Use the ",s.jsx("strong",{children:"Chatbot Configuration"})," tab to customize it."]})})]})]}),e==="chatbot"&&s.jsxs(s.Fragment,{children:[s.jsxs("div",{className:"card",children:[s.jsx("h2",{className:"text-xl font-semibold mb-6",children:"Store Identity"}),s.jsxs("div",{className:"space-y-4",children:[s.jsxs("div",{children:[s.jsx("label",{className:"block text-sm font-medium text-gray-700 mb-2",children:"Store Name"}),s.jsx("input",{type:"text",value:f.storeName,onChange:b=>d({...f,storeName:b.target.value}),className:"w-full px-3 py-2 border border-gray-300 rounded-lg focus:ring-2 focus:ring-primary-500",placeholder:"e.g., Hearn's Hobbies"})]}),s.jsxs("div",{children:[s.jsx("label",{className:"block text-sm font-medium text-gray-700 mb-2",children:"Store Description"}),s.jsx("input",{type:"text",value:f.storeDescription,onChange:b=>d({...f,storeDescription:b.target.value}),className:"w-full px-3 py-2 border border-gray-300 rounded-lg focus:ring-2 focus:ring-primary-500",placeholder:"e.g., An online hobby store specializing in model kits"})]}),s.jsxs("div",{children:[s.jsx("label",{className:"block text-sm font-medium text-gray-700 mb-2",children:"Product Categories"}),s.jsx("input",{type:"text",value:f.storeCategories,onChange:b=>d({...f,storeCategories:b.target.value}),className:"w-full px-3 py-2 border border-gray-300 rounded-lg focus:ring-2 focus:ring-primary-500",placeholder:"e.g., model kits, hobby paints, tools"}),s.jsx("p",{className:"mt-1 text-sm text-gray-500",children:"Comma-separated list of product categories"})]})]})]}),s.jsxs("div",{className:"card",children:[s.jsx("h2",{className:"text-xl font-semibold mb-6",children:"Behavior Rules"}),s.jsxs("div",{className:"space-y-4",children:[s.jsxs("div",{children:[s.jsx("label",{className:"block text-sm font-medium text-gray-700 mb-2",children:"Scope Instructions"}),s.jsx("textarea",{value:f.scopeInstructions,onChange:b=>d({...f,scopeInstructions:b.target.value}),rows:"3",className:"w-full px-3 py-2 border border-gray-300 rounded-lg focus:ring-2 focus:ring-primary-500",placeholder:"Describe what products your store sells and specializes in"})]}),s.jsxs("div",{children:[s.jsx("label",{className:"block text-sm font-medium text-gray-700 mb-2",children:"Out-of-Scope Response"}),s.jsx("textarea",{value:f.outOfScopeResponse,onChange:b=>d({...f,outOfScopeResponse:b.target.value}),rows:"2",className:"w-full px-3 py-2 border border-gray-300 rounded-lg focus:ring-2 focus:ring-primary-500",placeholder:"What to say when asked about products you don't carry"})]}),s.jsxs("div",{className:"flex items-center",children:[s.jsx("input",{type:"checkbox",id:"requireSearch",checked:f.requireSearchBeforeRecommendation,onChange:b=>d({...f,requireSearchBeforeRecommendation:b.target.checked}),className:"h-4 w-4 text-primary-600 focus:ring-primary-500 border-gray-300 rounded"}),s.jsx("label",{htmlFor:"requireSearch",className:"ml-2 block text-sm text-gray-700",children:"Always search catalog before making recommendations"})]})]})]}),s.jsxs("div",{className:"card",children:[s.jsx("h2",{className:"text-xl font-semibold mb-6",children:"Tool Configuration"}),s.jsxs("div",{className:"space-y-4",children:[s.jsxs("div",{className:"flex items-center",children:[s.jsx("input",{type:"checkbox",id:"enableSearch",checked:f.enableProductSearch,onChange:b=>d({...f,enableProductSearch:b.target.checked}),className:"h-4 w-4 text-primary-600 focus:ring-primary-500 border-gray-300 rounded"}),s.jsx("label",{htmlFor:"enableSearch",className:"ml-2 block text-sm text-gray-700",children:"Enable product search tool"})]}),s.jsxs("div",{children:[s.jsxs("label",{className:"block text-sm font-medium text-gray-700 mb-2",children:["Max Search Results: ",f.maxSearchResults]}),s.jsx("input",{type:"range",min:"1",max:"20",value:f.maxSearchResults,onChange:b=>d({...f,maxSearchResults:parseInt(b.target.value)}),className:"w-full"}),s.jsx("p",{className:"mt-1 text-sm text-gray-500",children:"Maximum number of products returned per search"})]})]})]}),s.jsxs("div",{className:"card",children:[s.jsx("h2",{className:"text-xl font-semibold mb-6",children:"Response Style"}),s.jsxs("div",{className:"space-y-4",children:[s.jsxs("div",{children:[s.jsx("label",{className:"block text-sm font-medium text-gray-700 mb-2",children:"Tone of Voice"}),s.jsxs("select",{value:f.toneOfVoice,onChange:b=>d({...f,toneOfVoice:b.target.value}),className:"w-full px-3 py-2 border border-gray-300 rounded-lg focus:ring-2 focus:ring-primary-500",children:[s.jsx("option",{value:"professional",children:"Professional"}),s.jsx("option",{value:"friendly",children:"Friendly"}),s.jsx("option",{value:"enthusiastic",children:"Enthusiastic"}),s.jsx("option",{value:"casual",children:"Casual"})]})]}),s.jsxs("div",{className:"space-y-2",children:[s.jsxs("div",{className:"flex items-center",children:[s.jsx("input",{type:"checkbox",id:"includeCartLinks",checked:f.includeCartLinks,onChange:b=>d({...f,includeCartLinks:b.target.checked}),className:"h-4 w-4 text-primary-600 focus:ring-primary-500 border-gray-300 rounded"}),s.jsx("label",{htmlFor:"includeCartLinks",className:"ml-2 block text-sm text-gray-700",children:"Include 'Add to Cart' links in responses"})]}),s.jsxs("div",{className:"flex items-center",children:[s.jsx("input",{type:"checkbox",id:"showPrices",checked:f.showPrices,onChange:b=>d({...f,showPrices:b.target.checked}),className:"h-4 w-4 text-primary-600 focus:ring-primary-500 border-gray-300 rounded"}),s.jsx("label",{htmlFor:"showPrices",className:"ml-2 block text-sm text-gray-700",children:"Show product prices"})]}),s.jsxs("div",{className:"flex items-center",children:[s.jsx("input",{type:"checkbox",id:"showSkus",checked:f.showSkus,onChange:b=>d({...f,showSkus:b.target.checked}),className:"h-4 w-4 text-primary-600 focus:ring-primary-500 border-gray-300 rounded"}),s.jsx("label",{htmlFor:"showSkus",className:"ml-2 block text-sm text-gray-700",children:"Show SKU information"})]})]})]})]}),s.jsxs("div",{className:"card",children:[s.jsx("h2",{className:"text-xl font-semibold mb-6",children:"Custom Instructions"}),s.jsxs("div",{children:[s.jsx("label",{className:"block text-sm font-medium text-gray-700 mb-2",children:"Additional Instructions (Optional)"}),s.jsx("textarea",{value:f.customInstructions,onChange:b=>d({...f,customInstructions:b.target.value}),rows:"4",className:"w-full px-3 py-2 border border-gray-300 rounded-lg focus:ring-2 focus:ring-primary-500",placeholder:"Add any additional custom instructions for the AI..."}),s.jsx("p",{className:"mt-1 text-sm text-gray-500",children:"Optional custom instructions that will be appended to the system prompt"})]})]}),s.jsxs("div",{className:"card",children:[s.jsxs("div",{className:"flex gap-3",children:[s.jsx("button",{onClick:E,disabled:m||!L(),className:"btn-primary disabled:opacity-50 disabled:cursor-not-allowed",children:m?"Saving...":"Save Changes"}),s.jsx("button",{onClick:F,disabled:!L(),className:"px-4 py-2 border border-gray-300 rounded-lg hover:bg-gray-50 disabled:opacity-50 disabled:cursor-not-allowed",children:"Cancel"}),s.jsx("button",{onClick:I,disabled:m,className:"px-4 py-2 border border-red-300 text-red-700 rounded-lg hover:bg-red-50 disabled:opacity-50 disabled:cursor-not-allowed",children:"Reset to Defaults"})]}),s.jsx("div",{className:"mt-4 bg-yellow-50 border border-yellow-200 rounded-lg p-4",children:s.jsxs("p",{className:"text-sm text-yellow-800",children:[s.jsx("strong",{children:"Note:"})," Runtime changes only. Restart resets to application.yml defaults."]})})]}),s.jsxs("div",{className:"card",children:[s.jsx("h2",{className:"text-xl font-semibold mb-4",children:"Generated System Prompt Preview"}),s.jsx("div",{className:"bg-gray-50 rounded-lg p-4 border border-gray-200 max-h-96 overflow-y-auto",children:s.jsx("pre",{className:"text-sm text-gray-700 whitespace-pre-wrap font-mono",children:p})}),s.jsx("p",{className:"mt-2 text-sm text-gray-500",children:"This is the system prompt that will be sent to Claude based on your configuration"})]})]})]})}var Pf={exports:{}},Vg="SECRET_DO_NOT_PASS_THIS_OR_YOU_WILL_BE_FIRED",Hg=Vg,qg=Hg;function Tf(){}function Af(){}Af.resetWarningCache=Tf;var Jg=function(){function e(n,l,a,o,i,c){if(c!==qg){var u=new Error("Calling PropTypes validators directly is not supported by the `prop-types` package. Use PropTypes.checkPropTypes() to call them. Read more at http://fb.me/use-check-prop-types");throw u.name="Invariant Violation",u}}e.isRequired=e;function t(){return e}var r={array:e,bigint:e,bool:e,func:e,number:e,object:e,string:e,symbol:e,any:e,arrayOf:t,element:e,elementType:e,instanceOf:t,node:e,objectOf:t,oneOf:t,oneOfType:t,shape:t,exact:t,checkPropTypes:Af,resetWarningCache:Tf};return r.PropTypes=r,r};Pf.exports=Jg();var Qg=Pf.exports;const J=Tc(Qg);function ee({title:e,value:t,currency:r,comparisonData:n,icon:l,type:a}){const o=f=>f==null?"0.00":parseFloat(f).toLocaleString("en-US",{minimumFractionDigits:2,maximumFractionDigits:2}),i=f=>{switch(f){case"up":return"↑";case"down":return"↓";default:return"→"}},c=f=>{switch(f){case"up":return"text-green-600";case"down":return"text-red-600";default:return"text-gray-600"}},u=f=>{switch(f){case"sales":return"bg-blue-50 border-blue-200";case"average":return"bg-purple-50 border-purple-200";case"freight":return"bg-orange-50 border-orange-200";case"discount":return"bg-pink-50 border-pink-200";default:return"bg-gray-50 border-gray-200"}};return s.jsxs("div",{className:`card ${u(a)}`,children:[s.jsx("div",{className:"flex items-start justify-between mb-3",children:s.jsxs("div",{className:"flex-1",children:[s.jsxs("div",{className:"flex items-center gap-2 mb-1",children:[l&&s.jsx("span",{className:"text-2xl",children:l}),s.jsx("h3",{className:"text-sm font-medium text-gray-600",children:e})]}),s.jsxs("div",{className:"text-3xl font-bold text-gray-900",children:[r&&s.jsx("span",{className:"text-2xl",children:r}),o(t)]})]})}),n&&s.jsxs("div",{className:"mt-4 pt-3 border-t border-gray-200",children:[s.jsxs("div",{className:"flex items-center justify-between text-sm",children:[s.jsx("span",{className:"text-gray-600",children:"vs. Last Year"}),s.jsxs("div",{className:`flex items-center gap-1 font-semibold ${c(n.trend)}`,children:[s.jsx("span",{children:i(n.trend)}),s.jsxs("span",{children:[n.percentageChange>0?"+":"",o(n.percentageChange),"%"]})]})]}),s.jsxs("div",{className:"text-xs text-gray-500 mt-1",children:["Previous: ",r,o(n.previousValue)]})]})]})}ee.propTypes={title:J.string.isRequired,value:J.oneOfType([J.string,J.number]),currency:J.string,comparisonData:J.shape({previousValue:J.oneOfType([J.string,J.number]),percentageChange:J.oneOfType([J.string,J.number]),trend:J.oneOf(["up","down","neutral"])}),icon:J.string,type:J.oneOf(["sales","average","freight","discount"])};ee.defaultProps={value:0,currency:"$",comparisonData:null,icon:null,type:"sales"};function Kg(){var I,M,F,T,L,b,$,z,le,O,U,W,H,K,Qe,Se;const[e,t]=j.useState(null),[r,n]=j.useState(null),[l,a]=j.useState(!0),[o,i]=j.useState(!0),[c,u]=j.useState(null),[f,d]=j.useState(null),[y,w]=j.useState("7d"),[p,g]=j.useState("online"),N=[{id:"1d",label:"1 Day",icon:"📅"},{id:"7d",label:"7 Days",icon:"📊"},{id:"30d",label:"30 Days",icon:"📈"},{id:"90d",label:"90 Days",icon:"📉"}],h=[{id:"online",label:"Online Sales",icon:"🛒"},{id:"channels",label:"All Channels",icon:"📊"}];j.useEffect(()=>{m(),x()},[]);const m=async()=>{a(!0),u(null);try{const G=await D.getAllSalesAnalytics();t(G.data.data)}catch(G){console.error("Error fetching analytics:",G),u("Failed to load analytics data. Please try again.")}finally{a(!1)}},x=async()=>{i(!0),d(null);try{const G=await D.getAllChannelSalesAnalytics();n(G.data.data)}catch(G){console.error("Error fetching channel analytics:",G),d("Failed to load channel analytics data. Please try again.")}finally{i(!1)}},v=()=>{m(),x()},k=()=>p==="channels"?!r||!r[y]?null:r[y]:!e||!e[y]?null:e[y],S=p==="online"?l:o,P=p==="online"?c:f,E=k();return s.jsxs("div",{className:"space-y-6",children:[s.jsxs("div",{className:"flex items-center justify-between",children:[s.jsxs("div",{children:[s.jsx("h1",{className:"text-3xl font-bold text-gray-900",children:"Sales Analytics"}),s.jsx("p",{className:"text-gray-600 mt-1",children:"Track your sales performance with year-over-year comparisons"})]}),s.jsx("button",{onClick:v,disabled:l||o,className:"btn-secondary",children:l||o?"Refreshing...":"🔄 Refresh"})]}),s.jsx("div",{className:"card",children:s.jsx("div",{className:"flex gap-2",children:h.map(G=>s.jsxs("button",{onClick:()=>g(G.id),className:`flex-1 px-6 py-3 rounded-lg font-medium transition-all ${p===G.id?"bg-primary-600 text-white shadow-md":"bg-gray-100 text-gray-700 hover:bg-gray-200"}`,children:[s.jsx("span",{className:"text-xl mr-2",children:G.icon}),G.label]},G.id))})}),s.jsx("div",{className:"card",children:s.jsx("div",{className:"flex gap-2 overflow-x-auto",children:N.map(G=>s.jsxs("button",{onClick:()=>w(G.id),className:`flex-1 min-w-[120px] px-4 py-3 rounded-lg font-medium transition-all ${y===G.id?"bg-primary-600 text-white shadow-md":"bg-gray-100 text-gray-700 hover:bg-gray-200"}`,children:[s.jsx("div",{className:"text-2xl mb-1",children:G.icon}),s.jsx("div",{className:"text-sm",children:G.label})]},G.id))})}),P&&s.jsx("div",{className:"card bg-red-50 border-red-200",children:s.jsxs("div",{className:"flex items-center gap-3",children:[s.jsx("span",{className:"text-3xl",children:"⚠️"}),s.jsxs("div",{children:[s.jsx("h3",{className:"font-semibold text-red-900",children:"Error Loading Analytics"}),s.jsx("p",{className:"text-red-700 text-sm",children:P})]})]})}),S&&s.jsx("div",{className:"card",children:s.jsx("div",{className:"flex items-center justify-center py-12",children:s.jsxs("div",{className:"text-center",children:[s.jsx("div",{className:"animate-spin text-5xl mb-4",children:"⚙️"}),s.jsx("p",{className:"text-gray-600",children:"Loading analytics data..."})]})})}),!S&&!P&&E&&s.jsxs(s.Fragment,{children:[s.jsx("div",{className:"card bg-blue-50 border-blue-200",children:s.jsxs("div",{className:"flex items-center justify-between",children:[s.jsxs("div",{children:[s.jsxs("h3",{className:"font-semibold text-gray-900",children:[(I=N.find(G=>G.id===y))==null?void 0:I.label," Report"]}),s.jsx("p",{className:"text-sm text-gray-600 mt-1",children:p==="channels"?`${E.totalOrders||0} orders processed`:`${E.orderCount||0} orders processed`})]}),s.jsxs("div",{className:"text-right text-sm text-gray-600",children:[s.jsxs("div",{children:["From: ",new Date(E.periodStart).toLocaleDateString()]}),s.jsxs("div",{children:["To: ",new Date(E.periodEnd).toLocaleDateString()]})]})]})}),p==="online"?s.jsxs("div",{className:"grid grid-cols-1 md:grid-cols-2 lg:grid-cols-4 gap-6",children:[s.jsx(ee,{title:"Total Sales",value:E.totalSales,currency:E.currencyCode==="AUD"?"$":E.currencyCode,comparisonData:E.yearOverYearComparison,icon:"💰",type:"sales"}),s.jsx(ee,{title:"Average Sale",value:E.averageSale,currency:E.currencyCode==="AUD"?"$":E.currencyCode,comparisonData:null,icon:"📊",type:"average"}),s.jsx(ee,{title:"Total Freight Paid",value:E.totalFreight,currency:E.currencyCode==="AUD"?"$":E.currencyCode,comparisonData:null,icon:"🚚",type:"freight"}),s.jsx(ee,{title:"Total Discounts Given",value:E.totalDiscounts,currency:E.currencyCode==="AUD"?"$":E.currencyCode,comparisonData:null,icon:"🏷️",type:"discount"})]}):s.jsxs("div",{className:"space-y-6",children:[s.jsxs("div",{children:[s.jsx("h3",{className:"text-lg font-semibold text-gray-900 mb-3",children:"📊 Grand Total (No Double-Counting)"}),s.jsxs("div",{className:"grid grid-cols-1 md:grid-cols-3 gap-6",children:[s.jsx(ee,{title:"Total Revenue",value:E.totalRevenue||0,currency:"$",comparisonData:E.yearOverYearComparison,icon:"💰",type:"sales"}),s.jsx(ee,{title:"Total Orders",value:E.totalOrders||0,currency:"",comparisonData:null,icon:"📦",type:"orders"}),s.jsx(ee,{title:"Total Items Sold",value:E.totalItems||0,currency:"",comparisonData:null,icon:"📋",type:"orders"})]})]}),s.jsxs("div",{className:"card bg-blue-50 border-blue-200",children:[s.jsx("h3",{className:"text-lg font-semibold text-gray-900 mb-4",children:"🏪 Pure In-Store Sales (Walk-in Customers)"}),s.jsxs("div",{className:"mb-4",children:[s.jsx("h4",{className:"text-md font-semibold text-gray-800 mb-2",children:"The Hobbyman (Narre Warren)"}),s.jsxs("div",{className:"grid grid-cols-1 md:grid-cols-3 gap-4",children:[s.jsx(ee,{title:"Revenue",value:((M=E.hobbyman)==null?void 0:M.revenue)||0,currency:"$",comparisonData:null,icon:"💵",type:"sales"}),s.jsx(ee,{title:"Orders",value:((F=E.hobbyman)==null?void 0:F.orderCount)||0,currency:"",comparisonData:null,icon:"🛍️",type:"orders"}),s.jsx(ee,{title:"Items Sold",value:((T=E.hobbyman)==null?void 0:T.itemCount)||0,currency:"",comparisonData:null,icon:"📦",type:"orders"})]})]}),s.jsxs("div",{children:[s.jsx("h4",{className:"text-md font-semibold text-gray-800 mb-2",children:"Hearns Hobbies (Melbourne CBD)"}),s.jsxs("div",{className:"grid grid-cols-1 md:grid-cols-3 gap-4",children:[s.jsx(ee,{title:"Revenue",value:((L=E.hearnsHobbies)==null?void 0:L.revenue)||0,currency:"$",comparisonData:null,icon:"💵",type:"sales"}),s.jsx(ee,{title:"Orders",value:((b=E.hearnsHobbies)==null?void 0:b.orderCount)||0,currency:"",comparisonData:null,icon:"🛍️",type:"orders"}),s.jsx(ee,{title:"Items Sold",value:(($=E.hearnsHobbies)==null?void 0:$.itemCount)||0,currency:"",comparisonData:null,icon:"📦",type:"orders"})]})]})]}),s.jsxs("div",{className:"card bg-green-50 border-green-200",children:[s.jsx("h3",{className:"text-lg font-semibold text-gray-900 mb-2",children:"📦 Online Orders Fulfilled In-Store"}),s.jsx("p",{className:"text-sm text-gray-600 mb-4",children:"Online orders processed and invoiced at physical store locations"}),s.jsxs("div",{className:"mb-4",children:[s.jsx("h4",{className:"text-md font-semibold text-gray-800 mb-2",children:"The Hobbyman (Fulfillment)"}),s.jsxs("div",{className:"grid grid-cols-1 md:grid-cols-3 gap-4",children:[s.jsx(ee,{title:"Revenue",value:((z=E.hobbymanFulfillment)==null?void 0:z.revenue)||0,currency:"$",comparisonData:null,icon:"💵",type:"sales"}),s.jsx(ee,{title:"Orders",value:((le=E.hobbymanFulfillment)==null?void 0:le.orderCount)||0,currency:"",comparisonData:null,icon:"📦",type:"orders"}),s.jsx(ee,{title:"Items",value:((O=E.hobbymanFulfillment)==null?void 0:O.itemCount)||0,currency:"",comparisonData:null,icon:"📋",type:"orders"})]})]}),s.jsxs("div",{children:[s.jsx("h4",{className:"text-md font-semibold text-gray-800 mb-2",children:"Hearns Hobbies (Fulfillment)"}),s.jsxs("div",{className:"grid grid-cols-1 md:grid-cols-3 gap-4",children:[s.jsx(ee,{title:"Revenue",value:((U=E.hearnsFulfillment)==null?void 0:U.revenue)||0,currency:"$",comparisonData:null,icon:"💵",type:"sales"}),s.jsx(ee,{title:"Orders",value:((W=E.hearnsFulfillment)==null?void 0:W.orderCount)||0,currency:"",comparisonData:null,icon:"📦",type:"orders"}),s.jsx(ee,{title:"Items",value:((H=E.hearnsFulfillment)==null?void 0:H.itemCount)||0,currency:"",comparisonData:null,icon:"📋",type:"orders"})]})]})]}),s.jsxs("div",{className:"card bg-purple-50 border-purple-200",children:[s.jsx("h3",{className:"text-lg font-semibold text-gray-900 mb-2",children:"🛒 Online Sales Summary (Shopify)"}),s.jsx("p",{className:"text-sm text-gray-600 mb-4",children:"Total online orders placed through Shopify"}),s.jsxs("div",{className:"grid grid-cols-1 md:grid-cols-3 gap-4 mb-4",children:[s.jsx(ee,{title:"Total Online Revenue",value:((K=E.shopify)==null?void 0:K.revenue)||0,currency:"$",comparisonData:null,icon:"💰",type:"sales"}),s.jsx(ee,{title:"Total Online Orders",value:((Qe=E.shopify)==null?void 0:Qe.orderCount)||0,currency:"",comparisonData:null,icon:"🛍️",type:"orders"}),s.jsx(ee,{title:"Items",value:((Se=E.shopify)==null?void 0:Se.itemCount)||0,currency:"",comparisonData:null,icon:"📦",type:"orders"})]}),s.jsxs("div",{className:"border-t pt-4",children:[s.jsx("h4",{className:"text-md font-semibold text-gray-800 mb-3",children:"Fulfillment Status"}),s.jsxs("div",{className:"grid grid-cols-1 md:grid-cols-2 gap-4",children:[s.jsxs("div",{className:"bg-white rounded-lg p-4 border border-green-200",children:[s.jsxs("div",{className:"flex items-center justify-between mb-2",children:[s.jsx("span",{className:"text-sm font-medium text-gray-700",children:"Fulfilled & Invoiced"}),s.jsx("span",{className:"text-2xl",children:"✅"})]}),s.jsxs("div",{className:"text-2xl font-bold text-green-600",children:["$",(E.onlineFulfilledRevenue||0).toLocaleString()]}),s.jsxs("div",{className:"text-sm text-gray-600 mt-1",children:[E.onlineFulfilledOrders||0," orders"]})]}),s.jsxs("div",{className:"bg-white rounded-lg p-4 border border-yellow-200",children:[s.jsxs("div",{className:"flex items-center justify-between mb-2",children:[s.jsx("span",{className:"text-sm font-medium text-gray-700",children:"Pending/Unfulfilled"}),s.jsx("span",{className:"text-2xl",children:"⏳"})]}),s.jsxs("div",{className:"text-2xl font-bold text-yellow-600",children:["$",(E.onlinePendingRevenue||0).toLocaleString()]}),s.jsxs("div",{className:"text-sm text-gray-600 mt-1",children:[E.onlinePendingOrders||0," orders"]})]})]})]})]})]}),E.orderCount>0&&p==="online"&&s.jsxs("div",{className:"card bg-green-50 border-green-200",children:[s.jsx("h3",{className:"font-semibold text-gray-900 mb-3",children:"📈 Key Insights"}),s.jsxs("div",{className:"grid grid-cols-1 md:grid-cols-3 gap-4 text-sm",children:[s.jsxs("div",{children:[s.jsx("span",{className:"text-gray-600",children:"Orders:"}),s.jsx("span",{className:"font-semibold text-gray-900 ml-2",children:E.orderCount})]}),s.jsxs("div",{children:[s.jsx("span",{className:"text-gray-600",children:"Avg Freight/Order:"}),s.jsxs("span",{className:"font-semibold text-gray-900 ml-2",children:["$",(parseFloat(E.totalFreight)/E.orderCount).toFixed(2)]})]}),s.jsxs("div",{children:[s.jsx("span",{className:"text-gray-600",children:"Avg Discount/Order:"}),s.jsxs("span",{className:"font-semibold text-gray-900 ml-2",children:["$",(parseFloat(E.totalDiscounts)/E.orderCount).toFixed(2)]})]})]})]}),(p==="online"&&E.orderCount===0||p==="channels"&&E.totalOrders===0)&&s.jsx("div",{className:"card bg-yellow-50 border-yellow-200",children:s.jsxs("div",{className:"flex items-center gap-3",children:[s.jsx("span",{className:"text-3xl",children:"📭"}),s.jsxs("div",{children:[s.jsx("h3",{className:"font-semibold text-yellow-900",children:"No Orders Found"}),s.jsx("p",{className:"text-yellow-700 text-sm",children:"There are no orders in the selected period."})]})]})})]})]})}function Of({order:e}){if(!e)return null;const t=()=>{const r=window.open("","_blank","width=800,height=600"),n=`
+`+a):n.stack=a}catch{}}throw n}}_request(t,r){typeof t=="string"?(r=r||{},r.url=t):r=t||{},r=nr(this.defaults,r);const{transitional:n,paramsSerializer:l,headers:a}=r;n!==void 0&&ws.assertOptions(n,{silentJSONParsing:st.transitional(st.boolean),forcedJSONParsing:st.transitional(st.boolean),clarifyTimeoutError:st.transitional(st.boolean)},!1),l!=null&&(C.isFunction(l)?r.paramsSerializer={serialize:l}:ws.assertOptions(l,{encode:st.function,serialize:st.function},!0)),r.allowAbsoluteUrls!==void 0||(this.defaults.allowAbsoluteUrls!==void 0?r.allowAbsoluteUrls=this.defaults.allowAbsoluteUrls:r.allowAbsoluteUrls=!0),ws.assertOptions(r,{baseUrl:st.spelling("baseURL"),withXsrfToken:st.spelling("withXSRFToken")},!0),r.method=(r.method||this.defaults.method||"get").toLowerCase();let o=a&&C.merge(a.common,a[r.method]);a&&C.forEach(["delete","get","head","post","put","patch","common"],p=>{delete a[p]}),r.headers=Fe.concat(o,a);const i=[];let c=!0;this.interceptors.request.forEach(function(g){typeof g.runWhen=="function"&&g.runWhen(r)===!1||(c=c&&g.synchronous,i.unshift(g.fulfilled,g.rejected))});const u=[];this.interceptors.response.forEach(function(g){u.push(g.fulfilled,g.rejected)});let f,d=0,y;if(!c){const p=[Sc.bind(this),void 0];for(p.unshift(...i),p.push(...u),y=p.length,f=Promise.resolve(r);d<y;)f=f.then(p[d++],p[d++]);return f}y=i.length;let w=r;for(;d<y;){const p=i[d++],g=i[d++];try{w=p(w)}catch(N){g.call(this,N);break}}try{f=Sc.call(this,w)}catch(p){return Promise.reject(p)}for(d=0,y=u.length;d<y;)f=f.then(u[d++],u[d++]);return f}getUri(t){t=nr(this.defaults,t);const r=vf(t.baseURL,t.url,t.allowAbsoluteUrls);return pf(r,t.params,t.paramsSerializer)}};C.forEach(["delete","get","head","options"],function(t){Yt.prototype[t]=function(r,n){return this.request(nr(n||{},{method:t,url:r,data:(n||{}).data}))}});C.forEach(["post","put","patch"],function(t){function r(n){return function(a,o,i){return this.request(nr(i||{},{method:t,headers:n?{"Content-Type":"multipart/form-data"}:{},url:a,data:o}))}}Yt.prototype[t]=r(),Yt.prototype[t+"Form"]=r(!0)});let Rg=class Sf{constructor(t){if(typeof t!="function")throw new TypeError("executor must be a function.");let r;this.promise=new Promise(function(a){r=a});const n=this;this.promise.then(l=>{if(!n._listeners)return;let a=n._listeners.length;for(;a-- >0;)n._listeners[a](l);n._listeners=null}),this.promise.then=l=>{let a;const o=new Promise(i=>{n.subscribe(i),a=i}).then(l);return o.cancel=function(){n.unsubscribe(a)},o},t(function(a,o,i){n.reason||(n.reason=new zr(a,o,i),r(n.reason))})}throwIfRequested(){if(this.reason)throw this.reason}subscribe(t){if(this.reason){t(this.reason);return}this._listeners?this._listeners.push(t):this._listeners=[t]}unsubscribe(t){if(!this._listeners)return;const r=this._listeners.indexOf(t);r!==-1&&this._listeners.splice(r,1)}toAbortSignal(){const t=new AbortController,r=n=>{t.abort(n)};return this.subscribe(r),t.signal.unsubscribe=()=>this.unsubscribe(r),t.signal}static source(){let t;return{token:new Sf(function(l){t=l}),cancel:t}}};function Lg(e){return function(r){return e.apply(null,r)}}function _g(e){return C.isObject(e)&&e.isAxiosError===!0}const qa={Continue:100,SwitchingProtocols:101,Processing:102,EarlyHints:103,Ok:200,Created:201,Accepted:202,NonAuthoritativeInformation:203,NoContent:204,ResetContent:205,PartialContent:206,MultiStatus:207,AlreadyReported:208,ImUsed:226,MultipleChoices:300,MovedPermanently:301,Found:302,SeeOther:303,NotModified:304,UseProxy:305,Unused:306,TemporaryRedirect:307,PermanentRedirect:308,BadRequest:400,Unauthorized:401,PaymentRequired:402,Forbidden:403,NotFound:404,MethodNotAllowed:405,NotAcceptable:406,ProxyAuthenticationRequired:407,RequestTimeout:408,Conflict:409,Gone:410,LengthRequired:411,PreconditionFailed:412,PayloadTooLarge:413,UriTooLong:414,UnsupportedMediaType:415,RangeNotSatisfiable:416,ExpectationFailed:417,ImATeapot:418,MisdirectedRequest:421,UnprocessableEntity:422,Locked:423,FailedDependency:424,TooEarly:425,UpgradeRequired:426,PreconditionRequired:428,TooManyRequests:429,RequestHeaderFieldsTooLarge:431,UnavailableForLegalReasons:451,InternalServerError:500,NotImplemented:501,BadGateway:502,ServiceUnavailable:503,GatewayTimeout:504,HttpVersionNotSupported:505,VariantAlsoNegotiates:506,InsufficientStorage:507,LoopDetected:508,NotExtended:510,NetworkAuthenticationRequired:511};Object.entries(qa).forEach(([e,t])=>{qa[t]=e});function kf(e){const t=new Yt(e),r=tf(Yt.prototype.request,t);return C.extend(r,Yt.prototype,t,{allOwnKeys:!0}),C.extend(r,t,null,{allOwnKeys:!0}),r.create=function(l){return kf(nr(e,l))},r}const ce=kf(zn);ce.Axios=Yt;ce.CanceledError=zr;ce.CancelToken=Rg;ce.isCancel=gf;ce.VERSION=bf;ce.toFormData=pl;ce.AxiosError=B;ce.Cancel=ce.CanceledError;ce.all=function(t){return Promise.all(t)};ce.spread=Lg;ce.isAxiosError=_g;ce.mergeConfig=nr;ce.AxiosHeaders=Fe;ce.formToJSON=e=>xf(C.isHTMLForm(e)?new FormData(e):e);ce.getAdapter=Nf.getAdapter;ce.HttpStatusCode=qa;ce.default=ce;const{Axios:i0,AxiosError:c0,CanceledError:u0,isCancel:d0,CancelToken:f0,VERSION:m0,all:p0,Cancel:h0,isAxiosError:x0,spread:g0,toFormData:y0,AxiosHeaders:v0,HttpStatusCode:w0,formToJSON:j0,getAdapter:N0,mergeConfig:b0}=ce,R=ce.create({baseURL:"/api",headers:{"Content-Type":"application/json"}}),D={getHealth:()=>R.get("/health"),getStatus:()=>R.get("/status"),getProducts:(e=10,t=null)=>{const r={first:e};return t&&(r.after=t),R.get("/products",{params:r})},getProductById:e=>R.get(`/products/${e}`),searchProducts:(e,t=20,r=!1)=>R.get("/products/search",{params:{q:e,first:t,includeArchived:r}}),getOrders:(e=10,t=null)=>{const r={first:e};return t&&(r.after=t),R.get("/orders",{params:r})},getOrderById:e=>R.get(`/orders/${e}`),searchOrders:(e,t=20)=>R.get("/orders/search",{params:{q:e,first:t}}),getCustomers:(e=10,t=null)=>{const r={first:e};return t&&(r.after=t),R.get("/customers",{params:r})},getCustomerById:e=>R.get(`/customers/${e}`),searchCustomers:(e,t=20)=>R.get("/customers/search",{params:{q:e,first:t}}),getInventory:(e=10,t=null)=>{const r={first:e};return t&&(r.after=t),R.get("/inventory",{params:r})},getInventoryLocations:()=>R.get("/inventory/locations"),sendChatMessage:(e,t=[])=>R.post("/chat/message",{message:e,conversationHistory:t}),getChatStatus:()=>R.get("/chat/status"),getAIConfig:()=>R.get("/config/ai"),updateAIConfig:e=>R.put("/config/ai",e),getSystemPrompt:()=>R.get("/config/prompt"),getAvailableModels:()=>R.get("/config/models"),getChatbotConfig:()=>R.get("/config/chatbot"),updateChatbotConfig:e=>R.put("/config/chatbot",e),resetChatbotConfig:()=>R.post("/config/chatbot/reset"),previewSystemPrompt:()=>R.get("/config/chatbot/preview-prompt"),getSalesAnalytics:(e="7d")=>R.get("/analytics/sales",{params:{period:e}}),getAllSalesAnalytics:()=>R.get("/analytics/sales/all"),getInstoreSalesAnalytics:(e="7d")=>R.get("/analytics/instore/sales",{params:{period:e}}),getAllInstoreSalesAnalytics:()=>R.get("/analytics/instore/sales/all"),getChannelSalesAnalytics:(e="7d")=>R.get("/analytics/channels",{params:{period:e}}),getAllChannelSalesAnalytics:()=>R.get("/analytics/channels/all"),getPendingFulfillments:(e=!1,t=!1)=>R.get("/fulfillment/pending",{params:{includeDiscounts:e,includeSalePrices:t}}),getFulfillmentDetails:e=>R.get(`/fulfillment/${e}`),getAgents:(e=null)=>{const t={};return e!==null&&(t.activeOnly=e),R.get("/agents",{params:t})},getAgent:e=>R.get(`/agents/${e}`),createAgent:e=>R.post("/agents",e),updateAgent:(e,t)=>R.put(`/agents/${e}`,t),deleteAgent:e=>R.delete(`/agents/${e}`),activateAgent:e=>R.post(`/agents/${e}/activate`),deactivateAgent:e=>R.post(`/agents/${e}/deactivate`),executeAgent:(e,t)=>R.post(`/agents/${e}/execute`,t),getWorkflows:(e=null,t=null)=>{const r={};return e!==null&&(r.activeOnly=e),t!==null&&(r.triggerType=t),R.get("/workflows",{params:r})},getWorkflow:e=>R.get(`/workflows/${e}`),createWorkflow:e=>R.post("/workflows",e),updateWorkflow:(e,t)=>R.put(`/workflows/${e}`,t),deleteWorkflow:e=>R.delete(`/workflows/${e}`),activateWorkflow:e=>R.post(`/workflows/${e}/activate`),deactivateWorkflow:e=>R.post(`/workflows/${e}/deactivate`),executeWorkflow:(e,t)=>R.post(`/workflows/${e}/execute?wait=true`,t),executePublicWorkflow:(e,t)=>R.post(`/workflows/public/${e}/execute?wait=true`,t),getWorkflowSteps:e=>R.get(`/workflows/${e}/steps`),createWorkflowStep:(e,t)=>R.post(`/workflows/${e}/steps`,t),updateWorkflowStep:(e,t,r)=>R.put(`/workflows/${e}/steps/${t}`,r),deleteWorkflowStep:(e,t)=>R.delete(`/workflows/${e}/steps/${t}`),reorderWorkflowSteps:(e,t)=>R.post(`/workflows/${e}/steps/reorder`,t),getWorkflowExecutions:e=>R.get(`/workflows/${e}/executions`),getAllExecutions:()=>R.get("/executions"),getExecutionDetails:e=>R.get(`/executions/${e}`),getPendingApprovals:(e=null)=>{const t={};return e!==null&&(t.role=e),R.get("/approvals/pending",{params:t})},getApprovalsByExecution:e=>R.get(`/approvals/execution/${e}`),getApprovalCount:()=>R.get("/approvals/count"),approveRequest:(e,t,r)=>R.post(`/approvals/${e}/approve`,{approvedBy:t,comments:r}),rejectRequest:(e,t,r)=>R.post(`/approvals/${e}/reject`,{rejectedBy:t,reason:r}),getTools:(e=null)=>{const t={};return e!==null&&(t.activeOnly=e),R.get("/tools",{params:t})},getTool:e=>R.get(`/tools/${e}`),createTool:e=>R.post("/tools",e),updateTool:(e,t)=>R.put(`/tools/${e}`,t),deleteTool:e=>R.delete(`/tools/${e}`),getSchedules:(e=!0)=>{const t={};return e!==null&&(t.active=e),R.get("/schedules",{params:t})},getSchedulesForWorkflow:e=>R.get(`/schedules/workflow/${e}`),createSchedule:(e,t,r=null)=>R.post("/schedules",{workflowId:e,cronExpression:t,triggerData:r}),cancelSchedule:e=>R.delete(`/schedules/${e}`),activateSchedule:e=>R.put(`/schedules/${e}/activate`),updateScheduleCron:(e,t)=>R.put(`/schedules/${e}/cron`,{cronExpression:t}),updateScheduleTriggerData:(e,t)=>R.put(`/schedules/${e}/trigger-data`,t),sendSeoAgentMessage:(e,t=[],r=null)=>R.post("/seo-agent/chat",{message:e,conversationHistory:t,config:r}),getSeoAgentStatus:()=>R.get("/seo-agent/status"),getAgentTools:(e=!0)=>{const t={};return e!==null&&(t.activeOnly=e),R.get("/tools",{params:t})}};function Fg(){const e=Fn(),[t,r]=j.useState(0),[n,l]=j.useState(!1),a=j.useRef(null);j.useEffect(()=>{o();const d=setInterval(o,3e4);return()=>clearInterval(d)},[]),j.useEffect(()=>{function d(y){a.current&&!a.current.contains(y.target)&&l(!1)}return document.addEventListener("mousedown",d),()=>document.removeEventListener("mousedown",d)},[]);const o=async()=>{try{const d=await D.getApprovalCount();r(d.data.count)}catch(d){console.error("Error loading approval count:",d)}},i=[{path:"/",label:"Dashboard",icon:"🏠"},{path:"/products",label:"Product Search",icon:"🔍"},{path:"/chat",label:"AI Chat Agent",icon:"💬"},{path:"/fulfillment",label:"Orders to Fulfill",icon:"📦"},{path:"/agents",label:"Agents",icon:"🤖"},{path:"/seo-agent",label:"SEO Agent",icon:"🎯"},{path:"/settings",label:"Settings",icon:"⚙️"},{path:"/analytics",label:"Analytics",icon:"📊"},{path:"/market-intel",label:"Market Intel",icon:"💰"}],c=[{path:"/workflows",label:"Workflows",icon:"🔄"},{path:"/workflow-gallery",label:"Workflow Gallery",icon:"🎨"},{path:"/executions",label:"Executions",icon:"📈"},{path:"/approvals",label:"Approvals",icon:"✅",badge:t}],u=d=>d==="/workflows"?e.pathname.startsWith("/workflows"):d==="/agents"?e.pathname.startsWith("/agents"):d==="/executions"?e.pathname.startsWith("/executions"):d==="/approvals"?e.pathname.startsWith("/approvals"):d==="/seo-agent"?e.pathname.startsWith("/seo-agent"):e.pathname===d,f=()=>c.some(d=>u(d.path));return s.jsx("nav",{className:"bg-white shadow-md",children:s.jsx("div",{className:"container mx-auto px-4",children:s.jsxs("div",{className:"flex items-center justify-between h-16",children:[s.jsx("div",{className:"flex items-center",children:s.jsx("h1",{className:"text-xl font-bold text-primary-600",children:"Customer Service Hub"})}),s.jsxs("div",{className:"flex space-x-4",children:[i.map(d=>s.jsxs(qs,{to:d.path,className:`px-3 py-2 rounded-md text-sm font-medium transition-colors duration-200 relative ${u(d.path)?"bg-primary-100 text-primary-700":"text-gray-700 hover:bg-gray-100"}`,children:[s.jsx("span",{className:"mr-2",children:d.icon}),d.label,d.badge>0&&s.jsx("span",{className:"absolute -top-1 -right-1 bg-red-500 text-white text-xs rounded-full h-5 w-5 flex items-center justify-center font-bold",children:d.badge})]},d.path)),s.jsxs("div",{ref:a,className:"relative",children:[s.jsxs("button",{onClick:()=>l(!n),className:`px-3 py-2 rounded-md text-sm font-medium transition-colors duration-200 flex items-center ${f()?"bg-primary-100 text-primary-700":"text-gray-700 hover:bg-gray-100"}`,children:[s.jsx("span",{className:"mr-2",children:"🚧"}),"Temp Dev",s.jsx("svg",{className:`ml-1 h-4 w-4 transition-transform ${n?"rotate-180":""}`,fill:"none",stroke:"currentColor",viewBox:"0 0 24 24",children:s.jsx("path",{strokeLinecap:"round",strokeLinejoin:"round",strokeWidth:2,d:"M19 9l-7 7-7-7"})})]}),n&&s.jsx("div",{className:"absolute top-full right-0 mt-2 w-56 bg-white rounded-md shadow-lg py-1 z-50 border border-gray-200",children:c.map(d=>s.jsxs(qs,{to:d.path,onClick:()=>l(!1),className:`block px-4 py-2 text-sm transition-colors relative ${u(d.path)?"bg-primary-100 text-primary-700":"text-gray-700 hover:bg-gray-100"}`,children:[s.jsx("span",{className:"mr-2",children:d.icon}),d.label,d.badge>0&&s.jsx("span",{className:"absolute top-1/2 right-3 transform -translate-y-1/2 bg-red-500 text-white text-xs rounded-full h-5 w-5 flex items-center justify-center font-bold",children:d.badge})]},d.path))})]})]})]})})})}function Ig(){const[e,t]=j.useState(null),[r,n]=j.useState(!0);j.useEffect(()=>{(async()=>{try{const o=await D.getStatus();t(o.data)}catch(o){console.error("Error fetching status:",o)}finally{n(!1)}})()},[]);const l=[{title:"Product Search",description:"Search products, view details, and generate cart links",icon:"🔍",path:"/products",status:"Active",color:"bg-green-100 text-green-800"},{title:"AI Chat Agent",description:"Sales and customer support automation",icon:"💬",path:"/chat",status:"Active",color:"bg-green-100 text-green-800"},{title:"Orders to Fulfill",description:"View Shopify orders pending CRS fulfillment",icon:"📦",path:"/fulfillment",status:"Active",color:"bg-orange-100 text-orange-800"},{title:"Analytics Dashboard",description:"Business insights and reporting",icon:"📊",path:"/analytics",status:"Active",color:"bg-green-100 text-green-800"},{title:"Market Intelligence",description:"Competitive pricing and discount tracking",icon:"💰",path:"/market-intel",status:"Coming Soon",color:"bg-yellow-100 text-yellow-800"}];return s.jsxs("div",{className:"space-y-8",children:[s.jsxs("div",{className:"text-center",children:[s.jsx("h1",{className:"text-4xl font-bold text-gray-900 mb-2",children:"Welcome to Customer Service Hub"}),s.jsx("p",{className:"text-lg text-gray-600",children:"Your central tool for sales, support, and business intelligence"})]}),s.jsxs("div",{className:"card",children:[s.jsx("h2",{className:"text-xl font-semibold mb-4",children:"System Status"}),r?s.jsx("div",{className:"text-gray-500",children:"Loading status..."}):e?s.jsxs("div",{className:"grid grid-cols-2 md:grid-cols-4 gap-4",children:[s.jsxs("div",{className:"text-center",children:[s.jsx("div",{className:"text-2xl font-bold text-primary-600",children:e.shopify_connected?"✅":"❌"}),s.jsx("div",{className:"text-sm text-gray-600",children:"Shopify Connected"})]}),s.jsxs("div",{className:"text-center",children:[s.jsx("div",{className:"text-2xl font-bold text-primary-600",children:e.api_version}),s.jsx("div",{className:"text-sm text-gray-600",children:"API Version"})]}),s.jsxs("div",{className:"text-center",children:[s.jsx("div",{className:"text-2xl font-bold text-primary-600",children:e.environment}),s.jsx("div",{className:"text-sm text-gray-600",children:"Environment"})]}),s.jsxs("div",{className:"text-center",children:[s.jsx("div",{className:"text-2xl font-bold text-green-600",children:"UP"}),s.jsx("div",{className:"text-sm text-gray-600",children:"Service Status"})]})]}):s.jsx("div",{className:"text-red-500",children:"Unable to fetch status"})]}),s.jsx("div",{className:"grid grid-cols-1 md:grid-cols-2 gap-6",children:l.map(a=>s.jsx(qs,{to:a.path,className:"card hover:shadow-lg transition-shadow duration-200",children:s.jsx("div",{className:"flex items-start justify-between",children:s.jsxs("div",{className:"flex-1",children:[s.jsx("div",{className:"text-4xl mb-3",children:a.icon}),s.jsx("h3",{className:"text-xl font-semibold text-gray-900 mb-2",children:a.title}),s.jsx("p",{className:"text-gray-600 mb-3",children:a.description}),s.jsx("span",{className:`inline-block px-3 py-1 rounded-full text-xs font-medium ${a.color}`,children:a.status})]})})},a.path))}),s.jsx("div",{className:"card bg-primary-50 border border-primary-200",children:s.jsxs("div",{className:"text-center",children:[s.jsx("h3",{className:"text-lg font-semibold text-gray-900 mb-2",children:"Quick Product Search"}),s.jsx("p",{className:"text-gray-600 mb-4",children:"Search for products and generate cart links instantly"}),s.jsx(qs,{to:"/products",className:"btn-primary inline-block",children:"Go to Product Search →"})]})})]})}function Dg({value:e,onChange:t,onSearch:r,loading:n}){const[l,a]=j.useState(e),o=u=>{u.preventDefault(),r(l)},i=u=>{const f=u.target.value;a(f),t(f)},c=()=>{a(""),t(""),r("")};return s.jsxs("form",{onSubmit:o,className:"card",children:[s.jsxs("div",{className:"flex gap-2",children:[s.jsxs("div",{className:"flex-1 relative",children:[s.jsx("input",{type:"text",value:l,onChange:i,placeholder:"Search by product name, SKU, or keyword...",className:"input-field pr-10",disabled:n}),l&&s.jsx("button",{type:"button",onClick:c,className:"absolute right-3 top-1/2 transform -translate-y-1/2 text-gray-400 hover:text-gray-600",children:"✕"})]}),s.jsx("button",{type:"submit",disabled:n||!l.trim(),className:"btn-primary disabled:opacity-50 disabled:cursor-not-allowed",children:n?s.jsxs("span",{className:"flex items-center",children:[s.jsx("span",{className:"animate-spin mr-2",children:"⏳"}),"Searching..."]}):s.jsx("span",{children:"🔍 Search"})})]}),s.jsxs("div",{className:"mt-3 text-sm text-gray-600",children:[s.jsx("strong",{children:"Search tips:"}),' Try "title:Gundam" for title search, or just "Gundam" for general search']})]})}function $g({product:e,onClick:t}){var i,c,u,f,d,y,w,p;const r=(f=(u=(c=(i=e.images)==null?void 0:i.edges)==null?void 0:c[0])==null?void 0:u.node)==null?void 0:f.url,n=(w=(y=(d=e.variants)==null?void 0:d.edges)==null?void 0:y[0])==null?void 0:w.node,l=(n==null?void 0:n.price)||"N/A",a=(n==null?void 0:n.sku)||"N/A",o={ACTIVE:"bg-green-100 text-green-800",DRAFT:"bg-yellow-100 text-yellow-800",ARCHIVED:"bg-red-100 text-red-800"};return s.jsxs("div",{onClick:t,className:"card hover:shadow-xl transition-all duration-200 cursor-pointer group",children:[s.jsxs("div",{className:"relative w-full h-48 bg-gray-100 rounded-lg overflow-hidden mb-4",children:[r?s.jsx("img",{src:r,alt:e.title,className:"w-full h-full object-cover group-hover:scale-105 transition-transform duration-200"}):s.jsx("div",{className:"w-full h-full flex items-center justify-center text-gray-400 text-4xl",children:"📦"}),s.jsx("div",{className:"absolute top-2 right-2",children:s.jsx("span",{className:`px-2 py-1 rounded text-xs font-medium ${o[e.status]||"bg-gray-100 text-gray-800"}`,children:e.status})})]}),s.jsxs("div",{className:"space-y-2",children:[s.jsx("h3",{className:"font-semibold text-gray-900 line-clamp-2 group-hover:text-primary-600 transition-colors",children:e.title}),s.jsxs("div",{className:"flex items-center justify-between text-sm",children:[s.jsxs("span",{className:"text-gray-600",children:["SKU: ",a]}),s.jsxs("span",{className:"text-lg font-bold text-primary-600",children:["$",l]})]}),e.vendor&&s.jsxs("div",{className:"text-sm text-gray-500",children:["Vendor: ",e.vendor]}),((p=e.variants)==null?void 0:p.edges)&&s.jsxs("div",{className:"text-sm text-gray-500",children:[e.variants.edges.length," variant",e.variants.edges.length!==1?"s":""]})]}),s.jsx("div",{className:"mt-4 text-center text-sm text-primary-600 opacity-0 group-hover:opacity-100 transition-opacity",children:"Click for details →"})]})}function Mg({variants:e,selectedVariant:t,onSelectVariant:r}){return!e||e.length===0?null:e.length===1&&e[0].title==="Default Title"?s.jsxs("div",{className:"space-y-2",children:[s.jsx("h4",{className:"font-semibold text-gray-900",children:"Variant Information"}),s.jsx("div",{className:"bg-gray-50 rounded-lg p-4",children:s.jsxs("div",{className:"grid grid-cols-2 gap-4 text-sm",children:[s.jsxs("div",{children:[s.jsx("span",{className:"text-gray-600",children:"SKU:"}),s.jsx("span",{className:"ml-2 font-medium",children:e[0].sku||"N/A"})]}),s.jsxs("div",{children:[s.jsx("span",{className:"text-gray-600",children:"Price:"}),s.jsxs("span",{className:"ml-2 font-medium text-primary-600",children:["$",e[0].price]})]}),e[0].inventoryQuantity!==void 0&&s.jsxs("div",{children:[s.jsx("span",{className:"text-gray-600",children:"In Stock:"}),s.jsxs("span",{className:"ml-2 font-medium",children:[e[0].inventoryQuantity," units"]})]})]})})]}):s.jsxs("div",{className:"space-y-4",children:[s.jsx("h4",{className:"font-semibold text-gray-900",children:"Select Variant"}),s.jsx("div",{className:"grid grid-cols-1 gap-3",children:e.map(n=>{const l=(t==null?void 0:t.id)===n.id;return s.jsx("button",{onClick:()=>r(n),className:`text-left p-4 rounded-lg border-2 transition-all duration-200 ${l?"border-primary-500 bg-primary-50":"border-gray-200 bg-white hover:border-gray-300"}`,children:s.jsxs("div",{className:"flex items-center justify-between",children:[s.jsxs("div",{className:"flex-1",children:[s.jsxs("div",{className:"flex items-center gap-2",children:[s.jsx("span",{className:"font-medium text-gray-900",children:n.title}),l&&s.jsx("span",{className:"text-primary-600",children:"✓"})]}),s.jsxs("div",{className:"flex items-center gap-4 mt-1 text-sm text-gray-600",children:[n.sku&&s.jsxs("span",{children:["SKU: ",n.sku]}),n.inventoryQuantity!==void 0&&s.jsxs("span",{children:["Stock: ",n.inventoryQuantity]})]})]}),s.jsx("div",{className:"text-right",children:s.jsxs("div",{className:"text-lg font-bold text-primary-600",children:["$",n.price]})})]})},n.id)})}),t&&s.jsxs("div",{className:"bg-blue-50 border border-blue-200 rounded-lg p-3 text-sm text-blue-800",children:["Selected: ",s.jsx("strong",{children:t.title})," - $",t.price]})]})}function zg({product:e,onClose:t}){var f,d,y,w,p,g,N,h;const[r,n]=j.useState(((y=(d=(f=e.variants)==null?void 0:f.edges)==null?void 0:d[0])==null?void 0:y.node)||null),l="hearnshobbies.myshopify.com",a=e.onlineStoreUrl||(e.handle?`https://${l}/products/${e.handle}`:null),i=r?((m,x=1)=>{if(!m)return null;const v=m.includes("/")?m.substring(m.lastIndexOf("/")+1):m;return`https://${l}/cart/${v}:${x}`})(r.id):null,c=(m,x)=>{navigator.clipboard.writeText(m),alert(`${x} link copied to clipboard!`)},u=m=>{window.open(m,"_blank")};return s.jsx("div",{className:"fixed inset-0 bg-black bg-opacity-50 flex items-center justify-center z-50 p-4",children:s.jsxs("div",{className:"bg-white rounded-lg max-w-4xl w-full max-h-[90vh] overflow-y-auto",children:[s.jsxs("div",{className:"sticky top-0 bg-white border-b border-gray-200 px-6 py-4 flex items-center justify-between",children:[s.jsx("h2",{className:"text-2xl font-bold text-gray-900",children:"Product Details"}),s.jsx("button",{onClick:t,className:"text-gray-400 hover:text-gray-600 text-2xl",children:"✕"})]}),s.jsxs("div",{className:"p-6 space-y-6",children:[s.jsxs("div",{className:"grid grid-cols-1 md:grid-cols-2 gap-6",children:[s.jsx("div",{children:(N=(g=(p=(w=e.images)==null?void 0:w.edges)==null?void 0:p[0])==null?void 0:g.node)!=null&&N.url?s.jsx("img",{src:e.images.edges[0].node.url,alt:e.title,className:"w-full rounded-lg shadow-md"}):s.jsx("div",{className:"w-full h-64 bg-gray-100 rounded-lg flex items-center justify-center text-gray-400 text-6xl",children:"📦"})}),s.jsxs("div",{className:"space-y-4",children:[s.jsxs("div",{children:[s.jsx("h3",{className:"text-2xl font-bold text-gray-900 mb-2",children:e.title}),s.jsx("div",{className:"flex items-center gap-2 text-sm",children:s.jsx("span",{className:`px-3 py-1 rounded-full ${e.status==="ACTIVE"?"bg-green-100 text-green-800":e.status==="DRAFT"?"bg-yellow-100 text-yellow-800":"bg-gray-100 text-gray-800"}`,children:e.status})})]}),e.description&&s.jsxs("div",{children:[s.jsx("h4",{className:"font-semibold text-gray-700 mb-1",children:"Description"}),s.jsx("p",{className:"text-gray-600 text-sm",children:e.description})]}),e.vendor&&s.jsxs("div",{children:[s.jsx("h4",{className:"font-semibold text-gray-700 mb-1",children:"Vendor"}),s.jsx("p",{className:"text-gray-600",children:e.vendor})]}),e.productType&&s.jsxs("div",{children:[s.jsx("h4",{className:"font-semibold text-gray-700 mb-1",children:"Product Type"}),s.jsx("p",{className:"text-gray-600",children:e.productType})]}),e.tags&&e.tags.length>0&&s.jsxs("div",{children:[s.jsx("h4",{className:"font-semibold text-gray-700 mb-1",children:"Tags"}),s.jsx("div",{className:"flex flex-wrap gap-2",children:e.tags.map((m,x)=>s.jsx("span",{className:"px-2 py-1 bg-gray-100 text-gray-700 text-xs rounded",children:m},x))})]})]})]}),((h=e.variants)==null?void 0:h.edges)&&e.variants.edges.length>0&&s.jsx("div",{className:"border-t border-gray-200 pt-6",children:s.jsx(Mg,{variants:e.variants.edges.map(m=>m.node),selectedVariant:r,onSelectVariant:n})}),s.jsxs("div",{className:"border-t border-gray-200 pt-6 space-y-4",children:[s.jsx("h4",{className:"font-semibold text-gray-900 text-lg",children:"Actions"}),a&&s.jsxs("div",{className:"space-y-2",children:[s.jsx("label",{className:"text-sm font-medium text-gray-700",children:"Product Page"}),s.jsxs("div",{className:"flex gap-2",children:[s.jsx("input",{type:"text",value:a,readOnly:!0,className:"flex-1 px-3 py-2 border border-gray-300 rounded-lg bg-gray-50 text-sm"}),s.jsx("button",{onClick:()=>c(a,"Product"),className:"btn-secondary",children:"📋 Copy"}),s.jsx("button",{onClick:()=>u(a),className:"btn-primary",children:"🔗 View"})]})]}),i&&s.jsxs("div",{className:"space-y-2",children:[s.jsxs("label",{className:"text-sm font-medium text-gray-700",children:["Add to Cart Link",r&&s.jsxs("span",{className:"ml-2 text-xs text-gray-500",children:["(",r.title,")"]})]}),s.jsxs("div",{className:"flex gap-2",children:[s.jsx("input",{type:"text",value:i,readOnly:!0,className:"flex-1 px-3 py-2 border border-gray-300 rounded-lg bg-gray-50 text-sm"}),s.jsx("button",{onClick:()=>c(i,"Cart"),className:"btn-secondary",children:"📋 Copy"}),s.jsx("button",{onClick:()=>u(i),className:"btn-primary",children:"🛒 Add to Cart"})]}),s.jsx("p",{className:"text-xs text-gray-500",children:"Share this link with customers. When clicked, the item will be automatically added to their cart."})]})]}),s.jsx("div",{className:"border-t border-gray-200 pt-6",children:s.jsx("button",{onClick:t,className:"w-full btn-secondary",children:"Close"})})]})]})})}function Ug(){const[e,t]=j.useState(""),[r,n]=j.useState([]),[l,a]=j.useState(!1),[o,i]=j.useState(null),[c,u]=j.useState(null),[f,d]=j.useState(!1),y=async g=>{var N;if(!g.trim()){n([]);return}a(!0),i(null);try{const h=await D.searchProducts(g,20,f);if(h.data.success&&h.data.data){const x=(((N=h.data.data.products)==null?void 0:N.edges)||[]).map(v=>v.node);n(x),x.length===0&&i("No products found matching your search.")}else i("Failed to fetch products. Please try again.")}catch(h){console.error("Search error:",h),i("An error occurred while searching. Please try again.")}finally{a(!1)}},w=g=>{u(g)},p=()=>{u(null)};return s.jsxs("div",{className:"space-y-6",children:[s.jsxs("div",{className:"text-center",children:[s.jsx("h1",{className:"text-3xl font-bold text-gray-900 mb-2",children:"Product Search"}),s.jsx("p",{className:"text-gray-600",children:"Search for products and generate cart links for customers"})]}),s.jsx(Dg,{value:e,onChange:t,onSearch:y,loading:l}),s.jsxs("div",{className:"flex items-center space-x-2",children:[s.jsx("input",{type:"checkbox",id:"includeArchived",checked:f,onChange:g=>d(g.target.checked),className:"h-4 w-4 text-blue-600 focus:ring-blue-500 border-gray-300 rounded"}),s.jsx("label",{htmlFor:"includeArchived",className:"text-sm text-gray-700 cursor-pointer select-none",children:"Include archived products"})]}),o&&s.jsx("div",{className:"card bg-red-50 border border-red-200 text-red-700",children:o}),l&&s.jsxs("div",{className:"text-center py-12",children:[s.jsx("div",{className:"inline-block animate-spin rounded-full h-12 w-12 border-b-2 border-primary-600"}),s.jsx("p",{className:"mt-4 text-gray-600",children:"Searching products..."})]}),!l&&r.length>0&&s.jsxs("div",{children:[s.jsxs("div",{className:"mb-4 text-sm text-gray-600",children:["Found ",r.length," product",r.length!==1?"s":""]}),s.jsx("div",{className:"grid grid-cols-1 md:grid-cols-2 lg:grid-cols-3 gap-6",children:r.map(g=>s.jsx($g,{product:g,onClick:()=>w(g)},g.id))})]}),!l&&!o&&r.length===0&&e&&s.jsxs("div",{className:"text-center py-12 text-gray-500",children:[s.jsx("div",{className:"text-6xl mb-4",children:"🔍"}),s.jsx("p",{children:"Enter a search term to find products"})]}),!l&&!e&&s.jsxs("div",{className:"card bg-blue-50 border border-blue-200",children:[s.jsx("h3",{className:"text-lg font-semibold text-gray-900 mb-2",children:"How to use Product Search"}),s.jsxs("ul",{className:"list-disc list-inside text-gray-700 space-y-1",children:[s.jsx("li",{children:"Enter product name, SKU, or keyword in the search box"}),s.jsx("li",{children:"Click on a product card to view full details"}),s.jsx("li",{children:'Use "View Product" to open the product page'}),s.jsx("li",{children:'Use "Add to Cart" to generate a direct cart link'}),s.jsx("li",{children:"Share cart links with customers via email, SMS, or chat"})]})]}),c&&s.jsx(zg,{product:c,onClose:p})]})}function Cf({message:e}){const t=e.role==="user",r=e.timestamp?new Date(e.timestamp).toLocaleTimeString([],{hour:"2-digit",minute:"2-digit"}):"",n=l=>{const a=/(https?:\/\/[^\s]+)/g;return l.split(a).map((i,c)=>{if(i.match(a)){const u=i.includes("/cart/");return s.jsx("a",{href:i,target:"_blank",rel:"noopener noreferrer",className:`underline ${u?"text-blue-600 font-semibold":"text-blue-500"}`,children:u?"🛒 Add to Cart":i},c)}return s.jsx("span",{children:i},c)})};return s.jsxs("div",{className:`flex ${t?"justify-end":"justify-start"} mb-4`,children:[s.jsxs("div",{className:`max-w-3/4 ${t?"order-2":"order-1"}`,children:[s.jsx("div",{className:`rounded-lg px-4 py-3 ${t?"bg-primary-600 text-white":"bg-gray-200 text-gray-900"}`,children:s.jsx("div",{className:"whitespace-pre-wrap break-words",children:n(e.content)})}),r&&s.jsx("div",{className:`text-xs text-gray-500 mt-1 ${t?"text-right":"text-left"}`,children:r})]}),!t&&s.jsx("div",{className:"w-8 h-8 rounded-full bg-primary-100 flex items-center justify-center mr-2 order-0",children:s.jsx("span",{className:"text-primary-600",children:"🤖"})}),t&&s.jsx("div",{className:"w-8 h-8 rounded-full bg-gray-300 flex items-center justify-center ml-2 order-3",children:s.jsx("span",{children:"👤"})})]})}function Ef({onSend:e,disabled:t}){const[r,n]=j.useState(""),l=o=>{o.preventDefault(),r.trim()&&!t&&(e(r),n(""))},a=o=>{o.key==="Enter"&&!o.shiftKey&&(o.preventDefault(),l(o))};return s.jsxs("form",{onSubmit:l,className:"border-t border-gray-200 bg-white p-4",children:[s.jsxs("div",{className:"flex items-end space-x-2",children:[s.jsx("textarea",{value:r,onChange:o=>n(o.target.value),onKeyPress:a,placeholder:"Ask about Gundam models, product recommendations, or anything else...",disabled:t,className:"flex-1 border border-gray-300 rounded-lg px-4 py-2 focus:outline-none focus:ring-2 focus:ring-primary-500 disabled:bg-gray-100 disabled:cursor-not-allowed resize-none",rows:"2"}),s.jsx("button",{type:"submit",disabled:t||!r.trim(),className:"bg-primary-600 text-white px-6 py-2 rounded-lg hover:bg-primary-700 disabled:bg-gray-300 disabled:cursor-not-allowed transition-colors h-12",children:t?s.jsxs("span",{className:"flex items-center",children:[s.jsxs("svg",{className:"animate-spin h-5 w-5 mr-2",viewBox:"0 0 24 24",children:[s.jsx("circle",{className:"opacity-25",cx:"12",cy:"12",r:"10",stroke:"currentColor",strokeWidth:"4",fill:"none"}),s.jsx("path",{className:"opacity-75",fill:"currentColor",d:"M4 12a8 8 0 018-8V0C5.373 0 0 5.373 0 12h4zm2 5.291A7.962 7.962 0 014 12H0c0 3.042 1.135 5.824 3 7.938l3-2.647z"})]}),"Sending..."]}):"Send"})]}),s.jsx("div",{className:"text-xs text-gray-500 mt-2",children:"Press Enter to send, Shift+Enter for new line"})]})}function Wg(){const[e,t]=j.useState([]),[r,n]=j.useState(!1),[l,a]=j.useState(null),[o,i]=j.useState(null),c=j.useRef(null),u=()=>{var w;(w=c.current)==null||w.scrollIntoView({behavior:"smooth"})};j.useEffect(()=>{u()},[e]),j.useEffect(()=>{f(),t([{role:"assistant",content:"Hello! 👋 I'm your Gundam store assistant. I can help you find the perfect model kit, answer questions about products, and generate direct purchase links. How can I assist you today?",timestamp:Date.now()}])},[]);const f=async()=>{try{const w=await D.getChatStatus();w.data.success&&i(w.data.data)}catch(w){console.error("Error loading chat status:",w)}},d=async w=>{const p={role:"user",content:w,timestamp:Date.now()};t(g=>[...g,p]),n(!0),a(null);try{const g=await D.sendChatMessage(w,e);if(g.data.success&&g.data.data){const N={role:"assistant",content:g.data.data.content,timestamp:g.data.data.timestamp||Date.now()};t(h=>[...h,N])}else a("Failed to get response from assistant")}catch(g){console.error("Error sending message:",g),a("An error occurred while sending your message. Please try again.");const N={role:"assistant",content:"I apologize, but I'm having trouble processing your request. Please try again or use the Product Search page to browse our catalog.",timestamp:Date.now()};t(h=>[...h,N])}finally{n(!1)}},y=()=>{t([{role:"assistant",content:"Chat cleared! How can I help you today?",timestamp:Date.now()}]),a(null)};return s.jsxs("div",{className:"max-w-5xl mx-auto",children:[s.jsxs("div",{className:"bg-white rounded-lg shadow-sm p-6 mb-6",children:[s.jsxs("div",{className:"flex items-center justify-between",children:[s.jsxs("div",{children:[s.jsx("h1",{className:"text-2xl font-bold text-gray-900 mb-2",children:"🤖 AI Chat Assistant"}),s.jsx("p",{className:"text-gray-600",children:"Ask about products, get recommendations, and receive direct purchase links"})]}),s.jsx("button",{onClick:y,className:"bg-gray-200 text-gray-700 px-4 py-2 rounded-lg hover:bg-gray-300 transition-colors",children:"Clear Chat"})]}),o&&s.jsx("div",{className:"mt-4 p-3 bg-primary-50 rounded-lg",children:s.jsxs("div",{className:"flex items-center text-sm text-primary-800",children:[s.jsx("span",{className:"w-2 h-2 bg-green-500 rounded-full mr-2"}),s.jsx("span",{className:"font-semibold",children:o.provider}),s.jsx("span",{className:"mx-2",children:"•"}),s.jsx("span",{children:o.description})]})})]}),s.jsxs("div",{className:"bg-white rounded-lg shadow-sm flex flex-col",style:{height:"calc(100vh - 320px)"},children:[s.jsxs("div",{className:"flex-1 overflow-y-auto p-6",children:[e.map((w,p)=>s.jsx(Cf,{message:w},p)),r&&s.jsx("div",{className:"flex justify-start mb-4",children:s.jsx("div",{className:"bg-gray-200 rounded-lg px-4 py-3",children:s.jsxs("div",{className:"flex items-center space-x-2",children:[s.jsx("div",{className:"w-2 h-2 bg-gray-500 rounded-full animate-bounce",style:{animationDelay:"0ms"}}),s.jsx("div",{className:"w-2 h-2 bg-gray-500 rounded-full animate-bounce",style:{animationDelay:"150ms"}}),s.jsx("div",{className:"w-2 h-2 bg-gray-500 rounded-full animate-bounce",style:{animationDelay:"300ms"}})]})})}),l&&s.jsx("div",{className:"bg-red-50 border border-red-200 rounded-lg p-4 mb-4",children:s.jsx("p",{className:"text-red-800 text-sm",children:l})}),s.jsx("div",{ref:c})]}),s.jsx(Ef,{onSend:d,disabled:r})]}),s.jsxs("div",{className:"mt-6 bg-white rounded-lg shadow-sm p-6",children:[s.jsx("h3",{className:"font-semibold text-gray-900 mb-3",children:"Try asking:"}),s.jsx("div",{className:"grid grid-cols-1 md:grid-cols-2 gap-2",children:["Show me popular Gundam models under $50","What's the difference between HG and MG kits?","I'm a beginner, what model should I start with?","Do you have any limited edition kits in stock?"].map((w,p)=>s.jsx("button",{onClick:()=>!r&&d(w),disabled:r,className:"text-left p-3 border border-gray-200 rounded-lg hover:bg-gray-50 hover:border-primary-300 transition-colors text-sm text-gray-700 disabled:opacity-50 disabled:cursor-not-allowed",children:w},p))})]})]})}function Bg(){const[e,t]=j.useState("ai"),[r,n]=j.useState({model:"",maxTokens:1024,temperature:.7}),[l,a]=j.useState(""),[o,i]=j.useState([]),[c,u]=j.useState(null),[f,d]=j.useState({storeName:"",storeDescription:"",storeCategories:"",scopeInstructions:"",outOfScopeResponse:"",requireSearchBeforeRecommendation:!0,enableProductSearch:!0,maxSearchResults:5,toneOfVoice:"friendly",includeCartLinks:!0,showPrices:!0,showSkus:!0,customInstructions:""}),[y,w]=j.useState(null),[p,g]=j.useState(""),[N,h]=j.useState(!0),[m,x]=j.useState(!1),[v,k]=j.useState(null);j.useEffect(()=>{S()},[e]);const S=async()=>{try{if(h(!0),e==="ai"){const[b,$,z]=await Promise.all([D.getAIConfig(),D.getSystemPrompt(),D.getAvailableModels()]);n(b.data),u(b.data),a($.data.prompt),i(z.data.models)}else if(e==="chatbot"){const[b,$]=await Promise.all([D.getChatbotConfig(),D.previewSystemPrompt()]);d(b.data),w(b.data),g($.data.prompt)}}catch(b){console.error("Error loading settings:",b),k({type:"error",text:"Failed to load settings"})}finally{h(!1)}},P=async()=>{var b,$;try{x(!0),k(null);const z=await D.updateAIConfig(r);u(r),k({type:"success",text:z.data.message||"AI settings saved successfully (runtime only)"})}catch(z){console.error("Error saving AI settings:",z),k({type:"error",text:(($=(b=z.response)==null?void 0:b.data)==null?void 0:$.message)||"Failed to save AI settings"})}finally{x(!1)}},E=async()=>{var b,$;try{x(!0),k(null);const z=await D.updateChatbotConfig(f);w(f);const le=await D.previewSystemPrompt();g(le.data.prompt),k({type:"success",text:z.data.message||"Chatbot settings saved successfully (runtime only)"})}catch(z){console.error("Error saving chatbot settings:",z),k({type:"error",text:(($=(b=z.response)==null?void 0:b.data)==null?void 0:$.message)||"Failed to save chatbot settings"})}finally{x(!1)}},I=async()=>{try{x(!0),k(null);const b=await D.resetChatbotConfig();d(b.data.config),w(b.data.config);const $=await D.previewSystemPrompt();g($.data.prompt),k({type:"success",text:"Chatbot configuration reset to defaults"})}catch(b){console.error("Error resetting chatbot settings:",b),k({type:"error",text:"Failed to reset chatbot settings"})}finally{x(!1)}},M=()=>{n(c),k({type:"info",text:"AI settings reset to last saved values"})},F=()=>{d(y),k({type:"info",text:"Chatbot settings reset to last saved values"})},T=()=>JSON.stringify(r)!==JSON.stringify(c),L=()=>JSON.stringify(f)!==JSON.stringify(y);return N?s.jsx("div",{className:"flex justify-center items-center h-64",children:s.jsx("div",{className:"text-gray-500",children:"Loading settings..."})}):s.jsxs("div",{className:"space-y-6",children:[s.jsxs("div",{children:[s.jsx("h1",{className:"text-3xl font-bold text-gray-900 mb-2",children:"Settings"}),s.jsx("p",{className:"text-gray-600",children:"Manage AI chatbot configuration and behavior"})]}),s.jsx("div",{className:"border-b border-gray-200",children:s.jsxs("nav",{className:"-mb-px flex space-x-8",children:[s.jsx("button",{onClick:()=>t("ai"),className:`py-4 px-1 border-b-2 font-medium text-sm ${e==="ai"?"border-primary-500 text-primary-600":"border-transparent text-gray-500 hover:text-gray-700 hover:border-gray-300"}`,children:"AI Parameters"}),s.jsx("button",{onClick:()=>t("chatbot"),className:`py-4 px-1 border-b-2 font-medium text-sm ${e==="chatbot"?"border-primary-500 text-primary-600":"border-transparent text-gray-500 hover:text-gray-700 hover:border-gray-300"}`,children:"Chatbot Configuration"})]})}),v&&s.jsx("div",{className:`p-4 rounded-lg ${v.type==="success"?"bg-green-100 text-green-800":v.type==="error"?"bg-red-100 text-red-800":"bg-blue-100 text-blue-800"}`,children:v.text}),e==="ai"&&s.jsxs(s.Fragment,{children:[s.jsxs("div",{className:"card",children:[s.jsx("h2",{className:"text-xl font-semibold mb-6",children:"AI Model Settings"}),s.jsxs("div",{className:"space-y-6",children:[s.jsxs("div",{children:[s.jsx("label",{className:"block text-sm font-medium text-gray-700 mb-2",children:"Model"}),s.jsx("select",{value:r.model,onChange:b=>n({...r,model:b.target.value}),className:"w-full px-3 py-2 border border-gray-300 rounded-lg focus:ring-2 focus:ring-primary-500 focus:border-primary-500",children:o.map(b=>s.jsx("option",{value:b,children:b},b))}),s.jsx("p",{className:"mt-1 text-sm text-gray-500",children:"Select which Claude model to use for chat responses"})]}),s.jsxs("div",{children:[s.jsxs("label",{className:"block text-sm font-medium text-gray-700 mb-2",children:["Temperature: ",r.temperature.toFixed(2)]}),s.jsx("input",{type:"range",min:"0",max:"1",step:"0.05",value:r.temperature,onChange:b=>n({...r,temperature:parseFloat(b.target.value)}),className:"w-full"}),s.jsxs("div",{className:"flex justify-between text-xs text-gray-500 mt-1",children:[s.jsx("span",{children:"More Focused (0.0)"}),s.jsx("span",{children:"More Creative (1.0)"})]}),s.jsx("p",{className:"mt-2 text-sm text-gray-500",children:"Controls randomness in responses. Lower values are more focused and deterministic"})]}),s.jsxs("div",{children:[s.jsx("label",{className:"block text-sm font-medium text-gray-700 mb-2",children:"Max Tokens"}),s.jsx("input",{type:"number",min:"256",max:"4096",step:"256",value:r.maxTokens,onChange:b=>n({...r,maxTokens:parseInt(b.target.value)}),className:"w-full px-3 py-2 border border-gray-300 rounded-lg focus:ring-2 focus:ring-primary-500 focus:border-primary-500"}),s.jsx("p",{className:"mt-1 text-sm text-gray-500",children:"Maximum length of AI responses (256-4096 tokens)"})]}),s.jsxs("div",{className:"flex gap-3 pt-4 border-t",children:[s.jsx("button",{onClick:P,disabled:m||!T(),className:"btn-primary disabled:opacity-50 disabled:cursor-not-allowed",children:m?"Saving...":"Save Changes"}),s.jsx("button",{onClick:M,disabled:!T(),className:"px-4 py-2 border border-gray-300 rounded-lg hover:bg-gray-50 disabled:opacity-50 disabled:cursor-not-allowed",children:"Reset"})]}),s.jsx("div",{className:"bg-yellow-50 border border-yellow-200 rounded-lg p-4",children:s.jsxs("p",{className:"text-sm text-yellow-800",children:[s.jsx("strong",{children:"Note:"})," Runtime changes only. Restart resets to defaults."]})})]})]}),s.jsxs("div",{className:"card",children:[s.jsx("h2",{className:"text-xl font-semibold mb-4",children:"Generated System Prompt"}),s.jsx("div",{className:"bg-gray-50 rounded-lg p-4 border border-gray-200",children:s.jsx("pre",{className:"text-sm text-gray-700 whitespace-pre-wrap font-mono",children:l})}),s.jsx("div",{className:"mt-4 bg-blue-50 border border-blue-200 rounded-lg p-4",children:s.jsxs("p",{className:"text-sm text-blue-800",children:["This prompt is dynamically generated from your chatbot configuration. Use the ",s.jsx("strong",{children:"Chatbot Configuration"})," tab to customize it."]})})]})]}),e==="chatbot"&&s.jsxs(s.Fragment,{children:[s.jsxs("div",{className:"card",children:[s.jsx("h2",{className:"text-xl font-semibold mb-6",children:"Store Identity"}),s.jsxs("div",{className:"space-y-4",children:[s.jsxs("div",{children:[s.jsx("label",{className:"block text-sm font-medium text-gray-700 mb-2",children:"Store Name"}),s.jsx("input",{type:"text",value:f.storeName,onChange:b=>d({...f,storeName:b.target.value}),className:"w-full px-3 py-2 border border-gray-300 rounded-lg focus:ring-2 focus:ring-primary-500",placeholder:"e.g., Hearn's Hobbies"})]}),s.jsxs("div",{children:[s.jsx("label",{className:"block text-sm font-medium text-gray-700 mb-2",children:"Store Description"}),s.jsx("input",{type:"text",value:f.storeDescription,onChange:b=>d({...f,storeDescription:b.target.value}),className:"w-full px-3 py-2 border border-gray-300 rounded-lg focus:ring-2 focus:ring-primary-500",placeholder:"e.g., An online hobby store specializing in model kits"})]}),s.jsxs("div",{children:[s.jsx("label",{className:"block text-sm font-medium text-gray-700 mb-2",children:"Product Categories"}),s.jsx("input",{type:"text",value:f.storeCategories,onChange:b=>d({...f,storeCategories:b.target.value}),className:"w-full px-3 py-2 border border-gray-300 rounded-lg focus:ring-2 focus:ring-primary-500",placeholder:"e.g., model kits, hobby paints, tools"}),s.jsx("p",{className:"mt-1 text-sm text-gray-500",children:"Comma-separated list of product categories"})]})]})]}),s.jsxs("div",{className:"card",children:[s.jsx("h2",{className:"text-xl font-semibold mb-6",children:"Behavior Rules"}),s.jsxs("div",{className:"space-y-4",children:[s.jsxs("div",{children:[s.jsx("label",{className:"block text-sm font-medium text-gray-700 mb-2",children:"Scope Instructions"}),s.jsx("textarea",{value:f.scopeInstructions,onChange:b=>d({...f,scopeInstructions:b.target.value}),rows:"3",className:"w-full px-3 py-2 border border-gray-300 rounded-lg focus:ring-2 focus:ring-primary-500",placeholder:"Describe what products your store sells and specializes in"})]}),s.jsxs("div",{children:[s.jsx("label",{className:"block text-sm font-medium text-gray-700 mb-2",children:"Out-of-Scope Response"}),s.jsx("textarea",{value:f.outOfScopeResponse,onChange:b=>d({...f,outOfScopeResponse:b.target.value}),rows:"2",className:"w-full px-3 py-2 border border-gray-300 rounded-lg focus:ring-2 focus:ring-primary-500",placeholder:"What to say when asked about products you don't carry"})]}),s.jsxs("div",{className:"flex items-center",children:[s.jsx("input",{type:"checkbox",id:"requireSearch",checked:f.requireSearchBeforeRecommendation,onChange:b=>d({...f,requireSearchBeforeRecommendation:b.target.checked}),className:"h-4 w-4 text-primary-600 focus:ring-primary-500 border-gray-300 rounded"}),s.jsx("label",{htmlFor:"requireSearch",className:"ml-2 block text-sm text-gray-700",children:"Always search catalog before making recommendations"})]})]})]}),s.jsxs("div",{className:"card",children:[s.jsx("h2",{className:"text-xl font-semibold mb-6",children:"Tool Configuration"}),s.jsxs("div",{className:"space-y-4",children:[s.jsxs("div",{className:"flex items-center",children:[s.jsx("input",{type:"checkbox",id:"enableSearch",checked:f.enableProductSearch,onChange:b=>d({...f,enableProductSearch:b.target.checked}),className:"h-4 w-4 text-primary-600 focus:ring-primary-500 border-gray-300 rounded"}),s.jsx("label",{htmlFor:"enableSearch",className:"ml-2 block text-sm text-gray-700",children:"Enable product search tool"})]}),s.jsxs("div",{children:[s.jsxs("label",{className:"block text-sm font-medium text-gray-700 mb-2",children:["Max Search Results: ",f.maxSearchResults]}),s.jsx("input",{type:"range",min:"1",max:"20",value:f.maxSearchResults,onChange:b=>d({...f,maxSearchResults:parseInt(b.target.value)}),className:"w-full"}),s.jsx("p",{className:"mt-1 text-sm text-gray-500",children:"Maximum number of products returned per search"})]})]})]}),s.jsxs("div",{className:"card",children:[s.jsx("h2",{className:"text-xl font-semibold mb-6",children:"Response Style"}),s.jsxs("div",{className:"space-y-4",children:[s.jsxs("div",{children:[s.jsx("label",{className:"block text-sm font-medium text-gray-700 mb-2",children:"Tone of Voice"}),s.jsxs("select",{value:f.toneOfVoice,onChange:b=>d({...f,toneOfVoice:b.target.value}),className:"w-full px-3 py-2 border border-gray-300 rounded-lg focus:ring-2 focus:ring-primary-500",children:[s.jsx("option",{value:"professional",children:"Professional"}),s.jsx("option",{value:"friendly",children:"Friendly"}),s.jsx("option",{value:"enthusiastic",children:"Enthusiastic"}),s.jsx("option",{value:"casual",children:"Casual"})]})]}),s.jsxs("div",{className:"space-y-2",children:[s.jsxs("div",{className:"flex items-center",children:[s.jsx("input",{type:"checkbox",id:"includeCartLinks",checked:f.includeCartLinks,onChange:b=>d({...f,includeCartLinks:b.target.checked}),className:"h-4 w-4 text-primary-600 focus:ring-primary-500 border-gray-300 rounded"}),s.jsx("label",{htmlFor:"includeCartLinks",className:"ml-2 block text-sm text-gray-700",children:"Include 'Add to Cart' links in responses"})]}),s.jsxs("div",{className:"flex items-center",children:[s.jsx("input",{type:"checkbox",id:"showPrices",checked:f.showPrices,onChange:b=>d({...f,showPrices:b.target.checked}),className:"h-4 w-4 text-primary-600 focus:ring-primary-500 border-gray-300 rounded"}),s.jsx("label",{htmlFor:"showPrices",className:"ml-2 block text-sm text-gray-700",children:"Show product prices"})]}),s.jsxs("div",{className:"flex items-center",children:[s.jsx("input",{type:"checkbox",id:"showSkus",checked:f.showSkus,onChange:b=>d({...f,showSkus:b.target.checked}),className:"h-4 w-4 text-primary-600 focus:ring-primary-500 border-gray-300 rounded"}),s.jsx("label",{htmlFor:"showSkus",className:"ml-2 block text-sm text-gray-700",children:"Show SKU information"})]})]})]})]}),s.jsxs("div",{className:"card",children:[s.jsx("h2",{className:"text-xl font-semibold mb-6",children:"Custom Instructions"}),s.jsxs("div",{children:[s.jsx("label",{className:"block text-sm font-medium text-gray-700 mb-2",children:"Additional Instructions (Optional)"}),s.jsx("textarea",{value:f.customInstructions,onChange:b=>d({...f,customInstructions:b.target.value}),rows:"4",className:"w-full px-3 py-2 border border-gray-300 rounded-lg focus:ring-2 focus:ring-primary-500",placeholder:"Add any additional custom instructions for the AI..."}),s.jsx("p",{className:"mt-1 text-sm text-gray-500",children:"Optional custom instructions that will be appended to the system prompt"})]})]}),s.jsxs("div",{className:"card",children:[s.jsxs("div",{className:"flex gap-3",children:[s.jsx("button",{onClick:E,disabled:m||!L(),className:"btn-primary disabled:opacity-50 disabled:cursor-not-allowed",children:m?"Saving...":"Save Changes"}),s.jsx("button",{onClick:F,disabled:!L(),className:"px-4 py-2 border border-gray-300 rounded-lg hover:bg-gray-50 disabled:opacity-50 disabled:cursor-not-allowed",children:"Cancel"}),s.jsx("button",{onClick:I,disabled:m,className:"px-4 py-2 border border-red-300 text-red-700 rounded-lg hover:bg-red-50 disabled:opacity-50 disabled:cursor-not-allowed",children:"Reset to Defaults"})]}),s.jsx("div",{className:"mt-4 bg-yellow-50 border border-yellow-200 rounded-lg p-4",children:s.jsxs("p",{className:"text-sm text-yellow-800",children:[s.jsx("strong",{children:"Note:"})," Runtime changes only. Restart resets to application.yml defaults."]})})]}),s.jsxs("div",{className:"card",children:[s.jsx("h2",{className:"text-xl font-semibold mb-4",children:"Generated System Prompt Preview"}),s.jsx("div",{className:"bg-gray-50 rounded-lg p-4 border border-gray-200 max-h-96 overflow-y-auto",children:s.jsx("pre",{className:"text-sm text-gray-700 whitespace-pre-wrap font-mono",children:p})}),s.jsx("p",{className:"mt-2 text-sm text-gray-500",children:"This is the system prompt that will be sent to Claude based on your configuration"})]})]})]})}var Pf={exports:{}},Vg="SECRET_DO_NOT_PASS_THIS_OR_YOU_WILL_BE_FIRED",Hg=Vg,qg=Hg;function Tf(){}function Af(){}Af.resetWarningCache=Tf;var Jg=function(){function e(n,l,a,o,i,c){if(c!==qg){var u=new Error("Calling PropTypes validators directly is not supported by the `prop-types` package. Use PropTypes.checkPropTypes() to call them. Read more at http://fb.me/use-check-prop-types");throw u.name="Invariant Violation",u}}e.isRequired=e;function t(){return e}var r={array:e,bigint:e,bool:e,func:e,number:e,object:e,string:e,symbol:e,any:e,arrayOf:t,element:e,elementType:e,instanceOf:t,node:e,objectOf:t,oneOf:t,oneOfType:t,shape:t,exact:t,checkPropTypes:Af,resetWarningCache:Tf};return r.PropTypes=r,r};Pf.exports=Jg();var Qg=Pf.exports;const J=Tc(Qg);function ee({title:e,value:t,currency:r,comparisonData:n,icon:l,type:a}){const o=f=>f==null?"0.00":parseFloat(f).toLocaleString("en-US",{minimumFractionDigits:2,maximumFractionDigits:2}),i=f=>{switch(f){case"up":return"↑";case"down":return"↓";default:return"→"}},c=f=>{switch(f){case"up":return"text-green-600";case"down":return"text-red-600";default:return"text-gray-600"}},u=f=>{switch(f){case"sales":return"bg-blue-50 border-blue-200";case"average":return"bg-purple-50 border-purple-200";case"freight":return"bg-orange-50 border-orange-200";case"discount":return"bg-pink-50 border-pink-200";default:return"bg-gray-50 border-gray-200"}};return s.jsxs("div",{className:`card ${u(a)}`,children:[s.jsx("div",{className:"flex items-start justify-between mb-3",children:s.jsxs("div",{className:"flex-1",children:[s.jsxs("div",{className:"flex items-center gap-2 mb-1",children:[l&&s.jsx("span",{className:"text-2xl",children:l}),s.jsx("h3",{className:"text-sm font-medium text-gray-600",children:e})]}),s.jsxs("div",{className:"text-3xl font-bold text-gray-900",children:[r&&s.jsx("span",{className:"text-2xl",children:r}),o(t)]})]})}),n&&s.jsxs("div",{className:"mt-4 pt-3 border-t border-gray-200",children:[s.jsxs("div",{className:"flex items-center justify-between text-sm",children:[s.jsx("span",{className:"text-gray-600",children:"vs. Last Year"}),s.jsxs("div",{className:`flex items-center gap-1 font-semibold ${c(n.trend)}`,children:[s.jsx("span",{children:i(n.trend)}),s.jsxs("span",{children:[n.percentageChange>0?"+":"",o(n.percentageChange),"%"]})]})]}),s.jsxs("div",{className:"text-xs text-gray-500 mt-1",children:["Previous: ",r,o(n.previousValue)]})]})]})}ee.propTypes={title:J.string.isRequired,value:J.oneOfType([J.string,J.number]),currency:J.string,comparisonData:J.shape({previousValue:J.oneOfType([J.string,J.number]),percentageChange:J.oneOfType([J.string,J.number]),trend:J.oneOf(["up","down","neutral"])}),icon:J.string,type:J.oneOf(["sales","average","freight","discount"])};ee.defaultProps={value:0,currency:"$",comparisonData:null,icon:null,type:"sales"};function Kg(){var I,M,F,T,L,b,$,z,le,O,U,W,H,K,Qe,Se;const[e,t]=j.useState(null),[r,n]=j.useState(null),[l,a]=j.useState(!0),[o,i]=j.useState(!0),[c,u]=j.useState(null),[f,d]=j.useState(null),[y,w]=j.useState("7d"),[p,g]=j.useState("online"),N=[{id:"1d",label:"1 Day",icon:"📅"},{id:"7d",label:"7 Days",icon:"📊"},{id:"30d",label:"30 Days",icon:"📈"},{id:"90d",label:"90 Days",icon:"📉"}],h=[{id:"online",label:"Online Sales",icon:"🛒"},{id:"channels",label:"All Channels",icon:"📊"}];j.useEffect(()=>{m(),x()},[]);const m=async()=>{a(!0),u(null);try{const G=await D.getAllSalesAnalytics();t(G.data.data)}catch(G){console.error("Error fetching analytics:",G),u("Failed to load analytics data. Please try again.")}finally{a(!1)}},x=async()=>{i(!0),d(null);try{const G=await D.getAllChannelSalesAnalytics();n(G.data.data)}catch(G){console.error("Error fetching channel analytics:",G),d("Failed to load channel analytics data. Please try again.")}finally{i(!1)}},v=()=>{m(),x()},k=()=>p==="channels"?!r||!r[y]?null:r[y]:!e||!e[y]?null:e[y],S=p==="online"?l:o,P=p==="online"?c:f,E=k();return s.jsxs("div",{className:"space-y-6",children:[s.jsxs("div",{className:"flex items-center justify-between",children:[s.jsxs("div",{children:[s.jsx("h1",{className:"text-3xl font-bold text-gray-900",children:"Sales Analytics"}),s.jsx("p",{className:"text-gray-600 mt-1",children:"Track your sales performance with year-over-year comparisons"})]}),s.jsx("button",{onClick:v,disabled:l||o,className:"btn-secondary",children:l||o?"Refreshing...":"🔄 Refresh"})]}),s.jsx("div",{className:"card",children:s.jsx("div",{className:"flex gap-2",children:h.map(G=>s.jsxs("button",{onClick:()=>g(G.id),className:`flex-1 px-6 py-3 rounded-lg font-medium transition-all ${p===G.id?"bg-primary-600 text-white shadow-md":"bg-gray-100 text-gray-700 hover:bg-gray-200"}`,children:[s.jsx("span",{className:"text-xl mr-2",children:G.icon}),G.label]},G.id))})}),s.jsx("div",{className:"card",children:s.jsx("div",{className:"flex gap-2 overflow-x-auto",children:N.map(G=>s.jsxs("button",{onClick:()=>w(G.id),className:`flex-1 min-w-[120px] px-4 py-3 rounded-lg font-medium transition-all ${y===G.id?"bg-primary-600 text-white shadow-md":"bg-gray-100 text-gray-700 hover:bg-gray-200"}`,children:[s.jsx("div",{className:"text-2xl mb-1",children:G.icon}),s.jsx("div",{className:"text-sm",children:G.label})]},G.id))})}),P&&s.jsx("div",{className:"card bg-red-50 border-red-200",children:s.jsxs("div",{className:"flex items-center gap-3",children:[s.jsx("span",{className:"text-3xl",children:"⚠️"}),s.jsxs("div",{children:[s.jsx("h3",{className:"font-semibold text-red-900",children:"Error Loading Analytics"}),s.jsx("p",{className:"text-red-700 text-sm",children:P})]})]})}),S&&s.jsx("div",{className:"card",children:s.jsx("div",{className:"flex items-center justify-center py-12",children:s.jsxs("div",{className:"text-center",children:[s.jsx("div",{className:"animate-spin text-5xl mb-4",children:"⚙️"}),s.jsx("p",{className:"text-gray-600",children:"Loading analytics data..."})]})})}),!S&&!P&&E&&s.jsxs(s.Fragment,{children:[s.jsx("div",{className:"card bg-blue-50 border-blue-200",children:s.jsxs("div",{className:"flex items-center justify-between",children:[s.jsxs("div",{children:[s.jsxs("h3",{className:"font-semibold text-gray-900",children:[(I=N.find(G=>G.id===y))==null?void 0:I.label," Report"]}),s.jsx("p",{className:"text-sm text-gray-600 mt-1",children:p==="channels"?`${E.totalOrders||0} orders processed`:`${E.orderCount||0} orders processed`})]}),s.jsxs("div",{className:"text-right text-sm text-gray-600",children:[s.jsxs("div",{children:["From: ",new Date(E.periodStart).toLocaleDateString()]}),s.jsxs("div",{children:["To: ",new Date(E.periodEnd).toLocaleDateString()]})]})]})}),p==="online"?s.jsxs("div",{className:"grid grid-cols-1 md:grid-cols-2 lg:grid-cols-4 gap-6",children:[s.jsx(ee,{title:"Total Sales",value:E.totalSales,currency:E.currencyCode==="AUD"?"$":E.currencyCode,comparisonData:E.yearOverYearComparison,icon:"💰",type:"sales"}),s.jsx(ee,{title:"Average Sale",value:E.averageSale,currency:E.currencyCode==="AUD"?"$":E.currencyCode,comparisonData:null,icon:"📊",type:"average"}),s.jsx(ee,{title:"Total Freight Paid",value:E.totalFreight,currency:E.currencyCode==="AUD"?"$":E.currencyCode,comparisonData:null,icon:"🚚",type:"freight"}),s.jsx(ee,{title:"Total Discounts Given",value:E.totalDiscounts,currency:E.currencyCode==="AUD"?"$":E.currencyCode,comparisonData:null,icon:"🏷️",type:"discount"})]}):s.jsxs("div",{className:"space-y-6",children:[s.jsxs("div",{children:[s.jsx("h3",{className:"text-lg font-semibold text-gray-900 mb-3",children:"📊 Grand Total (No Double-Counting)"}),s.jsxs("div",{className:"grid grid-cols-1 md:grid-cols-3 gap-6",children:[s.jsx(ee,{title:"Total Revenue",value:E.totalRevenue||0,currency:"$",comparisonData:E.yearOverYearComparison,icon:"💰",type:"sales"}),s.jsx(ee,{title:"Total Orders",value:E.totalOrders||0,currency:"",comparisonData:null,icon:"📦",type:"orders"}),s.jsx(ee,{title:"Total Items Sold",value:E.totalItems||0,currency:"",comparisonData:null,icon:"📋",type:"orders"})]})]}),s.jsxs("div",{className:"card bg-blue-50 border-blue-200",children:[s.jsx("h3",{className:"text-lg font-semibold text-gray-900 mb-4",children:"🏪 Pure In-Store Sales (Walk-in Customers)"}),s.jsxs("div",{className:"mb-4",children:[s.jsx("h4",{className:"text-md font-semibold text-gray-800 mb-2",children:"The Hobbyman (Narre Warren)"}),s.jsxs("div",{className:"grid grid-cols-1 md:grid-cols-3 gap-4",children:[s.jsx(ee,{title:"Revenue",value:((M=E.hobbyman)==null?void 0:M.revenue)||0,currency:"$",comparisonData:null,icon:"💵",type:"sales"}),s.jsx(ee,{title:"Orders",value:((F=E.hobbyman)==null?void 0:F.orderCount)||0,currency:"",comparisonData:null,icon:"🛍️",type:"orders"}),s.jsx(ee,{title:"Items Sold",value:((T=E.hobbyman)==null?void 0:T.itemCount)||0,currency:"",comparisonData:null,icon:"📦",type:"orders"})]})]}),s.jsxs("div",{children:[s.jsx("h4",{className:"text-md font-semibold text-gray-800 mb-2",children:"Hearns Hobbies (Melbourne CBD)"}),s.jsxs("div",{className:"grid grid-cols-1 md:grid-cols-3 gap-4",children:[s.jsx(ee,{title:"Revenue",value:((L=E.hearnsHobbies)==null?void 0:L.revenue)||0,currency:"$",comparisonData:null,icon:"💵",type:"sales"}),s.jsx(ee,{title:"Orders",value:((b=E.hearnsHobbies)==null?void 0:b.orderCount)||0,currency:"",comparisonData:null,icon:"🛍️",type:"orders"}),s.jsx(ee,{title:"Items Sold",value:(($=E.hearnsHobbies)==null?void 0:$.itemCount)||0,currency:"",comparisonData:null,icon:"📦",type:"orders"})]})]})]}),s.jsxs("div",{className:"card bg-green-50 border-green-200",children:[s.jsx("h3",{className:"text-lg font-semibold text-gray-900 mb-2",children:"📦 Online Orders Fulfilled In-Store"}),s.jsx("p",{className:"text-sm text-gray-600 mb-4",children:"Online orders processed and invoiced at physical store locations"}),s.jsxs("div",{className:"mb-4",children:[s.jsx("h4",{className:"text-md font-semibold text-gray-800 mb-2",children:"The Hobbyman (Fulfillment)"}),s.jsxs("div",{className:"grid grid-cols-1 md:grid-cols-3 gap-4",children:[s.jsx(ee,{title:"Revenue",value:((z=E.hobbymanFulfillment)==null?void 0:z.revenue)||0,currency:"$",comparisonData:null,icon:"💵",type:"sales"}),s.jsx(ee,{title:"Orders",value:((le=E.hobbymanFulfillment)==null?void 0:le.orderCount)||0,currency:"",comparisonData:null,icon:"📦",type:"orders"}),s.jsx(ee,{title:"Items",value:((O=E.hobbymanFulfillment)==null?void 0:O.itemCount)||0,currency:"",comparisonData:null,icon:"📋",type:"orders"})]})]}),s.jsxs("div",{children:[s.jsx("h4",{className:"text-md font-semibold text-gray-800 mb-2",children:"Hearns Hobbies (Fulfillment)"}),s.jsxs("div",{className:"grid grid-cols-1 md:grid-cols-3 gap-4",children:[s.jsx(ee,{title:"Revenue",value:((U=E.hearnsFulfillment)==null?void 0:U.revenue)||0,currency:"$",comparisonData:null,icon:"💵",type:"sales"}),s.jsx(ee,{title:"Orders",value:((W=E.hearnsFulfillment)==null?void 0:W.orderCount)||0,currency:"",comparisonData:null,icon:"📦",type:"orders"}),s.jsx(ee,{title:"Items",value:((H=E.hearnsFulfillment)==null?void 0:H.itemCount)||0,currency:"",comparisonData:null,icon:"📋",type:"orders"})]})]})]}),s.jsxs("div",{className:"card bg-purple-50 border-purple-200",children:[s.jsx("h3",{className:"text-lg font-semibold text-gray-900 mb-2",children:"🛒 Online Sales Summary (Shopify)"}),s.jsx("p",{className:"text-sm text-gray-600 mb-4",children:"Total online orders placed through Shopify"}),s.jsxs("div",{className:"grid grid-cols-1 md:grid-cols-3 gap-4 mb-4",children:[s.jsx(ee,{title:"Total Online Revenue",value:((K=E.shopify)==null?void 0:K.revenue)||0,currency:"$",comparisonData:null,icon:"💰",type:"sales"}),s.jsx(ee,{title:"Total Online Orders",value:((Qe=E.shopify)==null?void 0:Qe.orderCount)||0,currency:"",comparisonData:null,icon:"🛍️",type:"orders"}),s.jsx(ee,{title:"Items",value:((Se=E.shopify)==null?void 0:Se.itemCount)||0,currency:"",comparisonData:null,icon:"📦",type:"orders"})]}),s.jsxs("div",{className:"border-t pt-4",children:[s.jsx("h4",{className:"text-md font-semibold text-gray-800 mb-3",children:"Fulfillment Status"}),s.jsxs("div",{className:"grid grid-cols-1 md:grid-cols-2 gap-4",children:[s.jsxs("div",{className:"bg-white rounded-lg p-4 border border-green-200",children:[s.jsxs("div",{className:"flex items-center justify-between mb-2",children:[s.jsx("span",{className:"text-sm font-medium text-gray-700",children:"Fulfilled & Invoiced"}),s.jsx("span",{className:"text-2xl",children:"✅"})]}),s.jsxs("div",{className:"text-2xl font-bold text-green-600",children:["$",(E.onlineFulfilledRevenue||0).toLocaleString()]}),s.jsxs("div",{className:"text-sm text-gray-600 mt-1",children:[E.onlineFulfilledOrders||0," orders"]})]}),s.jsxs("div",{className:"bg-white rounded-lg p-4 border border-yellow-200",children:[s.jsxs("div",{className:"flex items-center justify-between mb-2",children:[s.jsx("span",{className:"text-sm font-medium text-gray-700",children:"Pending/Unfulfilled"}),s.jsx("span",{className:"text-2xl",children:"⏳"})]}),s.jsxs("div",{className:"text-2xl font-bold text-yellow-600",children:["$",(E.onlinePendingRevenue||0).toLocaleString()]}),s.jsxs("div",{className:"text-sm text-gray-600 mt-1",children:[E.onlinePendingOrders||0," orders"]})]})]})]})]})]}),E.orderCount>0&&p==="online"&&s.jsxs("div",{className:"card bg-green-50 border-green-200",children:[s.jsx("h3",{className:"font-semibold text-gray-900 mb-3",children:"📈 Key Insights"}),s.jsxs("div",{className:"grid grid-cols-1 md:grid-cols-3 gap-4 text-sm",children:[s.jsxs("div",{children:[s.jsx("span",{className:"text-gray-600",children:"Orders:"}),s.jsx("span",{className:"font-semibold text-gray-900 ml-2",children:E.orderCount})]}),s.jsxs("div",{children:[s.jsx("span",{className:"text-gray-600",children:"Avg Freight/Order:"}),s.jsxs("span",{className:"font-semibold text-gray-900 ml-2",children:["$",(parseFloat(E.totalFreight)/E.orderCount).toFixed(2)]})]}),s.jsxs("div",{children:[s.jsx("span",{className:"text-gray-600",children:"Avg Discount/Order:"}),s.jsxs("span",{className:"font-semibold text-gray-900 ml-2",children:["$",(parseFloat(E.totalDiscounts)/E.orderCount).toFixed(2)]})]})]})]}),(p==="online"&&E.orderCount===0||p==="channels"&&E.totalOrders===0)&&s.jsx("div",{className:"card bg-yellow-50 border-yellow-200",children:s.jsxs("div",{className:"flex items-center gap-3",children:[s.jsx("span",{className:"text-3xl",children:"📭"}),s.jsxs("div",{children:[s.jsx("h3",{className:"font-semibold text-yellow-900",children:"No Orders Found"}),s.jsx("p",{className:"text-yellow-700 text-sm",children:"There are no orders in the selected period."})]})]})})]})]})}function Of({order:e}){if(!e)return null;const t=()=>{const r=window.open("","_blank","width=800,height=600"),n=`
       <!DOCTYPE html>
       <html>
         <head>
@@ -0,0 +1,227 @@
+package com.shopify.api.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.shopify.api.client.CRSResultDecoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * CRSResultDecoder against the regex parsing it replaced, on representative CRS payloads
+ * - query_database: ItemMaster price rows and daily in-store sales rows
+ * - get_sales_by_channel: the channel report text
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Djmh.include=CRSResultDecoder
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CRSResultDecoderBenchmark {
+
+    // Regex baseline, as used before CRSResultDecoder
+    private static final Pattern ROW_OBJECT_PATTERN = Pattern.compile("\\{[^{}]*\\}");
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * Rows per query_database result (a SKU chunk or days of a rollup range)
+     */
+    @Param({"20", "200"})
+    public int rows;
+
+    private CRSResultDecoder decoder;
+    private JsonNode itemPriceResult;
+    private JsonNode dailySalesResult;
+    private String channelReport;
+
+    @Setup
+    public void setUp() {
+        decoder = new CRSResultDecoder();
+        itemPriceResult = toolResult(itemPriceText(rows));
+        dailySalesResult = toolResult(dailySalesText(rows));
+        channelReport = channelReportText();
+    }
+
+    @Benchmark
+    public void itemPricesDecoder(Blackhole blackhole) {
+        for (ItemPriceRow row : decoder.readRows(itemPriceResult, ItemPriceRow.class)) {
+            blackhole.consume(row);
+        }
+    }
+
+    @Benchmark
+    public void itemPricesRegex(Blackhole blackhole) throws Exception {
+        Matcher matcher = ROW_OBJECT_PATTERN.matcher(itemPriceResult.path("content").get(0).get("text").asText());
+        while (matcher.find()) {
+            JsonNode row = MAPPER.readTree(matcher.group());
+            blackhole.consume(row.path("ItemCode").asText(null));
+            blackhole.consume(row.hasNonNull("RegularPrice") ? BigDecimal.valueOf(row.get("RegularPrice").asDouble()) : null);
+            blackhole.consume(row.hasNonNull("SalePrice") ? BigDecimal.valueOf(row.get("SalePrice").asDouble()) : null);
+            blackhole.consume(row.hasNonNull("OnSale") ? row.get("OnSale").asBoolean() : null);
+        }
+    }
+
+    @Benchmark
+    public void dailySalesDecoder(Blackhole blackhole) {
+        for (DailySalesRow row : decoder.readRows(dailySalesResult, DailySalesRow.class)) {
+            blackhole.consume(row);
+        }
+    }
+
+    @Benchmark
+    public void dailySalesRegex(Blackhole blackhole) throws Exception {
+        Matcher matcher = ROW_OBJECT_PATTERN.matcher(dailySalesResult.path("content").get(0).get("text").asText());
+        while (matcher.find()) {
+            JsonNode row = MAPPER.readTree(matcher.group());
+            blackhole.consume(LocalDate.parse(row.path("SaleDate").asText()));
+            blackhole.consume(row.path("OrderCount").asInt());
+            blackhole.consume(new BigDecimal(row.path("TotalSales").asText()));
+            blackhole.consume(new BigDecimal(row.path("TotalCost").asText()));
+        }
+    }
+
+    @Benchmark
+    public void channelReportDecoder(Blackhole blackhole) {
+        blackhole.consume(decoder.findStoreMetrics(channelReport, "PURE IN-STORE", "The Hobbyman:"));
+        blackhole.consume(decoder.findStoreMetrics(channelReport, "PURE IN-STORE", "Hearns Hobbies:"));
+        blackhole.consume(decoder.findStoreMetrics(channelReport, "ONLINE ORDERS FULFILLED", "The Hobbyman (fulfillment):"));
+        blackhole.consume(decoder.findStoreMetrics(channelReport, "ONLINE ORDERS FULFILLED", "Hearns Hobbies (fulfillment):"));
+        blackhole.consume(decoder.findOnlineTotal(channelReport));
+        blackhole.consume(decoder.findOrdersAndRevenue(channelReport, "Fulfilled & Invoiced:"));
+        blackhole.consume(decoder.findOrdersAndRevenue(channelReport, "Pending/Unfulfilled:"));
+        blackhole.consume(decoder.findOrdersAndRevenue(channelReport, "GRAND TOTAL"));
+    }
+
+    @Benchmark
+    public void channelReportRegex(Blackhole blackhole) {
+        String metrics = "[\\s\\S]*?Orders:\\s*(\\d+)[\\s\\S]*?Items:\\s*(\\d+)[\\s\\S]*?Revenue:\\s*\\$([\\d,]+\\.\\d{2})";
+        findRegex(blackhole, Pattern.compile("PURE IN-STORE[\\s\\S]*?The Hobbyman:" + metrics), 3);
+        findRegex(blackhole, Pattern.compile("PURE IN-STORE[\\s\\S]*?Hearns Hobbies:" + metrics), 3);
+        findRegex(blackhole, Pattern.compile("ONLINE ORDERS FULFILLED[\\s\\S]*?The Hobbyman \\(fulfillment\\):" + metrics), 3);
+        findRegex(blackhole, Pattern.compile("ONLINE ORDERS FULFILLED[\\s\\S]*?Hearns Hobbies \\(fulfillment\\):" + metrics), 3);
+        findRegex(blackhole, Pattern.compile(
+                "Total Online Orders:\\s*(\\d+)[\\s\\S]*?Total Online Revenue:\\s*\\$([\\d,]+\\.\\d{2})"), 2);
+        findRegex(blackhole, Pattern.compile("Fulfilled & Invoiced:\\s*(\\d+)\\s*orders,\\s*\\$([\\d,]+\\.\\d{2})"), 2);
+        findRegex(blackhole, Pattern.compile("Pending/Unfulfilled:\\s*(\\d+)\\s*orders,\\s*\\$([\\d,]+\\.\\d{2})"), 2);
+        findRegex(blackhole, Pattern.compile("GRAND TOTAL[\\s\\S]*?:\\s*(\\d+)\\s*orders,\\s*\\$([\\d,]+\\.\\d{2})"), 2);
+    }
+
+    private void findRegex(Blackhole blackhole, Pattern pattern, int groups) {
+        Matcher matcher = pattern.matcher(channelReport);
+        if (matcher.find()) {
+            for (int group = 1; group <= groups; group++) {
+                blackhole.consume(matcher.group(group));
+            }
+        }
+    }
+
+    private static JsonNode toolResult(String text) {
+        ObjectNode result = MAPPER.createObjectNode();
+        result.putArray("content").addObject()
+                .put("type", "text")
+                .put("text", text);
+        return result;
+    }
+
+    private static String itemPriceText(int count) {
+        StringBuilder text = new StringBuilder("Query returned ").append(count).append(" rows:\n\n");
+        for (int i = 0; i < count; i++) {
+            text.append("Row ").append(i + 1).append(": { \"ItemCode\": \"SKU-").append(10000 + i)
+                    .append("\", \"RegularPrice\": ").append(19.95 + i)
+                    .append(", \"SalePrice\": ").append(i % 3 == 0 ? String.valueOf(14.95 + i) : "null")
+                    .append(", \"OnSale\": ").append(i % 3 == 0)
+                    .append(" }\n");
+        }
+        return text.toString();
+    }
+
+    private static String dailySalesText(int count) {
+        LocalDate day = LocalDate.of(2025, 1, 1);
+        StringBuilder text = new StringBuilder("Query returned ").append(count).append(" rows:\n\n");
+        for (int i = 0; i < count; i++) {
+            text.append("Row ").append(i + 1).append(": { \"SaleDate\": \"").append(day.plusDays(i))
+                    .append("\", \"OrderCount\": ").append(40 + i % 25)
+                    .append(", \"TotalSales\": ").append(3150.45 + i * 12.5)
+                    .append(", \"TotalCost\": ").append(1710.2 + i * 6.25)
+                    .append(" }\n");
+        }
+        return text.toString();
+    }
+
+    private static String channelReportText() {
+        List<String> lines = new ArrayList<>();
+        lines.add("SALES BY CHANNEL REPORT");
+        lines.add("Period: 2025-10-01 00:00:00 to 2025-10-31 23:59:59");
+        lines.add("");
+        lines.add("=== PURE IN-STORE SALES (walk-in customers) ===");
+        lines.add("The Hobbyman:");
+        lines.add("  Orders: 1204");
+        lines.add("  Items: 3518");
+        lines.add("  Revenue: $98,412.35");
+        lines.add("Hearns Hobbies:");
+        lines.add("  Orders: 876");
+        lines.add("  Items: 2210");
+        lines.add("  Revenue: $61,087.10");
+        lines.add("");
+        lines.add("=== ONLINE ORDERS FULFILLED BY STORE ===");
+        lines.add("The Hobbyman (fulfillment):");
+        lines.add("  Orders: 402");
+        lines.add("  Items: 1133");
+        lines.add("  Revenue: $35,220.00");
+        lines.add("Hearns Hobbies (fulfillment):");
+        lines.add("  Orders: 318");
+        lines.add("  Items: 845");
+        lines.add("  Revenue: $27,904.75");
+        lines.add("");
+        lines.add("=== ONLINE SUMMARY ===");
+        lines.add("Total Online Orders: 731");
+        lines.add("Total Online Revenue: $64,311.20");
+        lines.add("  Fulfilled & Invoiced: 720 orders, $63,124.75");
+        lines.add("  Pending/Unfulfilled: 11 orders, $1,186.45");
+        lines.add("");
+        lines.add("=== GRAND TOTAL ===");
+        lines.add("All channels: 2811 orders, $223,810.65");
+        return String.join("\n", lines);
+    }
+
+    /**
+     * ItemMaster pricing row, as read by FulfillmentService
+     */
+    public record ItemPriceRow(@JsonProperty("ItemCode") String itemCode,
+                               @JsonProperty("RegularPrice") BigDecimal regularPrice,
+                               @JsonProperty("SalePrice") BigDecimal salePrice,
+                               @JsonProperty("OnSale") Boolean onSale) {
+    }
+
+    /**
+     * Daily in-store sales row, as read by CRSAnalyticsService
+     */
+    public record DailySalesRow(@JsonProperty("SaleDate") String saleDate,
+                                @JsonProperty("OrderCount") int orderCount,
+                                @JsonProperty("TotalSales") BigDecimal totalSales,
+                                @JsonProperty("TotalCost") BigDecimal totalCost) {
+    }
+}
@@ -0,0 +1,180 @@
+package com.shopify.api.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.shopify.api.service.agent.WorkflowExpressionCompiler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compiled workflow conditions and input mappings against the per-evaluation string
+ * parsing they replaced, on a context shaped like a mid-workflow execution
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Djmh.include=WorkflowExpressionCompiler
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorkflowExpressionCompilerBenchmark {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    // Conditions the previous evaluator understood, so both sides do the same work
+    private static final String[] CONDITIONS = {
+        "${step1.sentiment}==negative",
+        "${step2.result.status}!=resolved",
+        "${trigger.isVip}",
+        "!${step3.escalated}"
+    };
+
+    private static final String INPUT_MAPPING = """
+        {
+          "customerId": "${trigger.customerId}",
+          "email": "${trigger.email}",
+          "sentiment": "${step1.sentiment}",
+          "summary": "${step2.result.summary}",
+          "lines": "${trigger.lines}",
+          "options": {"tone": "friendly", "maxLength": 500, "language": "en-AU"}
+        }
+        """;
+
+    private WorkflowExpressionCompiler compiler;
+    private ObjectNode context;
+    private JsonNode inputMapping;
+
+    @Setup
+    public void setUp() throws Exception {
+        compiler = new WorkflowExpressionCompiler();
+        context = (ObjectNode) MAPPER.readTree("""
+            {
+              "trigger": {
+                "customerId": "gid://shopify/Customer/7101",
+                "email": "buyer@example.com",
+                "isVip": true,
+                "lines": [{"sku": "A-1", "qty": 2}, {"sku": "B-2", "qty": 1}]
+              },
+              "step1": {"sentiment": "negative", "confidence": 0.92},
+              "step2": {"result": {"status": "open", "summary": "Parcel arrived damaged, wants a refund"}},
+              "step3": {"escalated": false}
+            }
+            """);
+        inputMapping = MAPPER.readTree(INPUT_MAPPING);
+    }
+
+    @Benchmark
+    public void conditionsCompiled(Blackhole blackhole) {
+        for (String condition : CONDITIONS) {
+            blackhole.consume(compiler.compileCondition(condition).test(context));
+        }
+    }
+
+    @Benchmark
+    public void conditionsReparsed(Blackhole blackhole) {
+        for (String condition : CONDITIONS) {
+            blackhole.consume(LegacyEvaluator.shouldExecute(condition, context));
+        }
+    }
+
+    @Benchmark
+    public JsonNode inputMappingCompiled() {
+        return compiler.compileTemplate(inputMapping).apply(context);
+    }
+
+    @Benchmark
+    public JsonNode inputMappingReparsed() {
+        return LegacyEvaluator.substituteVariables(inputMapping, context);
+    }
+
+    /**
+     * Condition and input mapping evaluation as WorkflowOrchestratorService did it before
+     * WorkflowExpressionCompiler: regex and split on every evaluation
+     */
+    static final class LegacyEvaluator {
+
+        static boolean shouldExecute(String condition, ObjectNode context) {
+            if (condition.startsWith("!")) {
+                return !evaluateCondition(condition.substring(1).trim(), context);
+            }
+            return evaluateCondition(condition, context);
+        }
+
+        static JsonNode substituteVariables(JsonNode node, ObjectNode context) {
+            if (node.isTextual()) {
+                String text = node.asText();
+                if (text.matches("\\$\\{[^}]+\\}")) {
+                    JsonNode value = resolveNestedPath(text.substring(2, text.length() - 1), context);
+                    return value != null ? value : node;
+                }
+                return node;
+            } else if (node.isObject()) {
+                ObjectNode result = MAPPER.createObjectNode();
+                node.fields().forEachRemaining(entry ->
+                    result.set(entry.getKey(), substituteVariables(entry.getValue(), context)));
+                return result;
+            } else if (node.isArray()) {
+                ArrayNode result = MAPPER.createArrayNode();
+                node.forEach(item -> result.add(substituteVariables(item, context)));
+                return result;
+            }
+            return node;
+        }
+
+        private static boolean evaluateCondition(String condition, ObjectNode context) {
+            if (condition.contains("==")) {
+                String[] parts = condition.split("==", 2);
+                JsonNode left = resolveValue(parts[0], context);
+                JsonNode right = resolveValue(parts[1], context);
+                return left != null && right != null && left.asText().equals(right.asText());
+            }
+            if (condition.contains("!=")) {
+                String[] parts = condition.split("!=", 2);
+                JsonNode left = resolveValue(parts[0], context);
+                JsonNode right = resolveValue(parts[1], context);
+                return left != null && right != null && !left.asText().equals(right.asText());
+            }
+            if (condition.matches("\\$\\{[^}]+\\}")) {
+                JsonNode value = resolveNestedPath(condition.substring(2, condition.length() - 1), context);
+                if (value == null || value.isNull()) {
+                    return false;
+                }
+                return value.isBoolean() ? value.asBoolean() : !value.asText().isEmpty();
+            }
+            return false;
+        }
+
+        private static JsonNode resolveValue(String expr, ObjectNode context) {
+            expr = expr.trim();
+            if (expr.matches("\\$\\{[^}]+\\}")) {
+                return resolveNestedPath(expr.substring(2, expr.length() - 1), context);
+            }
+            return MAPPER.getNodeFactory().textNode(expr);
+        }
+
+        private static JsonNode resolveNestedPath(String path, ObjectNode context) {
+            JsonNode current = context;
+            for (String part : path.split("\\.")) {
+                if (current == null || !current.has(part)) {
+                    return null;
+                }
+                current = current.get(part);
+            }
+            return current;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.shopify.api.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopify.api.config.ShopifyConfig;
+import com.shopify.api.model.BulkOrder;
+import com.shopify.api.model.GraphQLRequest;
+import com.shopify.api.model.GraphQLResponse;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Bulk operation client against a stubbed GraphQL API and a local HTTP server
+ * standing in for the pre-signed JSONL result URL
+ */
+class ShopifyBulkOperationClientTest {
+
+    private static final String OPERATION_ID = "gid://shopify/BulkOperation/1";
+
+    private static final String ORDERS_JSONL = """
+        {"id":"gid://shopify/Order/1","name":"#1001","createdAt":"2025-10-01T01:00:00Z","totalPriceSet":{"shopMoney":{"amount":"120.50","currencyCode":"AUD"}}}
+
+        {"id":"gid://shopify/Order/2","name":"#1002","createdAt":"2025-10-02T02:00:00Z","totalPriceSet":{"shopMoney":{"amount":"80.00","currencyCode":"AUD"}},"totalDiscountsSet":{"shopMoney":{"amount":"5.00","currencyCode":"AUD"}}}
+        """;
+
+    private static final String ORDERS_WITH_LINE_ITEMS_JSONL = """
+        {"id":"gid://shopify/Order/1","name":"#1001"}
+        {"sku":"A-1","quantity":2,"__parentId":"gid://shopify/Order/1"}
+        {"sku":"B-2","quantity":1,"__parentId":"gid://shopify/Order/1"}
+        {"id":"gid://shopify/Order/2","name":"#1002"}
+        {"id":"gid://shopify/Order/3","name":"#1003"}
+        {"sku":"C-3","quantity":4,"__parentId":"gid://shopify/Order/3"}
+        """;
+
+    private HttpServer server;
+    private ShopifyGraphQLClient graphQLClient;
+    private ShopifyBulkOperationClient client;
+
+    private volatile String jsonl = "";
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/result.jsonl", exchange -> {
+            byte[] body = jsonl.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/jsonl");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        ShopifyConfig config = new ShopifyConfig();
+        config.getBulkOperation().setPollIntervalMs(1);
+        config.getBulkOperation().setMaxWaitMs(5000);
+
+        graphQLClient = mock(ShopifyGraphQLClient.class);
+        client = new ShopifyBulkOperationClient(graphQLClient, WebClient.create(), config, new ObjectMapper());
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void streamsTypedRecordsFromResultFile() {
+        jsonl = ORDERS_JSONL;
+        stubOperation("COMPLETED", resultUrl());
+
+        List<BulkOrder> orders = client.streamQuery("{ orders { edges { node { id } } } }", BulkOrder.class)
+                .collectList()
+                .block();
+
+        assertThat(orders).extracting(BulkOrder::getName).containsExactly("#1001", "#1002");
+        assertThat(orders.get(0).getTotalPrice()).isEqualByComparingTo(new BigDecimal("120.50"));
+        assertThat(orders.get(0).getTotalDiscounts()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(orders.get(1).getTotalDiscounts()).isEqualByComparingTo(new BigDecimal("5.00"));
+        assertThat(orders.get(1).getCurrencyCode()).isEqualTo("AUD");
+    }
+
+    @Test
+    void pollsUntilOperationCompletes() {
+        jsonl = ORDERS_JSONL;
+        AtomicInteger polls = new AtomicInteger();
+        when(graphQLClient.executeQueryReactive(any(GraphQLRequest.class))).thenAnswer(invocation -> {
+            GraphQLRequest request = invocation.getArgument(0);
+            if (request.getQuery().contains("bulkOperationRunQuery(")) {
+                return Mono.just(runQueryResponse());
+            }
+            return Mono.just(polls.incrementAndGet() < 3
+                    ? statusResponse("RUNNING", null)
+                    : statusResponse("COMPLETED", resultUrl()));
+        });
+
+        assertThat(client.streamQuery("{ orders { edges { node { id } } } }").count().block()).isEqualTo(2);
+        assertThat(polls.get()).isEqualTo(3);
+    }
+
+    @Test
+    void reattachesChildLinesToTheirParent() {
+        jsonl = ORDERS_WITH_LINE_ITEMS_JSONL;
+        stubOperation("COMPLETED", resultUrl());
+
+        List<Map<String, Object>> orders = client.streamQueryWithChildren("{ orders { edges { node { id } } } }", "lineItems")
+                .collectList()
+                .block();
+
+        assertThat(orders).extracting(order -> order.get("name")).containsExactly("#1001", "#1002", "#1003");
+        assertThat(lineItemSkus(orders.get(0))).containsExactly("A-1", "B-2");
+        assertThat(lineItemSkus(orders.get(1))).isEmpty();
+        assertThat(lineItemSkus(orders.get(2))).containsExactly("C-3");
+    }
+
+    @Test
+    void completesEmptyWhenOperationHasNoResultFile() {
+        stubOperation("COMPLETED", null);
+
+        assertThat(client.streamQuery("{ orders { edges { node { id } } } }").collectList().block()).isEmpty();
+    }
+
+    @Test
+    void failsWhenOperationDoesNotComplete() {
+        stubOperation("FAILED", null);
+
+        assertThatThrownBy(() -> client.streamQuery("{ orders { edges { node { id } } } }").blockLast())
+                .hasMessageContaining("ended with status FAILED");
+    }
+
+    @Test
+    void failsOnMalformedLine() {
+        jsonl = "{\"id\":\"gid://shopify/Order/1\"}\nnot json\n";
+        stubOperation("COMPLETED", resultUrl());
+
+        assertThatThrownBy(() -> client.streamQuery("{ orders { edges { node { id } } } }", BulkOrder.class).blockLast())
+                .hasMessageContaining("Failed to parse bulk operation line");
+    }
+
+    private void stubOperation(String status, String url) {
+        when(graphQLClient.executeQueryReactive(any(GraphQLRequest.class))).thenAnswer(invocation -> {
+            GraphQLRequest request = invocation.getArgument(0);
+            if (request.getQuery().contains("bulkOperationRunQuery(")) {
+                return Mono.just(runQueryResponse());
+            }
+            return Mono.just(statusResponse(status, url));
+        });
+    }
+
+    private String resultUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/result.jsonl";
+    }
+
+    private static GraphQLResponse runQueryResponse() {
+        Map<String, Object> operation = new HashMap<>();
+        operation.put("id", OPERATION_ID);
+        operation.put("status", "CREATED");
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("bulkOperation", operation);
+        result.put("userErrors", List.of());
+
+        return response(Map.of("bulkOperationRunQuery", result));
+    }
+
+    private static GraphQLResponse statusResponse(String status, String url) {
+        Map<String, Object> operation = new HashMap<>();
+        operation.put("id", OPERATION_ID);
+        operation.put("status", status);
+        operation.put("objectCount", "2");
+        operation.put("url", url);
+        if ("FAILED".equals(status)) {
+            operation.put("errorCode", "INTERNAL_SERVER_ERROR");
+        }
+        return response(Map.of("node", operation));
+    }
+
+    private static GraphQLResponse response(Map<String, Object> data) {
+        GraphQLResponse response = new GraphQLResponse();
+        response.setData(data);
+        return response;
+    }
+
+    private static List<Object> lineItemSkus(Map<String, Object> order) {
+        Map<String, Object> connection = (Map<String, Object>) order.get("lineItems");
+        List<Map<String, Object>> edges = (List<Map<String, Object>>) connection.get("edges");
+        return edges.stream()
+                .map(edge -> ((Map<String, Object>) edge.get("node")).get("sku"))
+                .toList();
+    }
+}
@@ -0,0 +1,230 @@
+package com.shopify.api.service.agent;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WorkflowExpressionCompilerTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private WorkflowExpressionCompiler compiler;
+    private JsonNode context;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        compiler = new WorkflowExpressionCompiler();
+        context = MAPPER.readTree("""
+            {
+              "yes": true,
+              "no": false,
+              "empty": "",
+              "status": "approved",
+              "phase": "in progress",
+              "reply": "Done!",
+              "team": "R&D",
+              "owner": "O'Brien",
+              "price": 1.0,
+              "count": 10,
+              "countText": "10",
+              "code": "a",
+              "items": [],
+              "tags": ["vip", "wholesale"],
+              "order": {"sku": "A-1", "qty": 2},
+              "note": "please ship today",
+              "step1": {"sentiment": "negative", "score": 0.8, "result": {"status": "ok"}},
+              "lines": [{"sku": "A-1"}, {"sku": "B-2"}]
+            }
+            """);
+    }
+
+    // ---- Old-format expressions ----
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+        "${yes}                      | true",
+        "${no}                       | false",
+        "${empty}                    | false",
+        "${missing}                  | false",
+        "${items}                    | false",
+        "${tags}                     | true",
+        "!${yes}                     | false",
+        "!${missing}                 | true",
+        "${status}==approved         | true",
+        "${status}!=approved         | false",
+        "${status}==rejected         | false",
+        "${step1.result.status}==ok  | true",
+        "${missing}==approved        | false",
+        "${missing}!=approved        | false",
+        "${status} == approved       | true"
+    })
+    void evaluatesOldFormatExpressions(String expression, boolean expected) {
+        assertThat(test(expression)).isEqualTo(expected);
+    }
+
+    // ---- Bare-word literals ----
+
+    @Test
+    void joinsConsecutiveBareWordsIntoOneLiteral() {
+        assertThat(test("${phase} == in progress")).isTrue();
+        assertThat(test("${phase} == in review")).isFalse();
+    }
+
+    @Test
+    void readsKeywordsAndNumbersAsLiterals() {
+        assertThat(test("${yes} == true")).isTrue();
+        assertThat(test("${no} == false")).isTrue();
+        assertThat(test("${count} == 10")).isTrue();
+    }
+
+    @Test
+    void acceptsBareValuesContainingPunctuation() {
+        assertThat(test("${reply}==Done!")).isTrue();
+        assertThat(test("${reply} == Done! && ${yes}")).isTrue();
+        assertThat(test("${reply}!=Done!")).isFalse();
+        assertThat(test("${team}==R&D")).isTrue();
+        assertThat(test("${owner}==O'Brien")).isTrue();
+    }
+
+    // ---- Precedence ----
+
+    @Test
+    void andBindsTighterThanOr() {
+        // yes || (no && no), not (yes || no) && no
+        assertThat(test("${yes} || ${no} && ${no}")).isTrue();
+        assertThat(test("${no} && ${no} || ${yes}")).isTrue();
+        assertThat(test("${no} || ${yes} && ${no}")).isFalse();
+    }
+
+    @Test
+    void parenthesesOverridePrecedence() {
+        assertThat(test("(${yes} || ${no}) && ${no}")).isFalse();
+        assertThat(test("!(${yes} && ${no})")).isTrue();
+    }
+
+    @Test
+    void comparisonsBindTighterThanLogicalOperators() {
+        assertThat(test("${status} == approved && ${count} > 5")).isTrue();
+        assertThat(test("${status} == rejected || ${code} == a")).isTrue();
+    }
+
+    // ---- Numeric vs text comparison ----
+
+    @Test
+    void comparesNumbersNumerically() {
+        assertThat(test("${price} == 1")).isTrue();
+        assertThat(test("${count} > 9")).isTrue();
+        assertThat(test("${countText} > 9")).isTrue();
+        assertThat(test("${countText} == 10.0")).isTrue();
+        assertThat(test("${step1.score} >= 0.8")).isTrue();
+        assertThat(test("${step1.score} < 0.5")).isFalse();
+    }
+
+    @Test
+    void comparesTextLexically() {
+        assertThat(test("${code} < 'b'")).isTrue();
+        assertThat(test("${status} > 'b'")).isFalse();
+        assertThat(test("'10' == '10'")).isTrue();
+        assertThat(test("${status} == 'approved'")).isTrue();
+        assertThat(test("${status} == \"approved\"")).isTrue();
+    }
+
+    @Test
+    void missingSideMakesComparisonFalse() {
+        assertThat(test("${missing} < 5")).isFalse();
+        assertThat(test("${missing} >= 5")).isFalse();
+        assertThat(test("5 == ${missing}")).isFalse();
+    }
+
+    // ---- in ----
+
+    @Test
+    void inChecksListsArraysObjectsAndText() {
+        assertThat(test("${status} in ['approved', 'pending']")).isTrue();
+        assertThat(test("${status} in ['pending']")).isFalse();
+        assertThat(test("${count} in [5, 10]")).isTrue();
+        assertThat(test("'vip' in ${tags}")).isTrue();
+        assertThat(test("'retail' in ${tags}")).isFalse();
+        assertThat(test("'sku' in ${order}")).isTrue();
+        assertThat(test("'ship' in ${note}")).isTrue();
+        assertThat(test("'vip' in ${missing}")).isFalse();
+    }
+
+    // ---- ${ whole expression } form ----
+
+    @Test
+    void evaluatesWrappedExpressionsWithBarePaths() {
+        assertThat(test("${step1.sentiment == 'negative'}")).isTrue();
+        assertThat(test("${step1.sentiment == 'positive'}")).isFalse();
+        assertThat(test("${step1.score > 0.5 && status == 'approved'}")).isTrue();
+        assertThat(test("${lines.1.sku == 'B-2'}")).isTrue();
+    }
+
+    @Test
+    void wrappedPlainPathIsATruthinessCheck() {
+        assertThat(test("${step1.result}")).isTrue();
+        assertThat(test("${step1.missing}")).isFalse();
+    }
+
+    // ---- Invalid expressions ----
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "${status} ==", "(${yes}", "${yes} &&", "${status} == 'approved", "${yes} ${no}"})
+    void invalidExpressionsEvaluateToFalse(String expression) {
+        assertThat(test(expression)).isFalse();
+    }
+
+    @Test
+    void cachesCompiledConditions() {
+        assertThat(compiler.compileCondition("${yes}")).isSameAs(compiler.compileCondition("${yes}"));
+    }
+
+    // ---- Templates ----
+
+    @Test
+    void replacesWholeValuePathsKeepingTheirType() throws Exception {
+        JsonNode result = apply("""
+            {"score": "${step1.score}", "tags": "${tags}", "first": "${lines.0.sku}", "missing": "${missing}"}
+            """);
+
+        assertThat(result.get("score").isNumber()).isTrue();
+        assertThat(result.get("score").asDouble()).isEqualTo(0.8);
+        assertThat(result.get("tags")).isEqualTo(context.get("tags"));
+        assertThat(result.get("first").asText()).isEqualTo("A-1");
+        assertThat(result.get("missing").asText()).isEqualTo("${missing}");
+    }
+
+    @Test
+    void interpolatesPathsInsideText() throws Exception {
+        JsonNode result = apply("""
+            {"message": "Order ${order.sku} x${order.qty} is ${status}${missing}", "nested": ["${status}!", 3]}
+            """);
+
+        assertThat(result.get("message").asText()).isEqualTo("Order A-1 x2 is approved");
+        assertThat(result.get("nested").get(0).asText()).isEqualTo("approved!");
+        assertThat(result.get("nested").get(1).asInt()).isEqualTo(3);
+    }
+
+    @Test
+    void reusesConstantParts() throws Exception {
+        JsonNode template = MAPPER.readTree("{\"fixed\": {\"a\": 1}, \"value\": \"${status}\"}");
+        WorkflowExpressionCompiler.CompiledTemplate compiled = compiler.compileTemplate(template);
+
+        assertThat(compiled.apply(context).get("fixed")).isSameAs(compiled.apply(context).get("fixed"));
+        assertThat(compiler.compileTemplate(template.deepCopy())).isSameAs(compiled);
+    }
+
+    private boolean test(String expression) {
+        return compiler.compileCondition(expression).test(context);
+    }
+
+    private JsonNode apply(String template) throws Exception {
+        return compiler.compileTemplate(MAPPER.readTree(template)).apply(context);
+    }
+}
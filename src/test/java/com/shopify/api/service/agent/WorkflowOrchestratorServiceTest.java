@@ -0,0 +1,265 @@
+package com.shopify.api.service.agent;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopify.api.model.agent.Agent;
+import com.shopify.api.model.agent.Workflow;
+import com.shopify.api.model.agent.WorkflowExecution;
+import com.shopify.api.model.agent.WorkflowStep;
+import com.shopify.api.model.agent.WorkflowStepCheckpoint;
+import com.shopify.api.repository.agent.ApprovalRequestRepository;
+import com.shopify.api.repository.agent.WorkflowExecutionRepository;
+import com.shopify.api.repository.agent.WorkflowRepository;
+import com.shopify.api.repository.agent.WorkflowStepCheckpointRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Step graph runs against a stubbed AgentExecutionService: step N runs agent N, whose
+ * behaviour each test registers in {@link #agents}
+ */
+class WorkflowOrchestratorServiceTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final long EXECUTION_ID = 7L;
+
+    private final Map<Long, Supplier<Mono<JsonNode>>> agents = new ConcurrentHashMap<>();
+    private final List<String> events = Collections.synchronizedList(new ArrayList<>());
+
+    private WorkflowExecutionRepository executionRepository;
+    private WorkflowStepCheckpointRepository checkpointRepository;
+    private AgentExecutionService agentExecutionService;
+    private WorkflowOrchestratorService service;
+
+    private Workflow workflow;
+    private WorkflowExecution execution;
+
+    @BeforeEach
+    void setUp() {
+        WorkflowRepository workflowRepository = mock(WorkflowRepository.class);
+        executionRepository = mock(WorkflowExecutionRepository.class);
+        checkpointRepository = mock(WorkflowStepCheckpointRepository.class);
+        agentExecutionService = mock(AgentExecutionService.class);
+
+        workflow = Workflow.builder().id(1L).name("test").build();
+        execution = WorkflowExecution.builder().id(EXECUTION_ID).workflow(workflow).status("RUNNING").build();
+        when(executionRepository.findById(EXECUTION_ID)).thenReturn(Optional.of(execution));
+        when(workflowRepository.findByIdWithStepsAndAgents(1L)).thenReturn(Optional.of(workflow));
+
+        when(agentExecutionService.executeAgent(anyLong(), any())).thenAnswer(invocation -> {
+            Long agentId = invocation.getArgument(0);
+            return agents.get(agentId).get()
+                .map(output -> AgentExecutionService.AgentExecutionResult.builder()
+                    .output(output)
+                    .success(true)
+                    .build());
+        });
+
+        service = new WorkflowOrchestratorService(workflowRepository, executionRepository, agentExecutionService,
+            mock(ApprovalService.class), MAPPER, new WorkflowExpressionCompiler(), checkpointRepository,
+            mock(ApprovalRequestRepository.class), mock(TransactionTemplate.class));
+        ReflectionTestUtils.setField(service, "maxConcurrency", 4);
+    }
+
+    @Test
+    void stepsWithoutDependsOnRunSequentially() {
+        for (long order = 1; order <= 3; order++) {
+            agents.put(order, recording(order, 20));
+        }
+        steps(agentStep(1, null), agentStep(2, null), agentStep(3, null));
+
+        run();
+
+        assertThat(events).containsExactly("start 1", "end 1", "start 2", "end 2", "start 3", "end 3");
+        assertThat(execution.getStatus()).isEqualTo("COMPLETED");
+    }
+
+    @Test
+    void unknownDependencyFailsBeforeAnyStepRuns() {
+        steps(agentStep(1, after()), agentStep(2, after(7)));
+
+        assertThatThrownBy(this::run)
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("unknown step_order 7");
+        verifyNoInteractions(agentExecutionService);
+        assertThat(execution.getStatus()).isEqualTo("FAILED");
+    }
+
+    @Test
+    void cycleFailsBeforeAnyStepRuns() {
+        steps(agentStep(1, after()), agentStep(2, after(1, 3)), agentStep(3, after(2)));
+
+        assertThatThrownBy(this::run)
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("circular");
+        verifyNoInteractions(agentExecutionService);
+        assertThat(execution.getStatus()).isEqualTo("FAILED");
+    }
+
+    @Test
+    void runsAtMostMaxConcurrencyStepsAtOnce() {
+        ReflectionTestUtils.setField(service, "maxConcurrency", 2);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<WorkflowStep> independent = new ArrayList<>();
+        for (long order = 1; order <= 5; order++) {
+            agents.put(order, () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                return Mono.delay(Duration.ofMillis(30))
+                    .map(tick -> {
+                        running.decrementAndGet();
+                        return MAPPER.createObjectNode();
+                    });
+            });
+            independent.add(agentStep((int) order, after()));
+        }
+        steps(independent.toArray(new WorkflowStep[0]));
+
+        run();
+
+        assertThat(maxRunning.get()).isEqualTo(2);
+        verify(agentExecutionService, times(5)).executeAgent(anyLong(), any());
+    }
+
+    @Test
+    void firstFailureCancelsRunningSteps() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        agents.put(1L, () -> Mono.fromRunnable(() -> awaitQuietly(started))
+            .then(Mono.error(new IllegalStateException("agent 1 failed"))));
+        agents.put(2L, () -> {
+            started.countDown();
+            return Mono.<JsonNode>never().doOnCancel(cancelled::countDown);
+        });
+        agents.put(3L, recording(3, 0));
+        steps(agentStep(1, after()), agentStep(2, after()), agentStep(3, after(2)));
+
+        assertThatThrownBy(this::run).hasMessage("agent 1 failed");
+
+        assertThat(cancelled.await(1, TimeUnit.SECONDS)).isTrue();
+        verify(agentExecutionService, never()).executeAgent(eq(3L), any());
+        assertThat(execution.getStatus()).isEqualTo("FAILED");
+    }
+
+    @Test
+    void skippedStepReleasesItsDependents() {
+        agents.put(1L, recording(1, 0));
+        agents.put(2L, recording(2, 0));
+        WorkflowStep skipped = agentStep(1, after());
+        skipped.setConditionExpression("${trigger.enabled}");
+        steps(skipped, agentStep(2, after(1)));
+        execution.setTriggerDataJson(MAPPER.createObjectNode().put("enabled", false));
+
+        run();
+
+        assertThat(events).containsExactly("start 2", "end 2");
+        ArgumentCaptor<WorkflowStepCheckpoint> checkpoints = ArgumentCaptor.forClass(WorkflowStepCheckpoint.class);
+        verify(checkpointRepository, times(2)).save(checkpoints.capture());
+        assertThat(checkpoints.getAllValues())
+            .extracting(WorkflowStepCheckpoint::getStepOrder, WorkflowStepCheckpoint::getStatus)
+            .containsExactly(
+                tuple(1, "SKIPPED"),
+                tuple(2, "COMPLETED"));
+        assertThat(execution.getStatus()).isEqualTo("COMPLETED");
+    }
+
+    @Test
+    void parallelStepJoinsItsDependencies() {
+        agents.put(1L, () -> Mono.just(MAPPER.createObjectNode().put("sku", "A-1")));
+        agents.put(2L, () -> Mono.just(MAPPER.createObjectNode().put("sku", "B-2")));
+        agents.put(3L, recording(3, 0));
+        WorkflowStep unnamed = agentStep(2, after());
+        unnamed.setOutputVariable(null);
+        WorkflowStep skipped = agentStep(3, after());
+        skipped.setConditionExpression("${trigger.missing}");
+        WorkflowStep join = WorkflowStep.builder()
+            .stepOrder(4)
+            .stepType("PARALLEL")
+            .name("join")
+            .dependsOn(after(1, 2, 3))
+            .outputVariable("joined")
+            .build();
+        steps(agentStep(1, after()), unnamed, skipped, join);
+
+        JsonNode joined = run().getContext().get("joined");
+
+        assertThat(joined.path("step1").path("sku").asText()).isEqualTo("A-1");
+        assertThat(joined.path("step_2").path("sku").asText()).isEqualTo("B-2");
+        assertThat(joined.has("step3")).isFalse();
+        assertThat(joined.size()).isEqualTo(2);
+    }
+
+    private WorkflowOrchestratorService.WorkflowExecutionResult run() {
+        return service.runExecution(EXECUTION_ID).block(Duration.ofSeconds(5));
+    }
+
+    private void steps(WorkflowStep... steps) {
+        workflow.setWorkflowSteps(new ArrayList<>(List.of(steps)));
+    }
+
+    /**
+     * Agent that records when it starts and, after a delay, when it ends
+     */
+    private Supplier<Mono<JsonNode>> recording(long order, long delayMs) {
+        return () -> {
+            events.add("start " + order);
+            return Mono.delay(Duration.ofMillis(delayMs))
+                .map(tick -> {
+                    events.add("end " + order);
+                    return MAPPER.createObjectNode().put("step", order);
+                });
+        };
+    }
+
+    private static WorkflowStep agentStep(int order, Integer[] dependsOn) {
+        return WorkflowStep.builder()
+            .stepOrder(order)
+            .stepType("AGENT_EXECUTION")
+            .name("step " + order)
+            .agent(Agent.builder().id((long) order).name("agent " + order).build())
+            .dependsOn(dependsOn)
+            .outputVariable("step" + order)
+            .build();
+    }
+
+    private static Integer[] after(Integer... stepOrders) {
+        return stepOrders;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.shopify.api.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    private static final long OPEN_MS = 50;
+
+    private final AtomicLong now = new AtomicLong(1_000);
+
+    @Test
+    void opensAfterThresholdAndLetsOneTrialThrough() {
+        CircuitBreaker breaker = openBreaker();
+        now.addAndGet(OPEN_MS - 1);
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        now.addAndGet(1);
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        breaker.recordSuccess();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void cancelledTrialFreesTheNextTrial() {
+        CircuitBreaker breaker = openBreaker();
+        now.addAndGet(OPEN_MS);
+        assertThat(breaker.tryAcquire()).isTrue();
+
+        breaker.recordCancelled();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void trialWithoutOutcomeExpires() {
+        CircuitBreaker breaker = openBreaker();
+        now.addAndGet(OPEN_MS);
+        assertThat(breaker.tryAcquire()).isTrue();
+        now.addAndGet(OPEN_MS - 1);
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        now.addAndGet(1);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void failedTrialReopens() {
+        CircuitBreaker breaker = openBreaker();
+        now.addAndGet(OPEN_MS);
+        assertThat(breaker.tryAcquire()).isTrue();
+
+        breaker.recordFailure();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    private CircuitBreaker openBreaker() {
+        CircuitBreaker breaker = new CircuitBreaker("test", true, 2, OPEN_MS, now::get);
+        breaker.recordFailure();
+        breaker.recordFailure();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        return breaker;
+    }
+}